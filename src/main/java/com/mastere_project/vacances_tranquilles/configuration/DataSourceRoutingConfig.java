@@ -0,0 +1,90 @@
+package com.mastere_project.vacances_tranquilles.configuration;
+
+import com.mastere_project.vacances_tranquilles.util.datasource.ReplicaAwareTransactionManager;
+import com.mastere_project.vacances_tranquilles.util.datasource.ReplicaLagMonitor;
+import com.mastere_project.vacances_tranquilles.util.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Répartition des connexions entre le primaire et un réplica PostgreSQL en streaming
+ * (propriété {@code app.datasource.replica.enabled}). Le primaire reste configuré par
+ * {@code spring.datasource.*} ; le réplica a son URL, ses identifiants et son pool
+ * ({@code app.datasource.replica.hikari.*}). Les transactions en lecture seule vont au réplica
+ * tant que son retard ne dépasse pas {@code app.datasource.replica.max-lag}, les autres au primaire.
+ * Les lectures servies par le réplica ne remplissent pas les caches Hibernate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username}") String username,
+            @Value("${app.datasource.replica.password}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag,
+            MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLag, meterRegistry);
+    }
+
+    /**
+     * Gestionnaire de transactions JPA de l'application, à la place de celui de Spring Boot : il
+     * marque les transactions servies par le réplica.
+     */
+    @Bean
+    public ReplicaAwareTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+            ReplicaLagMonitor replicaLagMonitor, ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ReplicaAwareTransactionManager transactionManager = new ReplicaAwareTransactionManager(entityManagerFactory,
+                replicaLagMonitor);
+        customizers.ifAvailable(customizer -> customizer.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    /**
+     * Source de données de l'application (JPA, Flyway) : la connexion physique n'est ouverte
+     * qu'à la première requête, une fois le caractère lecture seule de la transaction connu.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaLagMonitor, meterRegistry));
+    }
+}
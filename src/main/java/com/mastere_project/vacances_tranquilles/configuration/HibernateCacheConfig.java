@@ -0,0 +1,115 @@
+package com.mastere_project.vacances_tranquilles.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.util.datasource.ReplicaAwareRegionFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de second niveau Hibernate (Caffeine via JCache) pour les utilisateurs et les services,
+ * relus sur presque tous les parcours, et cache des requêtes marquées comme cachables.
+ * Chaque région est créée ici avec sa taille maximale et sa durée de vie ; Hibernate refuse de
+ * démarrer si une région attendue manque. Les entités sont en lecture-écriture : une modification
+ * faite par Hibernate (profil, anonymisation, suppression) remplace ou retire l'entrée à la
+ * validation de la transaction, une requête UPDATE/DELETE en masse vide la région. Une lecture
+ * servie par le réplica ne remplit aucun des deux caches ({@link ReplicaAwareRegionFactory}).
+ * Succès, défauts, insertions et évictions de chaque région sont publiés dans Micrometer
+ * ({@code cache.gets}, {@code cache.puts}, {@code cache.evictions}, étiquette {@code cache}).
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /** Résultats des requêtes cachables (identifiants des entités). */
+    static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    /** Date de dernière modification de chaque table, qui invalide les résultats de requêtes. */
+    static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    /** Une entrée par table : la région ne doit ni expirer ni évincer. */
+    private static final long UPDATE_TIMESTAMPS_MAX_SIZE = 1_000;
+
+    static final List<String> REGIONS = List.of(User.CACHE_REGION, Service.CACHE_REGION, QUERY_RESULTS_REGION,
+            UPDATE_TIMESTAMPS_REGION);
+
+    /**
+     * Gestionnaire de cache propre à ce contexte : l'URI unique évite que deux contextes Spring
+     * (tests) partagent les régions du fournisseur Caffeine.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.users.max-size:10000}") long usersMaxSize,
+            @Value("${app.cache.users.ttl:PT10M}") Duration usersTtl,
+            @Value("${app.cache.services.max-size:10000}") long servicesMaxSize,
+            @Value("${app.cache.services.ttl:PT10M}") Duration servicesTtl,
+            @Value("${app.cache.query-results.max-size:10000}") long queryResultsMaxSize,
+            @Value("${app.cache.query-results.ttl:PT5M}") Duration queryResultsTtl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:vacances-tranquilles:hibernate:" + UUID.randomUUID()),
+                        getClass().getClassLoader());
+        cacheManager.createCache(User.CACHE_REGION, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(Service.CACHE_REGION, region(servicesMaxSize, servicesTtl));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(queryResultsMaxSize, queryResultsTtl));
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(UPDATE_TIMESTAMPS_MAX_SIZE, null));
+        return cacheManager;
+    }
+
+    /**
+     * Branche Hibernate sur les régions créées ci-dessus ({@code app.cache.enabled=false} désactive
+     * les deux caches).
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager,
+            @Value("${app.cache.enabled:true}") boolean enabled) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            if (enabled) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, new ReplicaAwareRegionFactory());
+                properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> REGIONS.forEach(name ->
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name)));
+    }
+
+    /**
+     * Région bornée en taille, avec statistiques ; les entrées sont stockées par référence
+     * (Hibernate met en cache des copies déshydratées).
+     *
+     * @param maxSize le nombre maximal d'entrées
+     * @param ttl     la durée de vie depuis l'écriture, ou null pour aucune expiration
+     */
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,41 @@
+package com.mastere_project.vacances_tranquilles.configuration;
+
+import com.mastere_project.vacances_tranquilles.model.LoginThrottlePolicy;
+import com.mastere_project.vacances_tranquilles.model.enums.LoginThrottleStore;
+import com.mastere_project.vacances_tranquilles.repository.LoginAttemptRepository;
+import com.mastere_project.vacances_tranquilles.service.LoginThrottleService;
+import com.mastere_project.vacances_tranquilles.service.impl.DatabaseLoginThrottleService;
+import com.mastere_project.vacances_tranquilles.service.impl.InMemoryLoginThrottleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Choisit le stockage de la limitation des tentatives de connexion
+ * (propriété {@code app.security.login-throttle.store}) : en mémoire pour un nœud unique,
+ * en base dès que plusieurs nœuds se partagent le trafic.
+ */
+@Configuration
+public class LoginThrottleConfig {
+
+    @Bean
+    public LoginThrottleService loginThrottleService(
+            @Value("${app.security.login-throttle.store:memory}") LoginThrottleStore store,
+            @Value("${app.security.login-throttle.max-attempts:5}") int maxAttempts,
+            @Value("${app.security.login-throttle.window:PT10M}") Duration window,
+            @Value("${app.security.login-throttle.block-duration:PT10M}") Duration blockDuration,
+            @Value("${app.security.login-throttle.max-keys:100000}") int maxKeys,
+            LoginAttemptRepository loginAttemptRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        LoginThrottlePolicy policy = new LoginThrottlePolicy(maxAttempts, window, blockDuration);
+        if (store == LoginThrottleStore.DATABASE) {
+            return new DatabaseLoginThrottleService(loginAttemptRepository, transactionManager, policy, meterRegistry);
+        }
+        return new InMemoryLoginThrottleService(policy, maxKeys, meterRegistry);
+    }
+}
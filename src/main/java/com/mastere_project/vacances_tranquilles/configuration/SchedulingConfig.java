@@ -0,0 +1,12 @@
+package com.mastere_project.vacances_tranquilles.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active l'exécution des tâches planifiées (clôture automatique des réservations).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,13 +1,20 @@
 package com.mastere_project.vacances_tranquilles.configuration;
 
 import org.springframework.security.config.Customizer;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
+import java.time.Duration;
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -23,8 +30,15 @@ import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 
 import com.mastere_project.vacances_tranquilles.util.jwt.JwtAuthenticationFilter;
 import com.mastere_project.vacances_tranquilles.util.jwt.JwtConfig;
+import com.mastere_project.vacances_tranquilles.util.password.BCryptCostCalibrator;
+import com.mastere_project.vacances_tranquilles.util.password.BoundedPasswordEncoder;
+import com.mastere_project.vacances_tranquilles.util.ratelimit.RateLimitFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Configuration de la sécurité Spring Security pour l'application.
@@ -42,6 +56,8 @@ import lombok.RequiredArgsConstructor;
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
     /**
      * Origines autorisées pour les requêtes CORS.
      * Configurée via {@code app.cors.allowed-origins} (variable d'environnement
@@ -56,16 +72,43 @@ public class SecurityConfig {
     @Value("${monitoring.password}")
     private String monitoringPassword;
 
+    /** Nombre de threads de hachage des mots de passe (0 : un par cœur). */
+    @Value("${app.security.password.threads:0}")
+    private int passwordHashThreads;
+
+    /** Nombre de hachages pouvant attendre un thread avant refus en 503. */
+    @Value("${app.security.password.queue-capacity:64}")
+    private int passwordHashQueueCapacity;
+
+    /** Coût BCrypt imposé (0 : calibré au démarrage selon la latence cible). */
+    @Value("${app.security.password.bcrypt-cost:0}")
+    private int bcryptCost;
+
+    /** Latence visée pour un hachage lors de la calibration du coût BCrypt. */
+    @Value("${app.security.password.target-latency:PT0.1S}")
+    private Duration passwordHashTargetLatency;
+
     private final JwtConfig jwt;
 
+    private final RateLimitFilter rateLimitFilter;
+    private final PasswordEncoder monitoringPasswordEncoder = new BCryptPasswordEncoder();
+
     /**
-     * Fournit un encodeur de mots de passe utilisant BCrypt.
+     * Fournit un encodeur de mots de passe utilisant BCrypt, exécuté sur un pool dédié et borné.
+     * Les hachages existants restent vérifiables quel que soit le coût retenu, celui-ci étant
+     * inscrit dans chaque hachage.
      * 
+     * @param meterRegistry le registre des métriques du pool
      * @return PasswordEncoder configuré avec BCrypt
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int cost = bcryptCost > 0 ? bcryptCost : BCryptCostCalibrator.calibrate(passwordHashTargetLatency);
+        int threads = passwordHashThreads > 0 ? passwordHashThreads : Runtime.getRuntime().availableProcessors();
+        logger.info("Hachage des mots de passe : BCrypt coût {}, {} threads, file de {}",
+                cost, threads, passwordHashQueueCapacity);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost), threads, passwordHashQueueCapacity,
+                meterRegistry);
     }
 
     /**
@@ -99,7 +142,11 @@ public class SecurityConfig {
 
     public Customizer<AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry> authorizeRequests() {
         return auth -> auth
+                // Le redispatch asynchrone (fin d'un flux SSE) concerne une requête déjà autorisée
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                // Appelé par Stripe sans JWT : l'authenticité est vérifiée par la signature du corps
+                .requestMatchers(HttpMethod.POST, "/api/stripe/webhook").permitAll()
                 .anyRequest().authenticated();
     }
 
@@ -109,6 +156,7 @@ public class SecurityConfig {
         http
             .securityMatcher("/actuator/prometheus")
             .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+            .authenticationManager(monitoringAuthenticationManager())
             .httpBasic(Customizer.withDefaults())
             .csrf(csrf -> csrf.disable());
 
@@ -130,7 +178,9 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authorizeRequests())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+            // Limitation de débit avant l'authentification : les routes anonymes sont aussi protégées
+            .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -140,9 +190,22 @@ public class SecurityConfig {
 
         UserDetails user = User.builder()
             .username(monitoringUsername)
-            .password(passwordEncoder().encode(monitoringPassword))
+            .password(monitoringPasswordEncoder.encode(monitoringPassword))
             .roles("MONITORING")
             .build();
         return new InMemoryUserDetailsManager(user);
     }
+
+    /**
+     * Authentification Basic du scraping Prometheus, avec son propre encodeur : les scrapes ne
+     * consomment pas les places du pool borné réservé aux connexions des utilisateurs.
+     *
+     * @return le gestionnaire d'authentification de la chaîne Prometheus
+     */
+    AuthenticationManager monitoringAuthenticationManager() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(monitoringUserDetailsService());
+        provider.setPasswordEncoder(monitoringPasswordEncoder);
+        return new ProviderManager(provider);
+    }
 }
\ No newline at end of file
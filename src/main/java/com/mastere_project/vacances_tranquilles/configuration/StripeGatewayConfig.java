@@ -0,0 +1,72 @@
+package com.mastere_project.vacances_tranquilles.configuration;
+
+import com.mastere_project.vacances_tranquilles.model.enums.StripeGatewayMode;
+import com.mastere_project.vacances_tranquilles.service.StripeGateway;
+import com.mastere_project.vacances_tranquilles.service.impl.FakeStripeGateway;
+import com.mastere_project.vacances_tranquilles.service.impl.StripeSdkGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Choisit le transport des appels Stripe (propriété {@code app.stripe.gateway}) : le SDK en
+ * production, un transport simulé pour les tests de charge sans réseau. Les délais du SDK sont
+ * alignés sur le délai global du client ({@code app.stripe.call-timeout}) : l'appel bloquant ne
+ * s'interrompt pas, c'est son délai de lecture qui libère le thread de la cloison.
+ */
+@Configuration
+public class StripeGatewayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripeGatewayConfig.class);
+
+    @Bean
+    public StripeGateway stripeGateway(
+            @Value("${app.stripe.gateway:sdk}") StripeGatewayMode mode,
+            @Value("${stripe.api.key:}") String apiKey,
+            @Value("${app.stripe.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${app.stripe.read-timeout:PT8S}") Duration readTimeout,
+            @Value("${app.stripe.max-network-retries:0}") int maxNetworkRetries,
+            @Value("${app.stripe.call-timeout:PT10S}") Duration callTimeout,
+            @Value("${app.stripe.fake.latency:PT0.2S}") Duration fakeLatency,
+            @Value("${app.stripe.fake.failure-rate:0}") double fakeFailureRate,
+            @Value("${app.stripe.fake.max-sessions:10000}") int fakeMaxSessions) {
+        if (mode == StripeGatewayMode.FAKE) {
+            logger.warn("Transport Stripe simulé actif : aucun paiement réel n'est créé");
+            return new FakeStripeGateway(fakeLatency, fakeFailureRate, fakeMaxSessions);
+        }
+        return new StripeSdkGateway(apiKey, connectTimeout,
+                alignedReadTimeout(connectTimeout, readTimeout, maxNetworkRetries, callTimeout), maxNetworkRetries);
+    }
+
+    /**
+     * Réduit au besoin le délai de lecture pour que l'appel au SDK, tentatives réseau comprises,
+     * se termine dans le délai global : au-delà, l'appelant a déjà reçu son erreur et le thread
+     * de la cloison resterait bloqué sur la socket.
+     *
+     * @param connectTimeout    le délai de connexion du SDK
+     * @param readTimeout       le délai de lecture configuré
+     * @param maxNetworkRetries les nouvelles tentatives réseau du SDK
+     * @param callTimeout       le délai global d'un appel
+     * @return le délai de lecture à passer au SDK
+     * @throws IllegalStateException si le délai de connexion seul dépasse déjà le délai global
+     */
+    static Duration alignedReadTimeout(Duration connectTimeout, Duration readTimeout, int maxNetworkRetries,
+            Duration callTimeout) {
+        Duration perAttempt = callTimeout.dividedBy(maxNetworkRetries + 1L);
+        Duration maxReadTimeout = perAttempt.minus(connectTimeout);
+        if (maxReadTimeout.isNegative() || maxReadTimeout.isZero()) {
+            throw new IllegalStateException("app.stripe.connect-timeout (" + connectTimeout + ") et "
+                    + (maxNetworkRetries + 1) + " tentative(s) dépassent app.stripe.call-timeout (" + callTimeout + ")");
+        }
+        if (readTimeout.compareTo(maxReadTimeout) > 0) {
+            logger.warn("app.stripe.read-timeout ({}) ramené à {} pour rester dans app.stripe.call-timeout ({})",
+                    readTimeout, maxReadTimeout, callTimeout);
+            return maxReadTimeout;
+        }
+        return readTimeout;
+    }
+}
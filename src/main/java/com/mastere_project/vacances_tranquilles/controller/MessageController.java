@@ -4,9 +4,13 @@ import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
 import com.mastere_project.vacances_tranquilles.dto.MessageResponseDTO;
 import com.mastere_project.vacances_tranquilles.exception.ErrorEntity;
 import com.mastere_project.vacances_tranquilles.service.MessageService;
+import com.mastere_project.vacances_tranquilles.service.MessageStreamService;
+import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.logging.Logger;
@@ -21,6 +25,7 @@ public class MessageController {
 
     private static final String ERROR_TYPE = "ERROR";
     private final MessageService messageService;
+    private final MessageStreamService messageStreamService;
     private final Logger log = Logger.getLogger(MessageController.class.getName());
 
     /**
@@ -41,15 +46,24 @@ public class MessageController {
     }
 
     /**
-     * Récupère tous les messages d'une conversation et marque comme lus ceux envoyés par l'autre utilisateur.
+     * Récupère les messages d'une conversation et marque comme lus ceux envoyés par l'autre utilisateur.
+     * Sans paramètre, retourne tout l'historique ; {@code afterId} retourne uniquement les nouveaux
+     * messages et {@code beforeId} permet de remonter l'historique par lots de {@code limit} messages.
      *
      * @param conversationId l'identifiant de la conversation dont on veut les messages
+     * @param afterId        l'identifiant du dernier message connu (optionnel)
+     * @param beforeId       l'identifiant du plus ancien message connu (optionnel)
+     * @param limit          le nombre maximal de messages retournés (optionnel)
      * @return une réponse contenant la liste des messages de la conversation
      */
     @GetMapping("/conversation/{conversationId}")
-    public ResponseEntity<Object> getMessagesByConversation(@PathVariable Long conversationId) {
+    public ResponseEntity<Object> getMessagesByConversation(@PathVariable Long conversationId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<MessageResponseDTO> messages = messageService.getMessagesByConversationId(conversationId);
+            List<MessageResponseDTO> messages = messageService.getMessagesByConversationId(conversationId,
+                    afterId, beforeId, limit);
             
             return ResponseEntity.ok(messages);
         } catch (Exception e) {
@@ -57,6 +71,23 @@ public class MessageController {
         }
     }
 
+    /**
+     * Ouvre un flux Server-Sent Events des messages reçus et envoyés par l'utilisateur connecté,
+     * toutes conversations confondues (événements {@code message} et {@code message-updated}).
+     * Remplace l'interrogation périodique : l'historique n'est à charger qu'à l'ouverture
+     * d'une conversation ou après une reconnexion. La livraison n'est pas garantie : après une
+     * reconnexion, le client rattrape les messages manqués par
+     * {@code GET /api/messages/conversation/{conversationId}?afterId=} avec le dernier identifiant
+     * reçu. En déploiement multi-nœuds, les messages publiés sur un autre nœud ne sont reçus en
+     * direct qu'avec {@code app.messages.stream.bus=postgres} ; sinon seul ce rattrapage les apporte.
+     *
+     * @return le flux d'événements
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessages() {
+        return messageStreamService.subscribe(SecurityUtils.getCurrentUserId());
+    }
+
     /**
      * Modifie un message existant (seul l'auteur peut modifier).
      *
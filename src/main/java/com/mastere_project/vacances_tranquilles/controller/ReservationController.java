@@ -1,6 +1,7 @@
 package com.mastere_project.vacances_tranquilles.controller;
 
 import com.mastere_project.vacances_tranquilles.dto.ReservationDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReservationPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
 import com.mastere_project.vacances_tranquilles.dto.UpdateReservationStatusDTO;
 import com.mastere_project.vacances_tranquilles.exception.MissingReservationDataException;
@@ -8,12 +9,14 @@ import com.mastere_project.vacances_tranquilles.exception.ReservationNotFoundExc
 import com.mastere_project.vacances_tranquilles.exception.ServiceNotFoundException;
 import com.mastere_project.vacances_tranquilles.exception.UnauthorizedReservationAccessException;
 import com.mastere_project.vacances_tranquilles.exception.InvalidReservationStatusTransitionException;
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 import com.mastere_project.vacances_tranquilles.service.ReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDate;
 
 /**
  * Contrôleur REST pour la gestion des réservations.
@@ -35,19 +38,31 @@ public class ReservationController {
     private final ReservationService reservationService;
 
     /**
-     * Récupère toutes les réservations de l'utilisateur authentifié.
+     * Récupère une page de réservations de l'utilisateur authentifié.
      * L'utilisateur peut être soit client soit prestataire selon son rôle.
      * Le système détermine automatiquement le type d'utilisateur et retourne
-     * les réservations appropriées (réservations du client ou réservations du prestataire).
+     * les réservations appropriées (réservations du client ou réservations du prestataire),
+     * de la plus récente à la plus ancienne.
+     * Pour obtenir la page suivante, renvoyer le curseur reçu dans {@code nextCursor}.
      *
-     * @return ResponseEntity contenant la liste des réservations de l'utilisateur
+     * @param status filtre optionnel sur le statut
+     * @param from date de début optionnelle (incluse, format yyyy-MM-dd)
+     * @param to date de fin optionnelle (incluse, format yyyy-MM-dd)
+     * @param cursor curseur de la page précédente, absent pour la première page
+     * @param size nombre maximal de réservations par page (20 par défaut, 100 au maximum)
+     * @return ResponseEntity contenant la page de réservations de l'utilisateur
      * @throws UnauthorizedReservationAccessException si l'utilisateur n'est pas autorisé
      */
     @GetMapping
-    public ResponseEntity<List<ReservationResponseDTO>> getAllReservations() {
-        List<ReservationResponseDTO> reservations = reservationService.getAllReservations();
+    public ResponseEntity<ReservationPageDTO> getReservations(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ReservationPageDTO page = reservationService.getReservations(status, from, to, cursor, size);
         
-        return ResponseEntity.ok(reservations);
+        return ResponseEntity.ok(page);
     }
 
     /**
@@ -1,6 +1,8 @@
 package com.mastere_project.vacances_tranquilles.controller;
 
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReviewPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewWithReviewerDTO;
 import com.mastere_project.vacances_tranquilles.service.ReviewService;
 import lombok.RequiredArgsConstructor;
@@ -48,51 +50,84 @@ public class ReviewController {
     }
 
     /**
-     * Reviews écrites par l'utilisateur authentifié
+     * Reviews écrites par l'utilisateur authentifié, de la plus récente à la plus ancienne.
+     * Pour obtenir la page suivante, renvoyer le curseur reçu dans {@code nextCursor}.
      * 
-     * @return liste des avis
+     * @param cursor curseur de la page précédente, absent pour la première page
+     * @param size nombre maximal d'avis par page (20 par défaut, 100 au maximum)
+     * @return page d'avis
      */
     @GetMapping("/writer")
-    public ResponseEntity<List<ReviewDTO>> getReviewsWrittenByUser() {
-        List<ReviewDTO> reviews = reviewService.getReviewsWrittenByUser();
+    public ResponseEntity<ReviewPageDTO<ReviewDTO>> getReviewsWrittenByUser(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ReviewPageDTO<ReviewDTO> reviews = reviewService.getReviewsWrittenByUser(cursor, size);
         
         return ResponseEntity.ok(reviews);
     }
 
     /**
-     * Reviews reçues par l'utilisateur authentifié
+     * Reviews reçues par l'utilisateur authentifié, de la plus récente à la plus ancienne.
      * 
-     * @return liste des avis
+     * @param cursor curseur de la page précédente, absent pour la première page
+     * @param size nombre maximal d'avis par page (20 par défaut, 100 au maximum)
+     * @return page d'avis
      */
     @GetMapping("/received")
-    public ResponseEntity<List<ReviewDTO>> getReviewsReceivedByUser() {
-        List<ReviewDTO> reviews = reviewService.getReviewsReceivedByUser();
+    public ResponseEntity<ReviewPageDTO<ReviewDTO>> getReviewsReceivedByUser(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ReviewPageDTO<ReviewDTO> reviews = reviewService.getReviewsReceivedByUser(cursor, size);
         
         return ResponseEntity.ok(reviews);
     }
 
     /**
-     * Reviews reçues par un prestataire spécifique
+     * Reviews reçues par un prestataire spécifique, de la plus récente à la plus ancienne.
      * 
      * @param providerId l'identifiant du prestataire
-     * @return liste des avis reçus par le prestataire
+     * @param cursor curseur de la page précédente, absent pour la première page
+     * @param size nombre maximal d'avis par page (20 par défaut, 100 au maximum)
+     * @return page d'avis reçus par le prestataire
      */
     @GetMapping("/provider/{providerId}")
-    public ResponseEntity<List<ReviewDTO>> getReviewsByProviderId(@PathVariable Long providerId) {
-        List<ReviewDTO> reviews = reviewService.getReviewsByProviderId(providerId);
+    public ResponseEntity<ReviewPageDTO<ReviewDTO>> getReviewsByProviderId(@PathVariable Long providerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ReviewPageDTO<ReviewDTO> reviews = reviewService.getReviewsByProviderId(providerId, cursor, size);
         
         return ResponseEntity.ok(reviews);
     }
 
     /**
-     * Reviews reçues par un prestataire spécifique avec les informations du reviewer
+     * Résumé des notes reçues par un prestataire spécifique
      * 
      * @param providerId l'identifiant du prestataire
-     * @return liste des avis reçus par le prestataire avec les informations du reviewer
+     * @return nombre d'avis, moyenne et répartition des notes
+     */
+    @GetMapping("/provider/{providerId}/rating")
+    public ResponseEntity<RatingSummaryDTO> getRatingByProviderId(@PathVariable Long providerId) {
+        RatingSummaryDTO rating = reviewService.getRatingByProviderId(providerId);
+        
+        return ResponseEntity.ok(rating);
+    }
+
+    /**
+     * Reviews reçues par un prestataire spécifique avec les informations du reviewer,
+     * de la plus récente à la plus ancienne.
+     * 
+     * @param providerId l'identifiant du prestataire
+     * @param cursor curseur de la page précédente, absent pour la première page
+     * @param size nombre maximal d'avis par page (20 par défaut, 100 au maximum)
+     * @return page d'avis reçus par le prestataire avec les informations du reviewer
      */
     @GetMapping("/provider/{providerId}/with-reviewer")
-    public ResponseEntity<List<ReviewWithReviewerDTO>> getReviewsWithReviewerByProviderId(@PathVariable Long providerId) {
-        List<ReviewWithReviewerDTO> reviews = reviewService.getReviewsWithReviewerByProviderId(providerId);
+    public ResponseEntity<ReviewPageDTO<ReviewWithReviewerDTO>> getReviewsWithReviewerByProviderId(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        ReviewPageDTO<ReviewWithReviewerDTO> reviews =
+                reviewService.getReviewsWithReviewerByProviderId(providerId, cursor, size);
         
         return ResponseEntity.ok(reviews);
     }
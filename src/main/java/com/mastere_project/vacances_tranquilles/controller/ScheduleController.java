@@ -0,0 +1,114 @@
+package com.mastere_project.vacances_tranquilles.controller;
+
+import com.mastere_project.vacances_tranquilles.dto.AvailabilityWindowDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleExceptionDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleRuleDTO;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleExceptionType;
+import com.mastere_project.vacances_tranquilles.service.ScheduleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Contrôleur REST pour la gestion du planning des prestataires.
+ * Permet de déclarer des règles de disponibilité récurrentes, des exceptions
+ * ponctuelles et de consulter les disponibilités déclarées d'un prestataire.
+ */
+@RestController
+@RequestMapping("/api/schedules")
+@RequiredArgsConstructor
+public class ScheduleController {
+
+    private final ScheduleService scheduleService;
+
+    /**
+     * Crée une règle de disponibilité récurrente pour le prestataire connecté.
+     *
+     * @param dto la règle à créer
+     * @return la règle créée
+     */
+    @PostMapping("/rules")
+    public ResponseEntity<ScheduleRuleDTO> createRule(@RequestBody ScheduleRuleDTO dto) {
+        return ResponseEntity.ok(scheduleService.createRule(dto));
+    }
+
+    /**
+     * Récupère les règles du prestataire connecté.
+     *
+     * @return la liste des règles
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<List<ScheduleRuleDTO>> getMyRules() {
+        return ResponseEntity.ok(scheduleService.getMyRules());
+    }
+
+    /**
+     * Supprime une règle du prestataire connecté.
+     *
+     * @param id l'identifiant de la règle
+     * @return une réponse sans contenu si la suppression est réussie
+     */
+    @DeleteMapping("/rules/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        scheduleService.deleteRule(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Crée une exception ponctuelle (disponibilité supplémentaire ou plage bloquée).
+     *
+     * @param dto l'exception à créer
+     * @return l'exception créée
+     */
+    @PostMapping("/exceptions")
+    public ResponseEntity<ScheduleExceptionDTO> createException(@RequestBody ScheduleExceptionDTO dto) {
+        return ResponseEntity.ok(scheduleService.createException(dto));
+    }
+
+    /**
+     * Récupère les exceptions du prestataire connecté sur une période.
+     *
+     * @param from premier jour (inclus, format yyyy-MM-dd)
+     * @param to   dernier jour (inclus, format yyyy-MM-dd)
+     * @return la liste des exceptions
+     */
+    @GetMapping("/exceptions")
+    public ResponseEntity<List<ScheduleExceptionDTO>> getMyExceptions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(scheduleService.getMyExceptions(from, to));
+    }
+
+    /**
+     * Supprime une exception du prestataire connecté.
+     *
+     * @param id   l'identifiant de l'exception
+     * @param type le type de l'exception
+     * @return une réponse sans contenu si la suppression est réussie
+     */
+    @DeleteMapping("/exceptions/{id}")
+    public ResponseEntity<Void> deleteException(@PathVariable Long id, @RequestParam ScheduleExceptionType type) {
+        scheduleService.deleteException(id, type);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Consulte les plages de disponibilité déclarées d'un prestataire sur une période.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param from       premier jour (inclus, format yyyy-MM-dd)
+     * @param to         dernier jour (inclus, format yyyy-MM-dd)
+     * @return les plages de disponibilité, par ordre chronologique
+     */
+    @GetMapping("/providers/{providerId}/availability")
+    public ResponseEntity<List<AvailabilityWindowDTO>> getProviderAvailability(
+            @PathVariable Long providerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(scheduleService.getProviderAvailability(providerId, from, to));
+    }
+}
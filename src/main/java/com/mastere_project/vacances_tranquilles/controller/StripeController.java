@@ -1,16 +1,21 @@
 package com.mastere_project.vacances_tranquilles.controller;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.mastere_project.vacances_tranquilles.dto.ConfirmReservationRequestDTO;
 import com.mastere_project.vacances_tranquilles.dto.StripeCheckoutSessionRequestDTO;
+import com.mastere_project.vacances_tranquilles.model.enums.PaymentConfirmationStatus;
 import com.mastere_project.vacances_tranquilles.service.StripeService;
+import com.mastere_project.vacances_tranquilles.service.StripeWebhookService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,17 +25,32 @@ import lombok.RequiredArgsConstructor;
 public class StripeController {
 
     private final StripeService stripeService;
+    private final StripeWebhookService stripeWebhookService;
 
     @PostMapping("/create-checkout-session")
-    public ResponseEntity<Map<String, String>> createCheckoutSession(@RequestBody StripeCheckoutSessionRequestDTO dto) {
-        Map<String, String> response = stripeService.createCheckoutSession(dto);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<Map<String, String>>> createCheckoutSession(
+            @RequestBody StripeCheckoutSessionRequestDTO dto) {
+        // Réponse asynchrone : le thread de requête est libéré pendant l'appel à Stripe
+        return stripeService.createCheckoutSession(dto).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/confirm-reservation")
-    public ResponseEntity<Void> confirmReservation(@RequestBody ConfirmReservationRequestDTO dto) {
-    stripeService.confirmReservation(dto.getSessionId());
-    return ResponseEntity.ok().build();
-}
+    public ResponseEntity<Map<String, String>> confirmReservation(@RequestBody ConfirmReservationRequestDTO dto) {
+        PaymentConfirmationStatus status = stripeService.confirmReservation(dto.getSessionId());
+        Map<String, String> body = Map.of("status", status.name());
+        return switch (status) {
+            case CONFIRMED -> ResponseEntity.ok(body);
+            // Le webhook n'a pas encore été traité : le client réinterroge
+            case PENDING -> ResponseEntity.accepted().body(body);
+            case FAILED -> ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+        };
+    }
+
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> webhook(@RequestBody String payload,
+            @RequestHeader(value = "Stripe-Signature", required = false) String signature) {
+        stripeWebhookService.receive(payload, signature);
+        return ResponseEntity.ok().build();
+    }
 
 }
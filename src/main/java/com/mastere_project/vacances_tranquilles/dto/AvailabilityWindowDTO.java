@@ -0,0 +1,22 @@
+package com.mastere_project.vacances_tranquilles.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO représentant une plage de disponibilité d'un prestataire pour une journée,
+ * issue du développement de ses règles récurrentes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityWindowDTO {
+
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
@@ -1,6 +1,7 @@
 package com.mastere_project.vacances_tranquilles.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 public record ConversationSummaryDto(
@@ -8,5 +9,8 @@ public record ConversationSummaryDto(
         String otherUserName,
         String serviceTitle,
         LocalDate reservationDate,
-        LocalTime startTime
+        LocalTime startTime,
+        long unreadCount,
+        String lastMessagePreview,
+        LocalDateTime lastActivityAt
 ) {}
\ No newline at end of file
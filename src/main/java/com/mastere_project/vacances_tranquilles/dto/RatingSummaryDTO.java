@@ -0,0 +1,21 @@
+package com.mastere_project.vacances_tranquilles.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO résumant les notes reçues par un utilisateur.
+ * La répartition contient cinq entrées : nombre d'avis à 1 étoile, puis 2, ... jusqu'à 5.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDTO {
+    private long reviewCount;
+    /** Moyenne arrondie au centième, null si aucun avis. */
+    private Double average;
+    private List<Long> histogram;
+}
@@ -0,0 +1,20 @@
+package com.mastere_project.vacances_tranquilles.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO d'une page de réservations.
+ * Le curseur de la page suivante est opaque pour le frontend et doit être renvoyé
+ * tel quel pour obtenir la suite ; il vaut null sur la dernière page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationPageDTO {
+    private List<ReservationResponseDTO> content;
+    private String nextCursor;
+}
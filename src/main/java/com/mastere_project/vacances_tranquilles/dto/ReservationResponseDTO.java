@@ -2,15 +2,19 @@ package com.mastere_project.vacances_tranquilles.dto;
 
 import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 /**
  * DTO pour la réponse des réservations au frontend.
  * Ne contient que les informations essentielles à exposer.
  */
 @Data
+@NoArgsConstructor
 public class ReservationResponseDTO {
     private Long id;
     private ReservationStatus status; 
@@ -34,4 +38,37 @@ public class ReservationResponseDTO {
     
     // ID de la conversation si elle existe
     private Long conversationId;
-} 
\ No newline at end of file
+
+    /**
+     * Constructeur utilisé par la projection JPQL des listes paginées.
+     * Reçoit les colonnes brutes et applique les mêmes conversions que ReservationMapperImpl.
+     */
+    public ReservationResponseDTO(Long id, ReservationStatus status, LocalDate reservationDate,
+            LocalTime startTime, LocalTime endTime, BigDecimal totalPrice,
+            Long clientId, String clientFirstName, String clientLastName, String clientEmail,
+            Long providerId, String providerFirstName, String providerLastName, String providerEmail,
+            Long serviceId, String serviceName, String serviceDescription, Long conversationId) {
+        this.id = id;
+        this.status = status;
+        if (reservationDate != null) {
+            this.reservationDate = reservationDate.atStartOfDay();
+            if (startTime != null) {
+                this.startDate = reservationDate.atTime(startTime);
+            }
+            if (endTime != null) {
+                this.endDate = reservationDate.atTime(endTime);
+            }
+        }
+        this.totalPrice = totalPrice;
+        this.clientId = clientId;
+        this.clientName = clientFirstName + " " + clientLastName;
+        this.clientEmail = clientEmail;
+        this.providerId = providerId;
+        this.providerName = providerFirstName + " " + providerLastName;
+        this.providerEmail = providerEmail;
+        this.serviceId = serviceId;
+        this.serviceName = serviceName;
+        this.serviceDescription = serviceDescription;
+        this.conversationId = conversationId;
+    }
+}
@@ -1,11 +1,13 @@
 package com.mastere_project.vacances_tranquilles.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 public class ReviewDTO {
     private Long id;
     private int note;
@@ -0,0 +1,22 @@
+package com.mastere_project.vacances_tranquilles.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO d'une page d'avis, du plus récent au plus ancien.
+ * Le curseur de la page suivante est opaque pour le frontend et doit être renvoyé
+ * tel quel pour obtenir la suite ; il vaut null sur la dernière page.
+ *
+ * @param <T> le type d'avis de la page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPageDTO<T> {
+    private List<T> content;
+    private String nextCursor;
+}
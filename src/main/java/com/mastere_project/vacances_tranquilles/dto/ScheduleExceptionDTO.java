@@ -0,0 +1,23 @@
+package com.mastere_project.vacances_tranquilles.dto;
+
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleExceptionType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO représentant une exception ponctuelle au planning d'un prestataire :
+ * plage de disponibilité supplémentaire ou plage bloquée pour une journée.
+ */
+@Data
+@NoArgsConstructor
+public class ScheduleExceptionDTO {
+
+    private Long id;
+    private ScheduleExceptionType type;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
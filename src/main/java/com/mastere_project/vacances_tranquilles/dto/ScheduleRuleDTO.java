@@ -0,0 +1,24 @@
+package com.mastere_project.vacances_tranquilles.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * DTO représentant une règle de disponibilité récurrente d'un prestataire.
+ */
+@Data
+@NoArgsConstructor
+public class ScheduleRuleDTO {
+
+    private Long id;
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+}
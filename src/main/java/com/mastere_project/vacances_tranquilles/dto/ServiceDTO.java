@@ -18,4 +18,6 @@ public class ServiceDTO {
     private String category;
     private BigDecimal price;
     private Long providerId;
+    /** Résumé des notes du prestataire, renseigné par la recherche de services. */
+    private RatingSummaryDTO providerRating;
 }
@@ -3,11 +3,9 @@ package com.mastere_project.vacances_tranquilles.dto;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-
 /**
  * DTO pour l'affichage des informations de base d'un utilisateur.
- * Contient le nom, prénom et les reviews reçues.
+ * Contient le nom, prénom et le résumé des notes reçues.
  */
 @Data
 @NoArgsConstructor
@@ -15,5 +13,5 @@ public class UserBasicInfoDTO {
 
     private String firstName;
     private String lastName;
-    private List<ReviewDTO> reviews;
+    private RatingSummaryDTO rating;
 } 
\ No newline at end of file
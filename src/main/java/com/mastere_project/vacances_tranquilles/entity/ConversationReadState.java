@@ -0,0 +1,23 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * État de lecture d'une conversation par un participant : identifiant du dernier message lu.
+ * Tout message de l'autre participant d'identifiant inférieur ou égal est considéré comme lu,
+ * ce qui évite de mettre à jour chaque message à la lecture.
+ */
+@Entity
+@Table(name = "conversation_read_states")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationReadState {
+
+    @EmbeddedId
+    private ConversationReadStateId id;
+
+    @Column(nullable = false)
+    private long lastReadMessageId;
+}
@@ -0,0 +1,23 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Clé de l'état de lecture : une conversation et l'un de ses participants.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationReadStateId implements Serializable {
+
+    @Column(name = "conversation_id")
+    private Long conversationId;
+
+    @Column(name = "user_id")
+    private Long userId;
+}
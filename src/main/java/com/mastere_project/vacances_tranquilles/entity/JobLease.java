@@ -0,0 +1,38 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Bail d'exécution d'une tâche planifiée.
+ * Une ligne par tâche : le nœud propriétaire du bail est le seul à exécuter la
+ * tâche jusqu'à l'expiration du bail. La ligne conserve aussi l'avancement de la
+ * tâche, pour les tâches qui traitent une journée après l'autre.
+ */
+@Entity
+@Table(name = "job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 200)
+    private String owner;
+
+    @Column(nullable = false)
+    private Instant lockedUntil;
+
+    /** Dernière journée entièrement traitée par la tâche, null si aucune. */
+    private LocalDate completedThrough;
+
+    public JobLease(String name, String owner, Instant lockedUntil) {
+        this(name, owner, lockedUntil, null);
+    }
+}
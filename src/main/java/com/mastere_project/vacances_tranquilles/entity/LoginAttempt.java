@@ -0,0 +1,34 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Compteur des échecs de connexion d'une clé (email), partagé entre les nœuds.
+ * La ligne peut être supprimée dès {@code expiresAt} : fenêtre d'échecs close et blocage terminé.
+ */
+@Entity
+@Table(name = "login_attempts",
+        indexes = @Index(name = "idx_login_attempts_expires_at", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAttempt {
+
+    @Id
+    @Column(length = 320)
+    private String throttleKey;
+
+    @Column(nullable = false)
+    private int failures;
+
+    @Column(nullable = false)
+    private Instant windowStart;
+
+    private Instant blockedUntil;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
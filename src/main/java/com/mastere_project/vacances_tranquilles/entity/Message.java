@@ -8,21 +8,32 @@ import java.time.LocalDateTime;
  * Entité JPA représentant un message échangé dans une conversation.
  */
 @Entity
-@Table(name = "messages")
+@NamedEntityGraph(name = Message.GRAPH_CONVERSATION, attributeNodes = @NamedAttributeNode("conversation"))
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_conversation_keyset", columnList = "conversation_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Message {
 
+    /** Conversation du message : diffusion aux participants après une modification. */
+    public static final String GRAPH_CONVERSATION = "Message.conversation";
+
+    /**
+     * Identifiants tirés d'une séquence par blocs de 50 (optimiseur pooled-lo) : contrairement à une
+     * colonne identité, Hibernate connaît l'id avant l'insertion et peut grouper les INSERT.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "conversation_id")
     private Conversation conversation;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "sender_id")
     private User sender;
 
@@ -32,6 +43,10 @@ public class Message {
     @Column(nullable = false)
     private LocalDateTime sentAt = LocalDateTime.now();
 
+    /**
+     * Ancien indicateur de lecture, qui n'est plus mis à jour : l'état de lecture est porté par
+     * {@link ConversationReadState}. Conservé pour initialiser ces états sur une base existante.
+     */
     @Column(nullable = false)
     private boolean read = false;
 }
\ No newline at end of file
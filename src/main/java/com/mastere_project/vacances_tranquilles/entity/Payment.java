@@ -2,13 +2,20 @@ package com.mastere_project.vacances_tranquilles.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 /**
  * Entité JPA représentant un paiement lié à une réservation ou un service.
+ * Un paiement Stripe est enregistré avec la réservation qu'il paie ; l'identifiant unique de
+ * sa session Checkout permet de le rapprocher des sessions Stripe lors de la réconciliation.
  */
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_payment_date", columnList = "payment_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,8 +26,20 @@ public class Payment {
     private Long id;
 
     private String status;
-    private Double amount;
+    private BigDecimal amount;
+
+    @Column(name = "payment_date")
     private LocalDateTime paymentDate;
+
     private String paymentMethod;
 
-}
\ No newline at end of file
+    @Column(name = "stripe_session_id", unique = true)
+    private String stripeSessionId;
+
+    @Column(length = 3)
+    private String currency;
+
+    /** Début de la dernière réconciliation ayant retrouvé la session Stripe du paiement. */
+    private Instant reconciledAt;
+
+}
@@ -0,0 +1,48 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import com.mastere_project.vacances_tranquilles.model.enums.PaymentDiscrepancyType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Écart entre un paiement enregistré et les sessions Stripe, relevé par la réconciliation
+ * d'une journée. Les écarts d'une journée sont remplacés à chaque nouvelle réconciliation de
+ * cette journée.
+ */
+@Entity
+@Table(name = "payment_discrepancies", indexes = {
+        @Index(name = "idx_payment_discrepancies_date", columnList = "reconciliation_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentDiscrepancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reconciliation_date", nullable = false)
+    private LocalDate reconciliationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentDiscrepancyType type;
+
+    @Column(name = "stripe_session_id")
+    private String stripeSessionId;
+
+    private Long paymentId;
+
+    /** Montant de la session Stripe, en centimes. */
+    private Long stripeAmount;
+
+    /** Montant du paiement enregistré, en centimes. */
+    private Long localAmount;
+
+    @Column(nullable = false)
+    private Instant detectedAt;
+}
@@ -9,13 +9,36 @@ import java.time.LocalTime;
 
 import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 
+/**
+ * Réservation d'un service par un client. Les associations sont chargées à la demande : les
+ * requêtes qui ont besoin des participants ou du service les demandent par un graphe d'entité.
+ */
 @Entity
-@Table(name = "reservations")
+@NamedEntityGraph(name = Reservation.GRAPH_PARTICIPANTS, attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("provider")
+})
+@NamedEntityGraph(name = Reservation.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("provider"),
+        @NamedAttributeNode("service")
+})
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_client_keyset", columnList = "client_id, reservation_date, start_date, id"),
+        @Index(name = "idx_reservations_provider_keyset", columnList = "provider_id, reservation_date, start_date, id"),
+        @Index(name = "idx_reservations_status_date", columnList = "status, reservation_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Reservation {
 
+    /** Client et prestataire : contrôles d'accès portant sur leur rôle. */
+    public static final String GRAPH_PARTICIPANTS = "Reservation.participants";
+
+    /** Client, prestataire et service : conversion en ReservationResponseDTO. */
+    public static final String GRAPH_DETAIL = "Reservation.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,24 +51,28 @@ public class Reservation {
     @Enumerated(EnumType.STRING)
     private ReservationStatus status;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "client_id", nullable = false)
     private User client;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "provider_id", nullable = false)
     private User provider;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "service_id", nullable = false)
     private Service service;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "payment_id", unique = true)
     private Payment payment;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "conversation_id", unique = true)
     private Conversation conversation;
+
+    /** Session Stripe Checkout ayant payé la réservation : une session ne crée qu'une réservation. */
+    @Column(name = "stripe_session_id", unique = true)
+    private String stripeSessionId;
 }
 
@@ -5,13 +5,18 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_reviewed_keyset", columnList = "reviewed_id, created_at, id"),
+        @Index(name = "idx_reviews_reviewer_keyset", columnList = "reviewer_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Review {
+    /** Séquence par blocs de 50, comme pour {@link Message} : insertions groupées possibles. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reviews_seq")
+    @SequenceGenerator(name = "reviews_seq", sequenceName = "reviews_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -23,11 +28,11 @@ public class Review {
     @Column(nullable = false)
     private Long reservationId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reviewer_id")
     private User reviewer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reviewed_id")
     private User reviewed;
 
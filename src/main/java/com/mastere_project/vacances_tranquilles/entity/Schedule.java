@@ -23,7 +23,7 @@ public class Schedule {
     private LocalTime startTime;
     private LocalTime endTime;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "provider_id")
     private User provider;
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Entité JPA représentant les créneaux occupés d'un prestataire pour une journée,
+ * encodés sous forme de masque de 96 créneaux de 15 minutes
+ * (voir {@link com.mastere_project.vacances_tranquilles.util.schedule.DaySlotMask}).
+ */
+@Entity
+@Table(name = "schedule_days", uniqueConstraints = @UniqueConstraint(columnNames = { "provider_id", "date" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "slots_low", nullable = false)
+    private long slotsLow;
+
+    @Column(name = "slots_high", nullable = false)
+    private long slotsHigh;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false)
+    private User provider;
+}
@@ -0,0 +1,43 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Entité JPA représentant une règle de disponibilité récurrente d'un prestataire
+ * (par exemple « du lundi au vendredi de 9h à 17h jusqu'en décembre »).
+ * Les jours concernés sont stockés sous forme de masque (bit 0 = lundi,
+ * bit 6 = dimanche) ; la règle n'est développée en plages horaires qu'à la
+ * demande, pour les dates consultées.
+ */
+@Entity
+@Table(name = "schedule_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "days_of_week", nullable = false)
+    private int daysOfWeek;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    @Column(nullable = false)
+    private LocalDate validFrom;
+
+    private LocalDate validUntil;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false)
+    private User provider;
+}
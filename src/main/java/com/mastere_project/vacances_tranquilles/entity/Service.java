@@ -2,28 +2,43 @@ package com.mastere_project.vacances_tranquilles.entity;
 
 import java.math.BigDecimal;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Représente un service proposé par un prestataire.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Service.CACHE_REGION)
+@NamedEntityGraph(name = Service.GRAPH_PROVIDER, attributeNodes = @NamedAttributeNode("provider"))
 @Table(name = "service")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Service {
 
+    /** Région du cache de second niveau (relu au paiement, à la réservation et à l'avis). */
+    public static final String CACHE_REGION = "services";
+
+    /** Prestataire du service : son code postal alimente l'index de disponibilité. */
+    public static final String GRAPH_PROVIDER = "Service.provider";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -37,7 +52,7 @@ public class Service {
     @Column(nullable = false)
     private BigDecimal price;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "provider_id", nullable = false)
     private User provider;
 }
\ No newline at end of file
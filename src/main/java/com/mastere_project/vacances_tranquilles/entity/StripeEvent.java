@@ -0,0 +1,56 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Événement Stripe reçu par webhook, clé par son identifiant Stripe.
+ * La clé primaire rend la réception idempotente : un événement renvoyé par Stripe n'est
+ * enregistré et traité qu'une fois. Le corps brut est conservé pour le traitement asynchrone.
+ */
+@Entity
+@Table(name = "stripe_events", indexes = {
+        @Index(name = "idx_stripe_events_session", columnList = "session_id"),
+        @Index(name = "idx_stripe_events_status_received", columnList = "status, received_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StripeEvent {
+
+    @Id
+    @Column(length = 255)
+    private String id;
+
+    @Column(nullable = false, length = 100)
+    private String type;
+
+    @Column(name = "session_id")
+    private String sessionId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StripeEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    /** Fin du bail du worker qui traite l'événement (statut PROCESSING). */
+    private Instant lockedUntil;
+
+    private Instant processedAt;
+
+    private Long reservationId;
+
+    @Column(length = 1000)
+    private String lastError;
+}
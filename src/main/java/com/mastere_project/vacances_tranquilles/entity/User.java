@@ -3,6 +3,8 @@ package com.mastere_project.vacances_tranquilles.entity;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,12 +16,17 @@ import java.time.LocalDateTime;
  * plateforme.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    /** Région du cache de second niveau (relu à chaque contrôle de rôle). */
+    public static final String CACHE_REGION = "users";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
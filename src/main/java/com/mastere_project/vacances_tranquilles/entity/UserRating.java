@@ -0,0 +1,31 @@
+package com.mastere_project.vacances_tranquilles.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Agrégat des notes reçues par un utilisateur : nombre d'avis, somme des notes et
+ * répartition par note. Maintenu à chaque création d'avis pour éviter de relire
+ * la table reviews.
+ */
+@Entity
+@Table(name = "user_ratings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRating {
+
+    @Id
+    private Long userId;
+
+    @Version
+    private Long version;
+
+    private long reviewCount;
+    private long ratingSum;
+    private long count1;
+    private long count2;
+    private long count3;
+    private long count4;
+    private long count5;
+}
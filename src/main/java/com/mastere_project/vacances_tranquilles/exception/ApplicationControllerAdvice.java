@@ -84,6 +84,31 @@ public class ApplicationControllerAdvice {
         return ResponseEntity.status(423).body(error);
     }
 
+    /**
+     * Gère l'exception levée lorsque la file de hachage des mots de passe est
+     * pleine.
+     *
+     * @param ex l'exception PasswordHashingBusyException
+     * @return une réponse HTTP 503 avec un en-tête Retry-After
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorEntity> handlePasswordHashingBusyException(PasswordHashingBusyException ex) {
+        ErrorEntity error = new ErrorEntity("SERVER_BUSY", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(error);
+    }
+
+    /**
+     * Gère l'exception levée lorsqu'un webhook Stripe n'a pas de signature valide.
+     *
+     * @param ex l'exception InvalidStripeSignatureException
+     * @return une réponse HTTP 400 avec un code d'erreur spécifique
+     */
+    @ExceptionHandler(InvalidStripeSignatureException.class)
+    public ResponseEntity<ErrorEntity> handleInvalidStripeSignatureException(InvalidStripeSignatureException ex) {
+        ErrorEntity error = new ErrorEntity("INVALID_STRIPE_SIGNATURE", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     /**
      * Gère l'exception levée en cas d'erreur interne inattendue lors de la
      * connexion.
@@ -148,6 +173,19 @@ public class ApplicationControllerAdvice {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Gère l'exception levée lorsqu'une règle ou une exception de planning n'est
+     * pas trouvée en base.
+     *
+     * @param ex l'exception ScheduleNotFoundException
+     * @return une réponse HTTP 404 avec un code d'erreur spécifique
+     */
+    @ExceptionHandler(ScheduleNotFoundException.class)
+    public ResponseEntity<ErrorEntity> handleScheduleNotFound(ScheduleNotFoundException ex) {
+        ErrorEntity error = new ErrorEntity("SCHEDULE_NOT_FOUND", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
     /**
      * Gère l'exception levée lorsqu'un utilisateur n'est pas trouvé en base.
      *
@@ -319,6 +357,19 @@ public class ApplicationControllerAdvice {
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Gère l'exception levée lorsque Stripe n'est pas joignable dans les temps.
+     *
+     * @param ex l'exception PaymentGatewayUnavailableException
+     * @return une réponse HTTP 503 avec un en-tête Retry-After
+     */
+    @ExceptionHandler(PaymentGatewayUnavailableException.class)
+    public ResponseEntity<ErrorEntity> handlePaymentGatewayUnavailableException(
+            PaymentGatewayUnavailableException ex) {
+        ErrorEntity error = new ErrorEntity("PAYMENT_GATEWAY_UNAVAILABLE", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").body(error);
+    }
+
     /**
      * Gère l'exception levée lorsqu'un avis n'est pas trouvé.
      *
@@ -369,4 +420,17 @@ public class ApplicationControllerAdvice {
         
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
+
+    /**
+     * Gère l'exception levée lorsque le créneau demandé est déjà pris.
+     *
+     * @param ex l'exception ReservationSlotUnavailableException
+     * @return une réponse HTTP 409 avec un code d'erreur spécifique
+     */
+    @ExceptionHandler(ReservationSlotUnavailableException.class)
+    public ResponseEntity<ErrorEntity> handleReservationSlotUnavailable(ReservationSlotUnavailableException ex) {
+        ErrorEntity error = new ErrorEntity("RESERVATION_SLOT_UNAVAILABLE", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
 }
@@ -0,0 +1,28 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+/**
+ * Exception levée lorsqu'un webhook Stripe est reçu sans signature valide :
+ * l'événement n'est ni enregistré ni traité.
+ */
+public class InvalidStripeSignatureException extends RuntimeException {
+    /**
+     * Construit une nouvelle exception InvalidStripeSignatureException avec le message
+     * spécifié.
+     *
+     * @param message le message détaillant la raison du refus
+     */
+    public InvalidStripeSignatureException(String message) {
+        super(message);
+    }
+
+    /**
+     * Construit une nouvelle exception InvalidStripeSignatureException avec le message
+     * et la cause spécifiés.
+     *
+     * @param message le message détaillant la raison du refus
+     * @param cause   l'erreur de vérification d'origine
+     */
+    public InvalidStripeSignatureException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
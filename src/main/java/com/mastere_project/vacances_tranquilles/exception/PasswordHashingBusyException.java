@@ -0,0 +1,17 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+/**
+ * Exception levée lorsque la file de hachage des mots de passe est pleine :
+ * la requête est refusée immédiatement plutôt que d'occuper un thread de requête.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    /**
+     * Construit une nouvelle exception PasswordHashingBusyException avec le message
+     * spécifié.
+     *
+     * @param message le message détaillant la raison du refus
+     */
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
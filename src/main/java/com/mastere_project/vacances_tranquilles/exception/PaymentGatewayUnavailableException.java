@@ -0,0 +1,17 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+/**
+ * Exception levée lorsque Stripe n'est pas joignable dans les temps : disjoncteur ouvert,
+ * pool d'appels saturé ou délai dépassé. La requête est refusée sans occuper de thread.
+ */
+public class PaymentGatewayUnavailableException extends RuntimeException {
+    /**
+     * Construit une nouvelle exception PaymentGatewayUnavailableException avec le message
+     * spécifié.
+     *
+     * @param message le message détaillant la raison du refus
+     */
+    public PaymentGatewayUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+/**
+ * Exception levée lorsque le créneau demandé pour une réservation n'est plus disponible
+ * (réservation existante, plage bloquée ou hors des disponibilités déclarées du prestataire).
+ */
+public class ReservationSlotUnavailableException extends RuntimeException {
+    public ReservationSlotUnavailableException(String message) {
+        super(message);
+    }
+}
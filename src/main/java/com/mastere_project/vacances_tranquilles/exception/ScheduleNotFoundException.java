@@ -0,0 +1,10 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+/**
+ * Exception levée lorsqu'une règle ou une exception de planning n'est pas trouvée en base.
+ */
+public class ScheduleNotFoundException extends RuntimeException {
+    public ScheduleNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.mastere_project.vacances_tranquilles.mapper;
+
+import com.mastere_project.vacances_tranquilles.dto.ScheduleExceptionDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleRuleDTO;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+
+/**
+ * Mapper pour la conversion entre les DTO de planning et les entités
+ * ScheduleRule et Schedule.
+ */
+public interface ScheduleMapper {
+
+    /**
+     * Convertit une règle récurrente en DTO.
+     *
+     * @param rule l'entité à convertir
+     * @return le DTO correspondant
+     */
+    ScheduleRuleDTO toRuleDto(ScheduleRule rule);
+
+    /**
+     * Convertit un DTO de règle récurrente en entité.
+     *
+     * @param dto le DTO à convertir
+     * @return l'entité correspondante
+     */
+    ScheduleRule toRuleEntity(ScheduleRuleDTO dto);
+
+    /**
+     * Convertit une plage bloquée en exception de type UNAVAILABLE.
+     *
+     * @param schedule la plage bloquée
+     * @return le DTO correspondant
+     */
+    ScheduleExceptionDTO toExceptionDto(Schedule schedule);
+
+    /**
+     * Convertit une règle d'une seule journée en exception de type AVAILABLE.
+     *
+     * @param rule la règle d'une journée
+     * @return le DTO correspondant
+     */
+    ScheduleExceptionDTO toExceptionDto(ScheduleRule rule);
+}
@@ -0,0 +1,78 @@
+package com.mastere_project.vacances_tranquilles.mapper.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.ScheduleExceptionDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleRuleDTO;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+import com.mastere_project.vacances_tranquilles.mapper.ScheduleMapper;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleExceptionType;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Implémentation du mapper ScheduleMapper.
+ * Note: le prestataire est géré par le service métier, pas par le mapper.
+ */
+@Component
+public class ScheduleMapperImpl implements ScheduleMapper {
+
+    @Override
+    public ScheduleRuleDTO toRuleDto(ScheduleRule rule) {
+        if (rule == null) {
+            return null;
+        }
+        ScheduleRuleDTO dto = new ScheduleRuleDTO();
+        dto.setId(rule.getId());
+        dto.setDaysOfWeek(RecurringRule.daysOf(rule.getDaysOfWeek()));
+        dto.setStartTime(rule.getStartTime());
+        dto.setEndTime(rule.getEndTime());
+        dto.setValidFrom(rule.getValidFrom());
+        dto.setValidUntil(rule.getValidUntil());
+        return dto;
+    }
+
+    @Override
+    public ScheduleRule toRuleEntity(ScheduleRuleDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        ScheduleRule rule = new ScheduleRule();
+        rule.setId(dto.getId());
+        rule.setDaysOfWeek(RecurringRule.daysMask(dto.getDaysOfWeek() != null ? dto.getDaysOfWeek() : Set.of()));
+        rule.setStartTime(dto.getStartTime());
+        rule.setEndTime(dto.getEndTime());
+        rule.setValidFrom(dto.getValidFrom());
+        rule.setValidUntil(dto.getValidUntil());
+        return rule;
+    }
+
+    @Override
+    public ScheduleExceptionDTO toExceptionDto(Schedule schedule) {
+        if (schedule == null) {
+            return null;
+        }
+        ScheduleExceptionDTO dto = new ScheduleExceptionDTO();
+        dto.setId(schedule.getId());
+        dto.setType(ScheduleExceptionType.UNAVAILABLE);
+        dto.setDate(schedule.getDate());
+        dto.setStartTime(schedule.getStartTime());
+        dto.setEndTime(schedule.getEndTime());
+        return dto;
+    }
+
+    @Override
+    public ScheduleExceptionDTO toExceptionDto(ScheduleRule rule) {
+        if (rule == null) {
+            return null;
+        }
+        ScheduleExceptionDTO dto = new ScheduleExceptionDTO();
+        dto.setId(rule.getId());
+        dto.setType(ScheduleExceptionType.AVAILABLE);
+        dto.setDate(rule.getValidFrom());
+        dto.setStartTime(rule.getStartTime());
+        dto.setEndTime(rule.getEndTime());
+        return dto;
+    }
+}
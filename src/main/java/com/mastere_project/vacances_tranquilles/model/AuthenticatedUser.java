@@ -0,0 +1,37 @@
+package com.mastere_project.vacances_tranquilles.model;
+
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+
+/**
+ * Vue compacte de l'utilisateur connecté : ce dont les services ont besoin pour les contrôles
+ * d'accès, sans recharger l'entité User à chaque appel.
+ *
+ * @param id         l'identifiant de l'utilisateur
+ * @param role       le rôle de l'utilisateur
+ * @param firstName  le prénom
+ * @param lastName   le nom
+ * @param anonymized true si le compte a été anonymisé
+ */
+public record AuthenticatedUser(Long id, UserRole role, String firstName, String lastName, boolean anonymized) {
+
+    /**
+     * Construit la vue à partir de l'entité.
+     *
+     * @param user l'utilisateur
+     * @return la vue compacte de l'utilisateur
+     */
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUserRole(), user.getFirstName(), user.getLastName(),
+                Boolean.TRUE.equals(user.getIsAnonymized()));
+    }
+
+    /**
+     * Prénom et nom séparés par une espace.
+     *
+     * @return le nom complet
+     */
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+}
@@ -0,0 +1,11 @@
+package com.mastere_project.vacances_tranquilles.model;
+
+/**
+ * Paiement d'une session Stripe Checkout, tel que confirmé par Stripe.
+ *
+ * @param sessionId   l'identifiant de la session Checkout (cs_...)
+ * @param amountCents le montant payé, en centimes
+ * @param currency    la devise, en code ISO minuscule (eur)
+ */
+public record CheckoutPayment(String sessionId, long amountCents, String currency) {
+}
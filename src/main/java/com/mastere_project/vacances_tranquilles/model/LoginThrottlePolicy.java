@@ -0,0 +1,22 @@
+package com.mastere_project.vacances_tranquilles.model;
+
+import java.time.Duration;
+
+/**
+ * Règles de limitation des tentatives de connexion.
+ *
+ * @param maxAttempts   nombre d'échecs entraînant le blocage
+ * @param window        fenêtre, ouverte au premier échec, pendant laquelle les échecs sont cumulés
+ * @param blockDuration durée du blocage
+ */
+public record LoginThrottlePolicy(int maxAttempts, Duration window, Duration blockDuration) {
+
+    public LoginThrottlePolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts doit être strictement positif");
+        }
+        if (window.isNegative() || window.isZero() || blockDuration.isNegative() || blockDuration.isZero()) {
+            throw new IllegalArgumentException("La fenêtre et la durée de blocage doivent être strictement positives");
+        }
+    }
+}
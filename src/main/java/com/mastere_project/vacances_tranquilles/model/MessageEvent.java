@@ -0,0 +1,15 @@
+package com.mastere_project.vacances_tranquilles.model;
+
+import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
+
+import java.util.List;
+
+/**
+ * Événement de message à livrer aux flux ouverts de ses destinataires, sur tous les nœuds.
+ *
+ * @param name    le nom de l'événement Server-Sent Events
+ * @param userIds les identifiants des destinataires
+ * @param message le message diffusé
+ */
+public record MessageEvent(String name, List<Long> userIds, MessageDTO message) {
+}
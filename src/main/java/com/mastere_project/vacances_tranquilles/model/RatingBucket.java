@@ -0,0 +1,12 @@
+package com.mastere_project.vacances_tranquilles.model;
+
+/**
+ * Nombre d'avis d'une note donnée reçus par un utilisateur.
+ * Ligne du regroupement utilisé pour recalculer les agrégats de notes.
+ *
+ * @param userId l'identifiant de l'utilisateur évalué
+ * @param note   la note (1 à 5)
+ * @param count  le nombre d'avis ayant cette note
+ */
+public record RatingBucket(Long userId, int note, long count) {
+}
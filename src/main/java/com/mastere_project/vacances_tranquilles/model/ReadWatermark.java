@@ -0,0 +1,13 @@
+package com.mastere_project.vacances_tranquilles.model;
+
+/**
+ * Dernier message lu par un participant d'une conversation.
+ * Ligne du regroupement utilisé pour initialiser les états de lecture depuis l'ancien indicateur
+ * de lecture des messages.
+ *
+ * @param conversationId    l'identifiant de la conversation
+ * @param userId            l'identifiant du lecteur
+ * @param lastReadMessageId l'identifiant du dernier message lu
+ */
+public record ReadWatermark(Long conversationId, Long userId, Long lastReadMessageId) {
+}
@@ -0,0 +1,17 @@
+package com.mastere_project.vacances_tranquilles.model;
+
+import java.util.List;
+
+/**
+ * Page de sessions Stripe Checkout. La page suivante se lit à partir de l'identifiant de la
+ * dernière session de celle-ci.
+ *
+ * @param sessions les sessions de la page
+ * @param hasMore  true si d'autres sessions suivent
+ */
+public record StripeSessionPage(List<StripeSessionSummary> sessions, boolean hasMore) {
+
+    public StripeSessionPage {
+        sessions = List.copyOf(sessions);
+    }
+}
@@ -0,0 +1,25 @@
+package com.mastere_project.vacances_tranquilles.model;
+
+import java.time.Instant;
+
+/**
+ * Champs d'une session Stripe Checkout utiles à la réconciliation des paiements.
+ *
+ * @param id            l'identifiant de la session (cs_...)
+ * @param paymentStatus le statut de paiement (paid, unpaid, no_payment_required)
+ * @param amountTotal   le montant total en centimes, ou null
+ * @param currency      la devise, ou null
+ * @param created       l'instant de création de la session
+ */
+public record StripeSessionSummary(String id, String paymentStatus, Long amountTotal, String currency,
+        Instant created) {
+
+    /**
+     * Indique si Stripe considère la session comme payée.
+     *
+     * @return true pour une session payée ou sans paiement requis
+     */
+    public boolean isPaid() {
+        return "paid".equals(paymentStatus) || "no_payment_required".equals(paymentStatus);
+    }
+}
@@ -0,0 +1,11 @@
+package com.mastere_project.vacances_tranquilles.model.enums;
+
+/**
+ * Stockage des compteurs de tentatives de connexion échouées.
+ * MEMORY : en mémoire, propre à chaque nœud.
+ * DATABASE : table login_attempts, partagée entre les nœuds.
+ */
+public enum LoginThrottleStore {
+    MEMORY,
+    DATABASE
+}
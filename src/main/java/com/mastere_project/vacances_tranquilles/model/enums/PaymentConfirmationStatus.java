@@ -0,0 +1,13 @@
+package com.mastere_project.vacances_tranquilles.model.enums;
+
+/**
+ * État de la réservation payée par une session Stripe, tel que vu par le client au retour du paiement.
+ * CONFIRMED : la réservation est créée.
+ * PENDING : le webhook n'est pas encore arrivé ou est en cours de traitement.
+ * FAILED : le paiement n'a pas pu donner lieu à une réservation.
+ */
+public enum PaymentConfirmationStatus {
+    CONFIRMED,
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,15 @@
+package com.mastere_project.vacances_tranquilles.model.enums;
+
+/**
+ * Écart relevé par la réconciliation des paiements avec Stripe.
+ * MISSING_PAYMENT : session payée chez Stripe sans paiement enregistré.
+ * UNKNOWN_SESSION : paiement enregistré dont la session est absente chez Stripe.
+ * AMOUNT_MISMATCH : montant ou devise différents entre le paiement et la session.
+ * STATUS_MISMATCH : paiement enregistré pour une session que Stripe ne considère pas payée.
+ */
+public enum PaymentDiscrepancyType {
+    MISSING_PAYMENT,
+    UNKNOWN_SESSION,
+    AMOUNT_MISMATCH,
+    STATUS_MISMATCH
+}
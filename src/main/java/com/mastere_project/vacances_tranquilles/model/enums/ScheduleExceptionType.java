@@ -0,0 +1,11 @@
+package com.mastere_project.vacances_tranquilles.model.enums;
+
+/**
+ * Type d'exception ponctuelle au planning d'un prestataire.
+ * AVAILABLE : plage de disponibilité supplémentaire pour une journée.
+ * UNAVAILABLE : plage bloquée (congé, rendez-vous personnel...).
+ */
+public enum ScheduleExceptionType {
+    AVAILABLE,
+    UNAVAILABLE
+}
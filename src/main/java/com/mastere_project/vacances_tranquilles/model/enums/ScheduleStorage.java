@@ -0,0 +1,11 @@
+package com.mastere_project.vacances_tranquilles.model.enums;
+
+/**
+ * Mode de stockage des créneaux occupés utilisé par la recherche de services.
+ * ROWS : une ligne par intervalle (table schedules).
+ * BITMAP : un masque de 96 créneaux par prestataire et par jour (table schedule_days).
+ */
+public enum ScheduleStorage {
+    ROWS,
+    BITMAP
+}
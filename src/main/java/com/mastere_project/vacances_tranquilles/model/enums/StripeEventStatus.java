@@ -0,0 +1,17 @@
+package com.mastere_project.vacances_tranquilles.model.enums;
+
+/**
+ * État du traitement d'un événement Stripe reçu par webhook.
+ * RECEIVED : enregistré, en attente d'un worker.
+ * PROCESSING : pris par un worker jusqu'à l'expiration de son bail.
+ * PROCESSED : réservation créée (ou déjà créée par la même session).
+ * IGNORED : type d'événement ou session non payée, sans effet.
+ * FAILED : échec définitif (créneau pris, données invalides, tentatives épuisées).
+ */
+public enum StripeEventStatus {
+    RECEIVED,
+    PROCESSING,
+    PROCESSED,
+    IGNORED,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.mastere_project.vacances_tranquilles.model.enums;
+
+/**
+ * Transport des appels à l'API Stripe.
+ * SDK : appels réseau par le SDK Stripe.
+ * FAKE : réponses locales simulées, pour les tests de charge sans accès au réseau.
+ */
+public enum StripeGatewayMode {
+    SDK,
+    FAKE
+}
@@ -0,0 +1,32 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadState;
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadStateId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository Spring Data JPA pour l'entité ConversationReadState.
+ */
+@Repository
+public interface ConversationReadStateRepository extends JpaRepository<ConversationReadState, ConversationReadStateId> {
+
+    /**
+     * Avance le dernier message lu d'un participant. Sans effet si l'état est déjà
+     * au-delà de ce message : l'état ne recule jamais, même en cas de lectures concurrentes.
+     *
+     * @param conversationId l'identifiant de la conversation
+     * @param userId         l'identifiant du lecteur
+     * @param messageId      l'identifiant du dernier message lu
+     * @return le nombre de lignes modifiées (0 ou 1)
+     */
+    @Modifying
+    @Query("UPDATE ConversationReadState s SET s.lastReadMessageId = :messageId "
+            + "WHERE s.id.conversationId = :conversationId AND s.id.userId = :userId "
+            + "AND s.lastReadMessageId < :messageId")
+    int advance(@Param("conversationId") Long conversationId, @Param("userId") Long userId,
+            @Param("messageId") long messageId);
+}
@@ -19,26 +19,39 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     /**
      * Recherche toutes les conversations d'un utilisateur à travers ses réservations.
      * Retourne un résumé des conversations avec les informations de l'autre participant,
-     * le service associé et les dates de réservation.
+     * le service associé, les dates de réservation, le nombre de messages de l'autre participant
+     * postérieurs au dernier message lu par l'utilisateur, les 100 premiers caractères du dernier
+     * message et la date de dernière activité (dernier message, ou création de la conversation).
+     * Le dernier message est joint par son identifiant maximal, lu sur l'index
+     * {@code (conversation_id, id)} : une seule requête pour toute la liste.
      *
      * @param userId l'identifiant de l'utilisateur
-     * @return la liste des résumés de conversations triés par date de réservation décroissante
+     * @return la liste des résumés de conversations triés par dernière activité décroissante
      */
     @Query("""
     SELECT new com.mastere_project.vacances_tranquilles.dto.ConversationSummaryDto(
-        r.conversation.id,
+        c.id,
         CASE
             WHEN r.client.id = :userId THEN CONCAT(r.provider.firstName, ' ', r.provider.lastName)
             ELSE CONCAT(r.client.firstName, ' ', r.client.lastName)
         END,
         r.service.title,
         r.reservationDate,
-        r.startDate
+        r.startDate,
+        (SELECT count(m) FROM Message m
+            WHERE m.conversation.id = c.id
+            AND m.sender.id <> :userId
+            AND m.id > COALESCE((SELECT s.lastReadMessageId FROM ConversationReadState s
+                WHERE s.id.conversationId = c.id AND s.id.userId = :userId), 0)),
+        SUBSTRING(lm.content, 1, 100),
+        COALESCE(lm.sentAt, c.createdAt)
     )
     FROM Reservation r
+    JOIN r.conversation c
+    LEFT JOIN Message lm ON lm.conversation.id = c.id
+        AND lm.id = (SELECT max(m2.id) FROM Message m2 WHERE m2.conversation.id = c.id)
     WHERE (r.client.id = :userId OR r.provider.id = :userId)
-    AND r.conversation IS NOT NULL
-    ORDER BY r.reservationDate DESC, r.startDate DESC
+    ORDER BY COALESCE(lm.sentAt, c.createdAt) DESC, r.reservationDate DESC, r.startDate DESC
     """)
     List<ConversationSummaryDto> findConversationsForUser(@Param("userId") Long userId);
 
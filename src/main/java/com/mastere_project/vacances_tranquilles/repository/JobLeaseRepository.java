@@ -0,0 +1,59 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Repository Spring Data JPA pour l'entité JobLease.
+ * Les baux sont pris et libérés par des UPDATE conditionnels, atomiques côté base.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Prend ou prolonge un bail s'il est expiré ou déjà détenu par le même propriétaire.
+     *
+     * @param name  le nom de la tâche
+     * @param owner l'identifiant du nœud demandeur
+     * @param now   l'instant courant
+     * @param until la nouvelle date d'expiration du bail
+     * @return 1 si le bail a été obtenu, 0 sinon
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.lockedUntil = :until "
+            + "WHERE l.name = :name AND (l.lockedUntil < :now OR l.owner = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now,
+            @Param("until") Instant until);
+
+    /**
+     * Libère un bail détenu par le propriétaire donné en le faisant expirer immédiatement.
+     *
+     * @param name  le nom de la tâche
+     * @param owner l'identifiant du nœud propriétaire
+     * @param now   l'instant courant
+     * @return 1 si le bail a été libéré, 0 s'il n'était pas détenu par ce propriétaire
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.lockedUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+
+    /**
+     * Enregistre la dernière journée entièrement traitée par une tâche, si le bail est détenu par le
+     * propriétaire donné.
+     *
+     * @param name  le nom de la tâche
+     * @param owner l'identifiant du nœud propriétaire
+     * @param day   la dernière journée traitée
+     * @return 1 si l'avancement a été enregistré, 0 si le bail n'était pas détenu par ce propriétaire
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.completedThrough = :day WHERE l.name = :name AND l.owner = :owner")
+    int markCompletedThrough(@Param("name") String name, @Param("owner") String owner, @Param("day") LocalDate day);
+}
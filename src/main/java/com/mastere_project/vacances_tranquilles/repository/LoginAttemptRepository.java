@@ -0,0 +1,81 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.LoginAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repository Spring Data JPA pour l'entité LoginAttempt.
+ * Les compteurs sont modifiés par des UPDATE conditionnels, atomiques côté base,
+ * pour rester justes lorsque plusieurs nœuds reçoivent des tentatives pour la même clé.
+ */
+@Repository
+public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, String> {
+
+    /**
+     * Compte un échec. Si la fenêtre courante a commencé avant {@code windowFloor}, une nouvelle
+     * fenêtre est ouverte avec un seul échec. Sans effet sur une clé bloquée.
+     *
+     * @param key         la clé de connexion
+     * @param now         l'instant courant
+     * @param windowFloor l'instant avant lequel une fenêtre est close
+     * @param windowEnd   la fin d'une fenêtre ouverte maintenant
+     * @return 1 si l'échec a été compté, 0 sinon
+     */
+    @Modifying
+    @Query("UPDATE LoginAttempt a SET "
+            + "a.failures = CASE WHEN a.windowStart <= :windowFloor THEN 1 ELSE a.failures + 1 END, "
+            + "a.windowStart = CASE WHEN a.windowStart <= :windowFloor THEN :now ELSE a.windowStart END, "
+            + "a.expiresAt = CASE WHEN a.windowStart <= :windowFloor THEN :windowEnd ELSE a.expiresAt END "
+            + "WHERE a.throttleKey = :key AND (a.blockedUntil IS NULL OR a.blockedUntil <= :now)")
+    int recordFailure(@Param("key") String key, @Param("now") Instant now,
+            @Param("windowFloor") Instant windowFloor, @Param("windowEnd") Instant windowEnd);
+
+    /**
+     * Bloque la clé si le seuil d'échecs est atteint et remet son compteur à zéro.
+     *
+     * @param key         la clé de connexion
+     * @param maxAttempts le seuil d'échecs
+     * @param until       la fin du blocage
+     * @return 1 si la clé a été bloquée, 0 sinon
+     */
+    @Modifying
+    @Query("UPDATE LoginAttempt a SET a.failures = 0, a.blockedUntil = :until, a.expiresAt = :until "
+            + "WHERE a.throttleKey = :key AND a.failures >= :maxAttempts")
+    int blockIfExceeded(@Param("key") String key, @Param("maxAttempts") int maxAttempts,
+            @Param("until") Instant until);
+
+    /**
+     * Vérifie si la clé est bloquée à l'instant donné.
+     *
+     * @param throttleKey la clé de connexion
+     * @param now         l'instant courant
+     * @return true si un blocage est en cours
+     */
+    boolean existsByThrottleKeyAndBlockedUntilAfter(String throttleKey, Instant now);
+
+    /**
+     * Supprime le compteur d'une clé.
+     *
+     * @param key la clé de connexion
+     * @return le nombre de lignes supprimées
+     */
+    @Modifying
+    @Query("DELETE FROM LoginAttempt a WHERE a.throttleKey = :key")
+    int deleteByKey(@Param("key") String key);
+
+    /**
+     * Supprime les compteurs expirés.
+     *
+     * @param now l'instant courant
+     * @return le nombre de lignes supprimées
+     */
+    @Modifying
+    @Query("DELETE FROM LoginAttempt a WHERE a.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
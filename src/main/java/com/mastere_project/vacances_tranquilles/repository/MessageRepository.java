@@ -2,13 +2,16 @@ package com.mastere_project.vacances_tranquilles.repository;
 
 import com.mastere_project.vacances_tranquilles.dto.MessageResponseDTO;
 import com.mastere_project.vacances_tranquilles.entity.Message;
+import com.mastere_project.vacances_tranquilles.model.ReadWatermark;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository Spring Data JPA pour l'entité Message.
@@ -16,7 +19,18 @@ import java.util.List;
  */
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    
+
+    /**
+     * Projection des messages ; un message est lu lorsque le dernier message lu par son destinataire
+     * (l'autre participant de la conversation) est au moins aussi récent.
+     */
+    String MESSAGE_RESPONSE_SELECT = "SELECT new com.mastere_project.vacances_tranquilles.dto.MessageResponseDTO("
+            + "m.id, concat(m.sender.firstName, ' ', m.sender.lastName), m.content, m.sentAt, "
+            + "CASE WHEN s.lastReadMessageId >= m.id THEN true ELSE false END, :myName) "
+            + "FROM Message m "
+            + "LEFT JOIN ConversationReadState s "
+            + "ON s.id.conversationId = m.conversation.id AND s.id.userId <> m.sender.id ";
+
     /**
      * Recherche tous les messages d'une conversation, triés par date d'envoi croissante.
      *
@@ -25,6 +39,15 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      */
     List<Message> findByConversationIdOrderBySentAtAsc(Long conversationId);
 
+    /**
+     * Trouve un message avec sa conversation, dont les participants reçoivent la diffusion.
+     *
+     * @param id l'identifiant du message
+     * @return le message s'il existe
+     */
+    @EntityGraph(Message.GRAPH_CONVERSATION)
+    Optional<Message> findWithConversationById(Long id);
+
     /**
      * Recherche tous les messages d'une conversation et les retourne sous forme de DTO.
      * Chaque message contient le nom de l'expéditeur, le contenu, la date d'envoi,
@@ -34,36 +57,81 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      * @param myName le nom de l'utilisateur courant
      * @return la liste des messages sous forme de DTO triés par date d'envoi croissante
      */
-    @Query("SELECT new com.mastere_project.vacances_tranquilles.dto.MessageResponseDTO(" +
-       "m.id, " +
-       "concat(m.sender.firstName, ' ', m.sender.lastName), " +
-       "m.content, " +
-       "m.sentAt, " +
-       "m.read, " +
-       ":myName) " + 
-       "FROM Message m " +
-       "WHERE m.conversation.id = :conversationId " +
-       "ORDER BY m.sentAt ASC")
+    @Query(MESSAGE_RESPONSE_SELECT
+            + "WHERE m.conversation.id = :conversationId "
+            + "ORDER BY m.sentAt ASC")
     List<MessageResponseDTO> findMessagesDTOByConversationId(
             @Param("conversationId") Long conversationId,
             @Param("myName") String myName
     );
 
     /**
-     * Marque tous les messages non lus d'une conversation comme lus,
-     * à l'exception de ceux envoyés par l'utilisateur spécifié.
+     * Récupère les messages d'une conversation postérieurs à un message donné, du plus ancien au plus récent.
+     * Parcourt l'index {@code (conversation_id, id)} à partir du curseur : le coût dépend du nombre
+     * de nouveaux messages, pas de la longueur de l'historique.
      *
      * @param conversationId l'identifiant de la conversation
-     * @param userId l'identifiant de l'utilisateur dont les messages ne doivent pas être marqués comme lus
-     * @return le nombre de messages marqués comme lus
+     * @param afterId        l'identifiant du dernier message déjà connu du client
+     * @param myName         le nom de l'utilisateur courant
+     * @param pageable       la taille maximale du lot
+     * @return les messages suivants, par identifiant croissant
      */
-    @Modifying
-    @Query("UPDATE Message m SET m.read = true " +
-        "WHERE m.conversation.id = :conversationId " +
-        "AND m.read = false " +
-        "AND m.sender.id <> :userId")
-    int markMessagesAsRead(
-        @Param("conversationId") Long conversationId,
-        @Param("userId") Long userId
+    @Query(MESSAGE_RESPONSE_SELECT
+            + "WHERE m.conversation.id = :conversationId AND m.id > :afterId "
+            + "ORDER BY m.id ASC")
+    List<MessageResponseDTO> findMessagesDTOAfterId(
+            @Param("conversationId") Long conversationId,
+            @Param("afterId") Long afterId,
+            @Param("myName") String myName,
+            Pageable pageable
     );
-} 
+
+    /**
+     * Récupère les messages d'une conversation antérieurs à un message donné, du plus récent au plus ancien.
+     * Sans curseur, retourne les derniers messages de la conversation.
+     *
+     * @param conversationId l'identifiant de la conversation
+     * @param beforeId       l'identifiant du plus ancien message déjà connu du client, ou null
+     * @param myName         le nom de l'utilisateur courant
+     * @param pageable       la taille maximale du lot
+     * @return les messages précédents, par identifiant décroissant
+     */
+    @Query(MESSAGE_RESPONSE_SELECT
+            + "WHERE m.conversation.id = :conversationId AND (:beforeId IS NULL OR m.id < :beforeId) "
+            + "ORDER BY m.id DESC")
+    List<MessageResponseDTO> findMessagesDTOBeforeId(
+            @Param("conversationId") Long conversationId,
+            @Param("beforeId") Long beforeId,
+            @Param("myName") String myName,
+            Pageable pageable
+    );
+
+    /**
+     * Récupère l'identifiant du message le plus récent d'une conversation.
+     *
+     * @param conversationId l'identifiant de la conversation
+     * @return l'identifiant du dernier message, ou null si la conversation est vide
+     */
+    @Query("SELECT max(m.id) FROM Message m WHERE m.conversation.id = :conversationId")
+    Long findLatestMessageId(@Param("conversationId") Long conversationId);
+
+    /**
+     * Indique si au moins un message porte l'ancien indicateur de lecture.
+     *
+     * @return true si un message a été marqué comme lu
+     */
+    boolean existsByReadTrue();
+
+    /**
+     * Calcule, à partir de l'ancien indicateur de lecture des messages, le dernier message lu
+     * par chaque participant de chaque conversation.
+     *
+     * @return les derniers messages lus, par conversation et lecteur
+     */
+    @Query("SELECT new com.mastere_project.vacances_tranquilles.model.ReadWatermark(c.id, "
+            + "CASE WHEN m.sender.id = c.user1.id THEN c.user2.id ELSE c.user1.id END, max(m.id)) "
+            + "FROM Message m JOIN m.conversation c "
+            + "WHERE m.read = true "
+            + "GROUP BY c.id, CASE WHEN m.sender.id = c.user1.id THEN c.user2.id ELSE c.user1.id END")
+    List<ReadWatermark> findReadWatermarks();
+}
@@ -0,0 +1,36 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.PaymentDiscrepancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository Spring Data JPA pour l'entité PaymentDiscrepancy.
+ */
+@Repository
+public interface PaymentDiscrepancyRepository extends JpaRepository<PaymentDiscrepancy, Long> {
+
+    /**
+     * Récupère les écarts relevés pour une journée.
+     *
+     * @param reconciliationDate la journée réconciliée
+     * @return les écarts de la journée
+     */
+    List<PaymentDiscrepancy> findByReconciliationDateOrderById(LocalDate reconciliationDate);
+
+    /**
+     * Supprime les écarts d'une journée avant sa nouvelle réconciliation.
+     *
+     * @param reconciliationDate la journée réconciliée
+     * @return le nombre d'écarts supprimés
+     */
+    @Modifying
+    @Query("DELETE FROM PaymentDiscrepancy d WHERE d.reconciliationDate = :reconciliationDate")
+    int deleteByReconciliationDate(@Param("reconciliationDate") LocalDate reconciliationDate);
+}
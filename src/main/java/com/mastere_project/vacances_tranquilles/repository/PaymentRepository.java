@@ -0,0 +1,60 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.Payment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository Spring Data JPA pour l'entité Payment.
+ * La réconciliation lit les paiements par lots : ceux d'une page de sessions Stripe, puis,
+ * par pagination par clé, ceux qu'aucune session n'a retrouvés.
+ */
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    /**
+     * Récupère les paiements des sessions Stripe données.
+     *
+     * @param sessionIds les identifiants de sessions
+     * @return les paiements trouvés
+     */
+    List<Payment> findByStripeSessionIdIn(Collection<String> sessionIds);
+
+    /**
+     * Marque des paiements comme retrouvés chez Stripe par une réconciliation.
+     *
+     * @param ids          les identifiants des paiements
+     * @param reconciledAt le début de la réconciliation
+     * @return le nombre de paiements marqués
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.reconciledAt = :reconciledAt WHERE p.id IN :ids")
+    int markReconciled(@Param("ids") Collection<Long> ids, @Param("reconciledAt") Instant reconciledAt);
+
+    /**
+     * Liste, par identifiant croissant, les paiements Stripe de la période qu'une réconciliation
+     * n'a pas retrouvés chez Stripe.
+     *
+     * @param from         début de la période (inclus)
+     * @param to           fin de la période (exclue)
+     * @param reconciledAt le début de la réconciliation en cours
+     * @param afterId      l'identifiant du dernier paiement déjà lu (0 pour le premier lot)
+     * @param pageable     la taille du lot (page 0)
+     * @return les paiements non retrouvés
+     */
+    @Query("SELECT p FROM Payment p WHERE p.stripeSessionId IS NOT NULL "
+            + "AND p.paymentDate >= :from AND p.paymentDate < :to "
+            + "AND (p.reconciledAt IS NULL OR p.reconciledAt < :reconciledAt) "
+            + "AND p.id > :afterId ORDER BY p.id")
+    List<Payment> findUnreconciled(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("reconciledAt") Instant reconciledAt, @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -1,13 +1,20 @@
 package com.mastere_project.vacances_tranquilles.repository;
 
+import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
 import com.mastere_project.vacances_tranquilles.entity.Reservation;
 import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +24,34 @@ import java.util.Optional;
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    /**
+     * Projection commune des listes paginées : construit directement le DTO de réponse
+     * en une seule requête, sans charger les entités associées.
+     */
+    String PAGE_SELECT = "SELECT new com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO("
+            + "r.id, r.status, r.reservationDate, r.startDate, r.endDate, r.totalPrice, "
+            + "cl.id, cl.firstName, cl.lastName, cl.email, "
+            + "p.id, p.firstName, p.lastName, p.email, "
+            + "s.id, s.title, s.description, c.id) "
+            + "FROM Reservation r JOIN r.client cl JOIN r.provider p JOIN r.service s LEFT JOIN r.conversation c ";
+
+    /**
+     * Filtres optionnels (statut, période) et condition de curseur des listes paginées.
+     * L'ordre est (reservationDate, startDate, id) décroissant ; le curseur désigne la
+     * dernière ligne de la page précédente. Les réservations anciennes sans date ni heure de
+     * début sont exclues : elles ne peuvent pas servir de curseur et PostgreSQL les placerait en
+     * tête du tri décroissant. Les dates sont typées explicitement : PostgreSQL ne peut pas
+     * déduire le type d'un paramètre date seulement comparé à NULL.
+     */
+    String PAGE_FILTERS = "AND r.reservationDate IS NOT NULL AND r.startDate IS NOT NULL "
+            + "AND (:status IS NULL OR r.status = :status) "
+            + "AND (cast(:fromDate as LocalDate) IS NULL OR r.reservationDate >= :fromDate) "
+            + "AND (cast(:toDate as LocalDate) IS NULL OR r.reservationDate <= :toDate) "
+            + "AND (:cursorId IS NULL OR r.reservationDate < :cursorDate "
+            + "OR (r.reservationDate = :cursorDate AND (r.startDate < :cursorTime "
+            + "OR (r.startDate = :cursorTime AND r.id < :cursorId)))) "
+            + "ORDER BY r.reservationDate DESC, r.startDate DESC, r.id DESC";
+
     /**
      * Trouve toutes les réservations où l'utilisateur est soit client soit prestataire.
      * Cette méthode permet de récupérer toutes les réservations impliquant un utilisateur donné,
@@ -32,21 +67,25 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     /**
      * Trouve toutes les réservations d'un client.
      * Récupère toutes les réservations où l'utilisateur spécifié est le client.
+     * Le client, le prestataire et le service sont chargés dans la même requête.
      *
      * @param clientId L'identifiant du client
      * @return Liste des réservations du client
      * @throws IllegalArgumentException si clientId est null
      */
+    @EntityGraph(Reservation.GRAPH_DETAIL)
     List<Reservation> findByClientId(Long clientId);
 
     /**
      * Trouve toutes les réservations d'un prestataire.
      * Récupère toutes les réservations où l'utilisateur spécifié est le prestataire.
+     * Le client, le prestataire et le service sont chargés dans la même requête.
      *
      * @param providerId L'identifiant du prestataire
      * @return Liste des réservations du prestataire
      * @throws IllegalArgumentException si providerId est null
      */
+    @EntityGraph(Reservation.GRAPH_DETAIL)
     List<Reservation> findByProviderId(Long providerId);
 
     /**
@@ -85,22 +124,161 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
      * Trouve une réservation spécifique par son identifiant et vérifie que l'utilisateur y a accès.
      * L'utilisateur doit être soit le client soit le prestataire de la réservation.
      * Cette méthode assure la sécurité en vérifiant l'autorisation d'accès.
+     * Le client, le prestataire et le service sont chargés dans la même requête.
      *
      * @param id L'identifiant de la réservation
      * @param userId L'identifiant de l'utilisateur (client ou prestataire)
      * @return Optional contenant la réservation si trouvée et accessible
      * @throws IllegalArgumentException si id ou userId sont null
      */
+    @EntityGraph(Reservation.GRAPH_DETAIL)
     @Query("SELECT r FROM Reservation r WHERE r.id = :id AND (r.client.id = :userId OR r.provider.id = :userId)")
     Optional<Reservation> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
     /**
      * Trouve une réservation par l'identifiant de sa conversation.
-     * Récupère la réservation associée à une conversation spécifique.
+     * Récupère la réservation associée à une conversation spécifique, avec son client, son
+     * prestataire et son service.
      *
      * @param conversationId L'identifiant de la conversation
      * @return Optional contenant la réservation si trouvée
      * @throws IllegalArgumentException si conversationId est null
      */
+    @EntityGraph(Reservation.GRAPH_DETAIL)
     Optional<Reservation> findByConversationId(Long conversationId);
+
+    /**
+     * Trouve une réservation avec son client, son prestataire et son service.
+     *
+     * @param id L'identifiant de la réservation
+     * @return Optional contenant la réservation si trouvée
+     */
+    @EntityGraph(Reservation.GRAPH_DETAIL)
+    Optional<Reservation> findWithDetailsById(Long id);
+
+    /**
+     * Trouve une réservation avec son client et son prestataire.
+     *
+     * @param id L'identifiant de la réservation
+     * @return Optional contenant la réservation si trouvée
+     */
+    @EntityGraph(Reservation.GRAPH_PARTICIPANTS)
+    Optional<Reservation> findWithParticipantsById(Long id);
+
+    /**
+     * Trouve la réservation créée par une session Stripe Checkout, avec son client, son
+     * prestataire et son service.
+     *
+     * @param stripeSessionId L'identifiant de la session Stripe
+     * @return Optional contenant la réservation si elle a déjà été créée
+     */
+    @EntityGraph(Reservation.GRAPH_DETAIL)
+    Optional<Reservation> findByStripeSessionId(String stripeSessionId);
+
+    /**
+     * Indique si une session Stripe Checkout a déjà créé sa réservation.
+     *
+     * @param stripeSessionId L'identifiant de la session Stripe
+     * @return true si la réservation existe
+     */
+    boolean existsByStripeSessionId(String stripeSessionId);
+
+    /**
+     * Trouve toutes les réservations à partir d'une date donnée dont le statut est différent de celui spécifié.
+     * Utilisé pour construire l'index de disponibilité en mémoire (réservations non annulées à venir),
+     * qui ne lit que l'identifiant du prestataire : aucune association n'est chargée.
+     *
+     * @param date La date de début (incluse)
+     * @param status Le statut à exclure
+     * @return Liste des réservations correspondantes
+     */
+    List<Reservation> findByReservationDateGreaterThanEqualAndStatusNot(LocalDate date, ReservationStatus status);
+
+    /**
+     * Indique si un prestataire a déjà une réservation qui chevauche le créneau donné.
+     * Les réservations ayant le statut exclu (typiquement CANCELLED) sont ignorées.
+     *
+     * @param providerId L'identifiant du prestataire
+     * @param date La journée du créneau
+     * @param startTime L'heure de début du créneau
+     * @param endTime L'heure de fin du créneau
+     * @param excludedStatus Le statut des réservations à ignorer
+     * @return true si au moins une réservation chevauche le créneau
+     */
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r "
+            + "WHERE r.provider.id = :providerId AND r.reservationDate = :date AND r.status <> :excludedStatus "
+            + "AND r.startDate < :endTime AND r.endDate > :startTime")
+    boolean existsOverlapping(@Param("providerId") Long providerId, @Param("date") LocalDate date,
+            @Param("startTime") LocalTime startTime, @Param("endTime") LocalTime endTime,
+            @Param("excludedStatus") ReservationStatus excludedStatus);
+
+    /**
+     * Récupère une page de réservations d'un client, triée de la plus récente à la plus ancienne.
+     * Tous les filtres sont optionnels ; les paramètres du curseur sont tous null pour la première page.
+     *
+     * @param clientId L'identifiant du client
+     * @param status Le statut à filtrer, ou null
+     * @param fromDate La date de début (incluse), ou null
+     * @param toDate La date de fin (incluse), ou null
+     * @param cursorDate La date de la dernière réservation de la page précédente, ou null
+     * @param cursorTime L'heure de début de la dernière réservation de la page précédente, ou null
+     * @param cursorId L'identifiant de la dernière réservation de la page précédente, ou null
+     * @param pageable La taille de la page (la page demandée doit être la première)
+     * @return Les réservations de la page
+     */
+    @Query(PAGE_SELECT + "WHERE cl.id = :userId " + PAGE_FILTERS)
+    List<ReservationResponseDTO> findPageByClientId(@Param("userId") Long clientId,
+            @Param("status") ReservationStatus status, @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate, @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorTime") LocalTime cursorTime, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    /**
+     * Récupère une page de réservations d'un prestataire, triée de la plus récente à la plus ancienne.
+     * Tous les filtres sont optionnels ; les paramètres du curseur sont tous null pour la première page.
+     *
+     * @param providerId L'identifiant du prestataire
+     * @param status Le statut à filtrer, ou null
+     * @param fromDate La date de début (incluse), ou null
+     * @param toDate La date de fin (incluse), ou null
+     * @param cursorDate La date de la dernière réservation de la page précédente, ou null
+     * @param cursorTime L'heure de début de la dernière réservation de la page précédente, ou null
+     * @param cursorId L'identifiant de la dernière réservation de la page précédente, ou null
+     * @param pageable La taille de la page (la page demandée doit être la première)
+     * @return Les réservations de la page
+     */
+    @Query(PAGE_SELECT + "WHERE p.id = :userId " + PAGE_FILTERS)
+    List<ReservationResponseDTO> findPageByProviderId(@Param("userId") Long providerId,
+            @Param("status") ReservationStatus status, @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate, @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorTime") LocalTime cursorTime, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    /**
+     * Récupère les identifiants des réservations d'un statut donné dont le créneau est terminé.
+     * Utilisé par la clôture automatique, par lots triés par identifiant.
+     *
+     * @param status Le statut des réservations à rechercher
+     * @param today La date courante
+     * @param now L'heure courante
+     * @param pageable La taille du lot (la page demandée doit être la première)
+     * @return Les identifiants des réservations terminées
+     */
+    @Query("SELECT r.id FROM Reservation r WHERE r.status = :status "
+            + "AND (r.reservationDate < :today OR (r.reservationDate = :today AND r.endDate <= :now)) "
+            + "ORDER BY r.id")
+    List<Long> findFinishedIds(@Param("status") ReservationStatus status, @Param("today") LocalDate today,
+            @Param("now") LocalTime now, Pageable pageable);
+
+    /**
+     * Change en masse le statut d'un lot de réservations, sans les charger.
+     * Seules les réservations encore dans le statut attendu sont modifiées.
+     *
+     * @param ids Les identifiants des réservations
+     * @param currentStatus Le statut attendu
+     * @param newStatus Le nouveau statut
+     * @return Le nombre de réservations modifiées
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :newStatus WHERE r.id IN :ids AND r.status = :currentStatus")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("currentStatus") ReservationStatus currentStatus,
+            @Param("newStatus") ReservationStatus newStatus);
 }
@@ -1,10 +1,18 @@
 package com.mastere_project.vacances_tranquilles.repository;
 
+import com.mastere_project.vacances_tranquilles.dto.ReviewDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReviewWithReviewerDTO;
 import com.mastere_project.vacances_tranquilles.entity.Review;
+import com.mastere_project.vacances_tranquilles.model.RatingBucket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository Spring Data JPA pour l'entité Review.
@@ -13,6 +21,28 @@ import java.util.List;
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
+    /**
+     * Projection d'un avis vers ReviewDTO, sans charger les utilisateurs liés.
+     */
+    String REVIEW_SELECT = "SELECT new com.mastere_project.vacances_tranquilles.dto.ReviewDTO("
+            + "r.id, r.note, r.commentaire, r.reservationId, rv.id, rd.id, r.createdAt) "
+            + "FROM Review r LEFT JOIN r.reviewer rv LEFT JOIN r.reviewed rd ";
+
+    /**
+     * Projection d'un avis vers ReviewWithReviewerDTO, l'auteur étant joint une seule fois.
+     */
+    String REVIEW_WITH_REVIEWER_SELECT = "SELECT new com.mastere_project.vacances_tranquilles.dto.ReviewWithReviewerDTO("
+            + "r.id, r.note, r.commentaire, r.reservationId, rv.id, rd.id, r.createdAt, rv.firstName) "
+            + "FROM Review r LEFT JOIN r.reviewer rv LEFT JOIN r.reviewed rd ";
+
+    /**
+     * Condition de curseur des listes paginées. L'ordre est (createdAt, id) décroissant ;
+     * le curseur désigne la dernière ligne de la page précédente.
+     */
+    String PAGE_FILTERS = "AND (:cursorId IS NULL OR r.createdAt < :cursorCreatedAt "
+            + "OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId)) "
+            + "ORDER BY r.createdAt DESC, r.id DESC";
+
     /**
      * Recherche toutes les évaluations reçues par un utilisateur spécifique.
      *
@@ -63,4 +93,60 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      * @return la liste des évaluations pour cette réservation
      */
     List<Review> findByReservationId(Long reservationId);
-}
\ No newline at end of file
+
+    /**
+     * Récupère une page des avis rédigés par un utilisateur, du plus récent au plus ancien.
+     * Les paramètres du curseur sont null pour la première page.
+     *
+     * @param reviewerId      l'identifiant de l'évaluateur
+     * @param cursorCreatedAt la date de création du dernier avis de la page précédente, ou null
+     * @param cursorId        l'identifiant du dernier avis de la page précédente, ou null
+     * @param pageable        la limite de la page
+     * @return les avis de la page
+     */
+    @Query(REVIEW_SELECT + "WHERE rv.id = :userId " + PAGE_FILTERS)
+    List<ReviewDTO> findPageByReviewerId(@Param("userId") Long reviewerId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt, @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Récupère une page des avis reçus par un utilisateur, du plus récent au plus ancien.
+     * Les paramètres du curseur sont null pour la première page.
+     *
+     * @param reviewedId      l'identifiant de l'utilisateur évalué
+     * @param cursorCreatedAt la date de création du dernier avis de la page précédente, ou null
+     * @param cursorId        l'identifiant du dernier avis de la page précédente, ou null
+     * @param pageable        la limite de la page
+     * @return les avis de la page
+     */
+    @Query(REVIEW_SELECT + "WHERE rd.id = :userId " + PAGE_FILTERS)
+    List<ReviewDTO> findPageByReviewedId(@Param("userId") Long reviewedId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt, @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Récupère une page des avis reçus par un utilisateur avec le prénom de leur auteur,
+     * du plus récent au plus ancien. Les paramètres du curseur sont null pour la première page.
+     *
+     * @param reviewedId      l'identifiant de l'utilisateur évalué
+     * @param cursorCreatedAt la date de création du dernier avis de la page précédente, ou null
+     * @param cursorId        l'identifiant du dernier avis de la page précédente, ou null
+     * @param pageable        la limite de la page
+     * @return les avis de la page
+     */
+    @Query(REVIEW_WITH_REVIEWER_SELECT + "WHERE rd.id = :userId " + PAGE_FILTERS)
+    List<ReviewWithReviewerDTO> findPageWithReviewerByReviewedId(@Param("userId") Long reviewedId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt, @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Regroupe tous les avis par utilisateur évalué et par note, triés par utilisateur.
+     * Utilisé pour recalculer les agrégats de notes en une seule passe.
+     *
+     * @return le flux des regroupements (à fermer après usage, dans une transaction)
+     */
+    @Query("SELECT new com.mastere_project.vacances_tranquilles.model.RatingBucket(r.reviewed.id, r.note, COUNT(r)) "
+            + "FROM Review r WHERE r.reviewed IS NOT NULL "
+            + "GROUP BY r.reviewed.id, r.note ORDER BY r.reviewed.id")
+    Stream<RatingBucket> streamRatingBuckets();
+}
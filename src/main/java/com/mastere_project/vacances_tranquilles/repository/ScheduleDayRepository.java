@@ -0,0 +1,25 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.ScheduleDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Repository Spring Data JPA pour l'entité ScheduleDay.
+ * Donne accès aux masques journaliers de créneaux occupés des prestataires.
+ */
+@Repository
+public interface ScheduleDayRepository extends JpaRepository<ScheduleDay, Long> {
+
+    /**
+     * Recherche le masque d'un prestataire pour une journée.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param date       la journée
+     * @return le masque s'il existe
+     */
+    Optional<ScheduleDay> findByProviderIdAndDate(Long providerId, LocalDate date);
+}
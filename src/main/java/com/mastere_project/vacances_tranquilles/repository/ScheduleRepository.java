@@ -0,0 +1,70 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Repository Spring Data JPA pour l'entité Schedule.
+ * Fournit des méthodes pour rechercher les créneaux occupés des prestataires.
+ */
+@Repository
+public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
+
+    /**
+     * Recherche tous les créneaux d'un prestataire.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @return la liste des créneaux du prestataire
+     */
+    List<Schedule> findByProviderId(Long providerId);
+
+    /**
+     * Recherche tous les créneaux à partir d'une date donnée (incluse).
+     * Utilisé pour construire l'index de disponibilité en mémoire.
+     *
+     * @param date la date de début (incluse)
+     * @return la liste des créneaux à partir de cette date
+     */
+    List<Schedule> findByDateGreaterThanEqual(LocalDate date);
+
+    /**
+     * Recherche les créneaux d'un prestataire pour une journée donnée.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param date       la journée
+     * @return la liste des créneaux du prestataire ce jour-là
+     */
+    List<Schedule> findByProviderIdAndDate(Long providerId, LocalDate date);
+
+    /**
+     * Recherche les créneaux d'un prestataire sur une période.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param from       premier jour (inclus)
+     * @param to         dernier jour (inclus)
+     * @return la liste des créneaux du prestataire sur la période
+     */
+    List<Schedule> findByProviderIdAndDateBetween(Long providerId, LocalDate from, LocalDate to);
+
+    /**
+     * Indique si un prestataire a une plage bloquée qui chevauche le créneau donné.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param date       la journée du créneau
+     * @param startTime  l'heure de début du créneau
+     * @param endTime    l'heure de fin du créneau
+     * @return true si au moins une plage bloquée chevauche le créneau
+     */
+    @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM Schedule s "
+            + "WHERE s.provider.id = :providerId AND s.date = :date "
+            + "AND s.startTime < :endTime AND s.endTime > :startTime")
+    boolean existsOverlapping(@Param("providerId") Long providerId, @Param("date") LocalDate date,
+            @Param("startTime") LocalTime startTime, @Param("endTime") LocalTime endTime);
+}
@@ -0,0 +1,32 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository Spring Data JPA pour l'entité ScheduleRule.
+ * Fournit l'accès aux règles de disponibilité récurrentes des prestataires.
+ */
+@Repository
+public interface ScheduleRuleRepository extends JpaRepository<ScheduleRule, Long> {
+
+    /**
+     * Recherche toutes les règles d'un prestataire.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @return la liste des règles du prestataire
+     */
+    List<ScheduleRule> findByProviderId(Long providerId);
+
+    /**
+     * Recherche toutes les règles d'un ensemble de prestataires.
+     *
+     * @param providerIds les identifiants des prestataires
+     * @return la liste des règles de ces prestataires
+     */
+    List<ScheduleRule> findByProviderIdIn(Collection<Long> providerIds);
+}
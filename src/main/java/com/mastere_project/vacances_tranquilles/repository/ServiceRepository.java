@@ -1,8 +1,12 @@
 package com.mastere_project.vacances_tranquilles.repository;
 
 import com.mastere_project.vacances_tranquilles.entity.Service;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -10,10 +14,51 @@ import java.util.List;
 import java.util.Optional;
 
 public interface ServiceRepository extends JpaRepository<Service, Long> {
+        /**
+         * Liste les services d'un prestataire. Le résultat passe par le cache de requêtes,
+         * invalidé à toute écriture dans la table service.
+         *
+         * @param providerId l'identifiant du prestataire
+         * @return les services du prestataire
+         */
+        @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
         List<Service> findByProviderId(Long providerId);
 
         Optional<Service> findById(Long id);
 
+        /**
+         * Trouve un service avec son prestataire.
+         *
+         * @param id l'identifiant du service
+         * @return le service s'il existe
+         */
+        @EntityGraph(Service.GRAPH_PROVIDER)
+        Optional<Service> findWithProviderById(Long id);
+
+        /**
+         * Charge tous les services avec leur prestataire en une seule requête, pour
+         * construire l'index de disponibilité en mémoire.
+         *
+         * @return la liste de tous les services
+         */
+        @EntityGraph(Service.GRAPH_PROVIDER)
+        @Query("SELECT s FROM Service s")
+        List<Service> findAllWithProvider();
+
+        /**
+         * Recherche les services d'une catégorie dont le prestataire est situé dans le
+         * code postal donné et n'a ni créneau occupé ni réservation non annulée
+         * chevauchant la plage horaire demandée.
+         * Cette requête sert de repli à l'index de disponibilité en mémoire et de
+         * référence pour vérifier ses résultats.
+         *
+         * @param category   la catégorie du service
+         * @param postalCode le code postal du prestataire
+         * @param date       la date souhaitée
+         * @param startTime  l'heure de début souhaitée
+         * @param endTime    l'heure de fin souhaitée
+         * @return la liste des services disponibles
+         */
         @Query("SELECT s FROM Service s " +
                         "JOIN s.provider p " +
                         "WHERE (:category IS NULL OR s.category = :category) " +
@@ -24,6 +69,14 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
                         "   AND sch.date = :date " +
                         "   AND sch.startTime < :endTime " +
                         "   AND sch.endTime > :startTime" +
+                        ") " +
+                        "AND NOT EXISTS (" +
+                        "   SELECT 1 FROM Reservation r " +
+                        "   WHERE r.provider = p " +
+                        "   AND r.status <> com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus.CANCELLED " +
+                        "   AND r.reservationDate = :date " +
+                        "   AND r.startDate < :endTime " +
+                        "   AND r.endDate > :startTime" +
                         ")")
         List<Service> findAvailableServices(
                         @Param("category") String category,
@@ -31,4 +84,46 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
                         @Param("date") LocalDate date,
                         @Param("startTime") LocalTime startTime,
                         @Param("endTime") LocalTime endTime);
-}
\ No newline at end of file
+
+        /**
+         * Variante de {@link #findAvailableServices} s'appuyant sur les masques
+         * journaliers (table schedule_days) au lieu des intervalles de la table
+         * schedules : le chevauchement se réduit à un ET bit à bit entre le masque
+         * du prestataire et celui de la plage demandée.
+         *
+         * @param category   la catégorie du service
+         * @param postalCode le code postal du prestataire
+         * @param date       la date souhaitée
+         * @param startTime  l'heure de début souhaitée (pour les réservations)
+         * @param endTime    l'heure de fin souhaitée (pour les réservations)
+         * @param slotsLow   créneaux 0 à 63 de la plage demandée
+         * @param slotsHigh  créneaux 64 à 95 de la plage demandée
+         * @return la liste des services disponibles
+         */
+        @Query("SELECT s FROM Service s " +
+                        "JOIN s.provider p " +
+                        "WHERE (:category IS NULL OR s.category = :category) " +
+                        "AND (p.postalCode = :postalCode) " +
+                        "AND NOT EXISTS (" +
+                        "   SELECT 1 FROM ScheduleDay d " +
+                        "   WHERE d.provider = p " +
+                        "   AND d.date = :date " +
+                        "   AND (bitand(d.slotsLow, cast(:slotsLow as Long)) <> 0 OR bitand(d.slotsHigh, cast(:slotsHigh as Long)) <> 0)" +
+                        ") " +
+                        "AND NOT EXISTS (" +
+                        "   SELECT 1 FROM Reservation r " +
+                        "   WHERE r.provider = p " +
+                        "   AND r.status <> com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus.CANCELLED " +
+                        "   AND r.reservationDate = :date " +
+                        "   AND r.startDate < :endTime " +
+                        "   AND r.endDate > :startTime" +
+                        ")")
+        List<Service> findAvailableServicesBitmap(
+                        @Param("category") String category,
+                        @Param("postalCode") String postalCode,
+                        @Param("date") LocalDate date,
+                        @Param("startTime") LocalTime startTime,
+                        @Param("endTime") LocalTime endTime,
+                        @Param("slotsLow") long slotsLow,
+                        @Param("slotsHigh") long slotsHigh);
+}
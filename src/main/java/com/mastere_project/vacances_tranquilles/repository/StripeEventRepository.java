@@ -0,0 +1,82 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.StripeEvent;
+import com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository Spring Data JPA pour l'entité StripeEvent.
+ * Un événement est pris par un worker via un UPDATE conditionnel, ce qui départage les
+ * workers et les nœuds concurrents.
+ */
+@Repository
+public interface StripeEventRepository extends JpaRepository<StripeEvent, String> {
+
+    /**
+     * Prend un événement en attente, ou dont le bail de traitement a expiré.
+     *
+     * @param id    l'identifiant de l'événement
+     * @param now   l'instant courant
+     * @param until la fin du bail de traitement
+     * @return 1 si l'événement a été pris, 0 sinon
+     */
+    @Modifying
+    @Query("UPDATE StripeEvent e SET "
+            + "e.status = com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus.PROCESSING, "
+            + "e.attempts = e.attempts + 1, e.lockedUntil = :until "
+            + "WHERE e.id = :id "
+            + "AND (e.status = com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus.RECEIVED "
+            + "OR (e.status = com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus.PROCESSING "
+            + "AND e.lockedUntil < :now))")
+    int claim(@Param("id") String id, @Param("now") Instant now, @Param("until") Instant until);
+
+    /**
+     * Termine le traitement d'un événement pris.
+     *
+     * @param id            l'identifiant de l'événement
+     * @param status        le statut final, ou RECEIVED pour une nouvelle tentative
+     * @param reservationId la réservation créée, le cas échéant
+     * @param lastError     le message de la dernière erreur, le cas échéant
+     * @param processedAt   l'instant de fin de traitement
+     * @return 1 si l'événement a été mis à jour
+     */
+    @Modifying
+    @Query("UPDATE StripeEvent e SET e.status = :status, e.reservationId = :reservationId, "
+            + "e.lastError = :lastError, e.processedAt = :processedAt, e.lockedUntil = null "
+            + "WHERE e.id = :id")
+    int complete(@Param("id") String id, @Param("status") StripeEventStatus status,
+            @Param("reservationId") Long reservationId, @Param("lastError") String lastError,
+            @Param("processedAt") Instant processedAt);
+
+    /**
+     * Liste les événements à (re)traiter, du plus ancien au plus récent : en attente, ou pris
+     * par un worker dont le bail a expiré.
+     *
+     * @param now      l'instant courant
+     * @param pageable le nombre maximal d'événements
+     * @return les identifiants des événements
+     */
+    @Query("SELECT e.id FROM StripeEvent e "
+            + "WHERE e.status = com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus.RECEIVED "
+            + "OR (e.status = com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus.PROCESSING "
+            + "AND e.lockedUntil < :now) "
+            + "ORDER BY e.receivedAt")
+    List<String> findPendingIds(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Liste les statuts des événements reçus pour une session Checkout.
+     *
+     * @param sessionId l'identifiant de la session Stripe
+     * @return les statuts, un par événement
+     */
+    @Query("SELECT e.status FROM StripeEvent e WHERE e.sessionId = :sessionId")
+    List<StripeEventStatus> findStatusesBySessionId(@Param("sessionId") String sessionId);
+}
@@ -0,0 +1,33 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.UserRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository Spring Data JPA pour l'entité UserRating.
+ */
+@Repository
+public interface UserRatingRepository extends JpaRepository<UserRating, Long> {
+
+    /**
+     * Ajoute atomiquement une note à l'agrégat d'un utilisateur, sans relire la ligne.
+     *
+     * @param userId l'identifiant de l'utilisateur évalué
+     * @param note   la note reçue (1 à 5)
+     * @return 1 si l'agrégat a été mis à jour, 0 s'il n'existe pas
+     */
+    @Modifying
+    @Query("UPDATE UserRating u SET u.reviewCount = u.reviewCount + 1, "
+            + "u.ratingSum = u.ratingSum + cast(:note as Integer), "
+            + "u.count1 = u.count1 + CASE WHEN cast(:note as Integer) = 1 THEN 1 ELSE 0 END, "
+            + "u.count2 = u.count2 + CASE WHEN cast(:note as Integer) = 2 THEN 1 ELSE 0 END, "
+            + "u.count3 = u.count3 + CASE WHEN cast(:note as Integer) = 3 THEN 1 ELSE 0 END, "
+            + "u.count4 = u.count4 + CASE WHEN cast(:note as Integer) = 4 THEN 1 ELSE 0 END, "
+            + "u.count5 = u.count5 + CASE WHEN cast(:note as Integer) = 5 THEN 1 ELSE 0 END "
+            + "WHERE u.userId = :userId")
+    int addNote(@Param("userId") Long userId, @Param("note") int note);
+}
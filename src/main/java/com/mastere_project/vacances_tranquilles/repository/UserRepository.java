@@ -1,7 +1,10 @@
 package com.mastere_project.vacances_tranquilles.repository;
 
 import com.mastere_project.vacances_tranquilles.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,11 +15,13 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     /**
-     * Recherche un utilisateur par email.
+     * Recherche un utilisateur par email. Le résultat passe par le cache de requêtes, invalidé à
+     * toute écriture dans la table users.
      *
      * @param email l'email à rechercher
      * @return un Optional contenant l'utilisateur s'il existe, sinon vide
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
 
     
@@ -0,0 +1,100 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.dto.ServiceDTO;
+import com.mastere_project.vacances_tranquilles.entity.Reservation;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Index en mémoire de la disponibilité des prestataires.
+ * Permet de répondre à la recherche de services disponibles sans interroger la
+ * base de données. L'index est maintenu à jour de manière incrémentale à chaque
+ * modification d'un service, d'un créneau ou d'une réservation.
+ */
+public interface AvailabilityIndex {
+
+    /**
+     * Indique si l'index est chargé et peut être utilisé pour la recherche.
+     * Lorsque l'index n'est pas prêt, la recherche doit se replier sur la requête
+     * JPQL.
+     *
+     * @return true si l'index est utilisable, false sinon
+     */
+    boolean isReady();
+
+    /**
+     * Recherche les services disponibles à partir de l'index.
+     *
+     * @param category   la catégorie du service
+     * @param postalCode le code postal du prestataire
+     * @param date       la date souhaitée
+     * @param startTime  l'heure de début souhaitée
+     * @param endTime    l'heure de fin souhaitée
+     * @return la liste des services disponibles
+     */
+    List<ServiceDTO> findAvailableServices(String category, String postalCode, LocalDate date,
+            LocalTime startTime, LocalTime endTime);
+
+    /**
+     * Reconstruit entièrement l'index à partir de la base de données.
+     */
+    void rebuild();
+
+    /**
+     * Enregistre la création ou la modification d'un service.
+     *
+     * @param service le service enregistré
+     */
+    void onServiceSaved(Service service);
+
+    /**
+     * Retire un service supprimé de l'index.
+     *
+     * @param serviceId l'identifiant du service supprimé
+     */
+    void onServiceDeleted(Long serviceId);
+
+    /**
+     * Met à jour les services d'un prestataire dont le profil a changé (code postal).
+     *
+     * @param provider le prestataire modifié
+     */
+    void onProviderUpdated(User provider);
+
+    /**
+     * Enregistre la création ou la modification d'un créneau occupé.
+     *
+     * @param schedule le créneau enregistré
+     */
+    void onScheduleSaved(Schedule schedule);
+
+    /**
+     * Retire un créneau supprimé de l'index.
+     *
+     * @param scheduleId l'identifiant du créneau supprimé
+     */
+    void onScheduleDeleted(Long scheduleId);
+
+    /**
+     * Enregistre la création ou le changement de statut d'une réservation.
+     * Une réservation annulée libère le créneau du prestataire.
+     *
+     * @param reservation la réservation enregistrée
+     */
+    void onReservationSaved(Reservation reservation);
+
+    /**
+     * Remplace les règles de disponibilité récurrentes d'un prestataire.
+     * Un prestataire sans règle reste disponible hors créneaux occupés.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param rules      ses règles actuelles
+     */
+    void onScheduleRulesUpdated(Long providerId, List<RecurringRule> rules);
+}
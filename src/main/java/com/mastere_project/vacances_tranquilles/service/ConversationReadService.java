@@ -0,0 +1,27 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+/**
+ * Interface définissant la gestion de l'état de lecture des conversations.
+ * Chaque participant a un « dernier message lu » par conversation ; l'état lu/non lu
+ * des messages et le nombre de messages non lus en sont déduits.
+ */
+public interface ConversationReadService {
+
+    /**
+     * Marque comme lus les messages d'une conversation jusqu'à un message donné.
+     * Aucune écriture n'est faite si le participant a déjà lu ce message.
+     *
+     * @param conversationId l'identifiant de la conversation
+     * @param userId         l'identifiant du lecteur
+     * @param messageId      l'identifiant du dernier message lu
+     * @return true si l'état de lecture a avancé
+     */
+    boolean markRead(Long conversationId, Long userId, long messageId);
+
+    /**
+     * Initialise les états de lecture à partir de l'ancien indicateur de lecture des messages.
+     *
+     * @return le nombre d'états de lecture créés
+     */
+    int migrateFromMessageFlags();
+}
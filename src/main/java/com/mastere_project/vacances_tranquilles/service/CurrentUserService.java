@@ -0,0 +1,29 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+
+import java.util.Optional;
+
+/**
+ * Interface donnant accès à l'utilisateur connecté.
+ * L'utilisateur est résolu une fois par requête et gardé brièvement en cache entre les requêtes,
+ * ce qui évite de relire la table users à chaque appel de service.
+ */
+public interface CurrentUserService {
+
+    /**
+     * Récupère l'utilisateur connecté.
+     *
+     * @return l'utilisateur connecté, ou vide s'il n'existe plus en base
+     * @throws org.springframework.security.access.AccessDeniedException si aucun utilisateur n'est authentifié
+     */
+    Optional<AuthenticatedUser> findCurrentUser();
+
+    /**
+     * Invalide l'utilisateur en cache après une modification de son compte.
+     * L'invalidation a lieu à la validation de la transaction courante.
+     *
+     * @param userId l'identifiant de l'utilisateur modifié
+     */
+    void evict(Long userId);
+}
@@ -0,0 +1,45 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Service de baux d'exécution pour les tâches planifiées.
+ * Garantit qu'une tâche n'est exécutée que par un seul nœud à la fois lorsque
+ * l'application est déployée sur plusieurs instances.
+ */
+public interface JobLeaseService {
+
+    /**
+     * Tente de prendre (ou de prolonger) le bail d'une tâche pour ce nœud.
+     *
+     * @param name     le nom de la tâche
+     * @param duration la durée du bail
+     * @return true si ce nœud détient le bail, false si un autre nœud le détient
+     */
+    boolean tryAcquire(String name, Duration duration);
+
+    /**
+     * Libère le bail d'une tâche s'il est détenu par ce nœud.
+     *
+     * @param name le nom de la tâche
+     */
+    void release(String name);
+
+    /**
+     * Retourne la dernière journée entièrement traitée par une tâche.
+     *
+     * @param name le nom de la tâche
+     * @return la dernière journée traitée, vide si la tâche n'en a encore terminé aucune
+     */
+    Optional<LocalDate> findCompletedThrough(String name);
+
+    /**
+     * Enregistre la dernière journée entièrement traitée par une tâche dont ce nœud détient le bail.
+     *
+     * @param name le nom de la tâche
+     * @param day  la dernière journée traitée
+     */
+    void markCompletedThrough(String name, LocalDate day);
+}
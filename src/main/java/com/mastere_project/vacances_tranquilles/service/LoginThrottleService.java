@@ -0,0 +1,39 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+/**
+ * Service de limitation des tentatives de connexion (protection contre la force brute).
+ * Les échecs sont comptés par clé (l'email saisi) ; au-delà du seuil, la clé est bloquée
+ * pendant une durée fixe. Les entrées expirent d'elles-mêmes, le nombre de clés suivies
+ * reste donc borné même face à des emails aléatoires.
+ */
+public interface LoginThrottleService {
+
+    /**
+     * Indique si la clé est actuellement bloquée.
+     *
+     * @param key la clé de connexion (email)
+     * @return true si les tentatives doivent être refusées
+     */
+    boolean isBlocked(String key);
+
+    /**
+     * Enregistre un échec de connexion et bloque la clé si le seuil est atteint.
+     *
+     * @param key la clé de connexion (email)
+     */
+    void recordFailure(String key);
+
+    /**
+     * Oublie les échecs d'une clé après une connexion réussie.
+     *
+     * @param key la clé de connexion (email)
+     */
+    void reset(String key);
+
+    /**
+     * Supprime les entrées expirées.
+     *
+     * @return le nombre d'entrées supprimées
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,26 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.model.MessageEvent;
+
+/**
+ * Transport des événements de messages entre les nœuds de l'application. Chaque nœud tient
+ * en mémoire ses propres flux ouverts : le nœud qui publie un événement l'envoie d'abord aux
+ * autres nœuds, puis le livre à ses propres flux ; chaque autre nœud le livre aux siens.
+ */
+public interface MessageEventBus {
+
+    /**
+     * Envoie un événement aux autres nœuds. Un échec d'envoi est journalisé sans être propagé :
+     * le message est déjà enregistré et les clients le retrouvent en rechargeant la conversation.
+     *
+     * @param event l'événement à envoyer
+     */
+    void publish(MessageEvent event);
+
+    /**
+     * Enregistre le récepteur des événements publiés par les autres nœuds.
+     *
+     * @param listener le récepteur de ce nœud
+     */
+    void subscribe(MessageEventListener listener);
+}
@@ -0,0 +1,27 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.model.MessageEvent;
+
+import java.util.Collection;
+
+/**
+ * Récepteur, sur un nœud, des événements de messages publiés par les autres nœuds.
+ */
+public interface MessageEventListener {
+
+    /**
+     * Indique si ce nœud tient un flux ouvert pour l'un des utilisateurs : sinon l'événement
+     * n'a pas à être reconstitué.
+     *
+     * @param userIds les identifiants des destinataires
+     * @return true si au moins un destinataire est connecté à ce nœud
+     */
+    boolean hasSubscribers(Collection<Long> userIds);
+
+    /**
+     * Livre un événement aux flux ouverts sur ce nœud, sans bloquer l'appelant.
+     *
+     * @param event l'événement à livrer
+     */
+    void deliver(MessageEvent event);
+}
@@ -18,6 +18,19 @@ public interface MessageService {
      */
     List<MessageResponseDTO> getMessagesByConversationId(Long conversationId);
 
+    /**
+     * Récupère un lot de messages d'une conversation autour d'un curseur et marque comme lus
+     * ceux envoyés par l'autre utilisateur.
+     *
+     * @param conversationId l'identifiant de la conversation
+     * @param afterId        retourne les messages postérieurs à ce message, ou null
+     * @param beforeId       retourne les messages antérieurs à ce message, ou null
+     * @param limit          le nombre maximal de messages, ou null pour la valeur par défaut
+     * @return les messages du lot, par ordre chronologique
+     */
+    List<MessageResponseDTO> getMessagesByConversationId(Long conversationId, Long afterId, Long beforeId,
+            Integer limit);
+
     /**
      * Envoie un nouveau message dans une conversation.
      *
@@ -0,0 +1,38 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+/**
+ * Interface définissant la diffusion en temps réel des messages aux utilisateurs connectés
+ * (Server-Sent Events), en remplacement de l'interrogation périodique des conversations.
+ */
+public interface MessageStreamService {
+
+    /** Nom de l'événement envoyé pour un nouveau message. */
+    String MESSAGE_EVENT = "message";
+
+    /** Nom de l'événement envoyé pour un message modifié. */
+    String MESSAGE_UPDATED_EVENT = "message-updated";
+
+    /**
+     * Ouvre un flux d'événements pour un utilisateur. Un utilisateur peut avoir plusieurs
+     * flux ouverts (plusieurs onglets ou appareils).
+     *
+     * @param userId l'identifiant de l'utilisateur connecté
+     * @return le flux d'événements
+     */
+    SseEmitter subscribe(Long userId);
+
+    /**
+     * Diffuse un message aux flux ouverts des utilisateurs donnés, sur ce nœud et, selon
+     * {@code app.messages.stream.bus}, sur les autres nœuds, sans bloquer l'appelant.
+     *
+     * @param userIds les identifiants des destinataires (participants de la conversation)
+     * @param event   le nom de l'événement
+     * @param message le message à diffuser
+     */
+    void publish(Collection<Long> userIds, String event, MessageDTO message);
+}
@@ -0,0 +1,19 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import java.time.LocalDate;
+
+/**
+ * Service de réconciliation des paiements enregistrés avec les sessions Stripe Checkout.
+ * Les écarts relevés sont enregistrés dans la table payment_discrepancies.
+ */
+public interface PaymentReconciliationService {
+
+    /**
+     * Réconcilie une journée : les sessions Stripe créées ce jour-là et les paiements
+     * enregistrés ce jour-là. Les écarts précédemment relevés pour la journée sont remplacés.
+     *
+     * @param day la journée à réconcilier, dans le fuseau du serveur
+     * @return le nombre d'écarts relevés
+     */
+    int reconcile(LocalDate day);
+}
@@ -0,0 +1,27 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * Verrou de réservation par prestataire et par journée.
+ * Sérialise les opérations « vérifier puis enregistrer » sur le planning d'un
+ * prestataire pour une journée donnée, sans bloquer les autres prestataires ni
+ * les autres journées.
+ */
+public interface ProviderSlotLock {
+
+    /**
+     * Exécute une action sous le verrou du couple (prestataire, journée).
+     * L'action s'exécute dans sa propre transaction, validée avant la libération
+     * du verrou : une réservation enregistrée par l'action est donc visible de
+     * l'appelant suivant.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param date       la journée réservée
+     * @param action     l'action à exécuter
+     * @param <T>        le type du résultat
+     * @return le résultat de l'action
+     */
+    <T> T executeLocked(Long providerId, LocalDate date, Supplier<T> action);
+}
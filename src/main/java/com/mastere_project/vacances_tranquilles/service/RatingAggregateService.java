@@ -0,0 +1,45 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Interface définissant les opérations sur les agrégats de notes des utilisateurs.
+ * Les agrégats sont tenus à jour à chaque avis créé, ce qui évite de relire la table reviews
+ * pour afficher une note moyenne.
+ */
+public interface RatingAggregateService {
+
+    /**
+     * Récupère le résumé des notes reçues par un utilisateur.
+     *
+     * @param userId l'identifiant de l'utilisateur évalué
+     * @return le résumé des notes (vide si aucun avis)
+     */
+    RatingSummaryDTO getRating(Long userId);
+
+    /**
+     * Récupère les résumés de notes de plusieurs utilisateurs en une seule lecture.
+     *
+     * @param userIds les identifiants des utilisateurs évalués
+     * @return les résumés indexés par identifiant d'utilisateur (un résumé vide pour les utilisateurs sans avis)
+     */
+    Map<Long, RatingSummaryDTO> getRatings(Collection<Long> userIds);
+
+    /**
+     * Ajoute une note à l'agrégat de l'utilisateur évalué, dans la transaction courante.
+     *
+     * @param userId l'identifiant de l'utilisateur évalué
+     * @param note   la note reçue (1 à 5)
+     */
+    void onReviewCreated(Long userId, int note);
+
+    /**
+     * Recalcule tous les agrégats à partir de la table reviews, en une seule passe.
+     *
+     * @return le nombre d'utilisateurs dont l'agrégat a été recalculé
+     */
+    int rebuild();
+}
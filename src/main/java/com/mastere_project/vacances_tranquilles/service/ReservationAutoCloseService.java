@@ -0,0 +1,19 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service de clôture automatique des réservations terminées.
+ * Les réservations IN_PROGRESS dont le créneau est passé sont passées à CLOSED,
+ * ce qui permet aux clients de laisser un avis sans attendre une action du prestataire.
+ */
+public interface ReservationAutoCloseService {
+
+    /**
+     * Clôture, par lots, les réservations IN_PROGRESS terminées à l'instant donné.
+     *
+     * @param now l'instant de référence
+     * @return le nombre de réservations clôturées
+     */
+    int closeFinishedReservations(LocalDateTime now);
+}
@@ -1,15 +1,21 @@
 package com.mastere_project.vacances_tranquilles.service;
 
 import com.mastere_project.vacances_tranquilles.dto.ReservationDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReservationPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
 import com.mastere_project.vacances_tranquilles.dto.UpdateReservationStatusDTO;
 import com.mastere_project.vacances_tranquilles.exception.InvalidReservationStatusTransitionException;
 import com.mastere_project.vacances_tranquilles.exception.MissingReservationDataException;
 import com.mastere_project.vacances_tranquilles.exception.ReservationNotFoundException;
+import com.mastere_project.vacances_tranquilles.exception.ReservationSlotUnavailableException;
 import com.mastere_project.vacances_tranquilles.exception.ServiceNotFoundException;
 import com.mastere_project.vacances_tranquilles.exception.UnauthorizedReservationAccessException;
 import com.mastere_project.vacances_tranquilles.exception.UserNotFoundException;
+import com.mastere_project.vacances_tranquilles.model.CheckoutPayment;
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 /**
@@ -34,6 +40,27 @@ public interface ReservationService {
      */
     List<ReservationResponseDTO> getAllReservations();
 
+    /**
+     * Récupère une page de réservations de l'utilisateur authentifié, de la plus récente
+     * à la plus ancienne (date, heure de début, identifiant).
+     * La pagination se fait par curseur : la réponse contient le curseur à renvoyer pour
+     * obtenir la page suivante. Les filtres sont optionnels. Les réservations sans date ni
+     * heure de début n'apparaissent pas dans les pages.
+     * Lorsque la pagination par curseur est désactivée, toutes les réservations filtrées
+     * sont renvoyées dans une seule page.
+     *
+     * @param status Le statut à filtrer, ou null
+     * @param from La date de début (incluse), ou null
+     * @param to La date de fin (incluse), ou null
+     * @param cursor Le curseur de la page précédente, ou null pour la première page
+     * @param size Le nombre maximal de réservations dans la page
+     * @return La page de réservations et le curseur de la page suivante
+     * @throws IllegalArgumentException si la taille, la période ou le curseur sont invalides
+     * @throws UnauthorizedReservationAccessException si l'utilisateur n'est pas autorisé
+     * @throws UserNotFoundException si l'utilisateur n'existe pas en base
+     */
+    ReservationPageDTO getReservations(ReservationStatus status, LocalDate from, LocalDate to, String cursor, int size);
+
     /**
      * Récupère une réservation spécifique par son identifiant.
      * Vérifie que l'utilisateur authentifié a accès à cette réservation (client ou prestataire).
@@ -69,12 +96,46 @@ public interface ReservationService {
      * L'utilisateur authentifié doit être le client de la réservation.
      * La réservation est créée avec le statut PENDING.
      * Le système vérifie automatiquement l'autorisation et valide les données.
+     * La vérification du créneau et l'enregistrement sont sérialisés par prestataire
+     * et par journée, de sorte que deux réservations concurrentes ne peuvent pas
+     * occuper le même créneau.
      *
      * @param dto Les données de création de la réservation
      * @return La réservation créée
      * @throws UnauthorizedReservationAccessException Si l'utilisateur n'est pas autorisé à créer cette réservation
      * @throws MissingReservationDataException si des données requises sont manquantes
      * @throws ServiceNotFoundException si le service spécifié n'existe pas
+     * @throws ReservationSlotUnavailableException si le créneau n'est pas disponible
      */
     ReservationResponseDTO createReservation(ReservationDTO dto);
+
+    /**
+     * Crée la réservation payée par une session Stripe Checkout.
+     * Appelée hors requête utilisateur par le traitement des webhooks Stripe : le client est celui
+     * des métadonnées de la session, dont la signature a été vérifiée. L'opération est idempotente :
+     * si la session a déjà créé sa réservation, celle-ci est renvoyée sans nouvel enregistrement.
+     * Le paiement est enregistré et lié à la réservation dans la même transaction.
+     *
+     * @param dto Les données de création de la réservation
+     * @param payment Le paiement de la session Stripe ayant payé la réservation
+     * @return La réservation créée, ou celle déjà créée par la session
+     * @throws MissingReservationDataException si des données requises sont manquantes
+     * @throws ServiceNotFoundException si le service spécifié n'existe pas
+     * @throws ReservationSlotUnavailableException si le créneau n'est pas disponible
+     */
+    ReservationResponseDTO createPaidReservation(ReservationDTO dto, CheckoutPayment payment);
+
+    /**
+     * Vérifie qu'un créneau est disponible pour un prestataire : aucune réservation
+     * non annulée ni plage bloquée ne le chevauche, et il est couvert par les règles
+     * de disponibilité du prestataire lorsque celui-ci en a déclaré.
+     * Cette vérification ne réserve pas le créneau.
+     *
+     * @param providerId L'identifiant du prestataire
+     * @param date La journée du créneau
+     * @param startTime L'heure de début du créneau
+     * @param endTime L'heure de fin du créneau
+     * @throws ReservationSlotUnavailableException si le créneau n'est pas disponible
+     */
+    void checkSlotAvailable(Long providerId, LocalDate date, LocalTime startTime, LocalTime endTime);
 }
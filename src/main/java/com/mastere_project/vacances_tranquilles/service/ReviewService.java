@@ -1,6 +1,8 @@
 package com.mastere_project.vacances_tranquilles.service;
 
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReviewPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewWithReviewerDTO;
 import java.util.List;
 
@@ -26,34 +28,43 @@ public interface ReviewService {
     ReviewDTO getReviewById(Long reviewId);
 
     /**
-     * Récupère tous les avis rédigés par l'utilisateur authentifié.
+     * Récupère une page des avis rédigés par l'utilisateur authentifié, du plus récent au plus ancien.
      *
-     * @return la liste des avis rédigés
+     * @param cursor le curseur de la page précédente, ou null pour la première page
+     * @param size   le nombre maximal d'avis de la page
+     * @return la page d'avis rédigés
      */
-    List<ReviewDTO> getReviewsWrittenByUser();
+    ReviewPageDTO<ReviewDTO> getReviewsWrittenByUser(String cursor, int size);
 
     /**
-     * Récupère tous les avis reçus par l'utilisateur authentifié.
+     * Récupère une page des avis reçus par l'utilisateur authentifié, du plus récent au plus ancien.
      *
-     * @return la liste des avis reçus
+     * @param cursor le curseur de la page précédente, ou null pour la première page
+     * @param size   le nombre maximal d'avis de la page
+     * @return la page d'avis reçus
      */
-    List<ReviewDTO> getReviewsReceivedByUser();
+    ReviewPageDTO<ReviewDTO> getReviewsReceivedByUser(String cursor, int size);
 
     /**
-     * Récupère tous les avis reçus par un prestataire spécifique.
+     * Récupère une page des avis reçus par un prestataire spécifique, du plus récent au plus ancien.
      *
      * @param providerId l'identifiant du prestataire
-     * @return la liste des avis reçus par le prestataire
+     * @param cursor     le curseur de la page précédente, ou null pour la première page
+     * @param size       le nombre maximal d'avis de la page
+     * @return la page d'avis reçus par le prestataire
      */
-    List<ReviewDTO> getReviewsByProviderId(Long providerId);
+    ReviewPageDTO<ReviewDTO> getReviewsByProviderId(Long providerId, String cursor, int size);
 
     /**
-     * Récupère tous les avis reçus par un prestataire spécifique avec les informations du reviewer.
+     * Récupère une page des avis reçus par un prestataire spécifique avec les informations du reviewer,
+     * du plus récent au plus ancien.
      *
      * @param providerId l'identifiant du prestataire
-     * @return la liste des avis reçus par le prestataire avec les informations du reviewer
+     * @param cursor     le curseur de la page précédente, ou null pour la première page
+     * @param size       le nombre maximal d'avis de la page
+     * @return la page d'avis reçus par le prestataire avec les informations du reviewer
      */
-    List<ReviewWithReviewerDTO> getReviewsWithReviewerByProviderId(Long providerId);
+    ReviewPageDTO<ReviewWithReviewerDTO> getReviewsWithReviewerByProviderId(Long providerId, String cursor, int size);
 
     /**
      * Récupère tous les avis pour une réservation spécifique.
@@ -62,4 +73,12 @@ public interface ReviewService {
      * @return la liste des avis pour la réservation
      */
     List<ReviewDTO> getReviewsByReservationId(Long reservationId);
-}
\ No newline at end of file
+
+    /**
+     * Récupère le résumé des notes reçues par un prestataire (nombre d'avis, moyenne, répartition).
+     *
+     * @param providerId l'identifiant du prestataire
+     * @return le résumé des notes du prestataire
+     */
+    RatingSummaryDTO getRatingByProviderId(Long providerId);
+}
@@ -0,0 +1,31 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.entity.User;
+
+import java.time.LocalDate;
+
+/**
+ * Service de gestion des masques journaliers de créneaux occupés (table schedule_days),
+ * dérivés des intervalles de la table schedules.
+ */
+public interface ScheduleDayService {
+
+    /**
+     * Recalcule tous les masques journaliers à partir des intervalles existants.
+     * L'opération est idempotente : les masques sont recalculés intégralement et
+     * ceux qui ne correspondent plus à aucun intervalle sont supprimés.
+     *
+     * @return le nombre de masques journaliers enregistrés
+     */
+    int migrateFromRows();
+
+    /**
+     * Recalcule le masque d'un prestataire pour une journée à partir de ses intervalles.
+     * Sans effet lorsque le mode de stockage n'est pas BITMAP : les masques sont
+     * alors recalculés intégralement au démarrage en mode BITMAP.
+     *
+     * @param provider le prestataire
+     * @param date     la journée à recalculer
+     */
+    void refreshDay(User provider, LocalDate date);
+}
@@ -0,0 +1,77 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.dto.AvailabilityWindowDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleExceptionDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleRuleDTO;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleExceptionType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service de gestion du planning des prestataires : règles de disponibilité
+ * récurrentes et exceptions ponctuelles.
+ */
+public interface ScheduleService {
+
+    /**
+     * Crée une règle de disponibilité récurrente pour le prestataire connecté.
+     *
+     * @param dto la règle à créer
+     * @return la règle créée
+     */
+    ScheduleRuleDTO createRule(ScheduleRuleDTO dto);
+
+    /**
+     * Récupère les règles du prestataire connecté.
+     *
+     * @return la liste des règles
+     */
+    List<ScheduleRuleDTO> getMyRules();
+
+    /**
+     * Supprime une règle du prestataire connecté.
+     *
+     * @param id l'identifiant de la règle
+     */
+    void deleteRule(Long id);
+
+    /**
+     * Crée une exception ponctuelle pour le prestataire connecté. Une exception AVAILABLE ajoute
+     * une plage ce jour-là sans restreindre les autres dates.
+     *
+     * @param dto l'exception à créer
+     * @return l'exception créée
+     */
+    ScheduleExceptionDTO createException(ScheduleExceptionDTO dto);
+
+    /**
+     * Récupère les exceptions du prestataire connecté sur une période.
+     *
+     * @param from premier jour (inclus)
+     * @param to   dernier jour (inclus)
+     * @return la liste des exceptions
+     */
+    List<ScheduleExceptionDTO> getMyExceptions(LocalDate from, LocalDate to);
+
+    /**
+     * Supprime une exception du prestataire connecté. Une règle récurrente ne peut pas être
+     * supprimée par cette voie.
+     *
+     * @param id   l'identifiant de l'exception
+     * @param type le type de l'exception
+     * @throws com.mastere_project.vacances_tranquilles.exception.ScheduleNotFoundException
+     *         si aucune exception de ce type ne porte cet identifiant
+     */
+    void deleteException(Long id, ScheduleExceptionType type);
+
+    /**
+     * Développe les règles d'un prestataire sur une période.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param from       premier jour (inclus)
+     * @param to         dernier jour (inclus)
+     * @return les plages de disponibilité déclarées, par ordre chronologique
+     */
+    List<AvailabilityWindowDTO> getProviderAvailability(Long providerId, LocalDate from, LocalDate to);
+}
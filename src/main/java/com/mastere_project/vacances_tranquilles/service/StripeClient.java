@@ -0,0 +1,41 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.exception.PaymentGatewayUnavailableException;
+import com.mastere_project.vacances_tranquilles.exception.StripeException;
+import com.mastere_project.vacances_tranquilles.exception.StripeSessionCreationException;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.stripe.param.checkout.SessionCreateParams;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client asynchrone de l'API Stripe.
+ * Les appels ne bloquent pas le thread appelant ; ils échouent vite lorsque Stripe est lent ou
+ * indisponible plutôt que d'immobiliser les threads de requête.
+ */
+public interface StripeClient {
+
+    /**
+     * Crée une session Stripe Checkout.
+     *
+     * @param params les paramètres de la session
+     * @return l'identifiant de la session créée, ou un échec
+     *         {@link StripeSessionCreationException} (refus de Stripe) ou
+     *         {@link PaymentGatewayUnavailableException} (Stripe indisponible ou trop lent)
+     */
+    CompletableFuture<String> createCheckoutSession(SessionCreateParams params);
+
+    /**
+     * Liste une page des sessions Stripe Checkout créées dans une période.
+     *
+     * @param createdFrom   début de la période de création (inclus)
+     * @param createdTo     fin de la période de création (exclue)
+     * @param startingAfter l'identifiant de la dernière session de la page précédente, ou null
+     * @param limit         le nombre maximal de sessions de la page (1 à 100)
+     * @return la page de sessions, ou un échec {@link StripeException} (refus de Stripe) ou
+     *         {@link PaymentGatewayUnavailableException} (Stripe indisponible ou trop lent)
+     */
+    CompletableFuture<StripeSessionPage> listCheckoutSessions(Instant createdFrom, Instant createdTo,
+            String startingAfter, int limit);
+}
@@ -0,0 +1,36 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.stripe.exception.StripeException;
+import com.stripe.param.checkout.SessionCreateParams;
+
+import java.time.Instant;
+
+/**
+ * Transport bloquant des appels à l'API Stripe.
+ * Les appelants passent par {@link StripeClient}, qui exécute ces appels sur un pool dédié.
+ */
+public interface StripeGateway {
+
+    /**
+     * Crée une session Stripe Checkout.
+     *
+     * @param params les paramètres de la session
+     * @return l'identifiant de la session créée
+     * @throws StripeException si Stripe refuse la requête ou ne répond pas
+     */
+    String createCheckoutSession(SessionCreateParams params) throws StripeException;
+
+    /**
+     * Liste une page des sessions Stripe Checkout créées dans une période.
+     *
+     * @param createdFrom   début de la période de création (inclus)
+     * @param createdTo     fin de la période de création (exclue)
+     * @param startingAfter l'identifiant de la dernière session de la page précédente, ou null
+     * @param limit         le nombre maximal de sessions de la page (1 à 100)
+     * @return la page de sessions
+     * @throws StripeException si Stripe refuse la requête ou ne répond pas
+     */
+    StripeSessionPage listCheckoutSessions(Instant createdFrom, Instant createdTo, String startingAfter, int limit)
+            throws StripeException;
+}
@@ -1,13 +1,30 @@
 package com.mastere_project.vacances_tranquilles.service;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.mastere_project.vacances_tranquilles.dto.StripeCheckoutSessionRequestDTO;
+import com.mastere_project.vacances_tranquilles.model.enums.PaymentConfirmationStatus;
 
 public interface StripeService {
-    Map<String, String> createCheckoutSession(StripeCheckoutSessionRequestDTO dto);
+    /**
+     * Crée une session Stripe Checkout pour un créneau encore disponible.
+     * Le service et le créneau sont vérifiés immédiatement ; l'appel à Stripe est asynchrone.
+     *
+     * @param dto le créneau et les participants de la réservation
+     * @return l'identifiant de la session ({@code sessionId}) une fois créée par Stripe
+     */
+    CompletableFuture<Map<String, String>> createCheckoutSession(StripeCheckoutSessionRequestDTO dto);
 
-    void confirmReservation(String sessionId);
+    /**
+     * Indique où en est la réservation payée par une session Checkout.
+     * Simple lecture locale : la réservation est créée par le webhook Stripe, jamais par cet appel,
+     * qui peut donc être répété sans risque de doublon.
+     *
+     * @param sessionId l'identifiant de la session Stripe
+     * @return l'état de la réservation de la session
+     */
+    PaymentConfirmationStatus confirmReservation(String sessionId);
 
 }
 
@@ -0,0 +1,30 @@
+package com.mastere_project.vacances_tranquilles.service;
+
+import com.mastere_project.vacances_tranquilles.exception.InvalidStripeSignatureException;
+
+/**
+ * Service de réception des webhooks Stripe.
+ * Les événements sont vérifiés puis enregistrés une seule fois par identifiant ; leur traitement
+ * (création des réservations payées) est asynchrone.
+ */
+public interface StripeWebhookService {
+
+    /**
+     * Vérifie la signature d'un webhook, enregistre l'événement s'il est nouveau et planifie son
+     * traitement. Un événement déjà reçu est accepté sans effet.
+     *
+     * @param payload         le corps brut de la requête
+     * @param signatureHeader la valeur de l'en-tête Stripe-Signature
+     * @throws InvalidStripeSignatureException si la signature est absente ou invalide
+     * @throws IllegalArgumentException si le corps signé n'est pas un événement Stripe
+     */
+    void receive(String payload, String signatureHeader);
+
+    /**
+     * Replanifie les événements restés en attente : file de traitement pleine à la réception,
+     * erreur transitoire ou worker interrompu.
+     *
+     * @return le nombre d'événements replanifiés
+     */
+    int requeuePending();
+}
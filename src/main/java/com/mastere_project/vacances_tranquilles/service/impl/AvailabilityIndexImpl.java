@@ -0,0 +1,542 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.ServiceDTO;
+import com.mastere_project.vacances_tranquilles.entity.Reservation;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
+import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+import com.mastere_project.vacances_tranquilles.util.schedule.ScheduleRuleExpander;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation en mémoire de l'index de disponibilité.
+ * Les services sont regroupés par couple (code postal, catégorie) et les
+ * intervalles occupés de chaque prestataire sont conservés par date sous forme
+ * de tableaux primitifs triés, ce qui permet un test de chevauchement par
+ * recherche dichotomique. Les règles récurrentes des prestataires sont conservées
+ * telles quelles et développées uniquement pour la date recherchée.
+ * Les lectures se font sans verrou sur des structures immuables ; les écritures
+ * sont sérialisées et remplacent les structures modifiées (copie à l'écriture).
+ * Une modification n'est appliquée qu'après validation de la transaction qui l'a faite.
+ * L'index étant propre à chaque nœud, il est aussi reconstruit périodiquement
+ * ({@code app.availability-index.refresh-interval}) pour reprendre les modifications des
+ * autres nœuds et les mises à jour en masse ; s'il ne peut être rechargé, la recherche
+ * repasse par la base jusqu'au prochain chargement réussi.
+ */
+@Component
+public class AvailabilityIndexImpl implements AvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndexImpl.class);
+
+    private final ServiceRepository serviceRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final ReservationRepository reservationRepository;
+    private final ScheduleRuleRepository scheduleRuleRepository;
+    private final boolean enabled;
+
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+    private volatile Catalog current = new Catalog();
+    private volatile boolean ready;
+    /** Modifications validées pendant une reconstruction, rejouées sur le nouveau catalogue. */
+    private List<Consumer<Catalog>> pendingUpdates;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     *
+     * @param serviceRepository     repository pour les services
+     * @param scheduleRepository    repository pour les créneaux occupés
+     * @param reservationRepository repository pour les réservations
+     * @param scheduleRuleRepository repository pour les règles de disponibilité récurrentes
+     * @param enabled               active ou désactive l'index (propriété {@code app.availability-index.enabled})
+     */
+    public AvailabilityIndexImpl(ServiceRepository serviceRepository,
+            ScheduleRepository scheduleRepository,
+            ReservationRepository reservationRepository,
+            ScheduleRuleRepository scheduleRuleRepository,
+            @Value("${app.availability-index.enabled:true}") boolean enabled) {
+        this.serviceRepository = serviceRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.reservationRepository = reservationRepository;
+        this.scheduleRuleRepository = scheduleRuleRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Charge l'index au démarrage de l'application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Override
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @Override
+    public List<ServiceDTO> findAvailableServices(String category, String postalCode, LocalDate date,
+            LocalTime startTime, LocalTime endTime) {
+        Catalog catalog = current;
+        List<IndexedService> candidates = catalog.services.getOrDefault(new CatalogKey(postalCode, category),
+                List.of());
+        int start = startTime.toSecondOfDay();
+        int end = endTime.toSecondOfDay();
+
+        List<ServiceDTO> available = new ArrayList<>();
+        for (IndexedService candidate : candidates) {
+            DayIntervals busy = catalog.busyByProviderDay.get(new ProviderDay(candidate.providerId(), date));
+            if (busy != null && busy.overlaps(start, end)) {
+                continue;
+            }
+            List<RecurringRule> rules = catalog.rulesByProvider.get(candidate.providerId());
+            if (ScheduleRuleExpander.isAvailable(rules, date, startTime, endTime)) {
+                available.add(candidate.toDto());
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Recharge l'index depuis la base dans un nouveau catalogue, qui remplace l'ancien une fois
+     * complet : les recherches continuent d'être servies pendant le chargement.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.availability-index.refresh-interval:PT1M}",
+            initialDelayString = "${app.availability-index.refresh-interval:PT1M}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            synchronized (writeLock) {
+                pendingUpdates = new ArrayList<>();
+            }
+            try {
+                Catalog loaded = new Catalog();
+                LocalDate today = LocalDate.now();
+                serviceRepository.findAllWithProvider().forEach(service -> loaded.putService(IndexedService.of(service)));
+                scheduleRepository.findByDateGreaterThanEqual(today)
+                        .forEach(schedule -> loaded.putSchedule(schedule.getId(), BusySlot.of(schedule)));
+                reservationRepository
+                        .findByReservationDateGreaterThanEqualAndStatusNot(today, ReservationStatus.CANCELLED)
+                        .forEach(reservation -> loaded.putReservation(reservation.getId(), BusySlot.of(reservation)));
+                loaded.rulesByProvider.putAll(scheduleRuleRepository.findAll().stream()
+                        .collect(Collectors.groupingBy(rule -> rule.getProvider().getId(),
+                                Collectors.mapping(RecurringRule::from, Collectors.toUnmodifiableList()))));
+                boolean wasReady;
+                synchronized (writeLock) {
+                    pendingUpdates.forEach(update -> update.accept(loaded));
+                    current = loaded;
+                    wasReady = ready;
+                    ready = true;
+                }
+                if (wasReady) {
+                    logger.debug("Index de disponibilité rechargé : {} services", loaded.servicesById.size());
+                } else {
+                    logger.info("Index de disponibilité chargé : {} services, {} créneaux, {} réservations",
+                            loaded.servicesById.size(), loaded.scheduleSlots.size(), loaded.reservationSlots.size());
+                }
+            } catch (RuntimeException e) {
+                ready = false;
+                logger.error("Impossible de charger l'index de disponibilité, repli sur la requête JPQL", e);
+            } finally {
+                synchronized (writeLock) {
+                    pendingUpdates = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onServiceSaved(Service service) {
+        if (!enabled || service == null || service.getId() == null) {
+            return;
+        }
+        Long serviceId = service.getId();
+        IndexedService indexed = IndexedService.of(service);
+        applyAfterCommit(catalog -> {
+            catalog.removeService(serviceId);
+            catalog.putService(indexed);
+        });
+    }
+
+    @Override
+    public void onServiceDeleted(Long serviceId) {
+        if (!enabled || serviceId == null) {
+            return;
+        }
+        applyAfterCommit(catalog -> catalog.removeService(serviceId));
+    }
+
+    @Override
+    public void onProviderUpdated(User provider) {
+        if (!enabled || provider == null || provider.getId() == null) {
+            return;
+        }
+        Long providerId = provider.getId();
+        String postalCode = provider.getPostalCode();
+        applyAfterCommit(catalog -> {
+            List<IndexedService> providerServices = catalog.servicesById.values().stream()
+                    .filter(indexed -> providerId.equals(indexed.providerId()))
+                    .toList();
+            for (IndexedService indexed : providerServices) {
+                catalog.removeService(indexed.id());
+                catalog.putService(indexed.withPostalCode(postalCode));
+            }
+        });
+    }
+
+    @Override
+    public void onScheduleSaved(Schedule schedule) {
+        if (!enabled || schedule == null || schedule.getId() == null) {
+            return;
+        }
+        Long scheduleId = schedule.getId();
+        BusySlot slot = BusySlot.of(schedule);
+        applyAfterCommit(catalog -> {
+            catalog.removeSlot(catalog.scheduleSlots.remove(scheduleId));
+            catalog.putSchedule(scheduleId, slot);
+        });
+    }
+
+    @Override
+    public void onScheduleDeleted(Long scheduleId) {
+        if (!enabled || scheduleId == null) {
+            return;
+        }
+        applyAfterCommit(catalog -> catalog.removeSlot(catalog.scheduleSlots.remove(scheduleId)));
+    }
+
+    @Override
+    public void onReservationSaved(Reservation reservation) {
+        if (!enabled || reservation == null || reservation.getId() == null) {
+            return;
+        }
+        Long reservationId = reservation.getId();
+        BusySlot slot = reservation.getStatus() != ReservationStatus.CANCELLED ? BusySlot.of(reservation) : null;
+        applyAfterCommit(catalog -> {
+            catalog.removeSlot(catalog.reservationSlots.remove(reservationId));
+            catalog.putReservation(reservationId, slot);
+        });
+    }
+
+    @Override
+    public void onScheduleRulesUpdated(Long providerId, List<RecurringRule> rules) {
+        if (!enabled || providerId == null) {
+            return;
+        }
+        List<RecurringRule> copy = rules == null ? List.of() : List.copyOf(rules);
+        applyAfterCommit(catalog -> {
+            if (copy.isEmpty()) {
+                catalog.rulesByProvider.remove(providerId);
+            } else {
+                catalog.rulesByProvider.put(providerId, copy);
+            }
+        });
+    }
+
+    /**
+     * Applique une modification une fois la transaction courante validée (aucune entrée fantôme
+     * en cas d'annulation), ou immédiatement en l'absence de transaction. La modification est
+     * construite à partir d'instantanés pris avant la validation, sans référence aux entités.
+     *
+     * @param update la modification du catalogue, rejouable sur un catalogue rechargé
+     */
+    private void applyAfterCommit(Consumer<Catalog> update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+    private void apply(Consumer<Catalog> update) {
+        synchronized (writeLock) {
+            update.accept(current);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        }
+    }
+
+    /**
+     * Contenu de l'index, remplacé en bloc à chaque reconstruction.
+     */
+    private static final class Catalog {
+
+        private final Map<CatalogKey, List<IndexedService>> services = new ConcurrentHashMap<>();
+        private final Map<Long, IndexedService> servicesById = new ConcurrentHashMap<>();
+        private final Map<ProviderDay, DayIntervals> busyByProviderDay = new ConcurrentHashMap<>();
+        private final Map<Long, BusySlot> scheduleSlots = new ConcurrentHashMap<>();
+        private final Map<Long, BusySlot> reservationSlots = new ConcurrentHashMap<>();
+        private final Map<Long, List<RecurringRule>> rulesByProvider = new ConcurrentHashMap<>();
+
+        private void putService(IndexedService indexed) {
+            if (indexed == null) {
+                return;
+            }
+            servicesById.put(indexed.id(), indexed);
+            services.compute(indexed.key(), (key, current) -> {
+                List<IndexedService> updated = current == null ? new ArrayList<>() : new ArrayList<>(current);
+                updated.add(indexed);
+                return List.copyOf(updated);
+            });
+        }
+
+        private void removeService(Long serviceId) {
+            IndexedService previous = servicesById.remove(serviceId);
+            if (previous == null) {
+                return;
+            }
+            services.computeIfPresent(previous.key(), (key, current) -> {
+                List<IndexedService> updated = current.stream()
+                        .filter(indexed -> !indexed.id().equals(serviceId))
+                        .toList();
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+
+        private void putSchedule(Long scheduleId, BusySlot slot) {
+            if (slot != null) {
+                scheduleSlots.put(scheduleId, slot);
+                addSlot(slot);
+            }
+        }
+
+        private void putReservation(Long reservationId, BusySlot slot) {
+            if (slot != null) {
+                reservationSlots.put(reservationId, slot);
+                addSlot(slot);
+            }
+        }
+
+        private void addSlot(BusySlot slot) {
+            busyByProviderDay.compute(slot.providerDay(), (key, current) -> current == null
+                    ? DayIntervals.EMPTY.with(slot.start(), slot.end())
+                    : current.with(slot.start(), slot.end()));
+        }
+
+        private void removeSlot(BusySlot slot) {
+            if (slot == null) {
+                return;
+            }
+            busyByProviderDay.computeIfPresent(slot.providerDay(), (key, current) -> {
+                DayIntervals updated = current.without(slot.start(), slot.end());
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    /**
+     * Clé du catalogue : couple (code postal, catégorie).
+     */
+    private record CatalogKey(String postalCode, String category) {
+    }
+
+    /**
+     * Clé des intervalles occupés : couple (prestataire, date).
+     */
+    private record ProviderDay(Long providerId, LocalDate date) {
+    }
+
+    /**
+     * Instantané immuable d'un service indexé.
+     */
+    private record IndexedService(Long id, String title, String description, String category,
+            BigDecimal price, Long providerId, String postalCode) {
+
+        static IndexedService of(Service service) {
+            User provider = service.getProvider();
+            if (provider == null || provider.getId() == null) {
+                return null;
+            }
+            return new IndexedService(service.getId(), service.getTitle(), service.getDescription(),
+                    service.getCategory(), service.getPrice(), provider.getId(), provider.getPostalCode());
+        }
+
+        CatalogKey key() {
+            return new CatalogKey(postalCode, category);
+        }
+
+        IndexedService withPostalCode(String newPostalCode) {
+            return new IndexedService(id, title, description, category, price, providerId, newPostalCode);
+        }
+
+        ServiceDTO toDto() {
+            ServiceDTO dto = new ServiceDTO();
+            dto.setId(id);
+            dto.setTitle(title);
+            dto.setDescription(description);
+            dto.setCategory(category);
+            dto.setPrice(price);
+            dto.setProviderId(providerId);
+            return dto;
+        }
+    }
+
+    /**
+     * Intervalle occupé d'un prestataire, en secondes depuis minuit.
+     */
+    private record BusySlot(ProviderDay providerDay, int start, int end) {
+
+        static BusySlot of(Schedule schedule) {
+            return of(schedule.getProvider(), schedule.getDate(), schedule.getStartTime(), schedule.getEndTime());
+        }
+
+        static BusySlot of(Reservation reservation) {
+            return of(reservation.getProvider(), reservation.getReservationDate(),
+                    reservation.getStartDate(), reservation.getEndDate());
+        }
+
+        static BusySlot of(User provider, LocalDate date, LocalTime startTime, LocalTime endTime) {
+            if (provider == null || provider.getId() == null || date == null
+                    || startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+                return null;
+            }
+            return new BusySlot(new ProviderDay(provider.getId(), date),
+                    startTime.toSecondOfDay(), endTime.toSecondOfDay());
+        }
+    }
+
+    /**
+     * Intervalles occupés d'un prestataire pour une journée.
+     * Conserve les intervalles bruts (triés par début) pour permettre leur retrait,
+     * ainsi que leur fusion (intervalles disjoints triés) utilisée pour les requêtes.
+     * Instances immuables.
+     */
+    static final class DayIntervals {
+
+        static final DayIntervals EMPTY = new DayIntervals(new int[0], new int[0]);
+
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] mergedStarts;
+        private final int[] mergedEnds;
+
+        private DayIntervals(int[] starts, int[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+
+            int[] ms = new int[starts.length];
+            int[] me = new int[starts.length];
+            int count = 0;
+            for (int i = 0; i < starts.length; i++) {
+                if (count > 0 && starts[i] <= me[count - 1]) {
+                    me[count - 1] = Math.max(me[count - 1], ends[i]);
+                } else {
+                    ms[count] = starts[i];
+                    me[count] = ends[i];
+                    count++;
+                }
+            }
+            this.mergedStarts = Arrays.copyOf(ms, count);
+            this.mergedEnds = Arrays.copyOf(me, count);
+        }
+
+        /**
+         * Retourne une copie contenant l'intervalle supplémentaire.
+         *
+         * @param start début de l'intervalle (secondes)
+         * @param end   fin de l'intervalle (secondes)
+         * @return les nouveaux intervalles
+         */
+        DayIntervals with(int start, int end) {
+            int position = 0;
+            while (position < starts.length && starts[position] <= start) {
+                position++;
+            }
+            int[] newStarts = new int[starts.length + 1];
+            int[] newEnds = new int[ends.length + 1];
+            System.arraycopy(starts, 0, newStarts, 0, position);
+            System.arraycopy(ends, 0, newEnds, 0, position);
+            newStarts[position] = start;
+            newEnds[position] = end;
+            System.arraycopy(starts, position, newStarts, position + 1, starts.length - position);
+            System.arraycopy(ends, position, newEnds, position + 1, ends.length - position);
+            return new DayIntervals(newStarts, newEnds);
+        }
+
+        /**
+         * Retourne une copie sans une occurrence de l'intervalle donné.
+         *
+         * @param start début de l'intervalle (secondes)
+         * @param end   fin de l'intervalle (secondes)
+         * @return les nouveaux intervalles
+         */
+        DayIntervals without(int start, int end) {
+            for (int i = 0; i < starts.length; i++) {
+                if (starts[i] == start && ends[i] == end) {
+                    int[] newStarts = new int[starts.length - 1];
+                    int[] newEnds = new int[ends.length - 1];
+                    System.arraycopy(starts, 0, newStarts, 0, i);
+                    System.arraycopy(ends, 0, newEnds, 0, i);
+                    System.arraycopy(starts, i + 1, newStarts, i, starts.length - i - 1);
+                    System.arraycopy(ends, i + 1, newEnds, i, ends.length - i - 1);
+                    return new DayIntervals(newStarts, newEnds);
+                }
+            }
+            return this;
+        }
+
+        boolean isEmpty() {
+            return starts.length == 0;
+        }
+
+        /**
+         * Indique si la plage [start, end[ chevauche un intervalle occupé.
+         *
+         * @param start début de la plage (secondes)
+         * @param end   fin de la plage (secondes)
+         * @return true si un chevauchement existe
+         */
+        boolean overlaps(int start, int end) {
+            // Dernier intervalle fusionné commençant avant la fin de la plage demandée
+            int low = 0;
+            int high = mergedStarts.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (mergedStarts[mid] < end) {
+                    candidate = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return candidate >= 0 && mergedEnds[candidate] > start;
+        }
+    }
+}
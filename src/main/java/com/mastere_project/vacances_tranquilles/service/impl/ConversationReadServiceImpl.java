@@ -0,0 +1,93 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadState;
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadStateId;
+import com.mastere_project.vacances_tranquilles.model.ReadWatermark;
+import com.mastere_project.vacances_tranquilles.repository.ConversationReadStateRepository;
+import com.mastere_project.vacances_tranquilles.repository.MessageRepository;
+import com.mastere_project.vacances_tranquilles.service.ConversationReadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implémentation de l'état de lecture adossée à la table conversation_read_states.
+ * Une lecture ne produit au plus qu'une écriture d'une ligne, et aucune lorsque
+ * le participant est déjà à jour.
+ */
+@Service
+public class ConversationReadServiceImpl implements ConversationReadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationReadServiceImpl.class);
+
+    private final ConversationReadStateRepository readStateRepository;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+
+    public ConversationReadServiceImpl(ConversationReadStateRepository readStateRepository,
+            MessageRepository messageRepository,
+            PlatformTransactionManager transactionManager) {
+        this.readStateRepository = readStateRepository;
+        this.messageRepository = messageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Initialise les états de lecture au premier démarrage : table vide alors que des messages
+     * ont déjà été marqués comme lus avec l'ancien indicateur.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (readStateRepository.count() == 0 && messageRepository.existsByReadTrue()) {
+            int count = migrateFromMessageFlags();
+            logger.info("États de lecture initialisés : {}", count);
+        }
+    }
+
+    @Override
+    public boolean markRead(Long conversationId, Long userId, long messageId) {
+        ConversationReadStateId id = new ConversationReadStateId(conversationId, userId);
+        Optional<ConversationReadState> state = readStateRepository.findById(id);
+        if (state.isPresent()) {
+            return state.get().getLastReadMessageId() < messageId
+                    && readStateRepository.advance(conversationId, userId, messageId) > 0;
+        }
+        try {
+            newTransactionTemplate.executeWithoutResult(
+                    status -> readStateRepository.saveAndFlush(new ConversationReadState(id, messageId)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Une lecture concurrente a créé l'état : on l'avance s'il est en retard
+            return readStateRepository.advance(conversationId, userId, messageId) > 0;
+        }
+    }
+
+    @Override
+    public int migrateFromMessageFlags() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<ConversationReadState> states = messageRepository.findReadWatermarks().stream()
+                    .filter(watermark -> !readStateRepository.existsById(toId(watermark)))
+                    .map(watermark -> new ConversationReadState(toId(watermark), watermark.lastReadMessageId()))
+                    .toList();
+            readStateRepository.saveAll(states);
+            return states.size();
+        });
+        return count != null ? count : 0;
+    }
+
+    private static ConversationReadStateId toId(ReadWatermark watermark) {
+        return new ConversationReadStateId(watermark.conversationId(), watermark.userId());
+    }
+}
@@ -16,11 +16,12 @@ import com.mastere_project.vacances_tranquilles.mapper.ReservationMapper;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 import com.mastere_project.vacances_tranquilles.repository.ConversationRepository;
-import com.mastere_project.vacances_tranquilles.repository.UserRepository;
 import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
 import com.mastere_project.vacances_tranquilles.service.ConversationService;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -36,22 +37,22 @@ public class ConversationServiceImpl implements ConversationService {
     private static final String CURRENT_USER_NOT_FOUND_MESSAGE = "Current user not found: ";
 
     private final ConversationRepository conversationRepository;
-    private final UserRepository userRepository;
     private final ReservationRepository reservationRepository;
     private final ConversationMapper conversationMapper;
     private final ReservationMapper reservationMapper;
+    private final CurrentUserService currentUserService;
 
     public ConversationServiceImpl(
             ConversationRepository conversationRepository,
-            UserRepository userRepository,
             ReservationRepository reservationRepository,
             ConversationMapper conversationMapper,
-            ReservationMapper reservationMapper) {
+            ReservationMapper reservationMapper,
+            CurrentUserService currentUserService) {
         this.conversationRepository = conversationRepository;
-        this.userRepository = userRepository;
         this.reservationRepository = reservationRepository;
         this.conversationMapper = conversationMapper;
         this.reservationMapper = reservationMapper;
+        this.currentUserService = currentUserService;
     }
 
     /**
@@ -62,11 +63,12 @@ public class ConversationServiceImpl implements ConversationService {
      * @throws UserNotFoundException si l'utilisateur connecté n'existe pas en base
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ConversationSummaryDto> getConversationsForUser() {
         Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // Vérifier que l'utilisateur connecté existe en base et récupérer ses informations
-        userRepository.findById(currentUserId)
+        currentUserService.findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException(CURRENT_USER_NOT_FOUND_MESSAGE));
 
         return conversationRepository.findConversationsForUser(currentUserId);
@@ -92,11 +94,11 @@ public class ConversationServiceImpl implements ConversationService {
         Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // Vérifier que l'utilisateur connecté existe en base
-        User currentUser = userRepository.findById(currentUserId)
+        currentUserService.findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException(CURRENT_USER_NOT_FOUND_MESSAGE + currentUserId));
 
         // Vérifier que la réservation existe et a le bon statut
-        Reservation reservation = reservationRepository.findById(reservationId)
+        Reservation reservation = reservationRepository.findWithParticipantsById(reservationId)
                 .orElseThrow(() -> new ReservationNotFoundException("Reservation not found"));
 
         // Vérifier que l'utilisateur connecté est participant de cette réservation
@@ -104,13 +106,16 @@ public class ConversationServiceImpl implements ConversationService {
             throw new ConversationForbiddenException("You are not authorized to create a conversation for this reservation");
         }
 
-        // Déterminer automatiquement l'autre utilisateur à partir de la réservation
+        // Déterminer automatiquement l'autre utilisateur à partir de la réservation, qui charge déjà les deux
+        User currentUser;
         User otherUser;
         if (reservation.getClient().getId().equals(currentUserId)) {
             // L'utilisateur connecté est le client, l'autre est le provider
+            currentUser = reservation.getClient();
             otherUser = reservation.getProvider();
         } else {
             // L'utilisateur connecté est le provider, l'autre est le client
+            currentUser = reservation.getProvider();
             otherUser = reservation.getClient();
         }
 
@@ -152,6 +157,7 @@ public class ConversationServiceImpl implements ConversationService {
      * @throws ConversationForbiddenException si l'utilisateur n'est pas participant de la conversation
      */
     @Override
+    @Transactional(readOnly = true)
     public ConversationDTO getConversationById(Long conversationId) {
         if (conversationId == null) {
             throw new IllegalArgumentException("Conversation ID cannot be null");
@@ -160,7 +166,7 @@ public class ConversationServiceImpl implements ConversationService {
         Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // Vérifier que l'utilisateur connecté existe en base et récupérer ses informations
-        userRepository.findById(currentUserId)
+        currentUserService.findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException(CURRENT_USER_NOT_FOUND_MESSAGE));
 
         Optional<Conversation> conversation = conversationRepository.findById(conversationId);
@@ -210,6 +216,7 @@ public class ConversationServiceImpl implements ConversationService {
      * @throws ConversationForbiddenException si l'utilisateur n'est pas participant de la conversation
      */
     @Override
+    @Transactional(readOnly = true)
     public ReservationResponseDTO getReservationByConversationId(Long conversationId) {
         if (conversationId == null) {
             throw new IllegalArgumentException("Conversation ID cannot be null");
@@ -218,7 +225,7 @@ public class ConversationServiceImpl implements ConversationService {
         Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // Vérifier que l'utilisateur connecté existe en base
-        userRepository.findById(currentUserId)
+        currentUserService.findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException(CURRENT_USER_NOT_FOUND_MESSAGE + currentUserId));
 
         // Vérifier que la conversation existe
@@ -0,0 +1,116 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
+import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implémentation de l'accès à l'utilisateur connecté.
+ * L'utilisateur est mémorisé dans les attributs de la requête, puis dans un cache borné à durée
+ * de vie courte ; seul un défaut de cache relit la table users. Le cache est invalidé à la
+ * modification ou à la suppression du compte, la durée de vie bornant l'écart dans les autres cas.
+ */
+@Service
+public class CurrentUserServiceImpl implements CurrentUserService {
+
+    static final String REQUEST_ATTRIBUTE = CurrentUserServiceImpl.class.getName() + ".CURRENT_USER";
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<Long, CachedUser> cache = new ConcurrentHashMap<>();
+
+    public CurrentUserServiceImpl(UserRepository userRepository,
+            @Value("${app.security.principal-cache.ttl:PT30S}") Duration ttl,
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public Optional<AuthenticatedUser> findCurrentUser() {
+        Long userId = SecurityUtils.getCurrentUserId();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                        instanceof AuthenticatedUser memo
+                && memo.id().equals(userId)) {
+            return Optional.of(memo);
+        }
+
+        Optional<AuthenticatedUser> user = lookup(userId);
+        if (attributes != null && user.isPresent()) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, user.get(), RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    @Override
+    public void evict(Long userId) {
+        cache.remove(userId);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Une lecture concurrente a pu remettre l'ancienne version en cache avant la validation
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Cherche l'utilisateur dans le cache, puis en base en cas d'absence ou d'expiration.
+     * Un utilisateur introuvable n'est pas mis en cache.
+     */
+    private Optional<AuthenticatedUser> lookup(Long userId) {
+        long now = System.nanoTime();
+        CachedUser cached = cache.get(userId);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return Optional.of(cached.user());
+        }
+
+        Optional<AuthenticatedUser> user = userRepository.findById(userId).map(AuthenticatedUser::from);
+        if (user.isPresent() && ttlNanos > 0) {
+            if (cache.size() >= maxSize) {
+                cache.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+                if (cache.size() >= maxSize) {
+                    cache.clear();
+                }
+            }
+            cache.put(userId, new CachedUser(user.get(), now));
+        } else if (user.isEmpty()) {
+            cache.remove(userId);
+        }
+        return user;
+    }
+
+    /**
+     * Nombre d'utilisateurs en cache.
+     *
+     * @return la taille du cache
+     */
+    int cacheSize() {
+        return cache.size();
+    }
+
+    private record CachedUser(AuthenticatedUser user, long loadedAt) {
+    }
+}
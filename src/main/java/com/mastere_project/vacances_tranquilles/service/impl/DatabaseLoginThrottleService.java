@@ -0,0 +1,99 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.LoginAttempt;
+import com.mastere_project.vacances_tranquilles.model.LoginThrottlePolicy;
+import com.mastere_project.vacances_tranquilles.repository.LoginAttemptRepository;
+import com.mastere_project.vacances_tranquilles.service.LoginThrottleService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitation des tentatives de connexion adossée à la table login_attempts, partagée entre les nœuds :
+ * un répartiteur de charge ne permet plus de contourner le blocage. La ligne d'une clé est créée au
+ * premier échec, puis modifiée par des UPDATE conditionnels ; chaque nœud purge périodiquement les
+ * lignes expirées.
+ */
+public class DatabaseLoginThrottleService implements LoginThrottleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseLoginThrottleService.class);
+
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LoginThrottlePolicy policy;
+    private final Clock clock;
+    private final AtomicLong trackedKeys = new AtomicLong();
+    private final Counter expiredEvictions;
+
+    public DatabaseLoginThrottleService(LoginAttemptRepository loginAttemptRepository,
+            PlatformTransactionManager transactionManager, LoginThrottlePolicy policy, MeterRegistry meterRegistry) {
+        this(loginAttemptRepository, transactionManager, policy, meterRegistry, Clock.systemUTC());
+    }
+
+    DatabaseLoginThrottleService(LoginAttemptRepository loginAttemptRepository,
+            PlatformTransactionManager transactionManager, LoginThrottlePolicy policy, MeterRegistry meterRegistry,
+            Clock clock) {
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.policy = policy;
+        this.clock = clock;
+        meterRegistry.gauge("login.throttle.tracked", trackedKeys);
+        this.expiredEvictions = meterRegistry.counter("login.throttle.evictions", "reason", "expired");
+    }
+
+    @Override
+    public boolean isBlocked(String key) {
+        return loginAttemptRepository.existsByThrottleKeyAndBlockedUntilAfter(Objects.requireNonNull(key),
+                clock.instant());
+    }
+
+    @Override
+    public void recordFailure(String key) {
+        Objects.requireNonNull(key);
+        Instant now = clock.instant();
+        if (!loginAttemptRepository.existsById(key)) {
+            try {
+                // Fenêtre déjà close : l'UPDATE ci-dessous ouvre la fenêtre et compte le premier échec
+                transactionTemplate.executeWithoutResult(status -> loginAttemptRepository.saveAndFlush(
+                        new LoginAttempt(key, 0, Instant.EPOCH, null, now.plus(policy.window()))));
+            } catch (DataIntegrityViolationException e) {
+                // Un autre nœud a créé la ligne en même temps : l'échec est compté ci-dessous
+            }
+        }
+        Integer blocked = transactionTemplate.execute(status -> {
+            loginAttemptRepository.recordFailure(key, now, now.minus(policy.window()), now.plus(policy.window()));
+            return loginAttemptRepository.blockIfExceeded(key, policy.maxAttempts(),
+                    now.plus(policy.blockDuration()));
+        });
+        if (blocked != null && blocked > 0) {
+            logger.warn("Email bloqué temporairement pour cause de brute force.");
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        Objects.requireNonNull(key);
+        transactionTemplate.executeWithoutResult(status -> loginAttemptRepository.deleteByKey(key));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.purge-interval:PT1M}",
+            initialDelayString = "${app.security.login-throttle.purge-interval:PT1M}")
+    public int purgeExpired() {
+        Integer removed = transactionTemplate.execute(status -> loginAttemptRepository.deleteExpired(clock.instant()));
+        int count = removed == null ? 0 : removed;
+        expiredEvictions.increment(count);
+        trackedKeys.set(loginAttemptRepository.count());
+        return count;
+    }
+}
@@ -0,0 +1,106 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionSummary;
+import com.mastere_project.vacances_tranquilles.service.StripeGateway;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.param.checkout.SessionCreateParams;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transport Stripe simulé, sans accès au réseau : chaque appel attend la latence configurée puis
+ * renvoie une session factice, ou échoue comme une coupure réseau selon le taux d'échec configuré.
+ * Destiné aux tests de charge du parcours de paiement.
+ * Les dernières sessions créées sont conservées (dans la limite configurée) et listées comme
+ * payées, ce qui permet d'exercer la réconciliation des paiements hors ligne.
+ */
+public class FakeStripeGateway implements StripeGateway {
+
+    /** Nombre de sessions conservées par défaut. */
+    static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    private final Duration latency;
+    private final double failureRate;
+    private final int maxSessions;
+    private final AtomicLong sequence = new AtomicLong();
+    // Les identifiants croissants donnent l'ordre de pagination
+    private final ConcurrentSkipListMap<String, StripeSessionSummary> sessions = new ConcurrentSkipListMap<>();
+
+    public FakeStripeGateway(Duration latency, double failureRate) {
+        this(latency, failureRate, DEFAULT_MAX_SESSIONS);
+    }
+
+    public FakeStripeGateway(Duration latency, double failureRate, int maxSessions) {
+        if (latency.isNegative() || failureRate < 0 || failureRate > 1 || maxSessions < 0) {
+            throw new IllegalArgumentException(
+                    "latency et maxSessions doivent être positifs et failureRate compris entre 0 et 1");
+        }
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.maxSessions = maxSessions;
+    }
+
+    @Override
+    public String createCheckoutSession(SessionCreateParams params) throws StripeException {
+        simulateCall();
+        String id = String.format("cs_fake_%016d", sequence.incrementAndGet());
+        long amountTotal = 0;
+        String currency = null;
+        if (params.getLineItems() != null) {
+            for (SessionCreateParams.LineItem item : params.getLineItems()) {
+                if (item.getPriceData() != null && item.getPriceData().getUnitAmount() != null) {
+                    long quantity = item.getQuantity() != null ? item.getQuantity() : 1;
+                    amountTotal += item.getPriceData().getUnitAmount() * quantity;
+                    currency = item.getPriceData().getCurrency();
+                }
+            }
+        }
+        sessions.put(id, new StripeSessionSummary(id, "paid", amountTotal, currency, Instant.now()));
+        while (sessions.size() > maxSessions) {
+            sessions.pollFirstEntry();
+        }
+        return id;
+    }
+
+    @Override
+    public StripeSessionPage listCheckoutSessions(Instant createdFrom, Instant createdTo, String startingAfter,
+            int limit) throws StripeException {
+        simulateCall();
+        NavigableMap<String, StripeSessionSummary> candidates = startingAfter == null ? sessions
+                : sessions.tailMap(startingAfter, false);
+        List<StripeSessionSummary> page = new ArrayList<>(limit);
+        for (Map.Entry<String, StripeSessionSummary> entry : candidates.entrySet()) {
+            StripeSessionSummary session = entry.getValue();
+            if (session.created().isBefore(createdFrom) || !session.created().isBefore(createdTo)) {
+                continue;
+            }
+            if (page.size() == limit) {
+                return new StripeSessionPage(page, true);
+            }
+            page.add(session);
+        }
+        return new StripeSessionPage(page, false);
+    }
+
+    private void simulateCall() throws StripeException {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiConnectionException("Appel Stripe simulé interrompu", e);
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new ApiConnectionException("Échec simulé de l'appel Stripe");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.LoginThrottlePolicy;
+import com.mastere_project.vacances_tranquilles.service.LoginThrottleService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Limitation des tentatives de connexion en mémoire, propre à chaque nœud.
+ * Chaque clé garde ses échecs sur une fenêtre ouverte au premier échec ; les entrées dont la
+ * fenêtre et le blocage sont terminés sont purgées périodiquement. Le nombre de clés est plafonné :
+ * une fois le plafond atteint, les clés non bloquées sont évincées en premier, de sorte qu'un flot
+ * d'emails aléatoires ne lève pas les blocages en cours.
+ */
+public class InMemoryLoginThrottleService implements LoginThrottleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryLoginThrottleService.class);
+
+    private final LoginThrottlePolicy policy;
+    private final int maxKeys;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter expiredEvictions;
+    private final Counter capacityEvictions;
+
+    public InMemoryLoginThrottleService(LoginThrottlePolicy policy, int maxKeys, MeterRegistry meterRegistry) {
+        this(policy, maxKeys, meterRegistry, Clock.systemUTC());
+    }
+
+    InMemoryLoginThrottleService(LoginThrottlePolicy policy, int maxKeys, MeterRegistry meterRegistry, Clock clock) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys doit être strictement positif");
+        }
+        this.policy = policy;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        meterRegistry.gaugeMapSize("login.throttle.tracked", List.of(), entries);
+        this.expiredEvictions = meterRegistry.counter("login.throttle.evictions", "reason", "expired");
+        this.capacityEvictions = meterRegistry.counter("login.throttle.evictions", "reason", "capacity");
+    }
+
+    @Override
+    public boolean isBlocked(String key) {
+        Entry entry = entries.get(Objects.requireNonNull(key));
+        return entry != null && entry.blockedUntil() > clock.millis();
+    }
+
+    @Override
+    public void recordFailure(String key) {
+        Objects.requireNonNull(key);
+        long now = clock.millis();
+        if (entries.size() >= maxKeys && !entries.containsKey(key)) {
+            makeRoom(now);
+        }
+        Entry entry = entries.compute(key, (k, current) -> next(current, now));
+        if (entry.blockedUntil() == now + policy.blockDuration().toMillis()) {
+            logger.warn("Email bloqué temporairement pour cause de brute force.");
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        entries.remove(Objects.requireNonNull(key));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.purge-interval:PT1M}",
+            initialDelayString = "${app.security.login-throttle.purge-interval:PT1M}")
+    public int purgeExpired() {
+        long now = clock.millis();
+        int removed = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            if (it.next().expiresAt(policy) <= now) {
+                it.remove();
+                removed++;
+            }
+        }
+        expiredEvictions.increment(removed);
+        return removed;
+    }
+
+    /**
+     * Nombre de clés suivies.
+     *
+     * @return la taille de la table
+     */
+    int trackedKeys() {
+        return entries.size();
+    }
+
+    /**
+     * Calcule l'état d'une clé après un échec.
+     */
+    private Entry next(Entry current, long now) {
+        if (current != null && current.blockedUntil() > now) {
+            return current;
+        }
+        int failures = 1;
+        long windowStart = now;
+        if (current != null && current.windowStart() + policy.window().toMillis() > now) {
+            failures = current.failures() + 1;
+            windowStart = current.windowStart();
+        }
+        if (failures >= policy.maxAttempts()) {
+            return new Entry(0, now, now + policy.blockDuration().toMillis());
+        }
+        return new Entry(failures, windowStart, 0L);
+    }
+
+    /**
+     * Libère de la place lorsque le plafond est atteint : purge des entrées expirées, puis éviction
+     * des clés non bloquées, et en dernier recours de n'importe quelle clé. L'éviction descend sous
+     * 90 % du plafond pour ne pas reparcourir la table à chaque nouvel échec.
+     */
+    private void makeRoom(long now) {
+        purgeExpired();
+        int target = maxKeys - Math.max(1, maxKeys / 10);
+        int evicted = evictUntil(target, entry -> entry.blockedUntil() <= now);
+        if (entries.size() > target) {
+            evicted += evictUntil(target, entry -> true);
+        }
+        if (evicted > 0) {
+            capacityEvictions.increment(evicted);
+            logger.warn("Plafond de suivi des tentatives de connexion atteint : {} clés évincées", evicted);
+        }
+    }
+
+    private int evictUntil(int target, Predicate<Entry> evictable) {
+        int evicted = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && entries.size() > target; ) {
+            if (evictable.test(it.next())) {
+                it.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * État d'une clé : échecs de la fenêtre courante et fin du blocage (en millisecondes epoch).
+     */
+    private record Entry(int failures, long windowStart, long blockedUntil) {
+
+        long expiresAt(LoginThrottlePolicy policy) {
+            return Math.max(windowStart + policy.window().toMillis(), blockedUntil);
+        }
+    }
+}
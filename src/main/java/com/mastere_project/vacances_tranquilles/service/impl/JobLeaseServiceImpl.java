@@ -0,0 +1,76 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.JobLease;
+import com.mastere_project.vacances_tranquilles.repository.JobLeaseRepository;
+import com.mastere_project.vacances_tranquilles.service.JobLeaseService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implémentation des baux d'exécution adossée à la table job_leases.
+ * La ligne d'une tâche est créée à la première demande, déjà expirée ; le bail est
+ * ensuite pris par un UPDATE conditionnel, ce qui départage les nœuds concurrents.
+ */
+@Service
+public class JobLeaseServiceImpl implements JobLeaseService {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    public JobLeaseServiceImpl(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    @Override
+    public boolean tryAcquire(String name, Duration duration) {
+        if (!jobLeaseRepository.existsById(name)) {
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> jobLeaseRepository.saveAndFlush(new JobLease(name, owner, Instant.EPOCH)));
+            } catch (DataIntegrityViolationException e) {
+                // Un autre nœud a créé la ligne en même temps : le bail se départage ci-dessous
+            }
+        }
+        Instant now = Instant.now();
+        Integer updated = transactionTemplate.execute(
+                status -> jobLeaseRepository.acquire(name, owner, now, now.plus(duration)));
+        return updated != null && updated > 0;
+    }
+
+    @Override
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status -> jobLeaseRepository.release(name, owner, Instant.now()));
+    }
+
+    @Override
+    public Optional<LocalDate> findCompletedThrough(String name) {
+        return jobLeaseRepository.findById(name).map(JobLease::getCompletedThrough);
+    }
+
+    @Override
+    public void markCompletedThrough(String name, LocalDate day) {
+        transactionTemplate.executeWithoutResult(
+                status -> jobLeaseRepository.markCompletedThrough(name, owner, day));
+    }
+
+    /**
+     * Identifiant de ce nœud en tant que propriétaire de bail.
+     *
+     * @return l'identifiant du propriétaire
+     */
+    String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.MessageEvent;
+import com.mastere_project.vacances_tranquilles.service.MessageEventBus;
+import com.mastere_project.vacances_tranquilles.service.MessageEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Transport des événements de messages pour un déploiement à un seul nœud
+ * ({@code app.messages.stream.bus=local}, par défaut) : il n'y a aucun autre nœud à prévenir.
+ * Sur plusieurs nœuds, un client ne reçoit en direct que les messages publiés sur le nœud qui
+ * tient son flux ; il doit alors utiliser {@code app.messages.stream.bus=postgres}.
+ */
+@Service
+@ConditionalOnProperty(name = "app.messages.stream.bus", havingValue = "local", matchIfMissing = true)
+public class LocalMessageEventBus implements MessageEventBus {
+
+    @Override
+    public void publish(MessageEvent event) {
+        // Aucun autre nœud : le nœud émetteur livre lui-même ses flux
+    }
+
+    @Override
+    public void subscribe(MessageEventListener listener) {
+        // Aucun événement ne vient d'un autre nœud
+    }
+}
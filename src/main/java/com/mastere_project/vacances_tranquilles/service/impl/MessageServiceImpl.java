@@ -4,7 +4,6 @@ import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
 import com.mastere_project.vacances_tranquilles.dto.MessageResponseDTO;
 import com.mastere_project.vacances_tranquilles.entity.Conversation;
 import com.mastere_project.vacances_tranquilles.entity.Message;
-import com.mastere_project.vacances_tranquilles.entity.User;
 import com.mastere_project.vacances_tranquilles.exception.ConversationForbiddenException;
 import com.mastere_project.vacances_tranquilles.exception.ConversationNotFoundException;
 import com.mastere_project.vacances_tranquilles.exception.UserNotFoundException;
@@ -12,12 +11,19 @@ import com.mastere_project.vacances_tranquilles.mapper.MessageMapper;
 import com.mastere_project.vacances_tranquilles.repository.ConversationRepository;
 import com.mastere_project.vacances_tranquilles.repository.MessageRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.service.ConversationReadService;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
 import com.mastere_project.vacances_tranquilles.service.MessageService;
+import com.mastere_project.vacances_tranquilles.service.MessageStreamService;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -27,20 +33,31 @@ import java.util.List;
 public class MessageServiceImpl implements MessageService {
 
     private static final String CURRENT_USER_NOT_FOUND_MESSAGE = "Current user not found: ";
+    static final int DEFAULT_MESSAGE_LIMIT = 50;
+    static final int MAX_MESSAGE_LIMIT = 200;
 
     private final MessageRepository messageRepository;
     private final MessageMapper messageMapper;
     private final ConversationRepository conversationRepository;
     private final UserRepository userRepository;
+    private final MessageStreamService messageStreamService;
+    private final ConversationReadService conversationReadService;
+    private final CurrentUserService currentUserService;
 
     public MessageServiceImpl(MessageRepository messageRepository,
             MessageMapper messageMapper,
             ConversationRepository conversationRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            MessageStreamService messageStreamService,
+            ConversationReadService conversationReadService,
+            CurrentUserService currentUserService) {
         this.messageRepository = messageRepository;
         this.messageMapper = messageMapper;
         this.conversationRepository = conversationRepository;
         this.userRepository = userRepository;
+        this.messageStreamService = messageStreamService;
+        this.conversationReadService = conversationReadService;
+        this.currentUserService = currentUserService;
     }
 
     /**
@@ -56,6 +73,62 @@ public class MessageServiceImpl implements MessageService {
     @Transactional
     @Override
     public List<MessageResponseDTO> getMessagesByConversationId(Long conversationId) {
+        String myName = markConversationAsRead(conversationId);
+
+        return messageRepository.findMessagesDTOByConversationId(conversationId, myName);
+    }
+
+    /**
+     * Récupère un lot de messages d'une conversation autour d'un curseur et marque les messages
+     * non lus comme lus. Avec {@code afterId}, retourne les messages suivants ; sinon les messages
+     * précédant {@code beforeId} (ou les derniers messages si {@code beforeId} est null).
+     * Sans aucun paramètre, retourne l'historique complet.
+     *
+     * @param conversationId l'identifiant de la conversation
+     * @param afterId        l'identifiant du dernier message connu du client, ou null
+     * @param beforeId       l'identifiant du plus ancien message connu du client, ou null
+     * @param limit          le nombre maximal de messages, ou null pour la valeur par défaut
+     * @return les messages du lot, par ordre chronologique
+     * @throws IllegalArgumentException       si les deux curseurs sont fournis ou si la limite est invalide
+     * @throws UserNotFoundException          si l'utilisateur connecté n'existe pas
+     * @throws ConversationNotFoundException  si la conversation n'existe pas
+     * @throws ConversationForbiddenException si l'utilisateur n'est pas participant de la conversation
+     */
+    @Transactional
+    @Override
+    public List<MessageResponseDTO> getMessagesByConversationId(Long conversationId, Long afterId, Long beforeId,
+            Integer limit) {
+        if (afterId == null && beforeId == null && limit == null) {
+            return getMessagesByConversationId(conversationId);
+        }
+        if (afterId != null && beforeId != null) {
+            throw new IllegalArgumentException("afterId and beforeId cannot be used together");
+        }
+        int size = limit == null ? DEFAULT_MESSAGE_LIMIT : limit;
+        if (size < 1 || size > MAX_MESSAGE_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_MESSAGE_LIMIT);
+        }
+
+        String myName = markConversationAsRead(conversationId);
+
+        if (afterId != null) {
+            return messageRepository.findMessagesDTOAfterId(conversationId, afterId, myName,
+                    PageRequest.of(0, size));
+        }
+        List<MessageResponseDTO> messages = new ArrayList<>(messageRepository.findMessagesDTOBeforeId(
+                conversationId, beforeId, myName, PageRequest.of(0, size)));
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * Vérifie l'accès de l'utilisateur connecté à la conversation et avance son dernier message lu
+     * jusqu'au message le plus récent ; rien n'est écrit s'il est déjà à jour.
+     *
+     * @param conversationId l'identifiant de la conversation
+     * @return le nom complet de l'utilisateur connecté
+     */
+    private String markConversationAsRead(Long conversationId) {
         if (conversationId == null) {
             throw new IllegalArgumentException("Conversation ID cannot be null");
         }
@@ -63,7 +136,7 @@ public class MessageServiceImpl implements MessageService {
         Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // Vérifier que l'utilisateur connecté existe en base
-        userRepository.findById(currentUserId)
+        AuthenticatedUser whoIam = currentUserService.findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException(CURRENT_USER_NOT_FOUND_MESSAGE + currentUserId));
 
         // Vérifier que la conversation existe
@@ -76,17 +149,18 @@ public class MessageServiceImpl implements MessageService {
             throw new ConversationForbiddenException("User is not a participant in this conversation");
         }
 
-        User whoIam = this.userRepository.getReferenceById(currentUserId);
-
-        messageRepository.markMessagesAsRead(conversationId, currentUserId);
+        Long latestMessageId = messageRepository.findLatestMessageId(conversationId);
+        if (latestMessageId != null) {
+            conversationReadService.markRead(conversationId, currentUserId, latestMessageId);
+        }
 
-        return messageRepository.findMessagesDTOByConversationId(conversationId,
-                whoIam.getFirstName() + " " + whoIam.getLastName());
+        return whoIam.fullName();
     }
 
     /**
      * Envoie un nouveau message dans une conversation.
-     * Vérifie que l'utilisateur connecté est participant de cette conversation.
+     * Vérifie que l'utilisateur connecté est participant de cette conversation, puis diffuse
+     * le message aux participants connectés.
      *
      * @param messageDTO le DTO contenant les informations du message à envoyer
      * @return le DTO du message envoyé
@@ -109,7 +183,7 @@ public class MessageServiceImpl implements MessageService {
         Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // Vérifier que l'utilisateur connecté existe en base
-        User currentUser = userRepository.findById(currentUserId)
+        currentUserService.findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException(CURRENT_USER_NOT_FOUND_MESSAGE + currentUserId));
 
         Message message = messageMapper.toEntity(messageDTO);
@@ -124,11 +198,13 @@ public class MessageServiceImpl implements MessageService {
         }
 
         message.setConversation(conversation);
-        message.setSender(currentUser);
+        message.setSender(userRepository.getReferenceById(currentUserId));
         message.setRead(false);
         message.setSentAt(message.getSentAt() == null ? LocalDateTime.now() : message.getSentAt());
 
-        return messageMapper.toDto(messageRepository.save(message));
+        MessageDTO saved = messageMapper.toDto(messageRepository.save(message));
+        publish(conversation, MessageStreamService.MESSAGE_EVENT, saved);
+        return saved;
     }
 
     /**
@@ -157,11 +233,11 @@ public class MessageServiceImpl implements MessageService {
         Long currentUserId = SecurityUtils.getCurrentUserId();
 
         // Vérifier que l'utilisateur connecté existe en base
-        userRepository.findById(currentUserId)
+        currentUserService.findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException(CURRENT_USER_NOT_FOUND_MESSAGE + currentUserId));
 
         // Récupérer le message existant
-        Message existingMessage = messageRepository.findById(id)
+        Message existingMessage = messageRepository.findWithConversationById(id)
                 .orElseThrow(() -> new ConversationNotFoundException("Message not found: " + id));
 
         // Vérifier que l'utilisateur connecté est l'expéditeur du message
@@ -173,6 +249,23 @@ public class MessageServiceImpl implements MessageService {
         existingMessage.setContent(messageDTO.getContent().trim());
         existingMessage.setSentAt(LocalDateTime.now());
 
-        return messageMapper.toDto(messageRepository.save(existingMessage));
+        MessageDTO updated = messageMapper.toDto(messageRepository.save(existingMessage));
+        publish(existingMessage.getConversation(), MessageStreamService.MESSAGE_UPDATED_EVENT, updated);
+        return updated;
+    }
+
+    /**
+     * Diffuse un message aux deux participants de sa conversation.
+     *
+     * @param conversation la conversation du message
+     * @param event        le nom de l'événement
+     * @param message      le message enregistré
+     */
+    private void publish(Conversation conversation, String event, MessageDTO message) {
+        if (conversation == null || message == null) {
+            return;
+        }
+        messageStreamService.publish(List.of(conversation.getUser1().getId(), conversation.getUser2().getId()),
+                event, message);
     }
 }
\ No newline at end of file
@@ -0,0 +1,325 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
+import com.mastere_project.vacances_tranquilles.model.MessageEvent;
+import com.mastere_project.vacances_tranquilles.service.MessageEventBus;
+import com.mastere_project.vacances_tranquilles.service.MessageEventListener;
+import com.mastere_project.vacances_tranquilles.service.MessageStreamService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implémentation de la diffusion des messages par Server-Sent Events.
+ * Les flux ouverts sont tenus en mémoire par utilisateur. Chaque flux a sa propre file
+ * d'envoi bornée, vidée dans l'ordre par un pool de fils partagé : un client lent ne retarde
+ * que ses propres événements. Un flux dont la file déborde, ou dont un envoi dure plus que
+ * {@code app.messages.stream.send-timeout}, est fermé et ses livraisons comptées comme
+ * perdues, de même qu'un flux en erreur : le client se reconnecte et recharge l'historique
+ * de la conversation. Un message publié est d'abord transmis aux autres nœuds par le
+ * {@link MessageEventBus}, puis livré aux flux de ce nœud ; les événements reçus des autres
+ * nœuds sont livrés de la même façon.
+ */
+@Service
+public class MessageStreamServiceImpl implements MessageStreamService, MessageEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageStreamServiceImpl.class);
+    private static final int SEND_QUEUE_CAPACITY = 10_000;
+
+    private final Map<Long, Map<SseEmitter, Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ThreadPoolExecutor sendExecutor;
+    private final MessageEventBus eventBus;
+    private final long timeoutMillis;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+    private final Timer fanOutTimer;
+    private final Counter deliveredCounter;
+    private final Counter droppedCounter;
+
+    /**
+     * @param eventBus      transport des événements entre les nœuds
+     * @param meterRegistry registre des métriques de diffusion
+     * @param timeout       durée de vie d'un flux
+     * @param threads       nombre de fils d'envoi partagés entre les flux
+     * @param maxPending    nombre d'événements en attente au-delà duquel un flux est fermé
+     * @param sendTimeout   durée d'un envoi au-delà de laquelle un flux est fermé
+     */
+    public MessageStreamServiceImpl(MessageEventBus eventBus, MeterRegistry meterRegistry,
+            @Value("${app.messages.stream.timeout:PT30M}") Duration timeout,
+            @Value("${app.messages.stream.threads:4}") int threads,
+            @Value("${app.messages.stream.max-pending:100}") int maxPending,
+            @Value("${app.messages.stream.send-timeout:PT10S}") Duration sendTimeout) {
+        if (threads < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("threads et maxPending doivent être strictement positifs");
+        }
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sendExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(SEND_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "message-stream-send-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        meterRegistry.gauge("messages.stream.connections", connections);
+        this.fanOutTimer = meterRegistry.timer("messages.stream.fanout");
+        this.deliveredCounter = meterRegistry.counter("messages.stream.delivered");
+        this.droppedCounter = meterRegistry.counter("messages.stream.dropped");
+        this.eventBus = eventBus;
+        eventBus.subscribe(this);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(userId, emitter);
+        emitter.onCompletion(() -> unregister(userId, emitter));
+        emitter.onTimeout(() -> unregister(userId, emitter));
+        emitter.onError(error -> unregister(userId, emitter));
+        return emitter;
+    }
+
+    @Override
+    public void publish(Collection<Long> userIds, String event, MessageDTO message) {
+        MessageEvent messageEvent = new MessageEvent(event, List.copyOf(userIds), message);
+        eventBus.publish(messageEvent);
+        deliver(messageEvent);
+    }
+
+    @Override
+    public boolean hasSubscribers(Collection<Long> userIds) {
+        return userIds.stream().anyMatch(subscribers::containsKey);
+    }
+
+    @Override
+    public void deliver(MessageEvent event) {
+        List<Subscriber> recipients = event.userIds().stream()
+                .map(subscribers::get)
+                .filter(Objects::nonNull)
+                .flatMap(userSubscribers -> userSubscribers.values().stream())
+                .toList();
+        long publishedAt = System.nanoTime();
+        for (Subscriber subscriber : recipients) {
+            subscriber.enqueue(new Outgoing(SseEmitter.event().name(event.name()).data(event.message()), true,
+                    publishedAt));
+        }
+    }
+
+    /**
+     * Envoie un commentaire sur chaque flux ouvert : garde les connexions actives derrière les
+     * proxys et détecte les clients partis sans fermer proprement la connexion. Le commentaire
+     * passe par la file du flux, comme les messages : un client bloqué n'arrête pas le planificateur.
+     */
+    @Scheduled(fixedDelayString = "${app.messages.stream.heartbeat:PT25S}",
+            initialDelayString = "${app.messages.stream.heartbeat:PT25S}")
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.values().forEach(subscriber ->
+                subscriber.enqueue(new Outgoing(SseEmitter.event().comment("heartbeat"), false, now))));
+    }
+
+    /**
+     * Arrête les fils d'envoi et ferme les flux ouverts à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.keySet().forEach(SseEmitter::complete));
+        subscribers.clear();
+        connections.set(0);
+    }
+
+    /**
+     * Enregistre un flux ouvert pour un utilisateur.
+     *
+     * @param userId  l'identifiant de l'utilisateur
+     * @param emitter le flux à enregistrer
+     */
+    void register(Long userId, SseEmitter emitter) {
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Map<SseEmitter, Subscriber> updated = userSubscribers != null ? userSubscribers : new ConcurrentHashMap<>();
+            if (updated.putIfAbsent(emitter, new Subscriber(userId, emitter)) == null) {
+                connections.incrementAndGet();
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Retire un flux fermé ; sans effet s'il a déjà été retiré.
+     *
+     * @param userId  l'identifiant de l'utilisateur
+     * @param emitter le flux à retirer
+     */
+    void unregister(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, userSubscribers) -> {
+            Subscriber removed = userSubscribers.remove(emitter);
+            if (removed != null) {
+                removed.closed = true;
+                connections.decrementAndGet();
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    /**
+     * Nombre de flux actuellement ouverts.
+     *
+     * @return le nombre de connexions
+     */
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Événement en attente d'envoi ; seuls les messages sont comptés dans les métriques.
+     */
+    private record Outgoing(SseEmitter.SseEventBuilder event, boolean message, long publishedAt) {
+    }
+
+    /**
+     * Flux ouvert et sa file d'envoi. Au plus un fil vide la file à un instant donné, ce qui
+     * préserve l'ordre des événements du flux.
+     */
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Outgoing> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** Début de l'envoi en cours (System.nanoTime), 0 sans envoi en cours. */
+        private volatile long sendStartedAt;
+        private volatile boolean closed;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Outgoing outgoing) {
+            if (closed) {
+                return;
+            }
+            long startedAt = sendStartedAt;
+            if (startedAt != 0 && System.nanoTime() - startedAt > sendTimeoutNanos) {
+                closeSlow(new TimeoutException("envoi bloqué depuis plus de " + sendTimeoutNanos / 1_000_000
+                        + " ms"), outgoing);
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                pendingCount.decrementAndGet();
+                closeSlow(new IllegalStateException("file d'envoi pleine"), outgoing);
+                return;
+            }
+            pending.add(outgoing);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sendExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close(e, null);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Outgoing outgoing = pending.poll();
+                if (outgoing == null) {
+                    draining.set(false);
+                    // Un événement ajouté entre le poll et la remise à zéro doit encore partir
+                    if (pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                pendingCount.decrementAndGet();
+                if (closed) {
+                    countDropped(outgoing);
+                    continue;
+                }
+                send(outgoing);
+            }
+        }
+
+        private void send(Outgoing outgoing) {
+            sendStartedAt = System.nanoTime();
+            try {
+                emitter.send(outgoing.event());
+                if (outgoing.message()) {
+                    deliveredCounter.increment();
+                    fanOutTimer.record(System.nanoTime() - outgoing.publishedAt(), TimeUnit.NANOSECONDS);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e, outgoing);
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        private void closeSlow(Exception cause, Outgoing outgoing) {
+            if (!closed) {
+                logger.warn("Flux de messages de l'utilisateur {} fermé, client trop lent : {}", userId,
+                        cause.getMessage());
+            }
+            close(cause, outgoing);
+        }
+
+        /**
+         * Ferme le flux et compte comme perdus l'événement refusé et ceux restés en file.
+         */
+        private void close(Exception cause, Outgoing outgoing) {
+            if (!closed) {
+                closed = true;
+                try {
+                    emitter.completeWithError(cause);
+                } catch (RuntimeException e) {
+                    // Flux déjà terminé côté serveur
+                }
+                unregister(userId, emitter);
+            }
+            // Compté après le retrait : une perte observée implique un flux déjà désenregistré
+            if (outgoing != null) {
+                countDropped(outgoing);
+            }
+        }
+
+        private void countDropped(Outgoing outgoing) {
+            if (outgoing.message()) {
+                droppedCounter.increment();
+            }
+        }
+    }
+}
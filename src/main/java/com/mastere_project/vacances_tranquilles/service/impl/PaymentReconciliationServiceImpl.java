@@ -0,0 +1,303 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.Payment;
+import com.mastere_project.vacances_tranquilles.entity.PaymentDiscrepancy;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionSummary;
+import com.mastere_project.vacances_tranquilles.model.enums.PaymentDiscrepancyType;
+import com.mastere_project.vacances_tranquilles.repository.PaymentDiscrepancyRepository;
+import com.mastere_project.vacances_tranquilles.repository.PaymentRepository;
+import com.mastere_project.vacances_tranquilles.service.JobLeaseService;
+import com.mastere_project.vacances_tranquilles.service.PaymentReconciliationService;
+import com.mastere_project.vacances_tranquilles.service.StripeClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation de la réconciliation des paiements, en mémoire constante quel que soit le volume.
+ * Une première passe lit les sessions Stripe page par page (via {@link StripeClient}) et charge,
+ * pour chaque page, les seuls paiements de ses sessions ; les paiements retrouvés sont marqués
+ * en base. Une seconde passe parcourt par pagination par clé les paiements de la journée restés
+ * non marqués. Chaque page est traitée dans sa propre transaction. En déploiement multi-nœuds,
+ * un bail en base garantit qu'un seul nœud exécute la tâche ; la ligne du bail conserve la
+ * dernière journée entièrement réconciliée, d'où repart l'exécution suivante après un échec.
+ */
+@Service
+public class PaymentReconciliationServiceImpl implements PaymentReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationServiceImpl.class);
+
+    /** Nom du bail de la tâche dans la table job_leases. */
+    static final String JOB_NAME = "payment-reconciliation";
+
+    /** Taille maximale d'une page de l'API Stripe. */
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Durée de vie maximale d'une session Checkout : une session payée un jour donné a été créée
+     * au plus tard la veille, les sessions de la veille sont donc relues pour retrouver ses paiements.
+     */
+    static final Duration SESSION_LIFETIME = Duration.ofDays(1);
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentDiscrepancyRepository discrepancyRepository;
+    private final StripeClient stripeClient;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<PaymentDiscrepancyType, Counter> discrepancyCounters = new EnumMap<>(
+            PaymentDiscrepancyType.class);
+    private final Timer runTimer;
+    private final Counter failureCounter;
+    private final int pageSize;
+    private final boolean enabled;
+    private final Duration leaseDuration;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public PaymentReconciliationServiceImpl(PaymentRepository paymentRepository,
+            PaymentDiscrepancyRepository discrepancyRepository, StripeClient stripeClient,
+            JobLeaseService jobLeaseService, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.payments.reconciliation.page-size:100}") int pageSize,
+            @Value("${app.payments.reconciliation.enabled:true}") boolean enabled,
+            @Value("${app.payments.reconciliation.lease:PT1H}") Duration leaseDuration) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE + ".");
+        }
+        this.paymentRepository = paymentRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.stripeClient = stripeClient;
+        this.jobLeaseService = jobLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (PaymentDiscrepancyType type : PaymentDiscrepancyType.values()) {
+            discrepancyCounters.put(type, Counter.builder("payments.reconciliation.discrepancies")
+                    .description("Écarts relevés par la réconciliation des paiements")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.runTimer = Timer.builder("payments.reconciliation.run")
+                .description("Durée d'une réconciliation des paiements")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("payments.reconciliation.failures")
+                .description("Réconciliations planifiées interrompues avant d'avoir atteint la veille")
+                .register(meterRegistry);
+        this.pageSize = pageSize;
+        this.enabled = enabled;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Exécution planifiée : prend le bail de la tâche puis réconcilie, une journée après l'autre,
+     * chaque journée qui suit la dernière entièrement réconciliée, jusqu'à la veille. Sans journée
+     * enregistrée, seule la veille est réconciliée. Une journée n'est enregistrée comme réconciliée
+     * qu'une fois toutes ses pages traitées : après un échec, elle est reprise intégralement à
+     * l'exécution suivante et l'échec est compté dans {@code payments.reconciliation.failures}.
+     */
+    @Scheduled(cron = "${app.payments.reconciliation.cron:0 30 3 * * *}")
+    public void scheduledReconciliation() {
+        if (!enabled) {
+            return;
+        }
+        if (!jobLeaseService.tryAcquire(JOB_NAME, leaseDuration)) {
+            logger.debug("Réconciliation des paiements ignorée : le bail est détenu par un autre nœud");
+            return;
+        }
+        try {
+            LocalDate yesterday = LocalDate.now(zone).minusDays(1);
+            LocalDate day = jobLeaseService.findCompletedThrough(JOB_NAME)
+                    .map(completed -> completed.plusDays(1))
+                    .orElse(yesterday);
+            for (; !day.isAfter(yesterday); day = day.plusDays(1)) {
+                reconcileScheduled(day);
+                jobLeaseService.markCompletedThrough(JOB_NAME, day);
+                // Prolonge le bail entre deux journées lors d'un rattrapage
+                if (day.isBefore(yesterday) && !jobLeaseService.tryAcquire(JOB_NAME, leaseDuration)) {
+                    logger.warn("Réconciliation des paiements arrêtée après le {} : le bail a été perdu", day);
+                    return;
+                }
+            }
+        } finally {
+            jobLeaseService.release(JOB_NAME);
+        }
+    }
+
+    private void reconcileScheduled(LocalDate day) {
+        try {
+            int discrepancies = reconcile(day);
+            if (discrepancies > 0) {
+                logger.warn("Réconciliation des paiements du {} : {} écart(s) relevé(s)", day, discrepancies);
+            }
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            logger.error("Réconciliation des paiements du {} interrompue, elle sera reprise à la prochaine exécution",
+                    day, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int reconcile(LocalDate day) {
+        return runTimer.record(() -> reconcileDay(day));
+    }
+
+    private int reconcileDay(LocalDate day) {
+        Instant from = day.atStartOfDay(zone).toInstant();
+        Instant to = day.plusDays(1).atStartOfDay(zone).toInstant();
+        // Tronqué à la précision de la base pour comparer les marques relues
+        Instant runStartedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        transactionTemplate.executeWithoutResult(status -> discrepancyRepository.deleteByReconciliationDate(day));
+
+        int total = 0;
+        String cursor = null;
+        StripeSessionPage page;
+        do {
+            page = await(stripeClient.listCheckoutSessions(from.minus(SESSION_LIFETIME), to, cursor, pageSize));
+            List<StripeSessionSummary> sessions = page.sessions();
+            if (sessions.isEmpty()) {
+                break;
+            }
+            total += transactionTemplate.execute(status -> compareSessions(day, from, to, sessions, runStartedAt));
+            cursor = sessions.get(sessions.size() - 1).id();
+        } while (page.hasMore());
+
+        LocalDateTime localFrom = LocalDateTime.ofInstant(from, zone);
+        LocalDateTime localTo = LocalDateTime.ofInstant(to, zone);
+        long afterId = 0;
+        while (true) {
+            long lastId = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> reportUnknownSessions(day, localFrom, localTo,
+                    runStartedAt, lastId));
+            total += ids.size();
+            if (ids.size() < pageSize) {
+                return total;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Compare une page de sessions Stripe aux paiements enregistrés et marque les paiements retrouvés.
+     * Un écart n'est relevé que pour la journée réconciliée : celle de création de la session pour
+     * un paiement manquant, celle du paiement sinon.
+     */
+    private int compareSessions(LocalDate day, Instant from, Instant to, List<StripeSessionSummary> sessions,
+            Instant runStartedAt) {
+        Map<String, Payment> payments = paymentRepository
+                .findByStripeSessionIdIn(sessions.stream().map(StripeSessionSummary::id).toList()).stream()
+                .collect(Collectors.toMap(Payment::getStripeSessionId, Function.identity()));
+
+        List<PaymentDiscrepancy> discrepancies = new ArrayList<>();
+        List<Long> found = new ArrayList<>();
+        for (StripeSessionSummary session : sessions) {
+            Payment payment = payments.get(session.id());
+            if (payment == null) {
+                if (session.isPaid() && !session.created().isBefore(from)) {
+                    discrepancies.add(discrepancy(day, PaymentDiscrepancyType.MISSING_PAYMENT, session, null));
+                }
+                continue;
+            }
+            found.add(payment.getId());
+            Instant paidAt = payment.getPaymentDate().atZone(zone).toInstant();
+            if (paidAt.isBefore(from) || !paidAt.isBefore(to)) {
+                continue;
+            }
+            if (!session.isPaid()) {
+                discrepancies.add(discrepancy(day, PaymentDiscrepancyType.STATUS_MISMATCH, session, payment));
+            } else if (!sameAmount(session, payment)) {
+                discrepancies.add(discrepancy(day, PaymentDiscrepancyType.AMOUNT_MISMATCH, session, payment));
+            }
+        }
+        if (!found.isEmpty()) {
+            paymentRepository.markReconciled(found, runStartedAt);
+        }
+        return save(discrepancies);
+    }
+
+    /**
+     * Relève un lot de paiements de la journée qu'aucune session Stripe n'a retrouvés.
+     *
+     * @return les identifiants des paiements du lot
+     */
+    private List<Long> reportUnknownSessions(LocalDate day, LocalDateTime from, LocalDateTime to,
+            Instant runStartedAt, long afterId) {
+        List<Payment> payments = paymentRepository.findUnreconciled(from, to, runStartedAt, afterId,
+                PageRequest.of(0, pageSize));
+        save(payments.stream()
+                .map(payment -> discrepancy(day, PaymentDiscrepancyType.UNKNOWN_SESSION, null, payment))
+                .toList());
+        return payments.stream().map(Payment::getId).toList();
+    }
+
+    private int save(List<PaymentDiscrepancy> discrepancies) {
+        if (!discrepancies.isEmpty()) {
+            discrepancyRepository.saveAll(discrepancies);
+            discrepancies.forEach(discrepancy -> discrepancyCounters.get(discrepancy.getType()).increment());
+        }
+        return discrepancies.size();
+    }
+
+    private static boolean sameAmount(StripeSessionSummary session, Payment payment) {
+        return session.amountTotal() != null && payment.getAmount() != null
+                && payment.getAmount().compareTo(BigDecimal.valueOf(session.amountTotal(), 2)) == 0
+                && (session.currency() == null || session.currency().equalsIgnoreCase(payment.getCurrency()));
+    }
+
+    private static PaymentDiscrepancy discrepancy(LocalDate day, PaymentDiscrepancyType type,
+            StripeSessionSummary session, Payment payment) {
+        PaymentDiscrepancy discrepancy = new PaymentDiscrepancy();
+        discrepancy.setReconciliationDate(day);
+        discrepancy.setType(type);
+        if (session != null) {
+            discrepancy.setStripeSessionId(session.id());
+            discrepancy.setStripeAmount(session.amountTotal());
+        }
+        if (payment != null) {
+            discrepancy.setStripeSessionId(payment.getStripeSessionId());
+            discrepancy.setPaymentId(payment.getId());
+            if (payment.getAmount() != null) {
+                discrepancy.setLocalAmount(payment.getAmount().movePointRight(2).longValue());
+            }
+        }
+        discrepancy.setDetectedAt(Instant.now());
+        return discrepancy;
+    }
+
+    /**
+     * Attend la réponse de Stripe ; la réconciliation de la journée s'interrompt si Stripe est
+     * indisponible.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
+import com.mastere_project.vacances_tranquilles.mapper.MessageMapper;
+import com.mastere_project.vacances_tranquilles.model.MessageEvent;
+import com.mastere_project.vacances_tranquilles.repository.MessageRepository;
+import com.mastere_project.vacances_tranquilles.service.MessageEventBus;
+import com.mastere_project.vacances_tranquilles.service.MessageEventListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Transport des événements de messages entre nœuds par LISTEN/NOTIFY PostgreSQL
+ * ({@code app.messages.stream.bus=postgres}). La notification ne porte que le nom de
+ * l'événement, l'identifiant du message et ceux des destinataires : un nœud qui tient un flux
+ * de l'un d'eux relit le message sur le primaire avant de le livrer. Chaque nœud écoute sur
+ * une connexion dédiée, hors du pool, rouverte après une coupure ; les notifications émises
+ * pendant la coupure sont perdues, les clients les rattrapent par
+ * {@code GET /api/messages/conversation/{id}?afterId=}.
+ */
+@Service
+@ConditionalOnProperty(name = "app.messages.stream.bus", havingValue = "postgres")
+public class PostgresMessageEventBus implements MessageEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresMessageEventBus.class);
+
+    /** Canal PostgreSQL des événements de messages. */
+    static final String CHANNEL = "message_events";
+
+    /** Attente maximale d'une notification, au-delà de laquelle l'arrêt du nœud est vérifié. */
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessageRepository messageRepository;
+    private final MessageMapper messageMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration reconnectDelay;
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile MessageEventListener listener;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    /**
+     * @param jdbcTemplate          accès JDBC utilisé pour émettre les notifications
+     * @param messageRepository     lecture des messages notifiés par les autres nœuds
+     * @param messageMapper         conversion des messages relus
+     * @param transactionManager    transactions de relecture, sur le primaire
+     * @param dataSourceProperties  paramètres de connexion de la connexion d'écoute
+     * @param reconnectDelay        attente avant de rouvrir la connexion d'écoute après une coupure
+     */
+    public PostgresMessageEventBus(JdbcTemplate jdbcTemplate, MessageRepository messageRepository,
+            MessageMapper messageMapper, PlatformTransactionManager transactionManager,
+            DataSourceProperties dataSourceProperties,
+            @Value("${app.messages.stream.bus-reconnect-delay:PT5S}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messageRepository = messageRepository;
+        this.messageMapper = messageMapper;
+        // Transaction en écriture : une relecture sur un réplica en retard ne trouverait pas le message
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.url = dataSourceProperties.determineUrl();
+        this.username = dataSourceProperties.determineUsername();
+        this.password = dataSourceProperties.determinePassword();
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void publish(MessageEvent event) {
+        String payload = String.join(":", nodeId, event.name(), event.message().getId().toString(),
+                event.userIds().stream().map(String::valueOf).collect(Collectors.joining(",")));
+        try {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+        } catch (DataAccessException e) {
+            logger.warn("Événement {} du message {} non transmis aux autres nœuds : {}", event.name(),
+                    event.message().getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(MessageEventListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Démarre le fil d'écoute des notifications.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "message-event-bus");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Arrête le fil d'écoute et ferme sa connexion à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listenerThread.interrupt();
+        try {
+            listenerThread.join(POLL_TIMEOUT_MILLIS * 4L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        Arrays.stream(notifications).forEach(notification -> receive(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Écoute des événements de messages interrompue, reprise dans {} : {}",
+                            reconnectDelay, e.getMessage());
+                    pause();
+                }
+            }
+        }
+    }
+
+    /**
+     * Livre aux flux de ce nœud l'événement d'une notification émise par un autre nœud.
+     *
+     * @param payload le contenu de la notification
+     */
+    void receive(String payload) {
+        String[] parts = payload.split(":", 4);
+        MessageEventListener current = listener;
+        if (parts.length < 4 || nodeId.equals(parts[0]) || current == null) {
+            return;
+        }
+        try {
+            List<Long> userIds = Arrays.stream(parts[3].split(",")).map(Long::valueOf).toList();
+            if (!current.hasSubscribers(userIds)) {
+                return;
+            }
+            Long messageId = Long.valueOf(parts[2]);
+            MessageDTO message = transactionTemplate.execute(status -> messageRepository.findById(messageId)
+                    .map(messageMapper::toDto)
+                    .orElse(null));
+            if (message != null) {
+                current.deliver(new MessageEvent(parts[1], userIds, message));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Notification de message ignorée ({}) : {}", payload, e.getMessage());
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
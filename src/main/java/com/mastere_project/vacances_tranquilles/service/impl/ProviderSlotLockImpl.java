@@ -0,0 +1,103 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.service.ProviderSlotLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Implémentation du verrou de réservation.
+ * Dans une même instance, les appels sont sérialisés par un tableau de verrous
+ * répartis (« striped locks ») indexé par le couple (prestataire, journée) : deux
+ * prestataires différents ne se bloquent que s'ils tombent sur la même bande.
+ * Entre plusieurs instances, l'exclusion repose sur un verrou consultatif
+ * PostgreSQL (pg_advisory_xact_lock) pris dans la transaction de l'action et
+ * libéré automatiquement à sa validation. Sur une autre base (H2 en test), seul
+ * le verrou local s'applique.
+ */
+@Component
+public class ProviderSlotLockImpl implements ProviderSlotLock {
+
+    private static final String ADVISORY_LOCK_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    private final ReentrantLock[] stripes;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public ProviderSlotLockImpl(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+            @Value("${app.booking.lock-stripes:64}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Le nombre de verrous doit être strictement positif.");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public <T> T executeLocked(Long providerId, LocalDate date, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeIndex(providerId, date)];
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                acquireAdvisoryLock(providerId, date);
+                return action.get();
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calcule la bande de verrou associée à un couple (prestataire, journée).
+     *
+     * @param providerId l'identifiant du prestataire
+     * @param date       la journée
+     * @return l'indice de la bande
+     */
+    int stripeIndex(Long providerId, LocalDate date) {
+        int hash = 31 * Long.hashCode(providerId) + date.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+
+    /**
+     * Prend le verrou consultatif PostgreSQL du couple (prestataire, journée) pour
+     * la durée de la transaction courante. Une collision de clés ne fait que
+     * sérialiser inutilement deux réservations, sans jamais en autoriser deux.
+     */
+    private void acquireAdvisoryLock(Long providerId, LocalDate date) {
+        if (!isPostgres()) {
+            return;
+        }
+        jdbcTemplate.queryForList(ADVISORY_LOCK_SQL, Long.hashCode(providerId), (int) date.toEpochDay());
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String productName = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(productName);
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,227 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
+import com.mastere_project.vacances_tranquilles.entity.UserRating;
+import com.mastere_project.vacances_tranquilles.model.RatingBucket;
+import com.mastere_project.vacances_tranquilles.repository.ReviewRepository;
+import com.mastere_project.vacances_tranquilles.repository.UserRatingRepository;
+import com.mastere_project.vacances_tranquilles.service.RatingAggregateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Implémentation des agrégats de notes adossée à la table user_ratings, avec un cache mémoire.
+ * La note est ajoutée par un UPDATE atomique dans la transaction de création de l'avis ;
+ * l'entrée du cache est invalidée après validation de cette transaction.
+ */
+@Service
+public class RatingAggregateServiceImpl implements RatingAggregateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingAggregateServiceImpl.class);
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final UserRatingRepository userRatingRepository;
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final boolean rebuildOnStartup;
+    private final Map<Long, RatingSummaryDTO> cache = new ConcurrentHashMap<>();
+
+    public RatingAggregateServiceImpl(UserRatingRepository userRatingRepository,
+            ReviewRepository reviewRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.ratings.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.userRatingRepository = userRatingRepository;
+        this.reviewRepository = reviewRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * Recalcule les agrégats au démarrage lorsque c'est demandé, ou lorsque la table
+     * user_ratings est vide alors que des avis existent (première mise en service).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup || (userRatingRepository.count() == 0 && reviewRepository.count() > 0)) {
+            int count = rebuild();
+            logger.info("Agrégats de notes recalculés : {}", count);
+        }
+    }
+
+    @Override
+    public RatingSummaryDTO getRating(Long userId) {
+        return cache.computeIfAbsent(userId, id -> readFromPrimary(() -> userRatingRepository.findById(id))
+                .map(RatingAggregateServiceImpl::toSummary)
+                .orElseGet(RatingAggregateServiceImpl::emptySummary));
+    }
+
+    @Override
+    public Map<Long, RatingSummaryDTO> getRatings(Collection<Long> userIds) {
+        Map<Long, RatingSummaryDTO> ratings = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            RatingSummaryDTO cached = cache.get(userId);
+            if (cached != null) {
+                ratings.put(userId, cached);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (UserRating rating : readFromPrimary(() -> userRatingRepository.findAllById(missing))) {
+                RatingSummaryDTO summary = toSummary(rating);
+                cache.put(rating.getUserId(), summary);
+                ratings.put(rating.getUserId(), summary);
+            }
+            for (Long userId : missing) {
+                ratings.computeIfAbsent(userId, id -> cache.computeIfAbsent(id, key -> emptySummary()));
+            }
+        }
+        return ratings;
+    }
+
+    @Override
+    public void onReviewCreated(Long userId, int note) {
+        if (!userRatingRepository.existsById(userId)) {
+            try {
+                newTransactionTemplate.executeWithoutResult(
+                        status -> userRatingRepository.saveAndFlush(emptyRating(userId)));
+            } catch (DataIntegrityViolationException e) {
+                // Un autre avis a créé l'agrégat en même temps : la mise à jour ci-dessous s'y applique
+            }
+        }
+        userRatingRepository.addNote(userId, note);
+        evictAfterCommit(userId);
+    }
+
+    @Override
+    public int rebuild() {
+        Integer count = transactionTemplate.execute(status -> {
+            userRatingRepository.deleteAllInBatch();
+            int users = 0;
+            List<UserRating> batch = new ArrayList<>();
+            UserRating current = null;
+            try (Stream<RatingBucket> buckets = reviewRepository.streamRatingBuckets()) {
+                Iterator<RatingBucket> iterator = buckets.iterator();
+                while (iterator.hasNext()) {
+                    RatingBucket bucket = iterator.next();
+                    if (current == null || !current.getUserId().equals(bucket.userId())) {
+                        current = emptyRating(bucket.userId());
+                        batch.add(current);
+                        users++;
+                    }
+                    addBucket(current, bucket);
+                    if (batch.size() > REBUILD_BATCH_SIZE) {
+                        // Le dernier agrégat peut encore recevoir des notes : il reste dans le lot suivant
+                        UserRating last = batch.remove(batch.size() - 1);
+                        userRatingRepository.saveAll(batch);
+                        batch.clear();
+                        batch.add(last);
+                    }
+                }
+            }
+            userRatingRepository.saveAll(batch);
+            return users;
+        });
+        cache.clear();
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Invalide l'entrée du cache une fois la transaction courante validée, ou immédiatement
+     * en l'absence de transaction.
+     *
+     * @param userId l'identifiant de l'utilisateur dont l'agrégat a changé
+     */
+    private void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(userId);
+                }
+            });
+        } else {
+            cache.remove(userId);
+        }
+    }
+
+    /**
+     * Lit un agrégat destiné au cache sur le primaire. Dans une transaction en lecture seule,
+     * servie par le réplica lorsqu'il est actif, la lecture passe par une transaction séparée :
+     * un agrégat lu sur un réplica en retard, juste après l'invalidation, resterait en cache
+     * jusqu'au prochain avis.
+     *
+     * @param read la lecture à effectuer
+     * @return le résultat de la lecture
+     */
+    private <T> T readFromPrimary(Supplier<T> read) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return read.get();
+        }
+        return newTransactionTemplate.execute(status -> read.get());
+    }
+
+    private static void addBucket(UserRating rating, RatingBucket bucket) {
+        long count = bucket.count();
+        switch (bucket.note()) {
+            case 1 -> rating.setCount1(rating.getCount1() + count);
+            case 2 -> rating.setCount2(rating.getCount2() + count);
+            case 3 -> rating.setCount3(rating.getCount3() + count);
+            case 4 -> rating.setCount4(rating.getCount4() + count);
+            case 5 -> rating.setCount5(rating.getCount5() + count);
+            default -> {
+                // Note hors bornes : ignorée, comme à la création d'un avis
+                return;
+            }
+        }
+        rating.setReviewCount(rating.getReviewCount() + count);
+        rating.setRatingSum(rating.getRatingSum() + bucket.note() * count);
+    }
+
+    private static UserRating emptyRating(Long userId) {
+        UserRating rating = new UserRating();
+        rating.setUserId(userId);
+        return rating;
+    }
+
+    private static RatingSummaryDTO toSummary(UserRating rating) {
+        Double average = rating.getReviewCount() > 0
+                ? Math.round(rating.getRatingSum() * 100.0 / rating.getReviewCount()) / 100.0
+                : null;
+        return new RatingSummaryDTO(rating.getReviewCount(), average, List.of(
+                rating.getCount1(), rating.getCount2(), rating.getCount3(), rating.getCount4(), rating.getCount5()));
+    }
+
+    private static RatingSummaryDTO emptySummary() {
+        return new RatingSummaryDTO(0, null, List.of(0L, 0L, 0L, 0L, 0L));
+    }
+}
@@ -0,0 +1,122 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
+import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
+import com.mastere_project.vacances_tranquilles.service.JobLeaseService;
+import com.mastere_project.vacances_tranquilles.service.ReservationAutoCloseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implémentation de la clôture automatique des réservations.
+ * Chaque lot sélectionne uniquement des identifiants puis les met à jour par un
+ * UPDATE groupé, dans sa propre transaction. En déploiement multi-nœuds, un bail
+ * en base garantit qu'un seul nœud exécute la tâche à la fois.
+ */
+@Service
+public class ReservationAutoCloseServiceImpl implements ReservationAutoCloseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationAutoCloseServiceImpl.class);
+
+    /** Nom du bail de la tâche dans la table job_leases. */
+    static final String JOB_NAME = "reservation-auto-close";
+
+    private final ReservationRepository reservationRepository;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter closedCounter;
+    private final Timer batchTimer;
+    private final int chunkSize;
+    private final boolean enabled;
+    private final Duration leaseDuration;
+
+    public ReservationAutoCloseServiceImpl(ReservationRepository reservationRepository,
+            JobLeaseService jobLeaseService, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.reservations.auto-close.chunk-size:500}") int chunkSize,
+            @Value("${app.reservations.auto-close.enabled:true}") boolean enabled,
+            @Value("${app.reservations.auto-close.lease:PT10M}") Duration leaseDuration) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("La taille de lot doit être strictement positive.");
+        }
+        this.reservationRepository = reservationRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.closedCounter = Counter.builder("reservations.autoclose.rows")
+                .description("Nombre de réservations clôturées automatiquement")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("reservations.autoclose.batch")
+                .description("Durée d'un lot de clôture automatique")
+                .register(meterRegistry);
+        this.chunkSize = chunkSize;
+        this.enabled = enabled;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Exécution planifiée : prend le bail de la tâche puis clôture les réservations terminées.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.auto-close.interval:PT5M}",
+            initialDelayString = "${app.reservations.auto-close.initial-delay:PT1M}")
+    public void scheduledAutoClose() {
+        if (!enabled) {
+            return;
+        }
+        if (!jobLeaseService.tryAcquire(JOB_NAME, leaseDuration)) {
+            logger.debug("Clôture automatique ignorée : le bail est détenu par un autre nœud");
+            return;
+        }
+        try {
+            int closed = closeFinishedReservations(LocalDateTime.now());
+            if (closed > 0) {
+                logger.info("{} réservation(s) clôturée(s) automatiquement", closed);
+            }
+        } finally {
+            jobLeaseService.release(JOB_NAME);
+        }
+    }
+
+    @Override
+    public int closeFinishedReservations(LocalDateTime now) {
+        int total = 0;
+        while (true) {
+            BatchResult batch = batchTimer.record(() -> transactionTemplate.execute(status -> closeBatch(now)));
+            if (batch == null) {
+                return total;
+            }
+            total += batch.closed();
+            closedCounter.increment(batch.closed());
+            // Les réservations clôturées sortent du critère : on relit toujours le premier lot
+            if (batch.selected() < chunkSize || batch.closed() == 0) {
+                return total;
+            }
+        }
+    }
+
+    private BatchResult closeBatch(LocalDateTime now) {
+        List<Long> ids = reservationRepository.findFinishedIds(ReservationStatus.IN_PROGRESS,
+                now.toLocalDate(), now.toLocalTime(), PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+        int closed = reservationRepository.updateStatusByIds(ids, ReservationStatus.IN_PROGRESS,
+                ReservationStatus.CLOSED);
+        return new BatchResult(ids.size(), closed);
+    }
+
+    private record BatchResult(int selected, int closed) {
+    }
+}
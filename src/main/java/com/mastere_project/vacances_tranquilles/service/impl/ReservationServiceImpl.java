@@ -1,27 +1,50 @@
 package com.mastere_project.vacances_tranquilles.service.impl;
 
 import com.mastere_project.vacances_tranquilles.dto.ReservationDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReservationPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
 import com.mastere_project.vacances_tranquilles.dto.UpdateReservationStatusDTO;
+import com.mastere_project.vacances_tranquilles.entity.Payment;
 import com.mastere_project.vacances_tranquilles.entity.Reservation;
 import com.mastere_project.vacances_tranquilles.entity.User;
 import com.mastere_project.vacances_tranquilles.entity.Service;
 import com.mastere_project.vacances_tranquilles.exception.MissingReservationDataException;
 import com.mastere_project.vacances_tranquilles.exception.ReservationNotFoundException;
+import com.mastere_project.vacances_tranquilles.exception.ReservationSlotUnavailableException;
 import com.mastere_project.vacances_tranquilles.exception.ServiceNotFoundException;
 import com.mastere_project.vacances_tranquilles.exception.UnauthorizedReservationAccessException;
 import com.mastere_project.vacances_tranquilles.exception.UserNotFoundException;
 import com.mastere_project.vacances_tranquilles.mapper.ReservationMapper;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.model.CheckoutPayment;
 import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.PaymentRepository;
 import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
 import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
+import com.mastere_project.vacances_tranquilles.service.ProviderSlotLock;
 import com.mastere_project.vacances_tranquilles.service.ReservationService;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.util.pagination.ReservationCursor;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+import com.mastere_project.vacances_tranquilles.util.schedule.ScheduleRuleExpander;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implémentation du service de gestion des réservations.
@@ -36,24 +59,34 @@ public class ReservationServiceImpl implements ReservationService {
 
     private static final String USER_NOT_FOUND_MESSAGE = "Utilisateur introuvable";
     private static final String UNAUTHORIZED_MESSAGE = "Vous n'êtes pas autorisé à accéder à cette réservation";
+    private static final String SLOT_UNAVAILABLE_MESSAGE = "Ce créneau n'est plus disponible pour ce prestataire";
+
+    /** Taille maximale d'une page de réservations. */
+    static final int MAX_PAGE_SIZE = 100;
+
+    /** Statut et moyen des paiements confirmés par Stripe Checkout. */
+    static final String PAYMENT_STATUS_PAID = "PAID";
+    static final String PAYMENT_METHOD_STRIPE_CHECKOUT = "STRIPE_CHECKOUT";
 
     private final ReservationRepository reservationRepository;
     private final UserRepository userRepository;
     private final ServiceRepository serviceRepository;
     private final ReservationMapper reservationMapper;
+    private final AvailabilityIndex availabilityIndex;
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleRuleRepository scheduleRuleRepository;
+    private final ProviderSlotLock providerSlotLock;
+    private final CurrentUserService currentUserService;
+    private final PaymentRepository paymentRepository;
+
+    @Value("${app.reservations.keyset-pagination:true}")
+    private boolean keysetPagination;
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReservationResponseDTO> getAllReservations() {
         Long userId = SecurityUtils.getCurrentUserId();
-        User currentUser = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE));
-        
-        UserRole databaseRole = currentUser.getUserRole();
-        
-        if (databaseRole != UserRole.CLIENT && databaseRole != UserRole.PROVIDER) {
-            throw new UnauthorizedReservationAccessException(
-                    "Seuls les clients et prestataires peuvent accéder aux réservations");
-        }
+        UserRole databaseRole = getListingRole();
 
         List<Reservation> reservations;
         if (databaseRole == UserRole.CLIENT) {
@@ -68,12 +101,56 @@ public class ReservationServiceImpl implements ReservationService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ReservationPageDTO getReservations(ReservationStatus status, LocalDate from, LocalDate to,
+            String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE + ".");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début.");
+        }
+
+        if (!keysetPagination) {
+            List<ReservationResponseDTO> all = getAllReservations().stream()
+                    .filter(r -> status == null || r.getStatus() == status)
+                    .filter(r -> from == null || !r.getReservationDate().toLocalDate().isBefore(from))
+                    .filter(r -> to == null || !r.getReservationDate().toLocalDate().isAfter(to))
+                    .toList();
+            return new ReservationPageDTO(all, null);
+        }
+
+        Long userId = SecurityUtils.getCurrentUserId();
+        UserRole databaseRole = getListingRole();
+        ReservationCursor after = cursor == null || cursor.isBlank() ? null : ReservationCursor.decode(cursor);
+        LocalDate cursorDate = after == null ? null : after.reservationDate();
+        LocalTime cursorTime = after == null ? null : after.startTime();
+        Long cursorId = after == null ? null : after.id();
+        // Une ligne de plus que demandé permet de savoir s'il existe une page suivante
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<ReservationResponseDTO> rows = databaseRole == UserRole.CLIENT
+                ? reservationRepository.findPageByClientId(userId, status, from, to,
+                        cursorDate, cursorTime, cursorId, limit)
+                : reservationRepository.findPageByProviderId(userId, status, from, to,
+                        cursorDate, cursorTime, cursorId, limit);
+
+        if (rows.size() <= size) {
+            return new ReservationPageDTO(rows, null);
+        }
+        List<ReservationResponseDTO> content = rows.subList(0, size);
+        return new ReservationPageDTO(List.copyOf(content),
+                ReservationCursor.after(content.get(size - 1)).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ReservationResponseDTO getReservationById(Long id) {
         Long userId = SecurityUtils.getCurrentUserId();
-        User currentUser = userRepository.findById(userId)
+        AuthenticatedUser currentUser = currentUserService.findCurrentUser()
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE));
         
-        UserRole databaseRole = currentUser.getUserRole();
+        UserRole databaseRole = currentUser.role();
         
         Reservation reservation = reservationRepository
                 .findByIdAndUserId(id, userId)
@@ -96,19 +173,20 @@ public class ReservationServiceImpl implements ReservationService {
     }
 
     @Override
+    @Transactional
     public ReservationResponseDTO changeStatusOfReservationByProvider(Long reservationId, UpdateReservationStatusDTO dto) {
         Long providerId = SecurityUtils.getCurrentUserId();
-        User currentUser = userRepository.findById(providerId)
+        AuthenticatedUser currentUser = currentUserService.findCurrentUser()
                 .orElseThrow(() -> new ReservationNotFoundException(USER_NOT_FOUND_MESSAGE));
         
-        UserRole databaseRole = currentUser.getUserRole();
+        UserRole databaseRole = currentUser.role();
         
         if (databaseRole != UserRole.PROVIDER) {
             throw new UnauthorizedReservationAccessException(
                     "Seuls les prestataires peuvent modifier le statut d'une réservation");
         }
 
-        Reservation reservation = reservationRepository.findById(reservationId)
+        Reservation reservation = reservationRepository.findWithDetailsById(reservationId)
                 .orElseThrow(() -> new ReservationNotFoundException("Réservation introuvable"));
 
         if (!reservation.getProvider().getId().equals(providerId)) {
@@ -128,6 +206,7 @@ public class ReservationServiceImpl implements ReservationService {
         }
 
         Reservation saved = reservationRepository.save(reservation);
+        availabilityIndex.onReservationSaved(saved);
         return reservationMapper.toResponseDTO(saved);
     }
 
@@ -139,6 +218,27 @@ public class ReservationServiceImpl implements ReservationService {
             throw new UnauthorizedReservationAccessException("Vous n'êtes pas autorisé à créer cette réservation");
         }
 
+        return saveReservation(dto, null);
+    }
+
+    @Override
+    public ReservationResponseDTO createPaidReservation(ReservationDTO dto, CheckoutPayment payment) {
+        Optional<Reservation> existing = reservationRepository.findByStripeSessionId(payment.sessionId());
+        if (existing.isPresent()) {
+            return reservationMapper.toResponseDTO(existing.get());
+        }
+        return saveReservation(dto, payment);
+    }
+
+    /**
+     * Construit et enregistre une réservation PENDING sous le verrou du prestataire et de la journée.
+     * Pour une réservation payée, la session Stripe est revérifiée sous le verrou : deux traitements
+     * concurrents d'une même session ne créent qu'une réservation, et son paiement est enregistré
+     * dans la même transaction.
+     */
+    private ReservationResponseDTO saveReservation(ReservationDTO dto, CheckoutPayment payment) {
+        String stripeSessionId = payment == null ? null : payment.sessionId();
+
         User client = userRepository.findById(dto.getClientId())
                 .orElseThrow(() -> new MissingReservationDataException("Client introuvable"));
 
@@ -157,8 +257,71 @@ public class ReservationServiceImpl implements ReservationService {
         reservation.setEndDate(dto.getEndDate().toLocalTime());
         reservation.setTotalPrice(dto.getTotalPrice());
         reservation.setStatus(ReservationStatus.PENDING);
+        reservation.setStripeSessionId(stripeSessionId);
 
-        Reservation savedReservation = reservationRepository.save(reservation);
+        Reservation savedReservation = providerSlotLock.executeLocked(provider.getId(),
+                reservation.getReservationDate(), () -> {
+                    if (stripeSessionId != null
+                            && reservationRepository.existsByStripeSessionId(stripeSessionId)) {
+                        return null;
+                    }
+                    checkSlotAvailable(provider.getId(), reservation.getReservationDate(),
+                            reservation.getStartDate(), reservation.getEndDate());
+                    if (payment != null) {
+                        reservation.setPayment(paymentRepository.save(toPayment(payment)));
+                    }
+                    return reservationRepository.save(reservation);
+                });
+        if (savedReservation == null) {
+            // La session a créé sa réservation pendant l'attente du verrou
+            return reservationMapper.toResponseDTO(
+                    reservationRepository.findByStripeSessionId(stripeSessionId).orElseThrow());
+        }
+        availabilityIndex.onReservationSaved(savedReservation);
         return reservationMapper.toResponseDTO(savedReservation);
     }
-}
\ No newline at end of file
+
+    private static Payment toPayment(CheckoutPayment checkoutPayment) {
+        Payment payment = new Payment();
+        payment.setStatus(PAYMENT_STATUS_PAID);
+        payment.setAmount(BigDecimal.valueOf(checkoutPayment.amountCents(), 2));
+        payment.setCurrency(checkoutPayment.currency());
+        payment.setPaymentDate(LocalDateTime.now());
+        payment.setPaymentMethod(PAYMENT_METHOD_STRIPE_CHECKOUT);
+        payment.setStripeSessionId(checkoutPayment.sessionId());
+        return payment;
+    }
+
+    @Override
+    public void checkSlotAvailable(Long providerId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (reservationRepository.existsOverlapping(providerId, date, startTime, endTime, ReservationStatus.CANCELLED)
+                || scheduleRepository.existsOverlapping(providerId, date, startTime, endTime)) {
+            throw new ReservationSlotUnavailableException(SLOT_UNAVAILABLE_MESSAGE);
+        }
+
+        List<RecurringRule> rules = scheduleRuleRepository.findByProviderId(providerId).stream()
+                .map(RecurringRule::from)
+                .toList();
+        if (!ScheduleRuleExpander.isAvailable(rules, date, startTime, endTime)) {
+            throw new ReservationSlotUnavailableException(SLOT_UNAVAILABLE_MESSAGE);
+        }
+    }
+
+    /**
+     * Vérifie que l'utilisateur connecté peut lister ses réservations et renvoie son rôle.
+     *
+     * @return le rôle de l'utilisateur (CLIENT ou PROVIDER)
+     */
+    private UserRole getListingRole() {
+        AuthenticatedUser currentUser = currentUserService.findCurrentUser()
+                .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND_MESSAGE));
+
+        UserRole databaseRole = currentUser.role();
+
+        if (databaseRole != UserRole.CLIENT && databaseRole != UserRole.PROVIDER) {
+            throw new UnauthorizedReservationAccessException(
+                    "Seuls les clients et prestataires peuvent accéder aux réservations");
+        }
+        return databaseRole;
+    }
+}
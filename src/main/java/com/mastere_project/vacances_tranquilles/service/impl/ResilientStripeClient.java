@@ -0,0 +1,184 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.exception.PaymentGatewayUnavailableException;
+import com.mastere_project.vacances_tranquilles.exception.StripeSessionCreationException;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.mastere_project.vacances_tranquilles.service.StripeClient;
+import com.mastere_project.vacances_tranquilles.service.StripeGateway;
+import com.mastere_project.vacances_tranquilles.util.resilience.CircuitBreaker;
+import com.stripe.exception.StripeException;
+import com.stripe.param.checkout.SessionCreateParams;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Client Stripe résilient : les appels bloquants du transport s'exécutent sur un pool dédié et
+ * borné (cloison), de sorte qu'un Stripe lent n'immobilise que ce pool et jamais les threads de
+ * Tomcat. Un disjoncteur refuse immédiatement les appels après une série d'échecs côté Stripe,
+ * et chaque appel est borné par un délai global ; l'appel bloquant du SDK, qu'une interruption
+ * n'arrête pas, est borné par son délai de lecture aligné sur ce délai global (voir
+ * {@code StripeGatewayConfig}), et un appel dont le délai expire dans la file n'est pas lancé.
+ * La latence est publiée en histogramme
+ * ({@code stripe.gateway.latency}) par opération et par issue.
+ */
+@Service
+public class ResilientStripeClient implements StripeClient, AutoCloseable {
+
+    private static final String UNAVAILABLE_MESSAGE = "Service de paiement momentanément indisponible. Réessayez dans un instant.";
+    private static final String CHECKOUT_FAILED_MESSAGE = "La création de la session Stripe a échoué.";
+    private static final String LIST_FAILED_MESSAGE = "La lecture des sessions Stripe a échoué.";
+
+    private final StripeGateway gateway;
+    private final MeterRegistry meterRegistry;
+    private final Duration callTimeout;
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ResilientStripeClient(StripeGateway gateway, MeterRegistry meterRegistry,
+            @Value("${app.stripe.bulkhead.threads:8}") int threads,
+            @Value("${app.stripe.bulkhead.queue-capacity:32}") int queueCapacity,
+            @Value("${app.stripe.call-timeout:PT10S}") Duration callTimeout,
+            @Value("${app.stripe.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${app.stripe.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+        this(gateway, meterRegistry, threads, queueCapacity, callTimeout,
+                new CircuitBreaker("stripe", failureThreshold, openDuration));
+    }
+
+    ResilientStripeClient(StripeGateway gateway, MeterRegistry meterRegistry, int threads, int queueCapacity,
+            Duration callTimeout, CircuitBreaker circuitBreaker) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threads et queueCapacity doivent être strictement positifs");
+        }
+        this.gateway = gateway;
+        this.meterRegistry = meterRegistry;
+        this.callTimeout = callTimeout;
+        this.circuitBreaker = circuitBreaker;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "stripe-call-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("stripe.gateway.bulkhead.queue", executor, pool -> pool.getQueue().size());
+        meterRegistry.gauge("stripe.gateway.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount);
+        meterRegistry.gauge("stripe.gateway.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal());
+    }
+
+    @Override
+    public CompletableFuture<String> createCheckoutSession(SessionCreateParams params) {
+        return call("checkout.session.create", StripeSessionCreationException::new, CHECKOUT_FAILED_MESSAGE,
+                () -> gateway.createCheckoutSession(params));
+    }
+
+    @Override
+    public CompletableFuture<StripeSessionPage> listCheckoutSessions(Instant createdFrom, Instant createdTo,
+            String startingAfter, int limit) {
+        return call("checkout.session.list",
+                com.mastere_project.vacances_tranquilles.exception.StripeException::new, LIST_FAILED_MESSAGE,
+                () -> gateway.listCheckoutSessions(createdFrom, createdTo, startingAfter, limit));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Exécute un appel Stripe à travers le disjoncteur, la cloison et le délai global.
+     * Seuls les échecs côté Stripe (réseau, délai, 5xx, 429) comptent pour le disjoncteur :
+     * une requête refusée par Stripe (4xx) prouve au contraire que Stripe répond.
+     */
+    private <T> CompletableFuture<T> call(String operation,
+            BiFunction<String, Throwable, ? extends RuntimeException> failure, String failureMessage,
+            StripeCall<T> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            record(operation, "short_circuited", null);
+            return CompletableFuture.failedFuture(new PaymentGatewayUnavailableException(UNAVAILABLE_MESSAGE));
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                // Délai écoulé pendant l'attente dans la cloison : l'appelant a déjà reçu son erreur
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(call.execute());
+                } catch (StripeException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            record(operation, "rejected", sample);
+            return CompletableFuture.failedFuture(new PaymentGatewayUnavailableException(UNAVAILABLE_MESSAGE));
+        }
+
+        return future.orTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS).handle((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+                    : error;
+            if (cause == null) {
+                circuitBreaker.onSuccess();
+                record(operation, "success", sample);
+                return result;
+            }
+            if (cause instanceof TimeoutException) {
+                circuitBreaker.onFailure();
+                record(operation, "timeout", sample);
+                throw new PaymentGatewayUnavailableException(UNAVAILABLE_MESSAGE);
+            }
+            if (cause instanceof StripeException stripeException && isClientError(stripeException)) {
+                circuitBreaker.onSuccess();
+                record(operation, "client_error", sample);
+                throw failure.apply(failureMessage, stripeException);
+            }
+            circuitBreaker.onFailure();
+            record(operation, "server_error", sample);
+            throw failure.apply(failureMessage, cause);
+        });
+    }
+
+    private static boolean isClientError(StripeException e) {
+        Integer status = e.getStatusCode();
+        return status != null && status >= 400 && status < 500 && status != 429;
+    }
+
+    private void record(String operation, String outcome, Timer.Sample sample) {
+        Timer timer = Timer.builder("stripe.gateway.latency")
+                .description("Durée des appels à l'API Stripe, attente dans la cloison comprise")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        if (sample == null) {
+            timer.record(Duration.ZERO);
+        } else {
+            sample.stop(timer);
+        }
+    }
+
+    /**
+     * Appel bloquant au transport Stripe.
+     */
+    @FunctionalInterface
+    private interface StripeCall<T> {
+        T execute() throws StripeException;
+    }
+}
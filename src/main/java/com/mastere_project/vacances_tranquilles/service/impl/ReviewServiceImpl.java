@@ -1,23 +1,29 @@
 package com.mastere_project.vacances_tranquilles.service.impl;
 
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReviewPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewWithReviewerDTO;
 import com.mastere_project.vacances_tranquilles.entity.Review;
 import com.mastere_project.vacances_tranquilles.entity.Reservation;
-import com.mastere_project.vacances_tranquilles.entity.User;
 import com.mastere_project.vacances_tranquilles.mapper.ReviewMapper;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
 import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 import com.mastere_project.vacances_tranquilles.repository.ReviewRepository;
 import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
-import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
+import com.mastere_project.vacances_tranquilles.service.RatingAggregateService;
 import com.mastere_project.vacances_tranquilles.service.ReviewService;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.util.pagination.ReviewCursor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 import com.mastere_project.vacances_tranquilles.exception.ReservationNotFoundException;
 import com.mastere_project.vacances_tranquilles.exception.ReservationNotCompletedException;
 import com.mastere_project.vacances_tranquilles.exception.InvalidReviewUserException;
@@ -32,26 +38,32 @@ public class ReviewServiceImpl implements ReviewService {
 
     private static final String USER_NOT_FOUND_MESSAGE = "Utilisateur non trouvé";
     private static final String USER_ROLE_NULL_MESSAGE = "Rôle utilisateur non défini en base de données";
+    static final int MAX_PAGE_SIZE = 100;
 
     private final ReviewRepository reviewRepository;
     private final ReservationRepository reservationRepository;
-    private final UserRepository userRepository;
     private final ReviewMapper reviewMapper;
+    private final RatingAggregateService ratingAggregateService;
+    private final CurrentUserService currentUserService;
 
     /**
      * Constructeur du service d'avis.
      *
      * @param reviewRepository      le repository pour les entités Review
      * @param reservationRepository le repository pour les entités Reservation
-     * @param userRepository        le repository pour les entités User
      * @param reviewMapper          le mapper pour convertir entre entités et DTO Review
+     * @param ratingAggregateService le service des agrégats de notes
+     * @param currentUserService    le service de résolution de l'utilisateur connecté
      */
     public ReviewServiceImpl(ReviewRepository reviewRepository, ReservationRepository reservationRepository,
-                             UserRepository userRepository, ReviewMapper reviewMapper) {
+                             ReviewMapper reviewMapper,
+                             RatingAggregateService ratingAggregateService,
+                             CurrentUserService currentUserService) {
         this.reviewRepository = reviewRepository;
         this.reservationRepository = reservationRepository;
-        this.userRepository = userRepository;
         this.reviewMapper = reviewMapper;
+        this.ratingAggregateService = ratingAggregateService;
+        this.currentUserService = currentUserService;
     }
 
     /**
@@ -70,7 +82,7 @@ public class ReviewServiceImpl implements ReviewService {
     public ReviewDTO createReview(ReviewDTO dto) {
         Long currentUserId = SecurityUtils.getCurrentUserId();
         
-        validateUser(currentUserId);
+        validateUser();
         validateNote(dto.getNote());
         
         dto.setReviewerId(currentUserId);
@@ -85,21 +97,23 @@ public class ReviewServiceImpl implements ReviewService {
         Review review = reviewMapper.toEntity(dto);
         review.setCreatedAt(LocalDateTime.now());
         Review saved = reviewRepository.save(review);
+        if (reviewedId != null) {
+            ratingAggregateService.onReviewCreated(reviewedId, dto.getNote());
+        }
         
         return reviewMapper.toDTO(saved);
     }
 
     /**
-     * Valide que l'utilisateur existe et a un rôle défini.
+     * Valide que l'utilisateur connecté existe et a un rôle défini.
      *
-     * @param currentUserId l'identifiant de l'utilisateur à valider
      * @throws AccessDeniedException si l'utilisateur n'existe pas ou n'a pas de rôle défini
      */
-    private void validateUser(Long currentUserId) {
-        User user = userRepository.findById(currentUserId)
+    private void validateUser() {
+        AuthenticatedUser user = currentUserService.findCurrentUser()
                 .orElseThrow(() -> new AccessDeniedException(USER_NOT_FOUND_MESSAGE));
         
-        if (user.getUserRole() == null) {
+        if (user.role() == null) {
             throw new AccessDeniedException(USER_ROLE_NULL_MESSAGE);
         }
     }
@@ -184,18 +198,10 @@ public class ReviewServiceImpl implements ReviewService {
      * @throws ReviewNotFoundException si aucun avis n'est trouvé
      */
     @Override
+    @Transactional(readOnly = true)
     public ReviewDTO getReviewById(Long reviewId) {
-        // Vérification de l'utilisateur authentifié
-        Long currentUserId = SecurityUtils.getCurrentUserId();
-        
-        // Vérification en base de données que l'utilisateur existe
-        User user = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new AccessDeniedException(USER_NOT_FOUND_MESSAGE));
-
-        // Vérification que le rôle de l'utilisateur en base correspond au rôle authentifié
-        if (user.getUserRole() == null) {
-            throw new AccessDeniedException(USER_ROLE_NULL_MESSAGE);
-        }
+        // Vérification que l'utilisateur authentifié existe et a un rôle défini
+        validateUser();
 
         Review review = reviewRepository.findById(reviewId).orElse(null);
         if (review == null) {
@@ -206,95 +212,137 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     /**
-     * Récupère tous les avis rédigés par l'utilisateur authentifié.
+     * Récupère une page des avis rédigés par l'utilisateur authentifié.
      *
-     * @return la liste des avis rédigés par l'utilisateur authentifié
+     * @param cursor le curseur de la page précédente, ou null pour la première page
+     * @param size   le nombre maximal d'avis de la page (1 à 100)
+     * @return la page d'avis rédigés par l'utilisateur authentifié
+     * @throws IllegalArgumentException si la taille ou le curseur est invalide
      */
     @Override
-    public List<ReviewDTO> getReviewsWrittenByUser() {
+    @Transactional(readOnly = true)
+    public ReviewPageDTO<ReviewDTO> getReviewsWrittenByUser(String cursor, int size) {
+        validatePageSize(size);
         Long currentUserId = SecurityUtils.getCurrentUserId();
-        
-        // Vérification en base de données que l'utilisateur existe
-        User user = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new AccessDeniedException(USER_NOT_FOUND_MESSAGE));
-
-        // Vérification que le rôle de l'utilisateur en base correspond au rôle authentifié
-        if (user.getUserRole() == null) {
-            throw new AccessDeniedException(USER_ROLE_NULL_MESSAGE);
-        }
+        validateUser();
 
-        List<Review> reviews = reviewRepository.findByReviewerId(currentUserId);
-        return reviews.stream()
-                .map(reviewMapper::toDTO)
-                .toList();
+        ReviewCursor after = decodeCursor(cursor);
+        List<ReviewDTO> rows = reviewRepository.findPageByReviewerId(currentUserId,
+                after == null ? null : after.createdAt(), after == null ? null : after.id(),
+                PageRequest.of(0, size + 1));
+        return toPage(rows, size, review -> new ReviewCursor(review.getCreatedAt(), review.getId()));
     }
 
     /**
-     * Récupère tous les avis reçus par l'utilisateur authentifié.
+     * Récupère une page des avis reçus par l'utilisateur authentifié.
      *
-     * @return la liste des avis reçus
+     * @param cursor le curseur de la page précédente, ou null pour la première page
+     * @param size   le nombre maximal d'avis de la page (1 à 100)
+     * @return la page d'avis reçus
+     * @throws IllegalArgumentException si la taille ou le curseur est invalide
      */
     @Override
-    public List<ReviewDTO> getReviewsReceivedByUser() {
+    @Transactional(readOnly = true)
+    public ReviewPageDTO<ReviewDTO> getReviewsReceivedByUser(String cursor, int size) {
+        validatePageSize(size);
         Long currentUserId = SecurityUtils.getCurrentUserId();
-        
-        // Vérification en base de données que l'utilisateur existe
-        User user = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new AccessDeniedException(USER_NOT_FOUND_MESSAGE));
+        validateUser();
 
-        // Vérification que le rôle de l'utilisateur en base correspond au rôle authentifié
-        if (user.getUserRole() == null) {
-            throw new AccessDeniedException(USER_ROLE_NULL_MESSAGE);
-        }
-
-        List<Review> reviews = reviewRepository.findByReviewedId(currentUserId);
-        return reviews.stream()
-                .map(reviewMapper::toDTO)
-                .toList();
+        return findReceivedPage(currentUserId, cursor, size);
     }
 
     /**
-     * Récupère tous les avis reçus par un prestataire spécifique.
+     * Récupère une page des avis reçus par un prestataire spécifique.
      *
      * @param providerId l'identifiant du prestataire
-     * @return la liste des avis reçus par le prestataire
+     * @param cursor     le curseur de la page précédente, ou null pour la première page
+     * @param size       le nombre maximal d'avis de la page (1 à 100)
+     * @return la page d'avis reçus par le prestataire
+     * @throws IllegalArgumentException si la taille ou le curseur est invalide
      */
     @Override
-    public List<ReviewDTO> getReviewsByProviderId(Long providerId) {
-        List<Review> reviews = reviewRepository.findByReviewedId(providerId);
-        return reviews.stream()
-                .map(reviewMapper::toDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public ReviewPageDTO<ReviewDTO> getReviewsByProviderId(Long providerId, String cursor, int size) {
+        validatePageSize(size);
+        return findReceivedPage(providerId, cursor, size);
     }
 
     /**
-     * Récupère tous les avis reçus par un prestataire spécifique avec les informations du reviewer.
+     * Récupère une page des avis reçus par un prestataire spécifique avec le prénom de leur auteur.
+     * L'auteur est joint dans la requête : aucun chargement supplémentaire par avis.
      *
      * @param providerId l'identifiant du prestataire
-     * @return la liste des avis reçus par le prestataire avec les informations du reviewer
+     * @param cursor     le curseur de la page précédente, ou null pour la première page
+     * @param size       le nombre maximal d'avis de la page (1 à 100)
+     * @return la page d'avis reçus par le prestataire avec les informations du reviewer
+     * @throws IllegalArgumentException si la taille ou le curseur est invalide
      */
     @Override
-    public List<ReviewWithReviewerDTO> getReviewsWithReviewerByProviderId(Long providerId) {
-        List<Review> reviews = reviewRepository.findByReviewedId(providerId);
-        
-        return reviews.stream()
-                .map(review -> {
-                    ReviewWithReviewerDTO dto = new ReviewWithReviewerDTO();
-                    dto.setId(review.getId());
-                    dto.setNote(review.getNote());
-                    dto.setCommentaire(review.getCommentaire());
-                    dto.setReservationId(review.getReservationId());
-                    dto.setReviewerId(review.getReviewer().getId());
-                    dto.setReviewedId(review.getReviewed().getId());
-                    dto.setCreatedAt(review.getCreatedAt());
-                    
-                    // Récupérer les informations du reviewer
-                    User reviewer = review.getReviewer();
-                    dto.setReviewerFirstName(reviewer.getFirstName());
-                    
-                    return dto;
-                })
-                .toList();
+    @Transactional(readOnly = true)
+    public ReviewPageDTO<ReviewWithReviewerDTO> getReviewsWithReviewerByProviderId(Long providerId,
+            String cursor, int size) {
+        validatePageSize(size);
+        ReviewCursor after = decodeCursor(cursor);
+        List<ReviewWithReviewerDTO> rows = reviewRepository.findPageWithReviewerByReviewedId(providerId,
+                after == null ? null : after.createdAt(), after == null ? null : after.id(),
+                PageRequest.of(0, size + 1));
+        return toPage(rows, size, review -> new ReviewCursor(review.getCreatedAt(), review.getId()));
+    }
+
+    /**
+     * Récupère une page des avis reçus par un utilisateur.
+     *
+     * @param reviewedId l'identifiant de l'utilisateur évalué
+     * @param cursor     le curseur de la page précédente, ou null pour la première page
+     * @param size       le nombre maximal d'avis de la page
+     * @return la page d'avis reçus
+     */
+    private ReviewPageDTO<ReviewDTO> findReceivedPage(Long reviewedId, String cursor, int size) {
+        ReviewCursor after = decodeCursor(cursor);
+        List<ReviewDTO> rows = reviewRepository.findPageByReviewedId(reviewedId,
+                after == null ? null : after.createdAt(), after == null ? null : after.id(),
+                PageRequest.of(0, size + 1));
+        return toPage(rows, size, review -> new ReviewCursor(review.getCreatedAt(), review.getId()));
+    }
+
+    /**
+     * Vérifie que la taille de page demandée est dans les bornes autorisées.
+     *
+     * @param size la taille de page demandée
+     * @throws IllegalArgumentException si la taille n'est pas comprise entre 1 et {@value #MAX_PAGE_SIZE}
+     */
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    /**
+     * Décode le curseur reçu du frontend.
+     *
+     * @param cursor le curseur encodé, null ou vide pour la première page
+     * @return le curseur décodé, ou null pour la première page
+     */
+    private ReviewCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : ReviewCursor.decode(cursor);
+    }
+
+    /**
+     * Construit une page à partir des lignes lues, la requête ayant demandé une ligne de plus
+     * que la taille de page pour savoir s'il existe une page suivante.
+     *
+     * @param rows     les lignes lues (au plus size + 1)
+     * @param size     la taille de page demandée
+     * @param cursorOf la fonction donnant la position d'un avis
+     * @param <T>      le type d'avis
+     * @return la page, avec le curseur de la page suivante s'il en existe une
+     */
+    private static <T> ReviewPageDTO<T> toPage(List<T> rows, int size, Function<T, ReviewCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new ReviewPageDTO<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new ReviewPageDTO<>(List.copyOf(content), cursorOf.apply(content.get(size - 1)).encode());
     }
 
     /**
@@ -304,10 +352,23 @@ public class ReviewServiceImpl implements ReviewService {
      * @return la liste des avis pour la réservation
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDTO> getReviewsByReservationId(Long reservationId) {
         List<Review> reviews = reviewRepository.findByReservationId(reservationId);
         return reviews.stream()
                 .map(reviewMapper::toDTO)
                 .toList();
     }
+
+    /**
+     * Récupère le résumé des notes reçues par un prestataire, sans relire ses avis.
+     *
+     * @param providerId l'identifiant du prestataire
+     * @return le résumé des notes du prestataire
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public RatingSummaryDTO getRatingByProviderId(Long providerId) {
+        return ratingAggregateService.getRating(providerId);
+    }
 }
\ No newline at end of file
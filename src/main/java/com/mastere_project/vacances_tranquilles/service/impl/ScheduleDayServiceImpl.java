@@ -0,0 +1,134 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleDay;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleStorage;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleDayRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.service.ScheduleDayService;
+import com.mastere_project.vacances_tranquilles.util.schedule.DaySlotMask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implémentation du service de gestion des masques journaliers de créneaux occupés.
+ * En mode {@link ScheduleStorage#BITMAP}, les masques sont recalculés au démarrage
+ * à partir de la table schedules.
+ */
+@Service
+public class ScheduleDayServiceImpl implements ScheduleDayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleDayServiceImpl.class);
+
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleDayRepository scheduleDayRepository;
+    private final ScheduleStorage scheduleStorage;
+
+    /**
+     * Constructeur avec injection de dépendances.
+     *
+     * @param scheduleRepository    repository des intervalles occupés
+     * @param scheduleDayRepository repository des masques journaliers
+     * @param scheduleStorage       mode de stockage (propriété {@code app.schedule.storage})
+     */
+    public ScheduleDayServiceImpl(ScheduleRepository scheduleRepository,
+            ScheduleDayRepository scheduleDayRepository,
+            @Value("${app.schedule.storage:rows}") ScheduleStorage scheduleStorage) {
+        this.scheduleRepository = scheduleRepository;
+        this.scheduleDayRepository = scheduleDayRepository;
+        this.scheduleStorage = scheduleStorage;
+    }
+
+    /**
+     * Alimente les masques journaliers au démarrage lorsque le mode bitmap est actif.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (scheduleStorage == ScheduleStorage.BITMAP) {
+            int count = migrateFromRows();
+            logger.info("Masques journaliers de créneaux recalculés : {}", count);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int migrateFromRows() {
+        Map<DayKey, DaySlotMask> masks = new HashMap<>();
+        Map<Long, User> providers = new HashMap<>();
+        for (Schedule schedule : scheduleRepository.findAll()) {
+            if (schedule.getProvider() == null || schedule.getDate() == null
+                    || schedule.getStartTime() == null || schedule.getEndTime() == null) {
+                continue;
+            }
+            providers.putIfAbsent(schedule.getProvider().getId(), schedule.getProvider());
+            masks.merge(new DayKey(schedule.getProvider().getId(), schedule.getDate()),
+                    DaySlotMask.of(schedule.getStartTime(), schedule.getEndTime()), DaySlotMask::or);
+        }
+
+        List<ScheduleDay> toSave = new ArrayList<>();
+        List<ScheduleDay> toDelete = new ArrayList<>();
+        for (ScheduleDay existing : scheduleDayRepository.findAll()) {
+            DaySlotMask mask = masks.remove(new DayKey(existing.getProvider().getId(), existing.getDate()));
+            if (mask == null || mask.isEmpty()) {
+                toDelete.add(existing);
+            } else if (existing.getSlotsLow() != mask.low() || existing.getSlotsHigh() != mask.high()) {
+                existing.setSlotsLow(mask.low());
+                existing.setSlotsHigh(mask.high());
+                toSave.add(existing);
+            }
+        }
+        masks.forEach((key, mask) -> {
+            if (!mask.isEmpty()) {
+                toSave.add(new ScheduleDay(null, key.date(), mask.low(), mask.high(), providers.get(key.providerId())));
+            }
+        });
+
+        scheduleDayRepository.deleteAll(toDelete);
+        scheduleDayRepository.saveAll(toSave);
+        return (int) scheduleDayRepository.count();
+    }
+
+    @Override
+    @Transactional
+    public void refreshDay(User provider, LocalDate date) {
+        if (scheduleStorage != ScheduleStorage.BITMAP) {
+            return;
+        }
+        DaySlotMask mask = scheduleRepository.findByProviderIdAndDate(provider.getId(), date).stream()
+                .map(schedule -> DaySlotMask.of(schedule.getStartTime(), schedule.getEndTime()))
+                .reduce(DaySlotMask.EMPTY, DaySlotMask::or);
+
+        ScheduleDay day = scheduleDayRepository.findByProviderIdAndDate(provider.getId(), date).orElse(null);
+        if (mask.isEmpty()) {
+            if (day != null) {
+                scheduleDayRepository.delete(day);
+            }
+            return;
+        }
+        if (day == null) {
+            day = new ScheduleDay(null, date, mask.low(), mask.high(), provider);
+        } else {
+            day.setSlotsLow(mask.low());
+            day.setSlotsHigh(mask.high());
+        }
+        scheduleDayRepository.save(day);
+    }
+
+    /**
+     * Clé de regroupement des intervalles : couple (prestataire, date).
+     */
+    private record DayKey(Long providerId, LocalDate date) {
+    }
+}
@@ -0,0 +1,246 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.AvailabilityWindowDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleExceptionDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleRuleDTO;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.exception.ScheduleNotFoundException;
+import com.mastere_project.vacances_tranquilles.mapper.ScheduleMapper;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleExceptionType;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
+import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
+import com.mastere_project.vacances_tranquilles.service.ScheduleDayService;
+import com.mastere_project.vacances_tranquilles.service.ScheduleService;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+import com.mastere_project.vacances_tranquilles.util.schedule.ScheduleRuleExpander;
+import com.mastere_project.vacances_tranquilles.util.schedule.TimeWindow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implémentation du service de gestion du planning des prestataires.
+ * Les règles récurrentes sont stockées telles quelles (une ligne par règle) et
+ * développées à la demande ; une exception AVAILABLE est une règle valable un
+ * seul jour, une exception UNAVAILABLE est une plage bloquée de la table schedules.
+ * Chaque écriture est transactionnelle : la plage bloquée et le masque journalier qui en
+ * dérive sont validés ensemble, l'index de disponibilité n'est mis à jour qu'après validation.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleServiceImpl implements ScheduleService {
+
+    /** Étendue maximale d'une période consultée, en jours. */
+    static final long MAX_RANGE_DAYS = 366;
+
+    private static final String RULE_NOT_FOUND_MESSAGE = "Règle de disponibilité introuvable";
+    private static final String EXCEPTION_NOT_FOUND_MESSAGE = "Exception de planning introuvable";
+    private static final String FORBIDDEN_MESSAGE = "Vous n'êtes pas autorisé à modifier ce planning.";
+
+    private final ScheduleRuleRepository scheduleRuleRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final UserRepository userRepository;
+    private final ScheduleMapper scheduleMapper;
+    private final AvailabilityIndex availabilityIndex;
+    private final ScheduleDayService scheduleDayService;
+    private final CurrentUserService currentUserService;
+
+    @Override
+    @Transactional
+    public ScheduleRuleDTO createRule(ScheduleRuleDTO dto) {
+        User provider = getCurrentProvider();
+
+        if (dto.getDaysOfWeek() == null || dto.getDaysOfWeek().isEmpty()) {
+            throw new IllegalArgumentException("Au moins un jour de la semaine est obligatoire.");
+        }
+        validateTimes(dto.getStartTime(), dto.getEndTime());
+        if (dto.getValidFrom() == null) {
+            dto.setValidFrom(LocalDate.now());
+        }
+        if (dto.getValidUntil() != null && dto.getValidUntil().isBefore(dto.getValidFrom())) {
+            throw new IllegalArgumentException("La date de fin de validité doit être postérieure à la date de début.");
+        }
+
+        ScheduleRule rule = scheduleMapper.toRuleEntity(dto);
+        rule.setId(null);
+        rule.setProvider(provider);
+        ScheduleRule saved = scheduleRuleRepository.save(rule);
+        refreshIndexRules(provider.getId());
+        return scheduleMapper.toRuleDto(saved);
+    }
+
+    @Override
+    public List<ScheduleRuleDTO> getMyRules() {
+        User provider = getCurrentProvider();
+        return scheduleRuleRepository.findByProviderId(provider.getId()).stream()
+                .map(scheduleMapper::toRuleDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void deleteRule(Long id) {
+        User provider = getCurrentProvider();
+        ScheduleRule rule = scheduleRuleRepository.findById(id)
+                .orElseThrow(() -> new ScheduleNotFoundException(RULE_NOT_FOUND_MESSAGE));
+        if (rule.getProvider() == null || !provider.getId().equals(rule.getProvider().getId())) {
+            throw new AccessDeniedException(FORBIDDEN_MESSAGE);
+        }
+        scheduleRuleRepository.delete(rule);
+        refreshIndexRules(provider.getId());
+    }
+
+    @Override
+    @Transactional
+    public ScheduleExceptionDTO createException(ScheduleExceptionDTO dto) {
+        User provider = getCurrentProvider();
+
+        if (dto.getType() == null) {
+            throw new IllegalArgumentException("Le type d'exception est obligatoire.");
+        }
+        if (dto.getDate() == null) {
+            throw new IllegalArgumentException("La date est obligatoire.");
+        }
+        if (dto.getDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("La date ne peut pas être dans le passé.");
+        }
+        validateTimes(dto.getStartTime(), dto.getEndTime());
+
+        if (dto.getType() == ScheduleExceptionType.AVAILABLE) {
+            ScheduleRule rule = new ScheduleRule(null, RecurringRule.daysMask(List.of(dto.getDate().getDayOfWeek())),
+                    dto.getStartTime(), dto.getEndTime(), dto.getDate(), dto.getDate(), provider);
+            ScheduleRule saved = scheduleRuleRepository.save(rule);
+            refreshIndexRules(provider.getId());
+            return scheduleMapper.toExceptionDto(saved);
+        }
+
+        Schedule schedule = new Schedule(null, dto.getDate(), dto.getStartTime(), dto.getEndTime(), provider);
+        Schedule saved = scheduleRepository.save(schedule);
+        availabilityIndex.onScheduleSaved(saved);
+        scheduleDayService.refreshDay(provider, saved.getDate());
+        return scheduleMapper.toExceptionDto(saved);
+    }
+
+    @Override
+    public List<ScheduleExceptionDTO> getMyExceptions(LocalDate from, LocalDate to) {
+        User provider = getCurrentProvider();
+        validateRange(from, to);
+
+        List<ScheduleExceptionDTO> exceptions = new ArrayList<>();
+        for (ScheduleRule rule : scheduleRuleRepository.findByProviderId(provider.getId())) {
+            if (RecurringRule.from(rule).isException()
+                    && !rule.getValidFrom().isBefore(from) && !rule.getValidFrom().isAfter(to)) {
+                exceptions.add(scheduleMapper.toExceptionDto(rule));
+            }
+        }
+        for (Schedule schedule : scheduleRepository.findByProviderIdAndDateBetween(provider.getId(), from, to)) {
+            exceptions.add(scheduleMapper.toExceptionDto(schedule));
+        }
+        return exceptions;
+    }
+
+    @Override
+    @Transactional
+    public void deleteException(Long id, ScheduleExceptionType type) {
+        User provider = getCurrentProvider();
+        if (type == ScheduleExceptionType.AVAILABLE) {
+            // Seule une règle d'un jour est une exception : les règles récurrentes ne passent pas par ici
+            ScheduleRule rule = scheduleRuleRepository.findById(id)
+                    .filter(found -> RecurringRule.from(found).isException())
+                    .orElseThrow(() -> new ScheduleNotFoundException(EXCEPTION_NOT_FOUND_MESSAGE));
+            if (rule.getProvider() == null || !provider.getId().equals(rule.getProvider().getId())) {
+                throw new AccessDeniedException(FORBIDDEN_MESSAGE);
+            }
+            scheduleRuleRepository.delete(rule);
+            refreshIndexRules(provider.getId());
+            return;
+        }
+        Schedule schedule = scheduleRepository.findById(id)
+                .orElseThrow(() -> new ScheduleNotFoundException(EXCEPTION_NOT_FOUND_MESSAGE));
+        if (schedule.getProvider() == null || !provider.getId().equals(schedule.getProvider().getId())) {
+            throw new AccessDeniedException(FORBIDDEN_MESSAGE);
+        }
+        scheduleRepository.delete(schedule);
+        availabilityIndex.onScheduleDeleted(id);
+        scheduleDayService.refreshDay(provider, schedule.getDate());
+    }
+
+    @Override
+    public List<AvailabilityWindowDTO> getProviderAvailability(Long providerId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        List<RecurringRule> rules = scheduleRuleRepository.findByProviderId(providerId).stream()
+                .map(RecurringRule::from)
+                .toList();
+
+        List<AvailabilityWindowDTO> windows = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<TimeWindow>> day : ScheduleRuleExpander.expand(rules, from, to).entrySet()) {
+            for (TimeWindow window : day.getValue()) {
+                windows.add(new AvailabilityWindowDTO(day.getKey(), window.start(), window.end()));
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Récupère le prestataire connecté, contrôlé sur l'utilisateur résolu pour la requête.
+     *
+     * @return une référence non chargée vers le prestataire connecté
+     * @throws AccessDeniedException si l'utilisateur n'existe pas ou n'est pas prestataire
+     */
+    private User getCurrentProvider() {
+        AuthenticatedUser user = currentUserService.findCurrentUser()
+                .orElseThrow(() -> new AccessDeniedException("Utilisateur non trouvé"));
+        if (user.role() != UserRole.PROVIDER) {
+            throw new AccessDeniedException("Seuls les prestataires peuvent gérer un planning");
+        }
+        return userRepository.getReferenceById(user.id());
+    }
+
+    /**
+     * Transmet les règles à jour d'un prestataire à l'index de disponibilité.
+     *
+     * @param providerId l'identifiant du prestataire
+     */
+    private void refreshIndexRules(Long providerId) {
+        availabilityIndex.onScheduleRulesUpdated(providerId, scheduleRuleRepository.findByProviderId(providerId)
+                .stream()
+                .map(RecurringRule::from)
+                .toList());
+    }
+
+    private static void validateTimes(LocalTime startTime, LocalTime endTime) {
+        if (startTime == null || endTime == null) {
+            throw new IllegalArgumentException("Les horaires sont obligatoires.");
+        }
+        if (!startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("L'heure de début doit être antérieure à l'heure de fin.");
+        }
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("La période est obligatoire.");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("La période ne peut pas dépasser " + MAX_RANGE_DAYS + " jours.");
+        }
+    }
+}
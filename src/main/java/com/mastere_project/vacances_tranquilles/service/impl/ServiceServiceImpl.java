@@ -1,22 +1,38 @@
 package com.mastere_project.vacances_tranquilles.service.impl;
 
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
 import com.mastere_project.vacances_tranquilles.dto.ServiceDTO;
 import com.mastere_project.vacances_tranquilles.entity.Service;
 import com.mastere_project.vacances_tranquilles.entity.User;
 import com.mastere_project.vacances_tranquilles.mapper.ServiceMapper;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleStorage;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
+import com.mastere_project.vacances_tranquilles.service.RatingAggregateService;
 import com.mastere_project.vacances_tranquilles.service.ServiceService;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.util.schedule.DaySlotMask;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+import com.mastere_project.vacances_tranquilles.util.schedule.ScheduleRuleExpander;
 import com.mastere_project.vacances_tranquilles.exception.ServiceNotFoundException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
 public class ServiceServiceImpl implements ServiceService {
@@ -24,6 +40,11 @@ public class ServiceServiceImpl implements ServiceService {
     private final ServiceRepository serviceRepository;
     private final ServiceMapper serviceMapper;
     private final UserRepository userRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ScheduleRuleRepository scheduleRuleRepository;
+    private final RatingAggregateService ratingAggregateService;
+    private final CurrentUserService currentUserService;
+    private final ScheduleStorage scheduleStorage;
 
     private static final String SERVICE_NOT_FOUND_MSG = "Service not found";
 
@@ -33,13 +54,29 @@ public class ServiceServiceImpl implements ServiceService {
      * @param serviceRepository repository pour les services
      * @param serviceMapper     mapper pour la conversion DTO/Entity
      * @param userRepository    repository pour les utilisateurs
+     * @param availabilityIndex index en mémoire de la disponibilité des prestataires
+     * @param scheduleRuleRepository repository des règles de disponibilité récurrentes
+     * @param ratingAggregateService service des agrégats de notes des prestataires
+     * @param currentUserService service de résolution de l'utilisateur connecté
+     * @param scheduleStorage   mode de stockage des créneaux occupés utilisé par la
+     *                          requête de repli (propriété {@code app.schedule.storage})
      */
     public ServiceServiceImpl(ServiceRepository serviceRepository,
             ServiceMapper serviceMapper,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            AvailabilityIndex availabilityIndex,
+            ScheduleRuleRepository scheduleRuleRepository,
+            RatingAggregateService ratingAggregateService,
+            CurrentUserService currentUserService,
+            @Value("${app.schedule.storage:rows}") ScheduleStorage scheduleStorage) {
         this.serviceRepository = serviceRepository;
         this.serviceMapper = serviceMapper;
         this.userRepository = userRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.scheduleRuleRepository = scheduleRuleRepository;
+        this.ratingAggregateService = ratingAggregateService;
+        this.currentUserService = currentUserService;
+        this.scheduleStorage = scheduleStorage;
     }
 
     /**
@@ -51,19 +88,21 @@ public class ServiceServiceImpl implements ServiceService {
      * @throws AccessDeniedException    si l'utilisateur n'est pas un prestataire
      */
     @Override
+    @Transactional
     public ServiceDTO createService(ServiceDTO serviceDTO) {
-        Long currentUserId = SecurityUtils.getCurrentUserId();
-        User provider = userRepository.findById(currentUserId)
+        AuthenticatedUser provider = currentUserService.findCurrentUser()
                 .orElseThrow(() -> new ServiceNotFoundException("Utilisateur non trouvé"));
 
         // Vérification du rôle : seuls les PROVIDER peuvent créer des services
-        if (provider.getUserRole() != UserRole.PROVIDER) {
+        if (provider.role() != UserRole.PROVIDER) {
             throw new AccessDeniedException("Seuls les prestataires peuvent créer des services");
         }
 
         Service service = serviceMapper.toEntity(serviceDTO);
-        service.setProvider(provider);
+        // Référence non chargée : l'index de disponibilité la charge s'il lui faut le code postal
+        service.setProvider(userRepository.getReferenceById(provider.id()));
         Service saved = serviceRepository.save(service);
+        availabilityIndex.onServiceSaved(saved);
         return serviceMapper.toDto(saved);
     }
 
@@ -86,6 +125,7 @@ public class ServiceServiceImpl implements ServiceService {
             throw new AccessDeniedException("Vous n'êtes pas autorisé à modifier ce service.");
         }
         serviceRepository.deleteById(id);
+        availabilityIndex.onServiceDeleted(id);
     }
 
     /**
@@ -96,6 +136,7 @@ public class ServiceServiceImpl implements ServiceService {
      * @throws ServiceNotFoundException si le service n'existe pas
      */
     @Override
+    @Transactional(readOnly = true)
     public ServiceDTO getServiceById(Long id) {
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new ServiceNotFoundException(SERVICE_NOT_FOUND_MSG));
@@ -108,12 +149,12 @@ public class ServiceServiceImpl implements ServiceService {
      * @return liste des services du prestataire connecté
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ServiceDTO> getMyServices() {
         Long currentUserId = SecurityUtils.getCurrentUserId();
-        User provider = userRepository.findById(currentUserId)
+        AuthenticatedUser provider = currentUserService.findCurrentUser()
                 .orElseThrow(() -> new ServiceNotFoundException("Utilisateur non trouvé"));
-        UserRole currentRole = provider.getUserRole();
-        if (currentRole != UserRole.PROVIDER) {
+        if (provider.role() != UserRole.PROVIDER) {
             throw new AccessDeniedException("Seuls les prestataires peuvent accéder à leurs services");
         }
 
@@ -135,8 +176,9 @@ public class ServiceServiceImpl implements ServiceService {
      * @throws ServiceNotFoundException si le service n'existe pas
      */
     @Override
+    @Transactional
     public ServiceDTO partialUpdateService(Long id, ServiceDTO serviceDTO) {
-        Service service = serviceRepository.findById(id)
+        Service service = serviceRepository.findWithProviderById(id)
                 .orElseThrow(() -> new ServiceNotFoundException(SERVICE_NOT_FOUND_MSG));
 
         Long currentUserId = SecurityUtils.getCurrentUserId();
@@ -155,12 +197,17 @@ public class ServiceServiceImpl implements ServiceService {
             service.setPrice(serviceDTO.getPrice());
 
         Service saved = serviceRepository.save(service);
+        availabilityIndex.onServiceSaved(saved);
         return serviceMapper.toDto(saved);
     }
 
     /**
      * Recherche les services disponibles selon les critères et la disponibilité
      * réelle des prestataires.
+     * La recherche est servie par l'index en mémoire lorsqu'il est prêt, sinon par
+     * la requête JPQL sur les intervalles ou sur les masques journaliers selon le
+     * mode de stockage configuré. Les prestataires ayant déclaré des règles de
+     * disponibilité ne sont retenus que si celles-ci couvrent la plage demandée.
      *
      * @param category   Catégorie du service (obligatoire)
      * @param postalCode Code postal du prestataire (obligatoire)
@@ -171,6 +218,7 @@ public class ServiceServiceImpl implements ServiceService {
      * @throws IllegalArgumentException si les paramètres sont invalides
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ServiceDTO> searchAvailableServices(
             String category,
             String postalCode,
@@ -194,14 +242,74 @@ public class ServiceServiceImpl implements ServiceService {
             throw new IllegalArgumentException("La date ne peut pas être dans le passé.");
         }
 
-        List<Service> services = serviceRepository
-                .findAvailableServices(
-                        category, postalCode, date, startTime, endTime);
+        if (availabilityIndex.isReady()) {
+            return withProviderRatings(
+                    availabilityIndex.findAvailableServices(category, postalCode, date, startTime, endTime));
+        }
+
+        List<Service> services;
+        if (scheduleStorage == ScheduleStorage.BITMAP) {
+            DaySlotMask requested = DaySlotMask.of(startTime, endTime);
+            services = serviceRepository.findAvailableServicesBitmap(
+                    category, postalCode, date, startTime, endTime, requested.low(), requested.high());
+        } else {
+            services = serviceRepository.findAvailableServices(
+                    category, postalCode, date, startTime, endTime);
+        }
+        Map<Long, List<RecurringRule>> rulesByProvider = findRulesByProvider(services);
 
         List<ServiceDTO> dtoList = new ArrayList<>();
         for (Service service : services) {
-            dtoList.add(serviceMapper.toDto(service));
+            List<RecurringRule> rules = service.getProvider() != null
+                    ? rulesByProvider.get(service.getProvider().getId())
+                    : null;
+            if (ScheduleRuleExpander.isAvailable(rules, date, startTime, endTime)) {
+                dtoList.add(serviceMapper.toDto(service));
+            }
         }
-        return dtoList;
+        return withProviderRatings(dtoList);
+    }
+
+    /**
+     * Renseigne le résumé des notes des prestataires en une seule lecture des agrégats.
+     *
+     * @param services les services trouvés
+     * @return les mêmes services, complétés
+     */
+    private List<ServiceDTO> withProviderRatings(List<ServiceDTO> services) {
+        if (services.isEmpty()) {
+            return services;
+        }
+        Set<Long> providerIds = services.stream()
+                .map(ServiceDTO::getProviderId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, RatingSummaryDTO> ratings = ratingAggregateService.getRatings(providerIds);
+        for (ServiceDTO service : services) {
+            if (service.getProviderId() != null) {
+                service.setProviderRating(ratings.get(service.getProviderId()));
+            }
+        }
+        return services;
+    }
+
+    /**
+     * Charge en une requête les règles de disponibilité des prestataires des services donnés.
+     *
+     * @param services les services candidats
+     * @return les règles regroupées par identifiant de prestataire
+     */
+    private Map<Long, List<RecurringRule>> findRulesByProvider(List<Service> services) {
+        Set<Long> providerIds = services.stream()
+                .map(Service::getProvider)
+                .filter(Objects::nonNull)
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        if (providerIds.isEmpty()) {
+            return Map.of();
+        }
+        return scheduleRuleRepository.findByProviderIdIn(providerIds).stream()
+                .collect(Collectors.groupingBy(rule -> rule.getProvider().getId(),
+                        Collectors.mapping(RecurringRule::from, Collectors.toList())));
     }
 }
\ No newline at end of file
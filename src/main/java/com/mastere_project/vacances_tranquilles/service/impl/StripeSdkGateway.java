@@ -0,0 +1,60 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionSummary;
+import com.mastere_project.vacances_tranquilles.service.StripeGateway;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.model.checkout.SessionCollection;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import com.stripe.param.checkout.SessionListParams;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Transport Stripe par le SDK officiel, avec des délais de connexion et de lecture explicites
+ * plutôt que ceux du SDK (80 secondes en lecture). Les nouvelles tentatives réseau du SDK sont
+ * désactivées par défaut : elles multiplieraient le délai au-delà de celui du client.
+ */
+public class StripeSdkGateway implements StripeGateway {
+
+    private final RequestOptions requestOptions;
+
+    public StripeSdkGateway(String apiKey, Duration connectTimeout, Duration readTimeout, int maxNetworkRetries) {
+        RequestOptions.RequestOptionsBuilder builder = RequestOptions.builder()
+                .setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()))
+                .setReadTimeout(Math.toIntExact(readTimeout.toMillis()))
+                .setMaxNetworkRetries(maxNetworkRetries);
+        if (!apiKey.isBlank()) {
+            builder.setApiKey(apiKey);
+        }
+        this.requestOptions = builder.build();
+    }
+
+    @Override
+    public String createCheckoutSession(SessionCreateParams params) throws StripeException {
+        return Session.create(params, requestOptions).getId();
+    }
+
+    @Override
+    public StripeSessionPage listCheckoutSessions(Instant createdFrom, Instant createdTo, String startingAfter,
+            int limit) throws StripeException {
+        SessionListParams.Builder params = SessionListParams.builder()
+                .setCreated(SessionListParams.Created.builder()
+                        .setGte(createdFrom.getEpochSecond())
+                        .setLt(createdTo.getEpochSecond())
+                        .build())
+                .setLimit((long) limit);
+        if (startingAfter != null) {
+            params.setStartingAfter(startingAfter);
+        }
+        SessionCollection sessions = Session.list(params.build(), requestOptions);
+        return new StripeSessionPage(sessions.getData().stream()
+                .map(session -> new StripeSessionSummary(session.getId(), session.getPaymentStatus(),
+                        session.getAmountTotal(), session.getCurrency(),
+                        Instant.ofEpochSecond(session.getCreated())))
+                .toList(), Boolean.TRUE.equals(sessions.getHasMore()));
+    }
+}
@@ -0,0 +1,274 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.ReservationDTO;
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.StripeEvent;
+import com.mastere_project.vacances_tranquilles.exception.InvalidStripeSignatureException;
+import com.mastere_project.vacances_tranquilles.exception.MissingReservationDataException;
+import com.mastere_project.vacances_tranquilles.exception.ReservationSlotUnavailableException;
+import com.mastere_project.vacances_tranquilles.exception.ServiceNotFoundException;
+import com.mastere_project.vacances_tranquilles.model.CheckoutPayment;
+import com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus;
+import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.repository.StripeEventRepository;
+import com.mastere_project.vacances_tranquilles.service.ReservationService;
+import com.mastere_project.vacances_tranquilles.service.StripeWebhookService;
+import com.mastere_project.vacances_tranquilles.util.stripe.StripeWebhookEvent;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implémentation de la réception des webhooks Stripe.
+ * La requête de Stripe ne fait que vérifier la signature et insérer l'événement dans la table
+ * stripe_events, dont la clé primaire écarte les renvois. Un pool borné de workers crée ensuite
+ * les réservations ; un événement est pris par un UPDATE conditionnel assorti d'un bail, de sorte
+ * qu'un seul worker, tous nœuds confondus, le traite. Les événements non planifiés (file pleine)
+ * ou interrompus sont repris par une tâche périodique.
+ */
+@org.springframework.stereotype.Service
+public class StripeWebhookServiceImpl implements StripeWebhookService, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripeWebhookServiceImpl.class);
+
+    /** Écart maximal accepté entre l'horodatage signé et l'horloge locale. */
+    static final long SIGNATURE_TOLERANCE_SECONDS = 300;
+
+    /** Devise des sessions Checkout créées par l'application. */
+    static final String DEFAULT_CURRENCY = "eur";
+
+    private final StripeEventRepository stripeEventRepository;
+    private final ServiceRepository serviceRepository;
+    private final ReservationService reservationService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String webhookSecret;
+    private final Duration processingLease;
+    private final int maxAttempts;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    public StripeWebhookServiceImpl(StripeEventRepository stripeEventRepository, ServiceRepository serviceRepository,
+            ReservationService reservationService, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${stripe.webhook.secret:}") String webhookSecret,
+            @Value("${app.stripe.webhook.threads:2}") int threads,
+            @Value("${app.stripe.webhook.queue-capacity:100}") int queueCapacity,
+            @Value("${app.stripe.webhook.processing-lease:PT5M}") Duration processingLease,
+            @Value("${app.stripe.webhook.max-attempts:5}") int maxAttempts) {
+        if (threads < 1 || queueCapacity < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("threads, queueCapacity et maxAttempts doivent être strictement positifs");
+        }
+        this.stripeEventRepository = stripeEventRepository;
+        this.serviceRepository = serviceRepository;
+        this.reservationService = reservationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.webhookSecret = webhookSecret;
+        this.processingLease = processingLease;
+        this.maxAttempts = maxAttempts;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "stripe-webhook-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("stripe.webhook.queue", executor, pool -> pool.getQueue().size());
+        if (webhookSecret.isBlank()) {
+            logger.warn("stripe.webhook.secret non configuré : les webhooks Stripe seront refusés");
+        }
+    }
+
+    @Override
+    public void receive(String payload, String signatureHeader) {
+        verifySignature(payload, signatureHeader);
+        StripeWebhookEvent event = StripeWebhookEvent.parse(payload);
+
+        if (stripeEventRepository.existsById(event.id())) {
+            countReceived("duplicate");
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> stripeEventRepository.saveAndFlush(
+                    new StripeEvent(event.id(), event.type(), event.sessionId(), payload, StripeEventStatus.RECEIVED,
+                            0, Instant.now(), null, null, null, null)));
+        } catch (DataIntegrityViolationException e) {
+            // Renvoi concurrent du même événement : déjà enregistré par l'autre requête
+            countReceived("duplicate");
+            return;
+        }
+        countReceived("accepted");
+        submit(event.id());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.stripe.webhook.requeue-interval:PT1M}",
+            initialDelayString = "${app.stripe.webhook.requeue-interval:PT1M}")
+    public int requeuePending() {
+        int free = queueCapacity - executor.getQueue().size();
+        if (free <= 0) {
+            return 0;
+        }
+        List<String> ids = stripeEventRepository.findPendingIds(Instant.now(), PageRequest.of(0, free));
+        int submitted = 0;
+        for (String id : ids) {
+            if (!submit(id)) {
+                break;
+            }
+            submitted++;
+        }
+        if (submitted > 0) {
+            logger.info("Webhooks Stripe : {} événements replanifiés", submitted);
+        }
+        return submitted;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Traite un événement s'il peut être pris : crée la réservation d'une session payée et
+     * enregistre le résultat. Une erreur transitoire remet l'événement en attente tant que
+     * le nombre maximal de tentatives n'est pas atteint.
+     *
+     * @param eventId l'identifiant de l'événement
+     */
+    void process(String eventId) {
+        Instant now = Instant.now();
+        Integer claimed = transactionTemplate.execute(
+                status -> stripeEventRepository.claim(eventId, now, now.plus(processingLease)));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        StripeEvent stored = stripeEventRepository.findById(eventId).orElseThrow();
+
+        try {
+            StripeWebhookEvent event = StripeWebhookEvent.parse(stored.getPayload());
+            if (!event.isPaidCheckout()) {
+                complete(eventId, StripeEventStatus.IGNORED, null, null);
+                return;
+            }
+            ReservationDTO reservation = toReservation(event.metadata());
+            Long reservationId = reservationService
+                    .createPaidReservation(reservation, toPayment(event, reservation)).getId();
+            complete(eventId, StripeEventStatus.PROCESSED, reservationId, null);
+        } catch (ReservationSlotUnavailableException | ServiceNotFoundException | MissingReservationDataException
+                | IllegalArgumentException | DateTimeException e) {
+            // Aucune nouvelle tentative ne peut aboutir : le paiement est à régulariser manuellement
+            logger.error("Webhook Stripe {} : réservation impossible ({})", eventId, e.getMessage());
+            complete(eventId, StripeEventStatus.FAILED, null, e.getMessage());
+        } catch (RuntimeException e) {
+            boolean exhausted = stored.getAttempts() >= maxAttempts;
+            logger.warn("Webhook Stripe {} : échec de la tentative {}{}", eventId, stored.getAttempts(),
+                    exhausted ? ", abandon" : "", e);
+            complete(eventId, exhausted ? StripeEventStatus.FAILED : StripeEventStatus.RECEIVED, null, e.getMessage());
+        }
+    }
+
+    private void verifySignature(String payload, String signatureHeader) {
+        if (webhookSecret.isBlank() || signatureHeader == null || payload == null) {
+            countReceived("invalid");
+            throw new InvalidStripeSignatureException("Signature Stripe absente ou webhook non configuré");
+        }
+        try {
+            Webhook.Signature.verifyHeader(payload, signatureHeader, webhookSecret, SIGNATURE_TOLERANCE_SECONDS);
+        } catch (SignatureVerificationException e) {
+            countReceived("invalid");
+            throw new InvalidStripeSignatureException("Signature Stripe invalide", e);
+        }
+    }
+
+    /**
+     * Confie un événement aux workers.
+     *
+     * @return false si la file est pleine : l'événement reste en attente pour la tâche de reprise
+     */
+    private boolean submit(String eventId) {
+        try {
+            executor.execute(() -> process(eventId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("stripe.webhook.deferred").increment();
+            return false;
+        }
+    }
+
+    private void complete(String eventId, StripeEventStatus status, Long reservationId, String error) {
+        String lastError = error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+        transactionTemplate.executeWithoutResult(tx -> stripeEventRepository.complete(eventId, status, reservationId,
+                lastError, status == StripeEventStatus.RECEIVED ? null : Instant.now()));
+        meterRegistry.counter("stripe.webhook.processed", "status", status.name()).increment();
+    }
+
+    /**
+     * Paiement de la session ; le prix de la réservation sert de montant si l'événement n'en porte pas.
+     */
+    private static CheckoutPayment toPayment(StripeWebhookEvent event, ReservationDTO reservation) {
+        long amountCents = event.amountTotal() != null ? event.amountTotal()
+                : reservation.getTotalPrice().movePointRight(2).longValue();
+        return new CheckoutPayment(event.sessionId(), amountCents,
+                event.currency() != null ? event.currency() : DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Reconstruit la réservation à partir des métadonnées posées à la création de la session.
+     */
+    private ReservationDTO toReservation(Map<String, String> metadata) {
+        Long serviceId = Long.parseLong(required(metadata, "serviceId"));
+        LocalDate date = LocalDate.parse(required(metadata, "date"));
+        LocalTime start = LocalTime.parse(required(metadata, "startTime"));
+        LocalTime end = LocalTime.parse(required(metadata, "endTime"));
+
+        Service service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new ServiceNotFoundException("Service not found"));
+        long hours = Duration.between(start, end).toHours();
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setServiceId(serviceId);
+        dto.setClientId(Long.parseLong(required(metadata, "customerId")));
+        dto.setProviderId(Long.parseLong(required(metadata, "providerId")));
+        dto.setReservationDate(date.atStartOfDay());
+        dto.setStartDate(date.atTime(start));
+        dto.setEndDate(date.atTime(end));
+        dto.setTotalPrice(service.getPrice().multiply(BigDecimal.valueOf(hours)));
+        return dto;
+    }
+
+    private static String required(Map<String, String> metadata, String key) {
+        String value = metadata.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Métadonnée Stripe manquante : " + key);
+        }
+        return value;
+    }
+
+    private void countReceived(String outcome) {
+        meterRegistry.counter("stripe.webhook.events", "outcome", outcome).increment();
+    }
+}
@@ -1,19 +1,21 @@
 package com.mastere_project.vacances_tranquilles.service.impl;
 
 import com.mastere_project.vacances_tranquilles.dto.*;
-import com.mastere_project.vacances_tranquilles.entity.Review;
 import com.mastere_project.vacances_tranquilles.entity.User;
 import com.mastere_project.vacances_tranquilles.exception.AccountLockedException;
 import com.mastere_project.vacances_tranquilles.exception.EmailAlreadyExistsException;
 import com.mastere_project.vacances_tranquilles.exception.EmailNotFoundException;
 import com.mastere_project.vacances_tranquilles.exception.LoginInternalException;
 import com.mastere_project.vacances_tranquilles.exception.MissingFieldException;
+import com.mastere_project.vacances_tranquilles.exception.PasswordHashingBusyException;
 import com.mastere_project.vacances_tranquilles.exception.WrongPasswordException;
 import com.mastere_project.vacances_tranquilles.mapper.UserMapper;
-import com.mastere_project.vacances_tranquilles.mapper.ReviewMapper;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
-import com.mastere_project.vacances_tranquilles.repository.ReviewRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
+import com.mastere_project.vacances_tranquilles.service.LoginThrottleService;
+import com.mastere_project.vacances_tranquilles.service.RatingAggregateService;
 import com.mastere_project.vacances_tranquilles.service.UserService;
 import com.mastere_project.vacances_tranquilles.util.jwt.JwtConfig;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
@@ -22,10 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -39,35 +38,40 @@ import org.springframework.stereotype.Service;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final ReviewRepository reviewRepository;
+    private final RatingAggregateService ratingAggregateService;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
-    private final ReviewMapper reviewMapper;
     private final JwtConfig jwt;
-    private static final int MAX_ATTEMPTS = 5;
-    private static final long BLOCK_TIME_MS = 10 * 60 * 1000L; // 10 minutes
+    private final AvailabilityIndex availabilityIndex;
+    private final CurrentUserService currentUserService;
+    private final LoginThrottleService loginThrottleService;
     private static final String USER_NOT_FOUND_MESSAGE = "Utilisateur non trouvé";
-    private final Map<String, Integer> loginAttempts = new ConcurrentHashMap<>();
-    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
     /**
      * Constructeur du service utilisateur.
      * 
      * @param userRepository le repository utilisateur
-     * @param reviewRepository le repository des reviews
+     * @param ratingAggregateService le service des agrégats de notes
      * @param passwordEncoder l'encodeur de mot de passe
      * @param userMapper le mapper DTO entité utilisateur
      * @param jwtConfig la configuration JWT
+     * @param availabilityIndex l'index de disponibilité des prestataires
+     * @param currentUserService le service de l'utilisateur connecté, invalidé à chaque modification de compte
+     * @param loginThrottleService la limitation des tentatives de connexion échouées
      */
-    public UserServiceImpl(final UserRepository userRepository, final ReviewRepository reviewRepository,
-            final PasswordEncoder passwordEncoder, final UserMapper userMapper, final ReviewMapper reviewMapper, final JwtConfig jwtConfig) {
+    public UserServiceImpl(final UserRepository userRepository, final RatingAggregateService ratingAggregateService,
+            final PasswordEncoder passwordEncoder, final UserMapper userMapper, final JwtConfig jwtConfig,
+            final AvailabilityIndex availabilityIndex, final CurrentUserService currentUserService,
+            final LoginThrottleService loginThrottleService) {
         this.userRepository = userRepository;
-        this.reviewRepository = reviewRepository;
+        this.ratingAggregateService = ratingAggregateService;
         this.passwordEncoder = passwordEncoder;
         this.userMapper = userMapper;
-        this.reviewMapper = reviewMapper;
         this.jwt = jwtConfig;
+        this.availabilityIndex = availabilityIndex;
+        this.currentUserService = currentUserService;
+        this.loginThrottleService = loginThrottleService;
     }
 
     /**
@@ -121,13 +125,14 @@ public class UserServiceImpl implements UserService {
      * @return un objet LoginResponseDTO contenant le token JWT et le rôle
      * @throws EmailNotFoundException si l'email n'existe pas
      * @throws WrongPasswordException si le mot de passe est incorrect
+     * @throws PasswordHashingBusyException si la file de hachage des mots de passe est pleine
      * @throws RuntimeException       en cas d'erreur inattendue ou de compte bloqué
      */
     @Override
     public LoginResponseDTO login(final UserDTO userDTO) {
         String email = userDTO.getEmail();
 
-        if (blockedUntil.containsKey(email) && blockedUntil.get(email) > System.currentTimeMillis()) {
+        if (loginThrottleService.isBlocked(email)) {
             throw new AccountLockedException("Trop de tentatives échouées. Réessayez plus tard.");
         }
 
@@ -136,7 +141,7 @@ public class UserServiceImpl implements UserService {
 
             if (optionalUser.isEmpty()) {
                 logger.warn("Tentative de connexion avec un email inconnu : {}", email);
-                incrementLoginAttempts(email);
+                loginThrottleService.recordFailure(email);
                 throw new EmailNotFoundException("Aucun compte trouvé pour l'email : " + email);
             }
 
@@ -144,18 +149,17 @@ public class UserServiceImpl implements UserService {
 
             if (!passwordEncoder.matches(userDTO.getPassword(), user.getPassword())) {
                 logger.warn("Mot de passe incorrect pour l'email : {}", email);
-                incrementLoginAttempts(email);
+                loginThrottleService.recordFailure(email);
                 throw new WrongPasswordException("Mot de passe incorrect pour l'email : " + email);
             }
 
             // Succès : reset des compteurs
-            loginAttempts.remove(email);
-            blockedUntil.remove(email);
+            loginThrottleService.reset(email);
 
             String token = jwt.generateToken(user.getId(), user.getUserRole());
             return new LoginResponseDTO(token, user.getUserRole());
 
-        } catch (EmailNotFoundException | WrongPasswordException e) {
+        } catch (EmailNotFoundException | WrongPasswordException | PasswordHashingBusyException e) {
             throw e;
         } catch (Exception e) {
             throw new LoginInternalException(
@@ -208,6 +212,10 @@ public class UserServiceImpl implements UserService {
         // Mise à jour du profil
         user = userMapper.updateUserFromDTO(user, updateDTO);
         User savedUser = userRepository.save(user);
+        currentUserService.evict(currentUserId);
+        if (savedUser.getUserRole() == UserRole.PROVIDER) {
+            availabilityIndex.onProviderUpdated(savedUser);
+        }
 
         return userMapper.toUserProfileDTO(savedUser);
     }
@@ -232,6 +240,7 @@ public class UserServiceImpl implements UserService {
 
         // Anonymisation RGPD-compliant obligatoire
         anonymizeUserData(user);
+        currentUserService.evict(currentUserId);
     }
 
     /**
@@ -254,16 +263,11 @@ public class UserServiceImpl implements UserService {
             throw new AccessDeniedException("Utilisateur anonymisé - accès refusé");
         }
 
-        // Récupération des reviews reçues par l'utilisateur
-        List<Review> reviews = reviewRepository.findByReviewedId(userId);
-
-        // Création du DTO avec le nom, prénom et les reviews
+        // Création du DTO avec le nom, prénom et l'agrégat des notes reçues
         UserBasicInfoDTO basicInfo = new UserBasicInfoDTO();
         basicInfo.setFirstName(user.getFirstName());
         basicInfo.setLastName(user.getLastName());
-        basicInfo.setReviews(reviews.stream()
-                .map(reviewMapper::toDTO)
-                .toList());
+        basicInfo.setRating(ratingAggregateService.getRating(userId));
 
         return basicInfo;
     }
@@ -297,22 +301,8 @@ public class UserServiceImpl implements UserService {
 
         userRepository.save(user);
 
-    }
-
-    /**
-     * Incrémente le nombre de tentatives de connexion pour un email et bloque le compte si nécessaire.
-     * 
-     * @param email l'email de l'utilisateur
-     */
-    private void incrementLoginAttempts(final String email) {
-        int attempts = loginAttempts.getOrDefault(email, 0) + 1;
-
-        if (attempts >= MAX_ATTEMPTS) {
-            blockedUntil.put(email, System.currentTimeMillis() + BLOCK_TIME_MS);
-            loginAttempts.remove(email);
-            logger.warn("Email bloqué temporairement pour cause de brute force.");
-        } else {
-            loginAttempts.put(email, attempts);
+        if (user.getUserRole() == UserRole.PROVIDER) {
+            availabilityIndex.onProviderUpdated(user);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.mastere_project.vacances_tranquilles.util.datasource;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Fabrique de régions JCache dont le cache de requêtes n'est jamais rempli par une transaction
+ * servie par le réplica ({@link ReplicaAwareTransactionManager#isReplicaRead()}). Le mode
+ * {@code GET} de la session suffit pour les entités, mais Hibernate range le résultat d'une
+ * requête cachable après un défaut de cache quel que soit ce mode : sans ce filtre, une liste lue
+ * sur un réplica en retard resterait servie jusqu'à la prochaine écriture dans ses tables.
+ */
+public class ReplicaAwareRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return new PrimaryOnlyPuts(super.createQueryResultsRegionStorageAccess(regionName, sessionFactory));
+    }
+
+    /**
+     * Stockage qui ignore les insertions faites depuis une transaction servie par le réplica.
+     */
+    private record PrimaryOnlyPuts(StorageAccess delegate) implements StorageAccess {
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return delegate.getFromCache(key, session);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            if (!ReplicaAwareTransactionManager.isReplicaRead()) {
+                delegate.putIntoCache(key, value, session);
+            }
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            delegate.removeFromCache(key, session);
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            delegate.clearCache(session);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return delegate.contains(key);
+        }
+
+        @Override
+        public void evictData() {
+            delegate.evictData();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            delegate.evictData(key);
+        }
+
+        @Override
+        public void release() {
+            delegate.release();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.mastere_project.vacances_tranquilles.util.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Gestionnaire de transactions JPA qui décide, dès le début d'une transaction en lecture seule,
+ * si elle peut être servie par le réplica : c'est le cas si le réplica est utilisable à cet
+ * instant. Le contexte de persistance d'une telle transaction passe alors en
+ * {@link CacheStoreMode#BYPASS} (mode {@code GET} de la session Hibernate) : il lit le cache de
+ * second niveau et le cache de requêtes mais ne les remplit pas, car une ligne lue sur un réplica
+ * en retard y resterait jusqu'à la prochaine écriture ou à l'expiration. La propriété JPA est
+ * utilisée plutôt que {@code Session.setCacheMode}, que chaque {@code find} réinitialise ; le
+ * cache de requêtes, qu'Hibernate remplit malgré ce mode, est filtré par
+ * {@link ReplicaAwareRegionFactory}.
+ * La décision est prise avant la première requête, Hibernate consultant le cache de requêtes
+ * avant d'ouvrir la connexion ; {@link ReplicaRoutingDataSource} ne choisit le réplica que pour
+ * une transaction ainsi marquée. La marque suit la transaction lors des suspensions
+ * (REQUIRES_NEW), comme les ressources JPA.
+ */
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    static final Object REPLICA_READ_KEY = new Object();
+    private static final String STORE_MODE = AvailableHints.HINT_SPEC_CACHE_STORE_MODE;
+
+    private final ReplicaLagMonitor monitor;
+
+    /**
+     * @param entityManagerFactory la fabrique des sessions JPA
+     * @param monitor              la surveillance du retard du réplica
+     */
+    public ReplicaAwareTransactionManager(EntityManagerFactory entityManagerFactory, ReplicaLagMonitor monitor) {
+        super(entityManagerFactory);
+        this.monitor = monitor;
+    }
+
+    /**
+     * Indique si la transaction courante peut être servie par le réplica.
+     *
+     * @return true pour une transaction en lecture seule commencée alors que le réplica était utilisable
+     */
+    public static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ_KEY);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (definition.isReadOnly() && monitor.isUsable()) {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                    .getResource(obtainEntityManagerFactory());
+            EntityManager entityManager = holder.getEntityManager();
+            TransactionSynchronizationManager.bindResource(REPLICA_READ_KEY,
+                    new ReplicaRead(entityManager, entityManager.getProperties().get(STORE_MODE)));
+            entityManager.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        Object replicaRead = TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ_KEY);
+        return new SuspendedResources(super.doSuspend(transaction), replicaRead);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        SuspendedResources suspended = (SuspendedResources) suspendedResources;
+        super.doResume(transaction, suspended.jpaResources());
+        if (suspended.replicaRead() != null) {
+            TransactionSynchronizationManager.bindResource(REPLICA_READ_KEY, suspended.replicaRead());
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        Object bound = TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ_KEY);
+        // Session liée hors transaction (open-in-view, test) : elle retrouve son mode de cache
+        if (bound instanceof ReplicaRead replicaRead && replicaRead.entityManager().isOpen()) {
+            replicaRead.entityManager().setProperty(STORE_MODE,
+                    replicaRead.previousStoreMode() != null ? replicaRead.previousStoreMode() : CacheStoreMode.USE);
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private record ReplicaRead(EntityManager entityManager, Object previousStoreMode) {
+    }
+
+    private record SuspendedResources(Object jpaResources, Object replicaRead) {
+    }
+}
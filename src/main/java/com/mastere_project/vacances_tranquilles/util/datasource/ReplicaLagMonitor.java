@@ -0,0 +1,112 @@
+package com.mastere_project.vacances_tranquilles.util.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Surveille le retard de réplication du réplica PostgreSQL et indique s'il peut servir les
+ * lectures. Le retard est l'âge de la dernière transaction rejouée, ramené à zéro lorsque tout
+ * le WAL reçu a été rejoué (primaire inactif) ou lorsque la base n'est pas en récupération.
+ * Le réplica est écarté tant que le retard dépasse le seuil, que la mesure échoue, ou avant la
+ * première mesure.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+
+    /** Délai maximal de la mesure, pour qu'un réplica bloqué ne retienne pas le planificateur. */
+    private static final int QUERY_TIMEOUT_SECONDS = 5;
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    /**
+     * @param replica       le pool du réplica
+     * @param maxLag        le retard au-delà duquel les lectures repartent sur le primaire
+     * @param meterRegistry registre des jauges {@code datasource.replica.lag} et {@code datasource.replica.usable}
+     */
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        if (maxLag.isNegative()) {
+            throw new IllegalArgumentException("maxLag ne doit pas être négatif");
+        }
+        this.replica = replica;
+        this.maxLag = maxLag;
+        meterRegistry.gauge("datasource.replica.lag", List.of(), this, monitor -> monitor.lagSeconds);
+        meterRegistry.gauge("datasource.replica.usable", List.of(), this, monitor -> monitor.usable ? 1 : 0);
+    }
+
+    /**
+     * Mesure le retard du réplica et met à jour sa disponibilité.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:PT1S}")
+    public void check() {
+        double lag;
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                lag = resultSet.getDouble(1);
+            }
+        } catch (SQLException e) {
+            markUnavailable(e);
+            return;
+        }
+        lagSeconds = lag;
+        boolean withinLimit = lag * 1_000 <= maxLag.toMillis();
+        if (withinLimit != usable) {
+            if (withinLimit) {
+                logger.info("Réplica utilisé pour les lectures (retard {} s)", lag);
+            } else {
+                logger.warn("Réplica écarté : retard de {} s au-delà de {}", lag, maxLag);
+            }
+        }
+        usable = withinLimit;
+    }
+
+    /**
+     * Écarte le réplica jusqu'à la prochaine mesure réussie, par exemple après un échec de connexion.
+     *
+     * @param cause l'erreur constatée
+     */
+    public void markUnavailable(Exception cause) {
+        if (usable) {
+            logger.warn("Réplica écarté : {}", cause.getMessage());
+        }
+        usable = false;
+        lagSeconds = Double.NaN;
+    }
+
+    /**
+     * @return true si les transactions en lecture seule peuvent être servies par le réplica
+     */
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * @return le dernier retard mesuré en secondes, NaN s'il est inconnu
+     */
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mastere_project.vacances_tranquilles.util.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source de données qui sert les transactions en lecture seule
+ * ({@code @Transactional(readOnly = true)}) par le réplica tant que son retard reste sous le
+ * seuil, et tout le reste par le primaire. Seules les transactions marquées par
+ * {@link ReplicaAwareTransactionManager}, qui a désactivé pour elles l'écriture dans les caches
+ * Hibernate, vont au réplica. Le choix se fait à l'ouverture de la connexion physique : la source
+ * doit être enveloppée dans un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * car le gestionnaire de transactions JPA demande la connexion dès le début de la transaction.
+ * Un réplica injoignable est écarté et la connexion est prise sur le primaire.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor monitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    /**
+     * @param primary       le pool du primaire
+     * @param replica       le pool du réplica
+     * @param monitor       la surveillance du retard du réplica
+     * @param meterRegistry registre du compteur {@code datasource.routing.connections} (étiquette {@code target})
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.monitor = monitor;
+        this.primaryConnections = meterRegistry.counter("datasource.routing.connections", "target", "primary");
+        this.replicaConnections = meterRegistry.counter("datasource.routing.connections", "target", "replica");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnavailable(e);
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                Connection connection = replica.getConnection(username, password);
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnavailable(e);
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        return ReplicaAwareTransactionManager.isReplicaRead() && monitor.isUsable();
+    }
+}
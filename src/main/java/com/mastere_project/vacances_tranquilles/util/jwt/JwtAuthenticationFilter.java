@@ -7,6 +7,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,6 +25,8 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STRIPE_WEBHOOK_PATH = "/api/stripe/webhook";
+
     private final JwtConfig jwt;
 
     /**
@@ -49,8 +52,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        Long userId = null;
 
         // Vérifier si un token est présent
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -59,42 +60,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         // Extraction du token
-        token = authHeader.substring(7);
+        String token = authHeader.substring(7);
         
         // Vérifier si le token n'est pas vide
         if (token.trim().isEmpty()) {
             handleTokenError(response, "Token JWT vide");
             return;
         }
-        
+
+        // Une seule vérification (signature et expiration) par requête, servie depuis le cache
+        // lorsque le même token a déjà été vérifié
+        Long userId;
         try {
-            userId = jwt.extractUserId(token);
+            userId = jwt.verify(token).userId();
         } catch (Exception e) {
             handleTokenError(response, "Token JWT invalide ou expiré");
             return;
         }
 
-        // Si l'id est extrait et aucune authentification encore définie, alors
-        // valider le token
-        if (userId != null
-                && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                if (jwt.validateToken(token, userId)) {
-                    // Création de l'authentification Spring Security
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userId,
-                            null, null);
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    // Stockage de l'authentification dans le contexte de sécurité
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                } else {
-                    handleTokenError(response, "Token JWT expiré");
-                    return;
-                }
-            } catch (Exception e) {
-                handleTokenError(response, "Token JWT invalide ou expiré");
-                return;
-            }
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Création de l'authentification Spring Security
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userId,
+                    null, null);
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            // Stockage de l'authentification dans le contexte de sécurité
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         // Continuer la chaîne de filtres
@@ -119,10 +110,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         response.getWriter().write(jsonResponse);
     }
 
+    /**
+     * Routes exclues du filtre : le scraping Prometheus (authentification Basic) et le webhook
+     * Stripe, appelé sans JWT et authentifié par son en-tête Stripe-Signature.
+     *
+     * @param request la requête HTTP entrante
+     * @return true si la requête ne doit pas porter de JWT
+     */
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-    String path = request.getRequestURI();
-    return path.startsWith("/actuator/prometheus");
-}
+        String path = request.getRequestURI();
+        return path.startsWith("/actuator/prometheus")
+                || (HttpMethod.POST.matches(request.getMethod()) && STRIPE_WEBHOOK_PATH.equals(path));
+    }
 
 } 
@@ -1,19 +1,26 @@
 package com.mastere_project.vacances_tranquilles.util.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.stereotype.Component;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.crypto.spec.SecretKeySpec;
 import io.github.cdimascio.dotenv.Dotenv;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 
 /**
  * Composant utilitaire pour la gestion des tokens JWT : génération, extraction et validation.
+ * La clé de signature et le parseur sont construits une seule fois ; les tokens déjà vérifiés
+ * sont gardés en cache, par signature, jusqu'à leur expiration.
  */
 @Component
 public class JwtConfig {
@@ -27,6 +34,27 @@ public class JwtConfig {
     // Durée de validité du token JWT, ici : 1 heure (60 * 60 * 1000 ms).
     private static final long EXPIRATION_TIME_MS = 60L * 60 * 1000;
 
+    // Nombre maximal de tokens vérifiés gardés en cache.
+    static final int DEFAULT_MAX_CACHED_TOKENS = 10_000;
+
+    private final int maxCachedTokens;
+    private final Map<String, CachedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+
+    public JwtConfig() {
+        this(DEFAULT_MAX_CACHED_TOKENS);
+    }
+
+    /**
+     * Crée le composant avec une taille de cache donnée.
+     *
+     * @param maxCachedTokens le nombre maximal de tokens vérifiés gardés en cache (0 pour désactiver le cache)
+     */
+    public JwtConfig(int maxCachedTokens) {
+        this.maxCachedTokens = maxCachedTokens;
+    }
+
     /**
      * Génère un token JWT pour un utilisateur donné (id et rôle).
      *
@@ -45,6 +73,41 @@ public class JwtConfig {
     }
 
 
+    /**
+     * Vérifie un token JWT (signature et expiration) et retourne son contenu.
+     * Le token n'est analysé qu'une fois ; un token déjà vérifié et non expiré est servi
+     * depuis le cache sans recalculer la signature HMAC.
+     *
+     * @param token le token JWT
+     * @return le contenu vérifié du token
+     * @throws JwtException si le token est mal formé, mal signé ou expiré
+     * @throws IllegalArgumentException si le token est vide
+     */
+    public VerifiedToken verify(String token) {
+        String signature = signatureOf(token);
+        if (signature != null && maxCachedTokens > 0) {
+            CachedToken cached = verifiedTokens.get(signature);
+            if (cached != null) {
+                if (cached.matches(token) && !cached.verified().isExpiredAt(Instant.now())) {
+                    return cached.verified();
+                }
+                verifiedTokens.remove(signature, cached);
+            }
+        }
+
+        Claims claims = getParser().parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new JwtException("Le token JWT n'a pas de date d'expiration.");
+        }
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                expiration.toInstant());
+        if (signature != null && maxCachedTokens > 0) {
+            cache(signature, token, verified);
+        }
+        return verified;
+    }
+
     /**
      * Extrait l'id utilisateur depuis un token JWT (subject).
      *
@@ -52,7 +115,7 @@ public class JwtConfig {
      * @return l'id utilisateur extrait du token
      */
     public Long extractUserId(String token) {
-        return Long.parseLong(extractClaim(token, Claims::getSubject));
+        return verify(token).userId();
     }
 
 
@@ -64,7 +127,7 @@ public class JwtConfig {
      * @throws IllegalArgumentException si le rôle n'est pas présent dans le token
      */
     public UserRole extractRole(String token) {
-        String roleName = extractClaim(token, claims -> claims.get("role", String.class));
+        String roleName = verify(token).role();
         if (roleName == null) {
             throw new IllegalArgumentException("Le rôle n'est pas présent dans le token JWT.");
         }
@@ -79,7 +142,7 @@ public class JwtConfig {
      * @return l'email extrait du token
      */
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     
@@ -91,36 +154,76 @@ public class JwtConfig {
      * @return true si le token est valide et correspond à l'id, false sinon
      */
     public boolean validateToken(String token, Long userId) {
-        final Long extractedId = extractUserId(token);
-        return (extractedId.equals(userId) && !isTokenExpired(token));
+        VerifiedToken verified = verify(token);
+        return verified.userId().equals(userId) && !verified.isExpiredAt(Instant.now());
     }
 
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Ajoute un token vérifié au cache. Lorsque le cache est plein, les tokens expirés
+     * sont retirés ; s'il reste plein, il est vidé : le coût est une nouvelle vérification
+     * HMAC pour les tokens suivants, jamais une mémoire non bornée.
+     */
+    private void cache(String signature, String token, VerifiedToken verified) {
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            Instant now = Instant.now();
+            verifiedTokens.values().removeIf(entry -> entry.verified().isExpiredAt(now));
+            if (verifiedTokens.size() >= maxCachedTokens) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(signature, new CachedToken(token, verified));
     }
 
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Signature (troisième segment) d'un token compact, ou null si le token n'a pas la forme attendue.
+     */
+    private static String signatureOf(String token) {
+        if (token == null) {
+            return null;
+        }
+        int lastDot = token.lastIndexOf('.');
+        if (lastDot < 0 || lastDot == token.length() - 1 || token.indexOf('.') == lastDot) {
+            return null;
+        }
+        return token.substring(lastDot + 1);
     }
 
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+            parser = current;
+        }
+        return current;
     }
 
-    
+
     private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        if (keyBytes.length < 32) {
-            throw new IllegalArgumentException("La clé secrète JWT doit faire au moins 32 caractères pour HS256.");
+        Key current = signingKey;
+        if (current == null) {
+            byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < 32) {
+                throw new IllegalArgumentException("La clé secrète JWT doit faire au moins 32 caractères pour HS256.");
+            }
+            current = new SecretKeySpec(keyBytes, SignatureAlgorithm.HS256.getJcaName());
+            signingKey = current;
+        }
+        return current;
+    }
+
+
+    /**
+     * Token vérifié gardé en cache. Le token complet est conservé pour qu'une signature valide
+     * réutilisée avec un autre contenu ne soit jamais servie depuis le cache.
+     */
+    private record CachedToken(String token, VerifiedToken verified) {
+
+        boolean matches(String candidate) {
+            return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                    candidate.getBytes(StandardCharsets.UTF_8));
         }
-        return new SecretKeySpec(keyBytes, SignatureAlgorithm.HS256.getJcaName());
     }
-} 
\ No newline at end of file
+}
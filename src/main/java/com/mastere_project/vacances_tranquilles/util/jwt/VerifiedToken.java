@@ -0,0 +1,33 @@
+package com.mastere_project.vacances_tranquilles.util.jwt;
+
+import java.time.Instant;
+
+/**
+ * Contenu d'un token JWT dont la signature a été vérifiée.
+ *
+ * @param subject   le subject du token (identifiant de l'utilisateur)
+ * @param role      le nom du rôle de l'utilisateur, ou null s'il est absent du token
+ * @param expiresAt la date d'expiration du token
+ */
+public record VerifiedToken(String subject, String role, Instant expiresAt) {
+
+    /**
+     * Identifiant de l'utilisateur porté par le subject.
+     *
+     * @return l'identifiant de l'utilisateur
+     * @throws NumberFormatException si le subject n'est pas un identifiant numérique
+     */
+    public Long userId() {
+        return Long.parseLong(subject);
+    }
+
+    /**
+     * Indique si le token est expiré à un instant donné.
+     *
+     * @param now l'instant de référence
+     * @return true si le token est expiré
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
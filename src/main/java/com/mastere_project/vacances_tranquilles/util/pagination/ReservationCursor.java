@@ -0,0 +1,66 @@
+package com.mastere_project.vacances_tranquilles.util.pagination;
+
+import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination des réservations : position (date, heure de début, identifiant)
+ * de la dernière réservation renvoyée. Il est transmis au frontend sous forme de
+ * chaîne Base64 URL-safe.
+ *
+ * @param reservationDate la date de la réservation
+ * @param startTime       l'heure de début de la réservation
+ * @param id              l'identifiant de la réservation
+ */
+public record ReservationCursor(LocalDate reservationDate, LocalTime startTime, Long id) {
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR_MESSAGE = "Curseur de pagination invalide.";
+
+    /**
+     * Construit le curseur pointant sur une réservation renvoyée au frontend.
+     *
+     * @param reservation la dernière réservation de la page
+     * @return le curseur correspondant
+     */
+    public static ReservationCursor after(ReservationResponseDTO reservation) {
+        return new ReservationCursor(reservation.getReservationDate().toLocalDate(),
+                reservation.getStartDate().toLocalTime(), reservation.getId());
+    }
+
+    /**
+     * Décode un curseur reçu du frontend.
+     *
+     * @param value la chaîne encodée
+     * @return le curseur décodé
+     * @throws IllegalArgumentException si la chaîne n'est pas un curseur valide
+     */
+    public static ReservationCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE);
+            }
+            return new ReservationCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]),
+                    Long.valueOf(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Encode le curseur pour le transmettre au frontend.
+     *
+     * @return la chaîne encodée
+     */
+    public String encode() {
+        String raw = reservationDate + SEPARATOR + startTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,49 @@
+package com.mastere_project.vacances_tranquilles.util.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination des avis : position (date de création, identifiant) du dernier
+ * avis renvoyé. Il est transmis au frontend sous forme de chaîne Base64 URL-safe.
+ *
+ * @param createdAt la date de création de l'avis
+ * @param id        l'identifiant de l'avis
+ */
+public record ReviewCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR_MESSAGE = "Curseur de pagination invalide.";
+
+    /**
+     * Décode un curseur reçu du frontend.
+     *
+     * @param value la chaîne encodée
+     * @return le curseur décodé
+     * @throws IllegalArgumentException si la chaîne n'est pas un curseur valide
+     */
+    public static ReviewCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE);
+            }
+            return new ReviewCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Encode le curseur pour le transmettre au frontend.
+     *
+     * @return la chaîne encodée
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
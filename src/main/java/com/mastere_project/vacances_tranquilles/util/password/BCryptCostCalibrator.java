@@ -0,0 +1,60 @@
+package com.mastere_project.vacances_tranquilles.util.password;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Choisit le coût BCrypt adapté à la machine : le plus élevé dont la durée de hachage reste sous
+ * la latence cible. Le temps est mesuré une seule fois au coût minimal puis extrapolé, chaque
+ * point de coût doublant le travail.
+ */
+public final class BCryptCostCalibrator {
+
+    /** Coût minimal accepté, quelle que soit la machine (valeur par défaut de BCryptPasswordEncoder). */
+    public static final int MIN_COST = 10;
+
+    /** Coût maximal essayé. */
+    public static final int MAX_COST = 16;
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Calibre le coût BCrypt pour la latence cible.
+     *
+     * @param targetLatency la durée visée pour un hachage
+     * @return le coût retenu, entre {@link #MIN_COST} et {@link #MAX_COST}
+     */
+    public static int calibrate(Duration targetLatency) {
+        return calibrate(targetLatency, BCryptCostCalibrator::measure);
+    }
+
+    static int calibrate(Duration targetLatency, IntToLongFunction measureNanos) {
+        // Premier hachage ignoré : chargement des classes et compilation JIT
+        measureNanos.applyAsLong(MIN_COST);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            best = Math.min(best, measureNanos.applyAsLong(MIN_COST));
+        }
+
+        long target = targetLatency.toNanos();
+        int cost = MIN_COST;
+        long estimate = best;
+        while (cost < MAX_COST && estimate * 2 <= target) {
+            cost++;
+            estimate *= 2;
+        }
+        return cost;
+    }
+
+    private static long measure(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", salt);
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mastere_project.vacances_tranquilles.util.password;
+
+import com.mastere_project.vacances_tranquilles.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodeur de mots de passe exécutant le hachage sur un pool dédié et borné.
+ * Le coût CPU de BCrypt ne peut ainsi occuper qu'un nombre fixe de cœurs : une rafale de connexions
+ * n'affame plus les autres endpoints. Quand la file d'attente est pleine, l'appel est refusé
+ * immédiatement par une {@link PasswordHashingBusyException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Construit l'encodeur et son pool de hachage.
+     *
+     * @param delegate      l'encodeur effectuant le hachage
+     * @param threads       le nombre de threads de hachage
+     * @param queueCapacity le nombre de hachages pouvant attendre un thread
+     * @param meterRegistry le registre des métriques
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+            MeterRegistry meterRegistry) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threads et queueCapacity doivent être strictement positifs");
+        }
+        this.delegate = delegate;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("auth.password.queue", executor, pool -> pool.getQueue().size());
+        meterRegistry.gauge("auth.password.active", executor, ThreadPoolExecutor::getActiveCount);
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("Durée d'un hachage ou d'une vérification de mot de passe, hors attente")
+                .register(meterRegistry);
+        this.rejectedCounter = meterRegistry.counter("auth.password.rejected");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Exécute un hachage sur le pool et attend son résultat.
+     * Les exceptions du délégué sont relancées telles quelles.
+     */
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("Serveur momentanément surchargé. Réessayez dans un instant.");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hachage du mot de passe interrompu", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
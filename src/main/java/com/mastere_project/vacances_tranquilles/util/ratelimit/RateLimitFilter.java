@@ -0,0 +1,190 @@
+package com.mastere_project.vacances_tranquilles.util.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mastere_project.vacances_tranquilles.exception.ErrorEntity;
+import com.mastere_project.vacances_tranquilles.util.jwt.JwtConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtre de limitation de débit, placé avant {@link com.mastere_project.vacances_tranquilles.util.jwt.JwtAuthenticationFilter}.
+ * Chaque groupe de routes a sa règle ; les requêtes sont comptées par utilisateur (identifiant lu
+ * dans le JWT) ou, pour les routes anonymes et les tokens invalides, par adresse IP. Au-delà de la
+ * règle, le filtre répond 429 avec un en-tête Retry-After. Les seaux redevenus pleins sont oubliés
+ * périodiquement, ce qui borne la mémoire aux clients actifs.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtConfig jwt;
+    private final boolean enabled;
+    private final int maxBuckets;
+    private final List<RouteGroup> groups;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Counter overflowCounter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RateLimitFilter(JwtConfig jwt, MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.max-buckets:100000}") int maxBuckets,
+            @Value("${app.rate-limit.auth:20/PT1M}") String authRule,
+            @Value("${app.rate-limit.messages:120/PT1M}") String messagesRule,
+            @Value("${app.rate-limit.search:60/PT1M}") String searchRule,
+            @Value("${app.rate-limit.default:600/PT1M}") String defaultRule) {
+        this.jwt = jwt;
+        this.enabled = enabled;
+        this.maxBuckets = maxBuckets;
+        // Le premier groupe dont un motif correspond s'applique
+        this.groups = List.of(
+                new RouteGroup("auth", List.of("/api/auth/**"), RateLimitRule.parse(authRule), false,
+                        meterRegistry),
+                new RouteGroup("messages", List.of("/api/messages/**", "/api/conversations/**"),
+                        RateLimitRule.parse(messagesRule), true, meterRegistry),
+                new RouteGroup("search", List.of("/api/services/search"), RateLimitRule.parse(searchRule), true,
+                        meterRegistry),
+                new RouteGroup("default", List.of("/api/**"), RateLimitRule.parse(defaultRule), true,
+                        meterRegistry));
+        meterRegistry.gaugeMapSize("http.ratelimit.buckets", List.of(), buckets);
+        this.overflowCounter = meterRegistry.counter("http.ratelimit.overflow");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || findGroup(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = findGroup(request.getRequestURI());
+        String key = group.name() + ":" + clientKey(request, group);
+        long now = System.nanoTime();
+
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxBuckets) {
+                // Plafond atteint par des clients tous actifs : la requête passe sans être comptée
+                overflowCounter.increment();
+                filterChain.doFilter(request, response);
+                return;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(group.rule(), now));
+        }
+
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            group.rejected().increment();
+            reject(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Oublie les seaux redevenus pleins.
+     *
+     * @return le nombre de seaux oubliés
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval:PT1M}",
+            initialDelayString = "${app.rate-limit.eviction-interval:PT1M}")
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            logger.debug("Limitation de débit : {} seaux inactifs oubliés", evicted);
+        }
+        return evicted;
+    }
+
+    /**
+     * Nombre de seaux suivis.
+     *
+     * @return la taille de la table des seaux
+     */
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private RouteGroup findGroup(String path) {
+        for (RouteGroup group : groups) {
+            for (String pattern : group.patterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifie le client : l'utilisateur du JWT lorsqu'il est valide et que le groupe compte par
+     * utilisateur, sinon l'adresse IP. La vérification du token est servie par le cache de JwtConfig.
+     * Derrière un proxy de confiance, l'adresse est celle du client, reprise de X-Forwarded-For par
+     * Tomcat (server.forward-headers-strategy=native).
+     */
+    private String clientKey(HttpServletRequest request, RouteGroup group) {
+        if (group.perUser()) {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+                try {
+                    return "user:" + jwt.verify(authHeader.substring(BEARER_PREFIX.length())).userId();
+                } catch (Exception e) {
+                    // Token invalide : rejeté plus loin par JwtAuthenticationFilter, compté ici par IP
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        // Arrondi à la seconde supérieure : le client ne doit pas réessayer trop tôt
+        long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        long retryAfterSeconds = (waitNanos + nanosPerSecond - 1) / nanosPerSecond;
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorEntity error = new ErrorEntity("TOO_MANY_REQUESTS", "Trop de requêtes. Réessayez plus tard.");
+        response.getWriter().write(objectMapper.writeValueAsString(error));
+    }
+
+    /**
+     * Groupe de routes partageant une règle de limitation.
+     */
+    private record RouteGroup(String name, List<String> patterns, RateLimitRule rule, boolean perUser,
+            Counter rejected) {
+
+        RouteGroup(String name, List<String> patterns, RateLimitRule rule, boolean perUser,
+                MeterRegistry meterRegistry) {
+            this(name, patterns, rule, perUser, meterRegistry.counter("http.ratelimit.rejected", "group", name));
+        }
+    }
+}
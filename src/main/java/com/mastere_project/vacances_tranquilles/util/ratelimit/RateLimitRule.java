@@ -0,0 +1,48 @@
+package com.mastere_project.vacances_tranquilles.util.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Règle de limitation de débit : {@code capacity} requêtes par {@code period}, en rafale au plus
+ * {@code capacity}, les jetons étant rendus régulièrement au fil de la période.
+ *
+ * @param capacity le nombre de requêtes autorisées par période
+ * @param period   la période
+ */
+public record RateLimitRule(int capacity, Duration period) {
+
+    public RateLimitRule {
+        if (capacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Règle de limitation invalide : " + capacity + "/" + period);
+        }
+    }
+
+    /**
+     * Lit une règle au format {@code capacité/période ISO-8601}, par exemple {@code 60/PT1M}.
+     *
+     * @param value la règle
+     * @return la règle lue
+     * @throws IllegalArgumentException si le format est invalide
+     */
+    public static RateLimitRule parse(String value) {
+        int separator = value.indexOf('/');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Règle de limitation invalide : " + value);
+        }
+        try {
+            return new RateLimitRule(Integer.parseInt(value.substring(0, separator).trim()),
+                    Duration.parse(value.substring(separator + 1).trim()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Règle de limitation invalide : " + value, e);
+        }
+    }
+
+    /**
+     * Délai de remplissage d'un jeton.
+     *
+     * @return le délai en nanosecondes
+     */
+    public long intervalNanos() {
+        return Math.max(1L, period.toNanos() / capacity);
+    }
+}
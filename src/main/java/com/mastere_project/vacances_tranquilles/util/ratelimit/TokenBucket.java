@@ -0,0 +1,58 @@
+package com.mastere_project.vacances_tranquilles.util.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou. L'état tient dans un seul {@code long} : l'instant théorique
+ * (en nanosecondes) auquel le seau serait de nouveau plein, mis à jour par compare-and-set
+ * (formulation GCRA, équivalente au seau à jetons).
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * Crée un seau plein.
+     *
+     * @param rule la règle donnant la capacité et le rythme de remplissage
+     * @param now  l'instant courant (en nanosecondes, {@link System#nanoTime()})
+     */
+    public TokenBucket(RateLimitRule rule, long now) {
+        this.intervalNanos = rule.intervalNanos();
+        this.burstNanos = rule.intervalNanos() * rule.capacity();
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Tente de consommer un jeton.
+     *
+     * @param now l'instant courant (en nanosecondes)
+     * @return 0 si le jeton a été consommé, sinon le délai en nanosecondes avant qu'un jeton soit disponible
+     */
+    public long tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Indique si le seau est de nouveau plein : il peut alors être oublié sans perte,
+     * un nouveau seau ayant exactement le même état.
+     *
+     * @param now l'instant courant (en nanosecondes)
+     * @return true si le seau est plein
+     */
+    public boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.mastere_project.vacances_tranquilles.util.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Disjoncteur protégeant les appels à un service distant.
+ * Fermé, il laisse passer les appels et compte les échecs consécutifs ; au seuil, il s'ouvre et
+ * refuse immédiatement les appels pendant la durée d'ouverture. Il laisse ensuite passer un seul
+ * appel d'essai (demi-ouvert) : un succès le referme, un échec le rouvre. Un essai resté sans
+ * réponse pendant la durée d'ouverture est remplacé par un nouvel essai.
+ * L'état tient dans une seule référence atomique : aucun verrou sur le chemin des appels.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * État du disjoncteur.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(State.CLOSED, 0, 0L));
+
+    /**
+     * Construit un disjoncteur fermé.
+     *
+     * @param name             le nom du service protégé, pour les journaux
+     * @param failureThreshold le nombre d'échecs consécutifs qui ouvre le disjoncteur
+     * @param openDuration     la durée pendant laquelle les appels sont refusés
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold < 1 || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("failureThreshold et openDuration doivent être strictement positifs");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Demande l'autorisation d'un appel. Chaque autorisation doit être suivie de
+     * {@link #onSuccess()} ou {@link #onFailure()}.
+     *
+     * @return true si l'appel peut être tenté, false s'il doit être refusé immédiatement
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current.state() == State.CLOSED) {
+                return true;
+            }
+            long now = nanoClock.getAsLong();
+            if (now - current.since() < openNanos) {
+                return false;
+            }
+            // Fin de l'ouverture, ou essai précédent resté sans réponse : un nouvel essai est autorisé
+            if (snapshot.compareAndSet(current, new Snapshot(State.HALF_OPEN, current.failures(), now))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Signale un appel réussi : referme le disjoncteur.
+     */
+    public void onSuccess() {
+        Snapshot previous = snapshot.getAndSet(new Snapshot(State.CLOSED, 0, 0L));
+        if (previous.state() != State.CLOSED) {
+            logger.info("Disjoncteur {} refermé", name);
+        }
+    }
+
+    /**
+     * Signale un appel en échec : ouvre le disjoncteur au seuil, ou le rouvre après un essai.
+     */
+    public void onFailure() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            int failures = current.failures() + 1;
+            boolean open = current.state() != State.CLOSED || failures >= failureThreshold;
+            Snapshot next = open ? new Snapshot(State.OPEN, failures, nanoClock.getAsLong())
+                    : new Snapshot(State.CLOSED, failures, 0L);
+            if (snapshot.compareAndSet(current, next)) {
+                if (open && current.state() != State.OPEN) {
+                    logger.warn("Disjoncteur {} ouvert après {} échecs consécutifs", name, failures);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * État courant du disjoncteur.
+     *
+     * @return l'état
+     */
+    public State state() {
+        return snapshot.get().state();
+    }
+
+    /**
+     * État, échecs consécutifs et instant d'entrée dans l'état (ouverture ou début de l'essai).
+     */
+    private record Snapshot(State state, int failures, long since) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.mastere_project.vacances_tranquilles.util.schedule;
+
+import java.time.LocalTime;
+
+/**
+ * Masque de disponibilité d'une journée découpée en 96 créneaux de 15 minutes.
+ * Les créneaux 0 à 63 sont portés par {@code low} et les créneaux 64 à 95 par
+ * {@code high} (bit n = créneau commençant à n × 15 minutes).
+ * Les bornes sont arrondies vers l'extérieur : un intervalle occupe tous les
+ * créneaux qu'il touche, ce qui ne fait jamais apparaître comme libre un
+ * créneau réellement occupé.
+ *
+ * @param low  bits des créneaux 0 à 63
+ * @param high bits des créneaux 64 à 95
+ */
+public record DaySlotMask(long low, long high) {
+
+    /** Durée d'un créneau en minutes. */
+    public static final int SLOT_MINUTES = 15;
+
+    /** Nombre de créneaux dans une journée. */
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    /** Masque vide (journée entièrement libre). */
+    public static final DaySlotMask EMPTY = new DaySlotMask(0L, 0L);
+
+    private static final int SLOT_SECONDS = SLOT_MINUTES * 60;
+    private static final long HIGH_USED_BITS = (1L << (SLOTS_PER_DAY - Long.SIZE)) - 1;
+
+    /**
+     * Construit le masque des créneaux touchés par l'intervalle [start, end[.
+     *
+     * @param start heure de début
+     * @param end   heure de fin (exclue)
+     * @return le masque correspondant, vide si l'intervalle est vide
+     * @throws IllegalArgumentException si une borne est nulle
+     */
+    public static DaySlotMask of(LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Les heures de début et de fin sont obligatoires.");
+        }
+        if (!start.isBefore(end)) {
+            return EMPTY;
+        }
+        int first = start.toSecondOfDay() / SLOT_SECONDS;
+        int last = (end.toSecondOfDay() + SLOT_SECONDS - 1) / SLOT_SECONDS;
+        return new DaySlotMask(range(first, last, 0), range(first, last, Long.SIZE));
+    }
+
+    /**
+     * Combine ce masque avec un autre.
+     *
+     * @param other l'autre masque
+     * @return l'union des deux masques
+     */
+    public DaySlotMask or(DaySlotMask other) {
+        return new DaySlotMask(low | other.low, high | other.high);
+    }
+
+    /**
+     * Indique si ce masque partage au moins un créneau avec un autre.
+     *
+     * @param other l'autre masque
+     * @return true si les masques se chevauchent
+     */
+    public boolean overlaps(DaySlotMask other) {
+        return (low & other.low) != 0 || (high & other.high) != 0;
+    }
+
+    /**
+     * Indique si aucun créneau n'est occupé.
+     *
+     * @return true si le masque est vide
+     */
+    public boolean isEmpty() {
+        return low == 0 && high == 0;
+    }
+
+    /**
+     * Indique si un créneau donné est occupé.
+     *
+     * @param slot index du créneau (0 à 95)
+     * @return true si le créneau est occupé
+     */
+    public boolean isSet(int slot) {
+        if (slot < 0 || slot >= SLOTS_PER_DAY) {
+            throw new IllegalArgumentException("Index de créneau invalide : " + slot);
+        }
+        return slot < Long.SIZE ? (low >>> slot & 1L) != 0 : (high >>> (slot - Long.SIZE) & 1L) != 0;
+    }
+
+    /**
+     * Bits [first, last[ restreints au mot commençant au créneau {@code offset}.
+     */
+    private static long range(int first, int last, int offset) {
+        int from = Math.max(first - offset, 0);
+        int to = Math.min(last - offset, Long.SIZE);
+        if (from >= to) {
+            return 0L;
+        }
+        long upper = to == Long.SIZE ? -1L : (1L << to) - 1;
+        long mask = upper & (-1L << from);
+        return offset == 0 ? mask : mask & HIGH_USED_BITS;
+    }
+}
@@ -0,0 +1,90 @@
+package com.mastere_project.vacances_tranquilles.util.schedule;
+
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Instantané immuable d'une règle de disponibilité récurrente.
+ *
+ * @param daysOfWeek masque des jours (bit 0 = lundi, bit 6 = dimanche)
+ * @param startTime  heure de début de la plage
+ * @param endTime    heure de fin de la plage
+ * @param validFrom  premier jour d'application (inclus)
+ * @param validUntil dernier jour d'application (inclus), null si sans fin
+ */
+public record RecurringRule(int daysOfWeek, LocalTime startTime, LocalTime endTime,
+        LocalDate validFrom, LocalDate validUntil) {
+
+    /**
+     * Construit l'instantané d'une règle persistée.
+     *
+     * @param rule la règle persistée
+     * @return l'instantané correspondant
+     */
+    public static RecurringRule from(ScheduleRule rule) {
+        return new RecurringRule(rule.getDaysOfWeek(), rule.getStartTime(), rule.getEndTime(),
+                rule.getValidFrom(), rule.getValidUntil());
+    }
+
+    /**
+     * Indique si la règle s'applique à une date donnée.
+     *
+     * @param date la date
+     * @return true si la date est dans la période de validité et que son jour est couvert
+     */
+    public boolean appliesTo(LocalDate date) {
+        return !date.isBefore(validFrom)
+                && (validUntil == null || !date.isAfter(validUntil))
+                && (daysOfWeek & bit(date.getDayOfWeek())) != 0;
+    }
+
+    /**
+     * Indique si la règle est une exception AVAILABLE : une règle valable un seul jour, qui
+     * ajoute une plage sans restreindre les autres dates.
+     *
+     * @return true si la règle commence et finit le même jour
+     */
+    public boolean isException() {
+        return validFrom.equals(validUntil);
+    }
+
+    /**
+     * Encode un ensemble de jours sous forme de masque.
+     *
+     * @param days les jours
+     * @return le masque correspondant
+     */
+    public static int daysMask(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= bit(day);
+        }
+        return mask;
+    }
+
+    /**
+     * Décode un masque de jours.
+     *
+     * @param mask le masque
+     * @return l'ensemble des jours correspondants
+     */
+    public static Set<DayOfWeek> daysOf(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & bit(day)) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.mastere_project.vacances_tranquilles.util.schedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Développe les règles de disponibilité récurrentes en plages horaires, date par
+ * date et uniquement sur la période consultée : aucune plage n'est matérialisée
+ * en base.
+ */
+public final class ScheduleRuleExpander {
+
+    private ScheduleRuleExpander() {
+    }
+
+    /**
+     * Calcule les plages de disponibilité d'une journée. Les plages qui se
+     * chevauchent ou se touchent sont fusionnées.
+     *
+     * @param rules les règles du prestataire
+     * @param date  la journée
+     * @return les plages triées et disjointes
+     */
+    public static List<TimeWindow> windowsOn(Collection<RecurringRule> rules, LocalDate date) {
+        List<TimeWindow> windows = new ArrayList<>();
+        for (RecurringRule rule : rules) {
+            if (rule.appliesTo(date)) {
+                windows.add(new TimeWindow(rule.startTime(), rule.endTime()));
+            }
+        }
+        if (windows.size() < 2) {
+            return windows;
+        }
+        windows.sort(Comparator.comparing(TimeWindow::start));
+        List<TimeWindow> merged = new ArrayList<>();
+        TimeWindow current = windows.get(0);
+        for (int i = 1; i < windows.size(); i++) {
+            TimeWindow next = windows.get(i);
+            if (!next.start().isAfter(current.end())) {
+                LocalTime end = next.end().isAfter(current.end()) ? next.end() : current.end();
+                current = new TimeWindow(current.start(), end);
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    /**
+     * Indique si la plage [start, end[ d'une journée est entièrement couverte par
+     * les règles.
+     *
+     * @param rules les règles du prestataire
+     * @param date  la journée
+     * @param start heure de début
+     * @param end   heure de fin
+     * @return true si une plage de disponibilité contient la plage demandée
+     */
+    public static boolean covers(Collection<RecurringRule> rules, LocalDate date, LocalTime start, LocalTime end) {
+        for (TimeWindow window : windowsOn(rules, date)) {
+            if (window.contains(start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si un prestataire est disponible sur la plage [start, end[ d'une journée. Sans règle
+     * récurrente, il est disponible à toute date : ses exceptions AVAILABLE ne font qu'ajouter des
+     * plages et ne le rendent pas indisponible les autres jours.
+     *
+     * @param rules les règles du prestataire, ou null s'il n'en a aucune
+     * @param date  la journée
+     * @param start heure de début
+     * @param end   heure de fin
+     * @return true si le prestataire n'a que des exceptions ou si ses règles couvrent la plage
+     */
+    public static boolean isAvailable(Collection<RecurringRule> rules, LocalDate date, LocalTime start,
+            LocalTime end) {
+        if (rules == null || rules.stream().allMatch(RecurringRule::isException)) {
+            return true;
+        }
+        return covers(rules, date, start, end);
+    }
+
+    /**
+     * Développe les règles sur une période.
+     *
+     * @param rules les règles du prestataire
+     * @param from  premier jour (inclus)
+     * @param to    dernier jour (inclus)
+     * @return les plages de chaque journée disposant d'au moins une plage, par ordre chronologique
+     */
+    public static Map<LocalDate, List<TimeWindow>> expand(Collection<RecurringRule> rules, LocalDate from,
+            LocalDate to) {
+        Map<LocalDate, List<TimeWindow>> expanded = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            List<TimeWindow> windows = windowsOn(rules, date);
+            if (!windows.isEmpty()) {
+                expanded.put(date, windows);
+            }
+        }
+        return expanded;
+    }
+}
@@ -0,0 +1,23 @@
+package com.mastere_project.vacances_tranquilles.util.schedule;
+
+import java.time.LocalTime;
+
+/**
+ * Plage horaire [start, end[ au sein d'une journée.
+ *
+ * @param start heure de début
+ * @param end   heure de fin (exclue)
+ */
+public record TimeWindow(LocalTime start, LocalTime end) {
+
+    /**
+     * Indique si cette plage contient entièrement la plage [from, to[.
+     *
+     * @param from heure de début
+     * @param to   heure de fin
+     * @return true si la plage demandée est incluse
+     */
+    public boolean contains(LocalTime from, LocalTime to) {
+        return !start.isAfter(from) && !end.isBefore(to);
+    }
+}
@@ -0,0 +1,87 @@
+package com.mastere_project.vacances_tranquilles.util.stripe;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Champs d'un événement Stripe utiles à la création des réservations.
+ * Le corps est lu directement en JSON plutôt que désérialisé par le SDK Stripe, dont les
+ * modèles dépendent de la version d'API configurée sur le compte.
+ *
+ * @param id            l'identifiant de l'événement (evt_...)
+ * @param type          le type de l'événement
+ * @param sessionId     l'identifiant de la session Checkout (cs_...), ou null pour un autre objet
+ * @param paymentStatus le statut de paiement de la session, ou null
+ * @param amountTotal   le montant total de la session en centimes, ou null
+ * @param currency      la devise de la session, ou null
+ * @param metadata      les métadonnées de la session
+ */
+public record StripeWebhookEvent(String id, String type, String sessionId, String paymentStatus, Long amountTotal,
+        String currency, Map<String, String> metadata) {
+
+    /** Session Checkout terminée ; payée immédiatement ou non selon le moyen de paiement. */
+    public static final String CHECKOUT_SESSION_COMPLETED = "checkout.session.completed";
+
+    /** Paiement différé d'une session Checkout confirmé. */
+    public static final String CHECKOUT_SESSION_ASYNC_PAYMENT_SUCCEEDED = "checkout.session.async_payment_succeeded";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public StripeWebhookEvent {
+        metadata = Map.copyOf(metadata);
+    }
+
+    /**
+     * Lit un événement Stripe depuis son corps JSON.
+     *
+     * @param payload le corps brut du webhook
+     * @return l'événement lu
+     * @throws IllegalArgumentException si le corps n'est pas un événement Stripe
+     */
+    public static StripeWebhookEvent parse(String payload) {
+        JsonNode root;
+        try {
+            root = OBJECT_MAPPER.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Événement Stripe illisible", e);
+        }
+        if (root == null || !root.path("id").isTextual() || !root.path("type").isTextual()) {
+            throw new IllegalArgumentException("Événement Stripe sans identifiant ni type");
+        }
+
+        JsonNode object = root.path("data").path("object");
+        String sessionId = "checkout.session".equals(object.path("object").asText()) ? object.path("id").asText(null)
+                : null;
+        Map<String, String> metadata = new HashMap<>();
+        object.path("metadata").fields().forEachRemaining(entry -> {
+            if (entry.getValue().isTextual()) {
+                metadata.put(entry.getKey(), entry.getValue().asText());
+            }
+        });
+        Long amountTotal = object.path("amount_total").isIntegralNumber() ? object.get("amount_total").asLong()
+                : null;
+        return new StripeWebhookEvent(root.get("id").asText(), root.get("type").asText(), sessionId,
+                object.path("payment_status").asText(null), amountTotal, object.path("currency").asText(null),
+                metadata);
+    }
+
+    /**
+     * Indique si l'événement confirme le paiement d'une session Checkout.
+     *
+     * @return true pour une session payée, false sinon
+     */
+    public boolean isPaidCheckout() {
+        if (sessionId == null) {
+            return false;
+        }
+        if (CHECKOUT_SESSION_ASYNC_PAYMENT_SUCCEEDED.equals(type)) {
+            return true;
+        }
+        return CHECKOUT_SESSION_COMPLETED.equals(type)
+                && ("paid".equals(paymentStatus) || "no_payment_required".equals(paymentStatus));
+    }
+}
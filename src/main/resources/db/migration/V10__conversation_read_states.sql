@@ -0,0 +1,9 @@
+-- Dernier message lu par participant d'une conversation. Les états manquants sont initialisés
+-- par l'application à partir de l'ancien indicateur messages.read.
+
+CREATE TABLE conversation_read_states (
+    conversation_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    last_read_message_id BIGINT NOT NULL,
+    PRIMARY KEY (conversation_id, user_id)
+);
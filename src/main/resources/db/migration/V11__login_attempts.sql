@@ -0,0 +1,12 @@
+-- Limitation des tentatives de connexion partagée entre les nœuds (app.security.login-throttle.store=database).
+
+CREATE TABLE login_attempts (
+    throttle_key VARCHAR(320) NOT NULL,
+    failures INTEGER NOT NULL,
+    window_start TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    blocked_until TIMESTAMP(6) WITH TIME ZONE,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (throttle_key)
+);
+
+CREATE INDEX idx_login_attempts_expires_at ON login_attempts (expires_at);
@@ -0,0 +1,22 @@
+-- Événements des webhooks Stripe, enregistrés une seule fois puis traités en arrière-plan ;
+-- une session Checkout ne crée qu'une réservation.
+
+CREATE TABLE stripe_events (
+    id VARCHAR(255) NOT NULL,
+    type VARCHAR(100) NOT NULL,
+    session_id VARCHAR(255),
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RECEIVED', 'PROCESSING', 'PROCESSED', 'IGNORED', 'FAILED')),
+    attempts INTEGER NOT NULL,
+    received_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    locked_until TIMESTAMP(6) WITH TIME ZONE,
+    processed_at TIMESTAMP(6) WITH TIME ZONE,
+    reservation_id BIGINT,
+    last_error VARCHAR(1000),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_stripe_events_session ON stripe_events (session_id);
+CREATE INDEX idx_stripe_events_status_received ON stripe_events (status, received_at);
+
+ALTER TABLE reservations ADD COLUMN stripe_session_id VARCHAR(255) UNIQUE;
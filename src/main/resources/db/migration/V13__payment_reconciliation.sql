@@ -0,0 +1,22 @@
+-- Paiements Stripe rapprochés chaque nuit des sessions Checkout ; les écarts sont conservés.
+
+ALTER TABLE payments ADD COLUMN currency VARCHAR(3);
+ALTER TABLE payments ADD COLUMN stripe_session_id VARCHAR(255) UNIQUE;
+ALTER TABLE payments ADD COLUMN reconciled_at TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE INDEX idx_payments_payment_date ON payments (payment_date);
+
+CREATE TABLE payment_discrepancies (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    reconciliation_date DATE NOT NULL,
+    type VARCHAR(20) NOT NULL
+        CHECK (type IN ('MISSING_PAYMENT', 'UNKNOWN_SESSION', 'AMOUNT_MISMATCH', 'STATUS_MISMATCH')),
+    stripe_session_id VARCHAR(255),
+    payment_id BIGINT,
+    stripe_amount BIGINT,
+    local_amount BIGINT,
+    detected_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_payment_discrepancies_date ON payment_discrepancies (reconciliation_date);
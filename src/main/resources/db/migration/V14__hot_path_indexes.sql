@@ -0,0 +1,45 @@
+-- Index des requêtes des repositories. Les index déjà couverts par le préfixe d'un index
+-- existant ne sont pas dupliqués : reviews.reviewed_id (idx_reviews_reviewed_keyset),
+-- reservations.client_id / provider_id (idx_reservations_*_keyset), schedule_days.provider_id
+-- (contrainte unique), reservations.conversation_id / payment_id (contraintes uniques).
+
+-- Recherche de services et contrôle de chevauchement : créneaux non annulés d'un prestataire
+-- pour une journée (ServiceRepository.findAvailableServices*, ReservationRepository.existsOverlapping)
+CREATE INDEX IF NOT EXISTS idx_reservations_provider_slot
+    ON reservations (provider_id, reservation_date, start_date, end_date)
+    WHERE status <> 'CANCELLED';
+
+-- Chargement de l'index de disponibilité (findByReservationDateGreaterThanEqualAndStatusNot)
+CREATE INDEX IF NOT EXISTS idx_reservations_date ON reservations (reservation_date);
+
+CREATE INDEX IF NOT EXISTS idx_reservations_service ON reservations (service_id);
+
+-- Fil d'une conversation par date d'envoi (findByConversationIdOrderBySentAtAsc, findMessagesDTOByConversationId)
+CREATE INDEX IF NOT EXISTS idx_messages_conversation_sent_at ON messages (conversation_id, sent_at);
+
+CREATE INDEX IF NOT EXISTS idx_messages_sender ON messages (sender_id);
+
+-- Plages bloquées d'un prestataire par journée (findByProviderIdAndDate*, existsOverlapping, recherche)
+CREATE INDEX IF NOT EXISTS idx_schedules_provider_date ON schedules (provider_id, date, start_time, end_time);
+
+-- Chargement de l'index de disponibilité (findByDateGreaterThanEqual)
+CREATE INDEX IF NOT EXISTS idx_schedules_date ON schedules (date);
+
+CREATE INDEX IF NOT EXISTS idx_schedule_rules_provider ON schedule_rules (provider_id);
+
+-- Un avis par réservation et par auteur (existsByReservationIdAndReviewerId, findByReservationIdAndReviewerId)
+CREATE INDEX IF NOT EXISTS idx_reviews_reservation_reviewer ON reviews (reservation_id, reviewer_id);
+
+-- Recherche de services par code postal du prestataire
+CREATE INDEX IF NOT EXISTS idx_users_postal_code ON users (postal_code);
+
+CREATE INDEX IF NOT EXISTS idx_service_provider_category ON service (provider_id, category);
+
+-- Conversations d'un utilisateur, quel que soit son côté (findByUser1IdOrUser2Id, findByUser*IdAndUser*Id)
+CREATE INDEX IF NOT EXISTS idx_conversations_users ON conversations (user1_id, user2_id);
+CREATE INDEX IF NOT EXISTS idx_conversations_user2 ON conversations (user2_id);
+
+-- Événements Stripe à (re)traiter, les seuls à être relus (StripeEventRepository.findPendingIds)
+CREATE INDEX IF NOT EXISTS idx_stripe_events_pending
+    ON stripe_events (received_at)
+    WHERE status IN ('RECEIVED', 'PROCESSING');
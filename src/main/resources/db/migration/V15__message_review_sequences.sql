@@ -0,0 +1,18 @@
+-- Messages et avis : la colonne identité est remplacée par une séquence incrémentée de 50, lue par
+-- blocs par Hibernate (allocationSize = 50, optimiseur pooled-lo), ce qui rend possibles les INSERT
+-- groupés. Les identifiants existants sont conservés : chaque valeur de la séquence est le premier
+-- identifiant d'un bloc, la séquence repart donc de MAX(id) + 1.
+-- Une base créée par une ancienne version d'Hibernate peut avoir une colonne serial plutôt
+-- qu'identité : les deux cas sont traités.
+
+ALTER TABLE messages ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE messages ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS messages_id_seq;
+CREATE SEQUENCE messages_seq INCREMENT BY 50 OWNED BY messages.id;
+SELECT setval('messages_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM messages), false);
+
+ALTER TABLE reviews ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE reviews ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS reviews_id_seq;
+CREATE SEQUENCE reviews_seq INCREMENT BY 50 OWNED BY reviews.id;
+SELECT setval('reviews_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM reviews), false);
@@ -0,0 +1,4 @@
+-- Avancement des tâches planifiées : dernière journée entièrement traitée, enregistrée sur la ligne
+-- du bail par le nœud qui le détient. Une exécution interrompue reprend à la journée suivante.
+
+ALTER TABLE job_leases ADD COLUMN completed_through DATE;
@@ -0,0 +1,108 @@
+-- Schéma de référence, identique à celui que générait Hibernate (ddl-auto=update) avant le passage
+-- à Flyway. Les bases existantes sont marquées à cette version sans l'exécuter
+-- (spring.flyway.baseline-on-migrate) : tout ajout ultérieur doit figurer dans une migration suivante.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    user_role VARCHAR(255) NOT NULL CHECK (user_role IN ('CLIENT', 'PROVIDER', 'ADMIN')),
+    phone_number VARCHAR(255) NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    postal_code VARCHAR(255) NOT NULL,
+    company_name VARCHAR(255),
+    siret_siren VARCHAR(255),
+    is_anonymized BOOLEAN,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    deleted_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE service (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    category VARCHAR(255) NOT NULL,
+    price NUMERIC(38, 2) NOT NULL,
+    provider_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_service_provider FOREIGN KEY (provider_id) REFERENCES users
+);
+
+CREATE TABLE conversations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user1_id BIGINT NOT NULL,
+    user2_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_conversations_user1 FOREIGN KEY (user1_id) REFERENCES users,
+    CONSTRAINT fk_conversations_user2 FOREIGN KEY (user2_id) REFERENCES users
+);
+
+CREATE TABLE messages (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    conversation_id BIGINT NOT NULL,
+    sender_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    sent_at TIMESTAMP(6) NOT NULL,
+    read BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_messages_conversation FOREIGN KEY (conversation_id) REFERENCES conversations,
+    CONSTRAINT fk_messages_sender FOREIGN KEY (sender_id) REFERENCES users
+);
+
+CREATE TABLE payments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    status VARCHAR(255),
+    amount DOUBLE PRECISION,
+    payment_date TIMESTAMP(6),
+    payment_method VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reservations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    client_id BIGINT NOT NULL,
+    provider_id BIGINT NOT NULL,
+    service_id BIGINT NOT NULL,
+    reservation_date DATE,
+    start_date TIME(6),
+    end_date TIME(6),
+    total_price NUMERIC(38, 2),
+    status VARCHAR(255) CHECK (status IN ('PENDING', 'IN_PROGRESS', 'CLOSED', 'CANCELLED')),
+    conversation_id BIGINT UNIQUE,
+    payment_id BIGINT UNIQUE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservations_client FOREIGN KEY (client_id) REFERENCES users,
+    CONSTRAINT fk_reservations_provider FOREIGN KEY (provider_id) REFERENCES users,
+    CONSTRAINT fk_reservations_service FOREIGN KEY (service_id) REFERENCES service,
+    CONSTRAINT fk_reservations_conversation FOREIGN KEY (conversation_id) REFERENCES conversations,
+    CONSTRAINT fk_reservations_payment FOREIGN KEY (payment_id) REFERENCES payments
+);
+
+CREATE TABLE reviews (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    note INTEGER NOT NULL,
+    commentaire VARCHAR(1000),
+    reservation_id BIGINT NOT NULL,
+    reviewer_id BIGINT,
+    reviewed_id BIGINT,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reviews_reviewer FOREIGN KEY (reviewer_id) REFERENCES users,
+    CONSTRAINT fk_reviews_reviewed FOREIGN KEY (reviewed_id) REFERENCES users
+);
+
+CREATE TABLE schedules (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    provider_id BIGINT,
+    date DATE,
+    start_time TIME(6),
+    end_time TIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_schedules_provider FOREIGN KEY (provider_id) REFERENCES users
+);
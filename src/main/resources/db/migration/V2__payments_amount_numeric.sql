@@ -0,0 +1,2 @@
+-- Montant des paiements en BigDecimal : la colonne double precision du schéma de référence passe en NUMERIC.
+ALTER TABLE payments ALTER COLUMN amount TYPE NUMERIC(38, 2);
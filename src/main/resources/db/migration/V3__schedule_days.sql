@@ -0,0 +1,12 @@
+-- Stockage des créneaux occupés en bitmaps, une ligne par prestataire et par journée (app.schedule.storage=bitmap).
+
+CREATE TABLE schedule_days (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    provider_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    slots_low BIGINT NOT NULL,
+    slots_high BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (provider_id, date),
+    CONSTRAINT fk_schedule_days_provider FOREIGN KEY (provider_id) REFERENCES users
+);
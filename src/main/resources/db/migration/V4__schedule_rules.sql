@@ -0,0 +1,13 @@
+-- Disponibilités récurrentes des prestataires, développées à la lecture.
+
+CREATE TABLE schedule_rules (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    provider_id BIGINT NOT NULL,
+    days_of_week INTEGER NOT NULL,
+    start_time TIME(6) NOT NULL,
+    end_time TIME(6) NOT NULL,
+    valid_from DATE NOT NULL,
+    valid_until DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_schedule_rules_provider FOREIGN KEY (provider_id) REFERENCES users
+);
@@ -0,0 +1,4 @@
+-- Pagination par curseur des réservations d'un client ou d'un prestataire.
+
+CREATE INDEX idx_reservations_client_keyset ON reservations (client_id, reservation_date, start_date, id);
+CREATE INDEX idx_reservations_provider_keyset ON reservations (provider_id, reservation_date, start_date, id);
@@ -0,0 +1,11 @@
+-- Clôture automatique des réservations terminées : réservations par statut et par date, et bail
+-- en base qui réserve le traitement à un seul nœud.
+
+CREATE INDEX idx_reservations_status_date ON reservations (status, reservation_date);
+
+CREATE TABLE job_leases (
+    name VARCHAR(100) NOT NULL,
+    owner VARCHAR(200) NOT NULL,
+    locked_until TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (name)
+);
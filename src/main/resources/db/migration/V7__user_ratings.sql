@@ -0,0 +1,14 @@
+-- Agrégats de notes par utilisateur, tenus à jour à chaque avis.
+
+CREATE TABLE user_ratings (
+    user_id BIGINT NOT NULL,
+    review_count BIGINT NOT NULL,
+    rating_sum BIGINT NOT NULL,
+    count1 BIGINT NOT NULL,
+    count2 BIGINT NOT NULL,
+    count3 BIGINT NOT NULL,
+    count4 BIGINT NOT NULL,
+    count5 BIGINT NOT NULL,
+    version BIGINT,
+    PRIMARY KEY (user_id)
+);
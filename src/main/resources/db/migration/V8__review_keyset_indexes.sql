@@ -0,0 +1,4 @@
+-- Pagination par curseur des avis reçus et donnés.
+
+CREATE INDEX idx_reviews_reviewed_keyset ON reviews (reviewed_id, created_at, id);
+CREATE INDEX idx_reviews_reviewer_keyset ON reviews (reviewer_id, created_at, id);
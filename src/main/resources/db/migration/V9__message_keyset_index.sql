@@ -0,0 +1,3 @@
+-- Lecture incrémentale des messages d'une conversation (afterId, beforeId).
+
+CREATE INDEX idx_messages_conversation_keyset ON messages (conversation_id, id);
@@ -0,0 +1,131 @@
+package com.mastere_project.vacances_tranquilles.benchmark;
+
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.util.jwt.JwtAuthenticationFilter;
+import com.mastere_project.vacances_tranquilles.util.jwt.JwtConfig;
+import com.mastere_project.vacances_tranquilles.util.jwt.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le débit du filtre d'authentification JWT sur une requête authentifiée :
+ * <ul>
+ *     <li>{@code legacy} : ancien chemin, trois analyses du token avec une clé et un parseur
+ *     reconstruits à chaque fois (extraction de l'id, puis validation) ;</li>
+ *     <li>{@code uncached} : une seule analyse avec la clé et le parseur construits une fois ;</li>
+ *     <li>{@code cached} : token déjà vérifié, servi depuis le cache sans calcul HMAC.</li>
+ * </ul>
+ * Lancement : {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.mastere_project.vacances_tranquilles.benchmark.JwtFilterBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "defaultSecretKeyForTesting12345678901234567890123456789012";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({ "legacy", "uncached", "cached" })
+    private String mode;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = switch (mode) {
+            case "legacy" -> new LegacyJwtConfig();
+            case "uncached" -> new JwtConfig(0);
+            default -> new JwtConfig();
+        };
+        filter = new JwtAuthenticationFilter(jwtConfig);
+        authorization = "Bearer " + jwtConfig.generateToken(42L, UserRole.CLIENT);
+    }
+
+    /**
+     * Filtre une requête authentifiée, comme pour chaque appel d'API.
+     *
+     * @return la réponse, pour éviter l'élimination du code mort
+     * @throws Exception si le filtre échoue
+     */
+    @Benchmark
+    public MockHttpServletResponse filterAuthenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservations");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    /**
+     * Reproduit le coût de l'ancienne vérification : le filtre extrayait l'id puis validait le token,
+     * soit trois analyses complètes, chacune avec une nouvelle clé et un nouveau parseur.
+     */
+    private static final class LegacyJwtConfig extends JwtConfig {
+
+        LegacyJwtConfig() {
+            super(0);
+        }
+
+        @Override
+        public VerifiedToken verify(String token) {
+            Long userId = Long.parseLong(parse(token).getSubject());
+            Long validatedId = Long.parseLong(parse(token).getSubject());
+            Date expiration = parse(token).getExpiration();
+            if (!validatedId.equals(userId) || expiration.before(new Date())) {
+                throw new IllegalStateException("Token JWT expiré");
+            }
+            return new VerifiedToken(String.valueOf(userId), null, expiration.toInstant());
+        }
+
+        private static Claims parse(String token) {
+            return Jwts.parserBuilder()
+                    .setSigningKey(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8),
+                            SignatureAlgorithm.HS256.getJcaName()))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        }
+    }
+
+    /**
+     * Point d'entrée pour lancer le benchmark hors de Maven Surefire.
+     *
+     * @param args arguments ignorés
+     * @throws RunnerException si l'exécution JMH échoue
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
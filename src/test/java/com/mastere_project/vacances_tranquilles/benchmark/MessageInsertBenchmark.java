@@ -0,0 +1,176 @@
+package com.mastere_project.vacances_tranquilles.benchmark;
+
+import com.mastere_project.vacances_tranquilles.entity.Message;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure l'insertion de 100 000 messages par Hibernate sur PostgreSQL selon la génération des
+ * identifiants :
+ * <ul>
+ *     <li>{@code identity} : ancienne colonne identité, l'id n'est connu qu'après l'INSERT et
+ *     Hibernate envoie les lignes une par une ;</li>
+ *     <li>{@code sequence} : séquence lue par blocs de 50 (optimiseur pooled-lo) et INSERT groupés
+ *     par 50, comme pour {@link Message}.</li>
+ * </ul>
+ * Chaque variante écrit dans sa propre copie de la table messages (sans clés étrangères), avec les
+ * réglages JDBC de l'application (lots de 50, INSERT réécrits par le pilote). Lancement sur une base jetable :
+ * {@code BENCHMARK_DATASOURCE_URL=jdbc:postgresql://localhost:5432/bench mvn test-compile exec:java
+ * -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.mastere_project.vacances_tranquilles.benchmark.MessageInsertBenchmark}
+ * (utilisateur et mot de passe : BENCHMARK_DATASOURCE_USERNAME, BENCHMARK_DATASOURCE_PASSWORD).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MessageInsertBenchmark {
+
+    private static final int MESSAGES = 100_000;
+    private static final int BATCH_SIZE = 50;
+
+    /** Mapping de {@link BenchMessage} : table puis génération de l'identifiant. */
+    private static final String MAPPING = """
+            <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+                <entity class="%s" access="FIELD">
+                    <table name="%s"/>
+                    <attributes>
+                        <id name="id">%s</id>
+                        <basic name="conversationId"><column name="conversation_id" nullable="false"/></basic>
+                        <basic name="senderId"><column name="sender_id" nullable="false"/></basic>
+                        <basic name="content"><column nullable="false" column-definition="TEXT"/></basic>
+                        <basic name="sentAt"><column name="sent_at" nullable="false"/></basic>
+                        <basic name="read"><column nullable="false"/></basic>
+                    </attributes>
+                </entity>
+            </entity-mappings>
+            """;
+
+    @Param({ "identity", "sequence" })
+    private String ids;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private String table;
+
+    @Setup
+    public void setUp() {
+        String url = System.getenv("BENCHMARK_DATASOURCE_URL");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("BENCHMARK_DATASOURCE_URL doit désigner une base PostgreSQL jetable");
+        }
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(System.getenv().getOrDefault("BENCHMARK_DATASOURCE_USERNAME", "postgres"));
+        config.setPassword(System.getenv().getOrDefault("BENCHMARK_DATASOURCE_PASSWORD", ""));
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        dataSource = new HikariDataSource(config);
+
+        // Avant : colonne identité. Après : mapping actuel de Message, séquence par blocs de 50
+        String generator = "identity".equals(ids) ? "<generated-value strategy=\"IDENTITY\"/>"
+                : "<generated-value strategy=\"SEQUENCE\" generator=\"bench_messages_seq\"/>"
+                        + "<sequence-generator name=\"bench_messages_seq\" sequence-name=\"bench_messages_seq\""
+                        + " allocation-size=\"50\"/>";
+        table = "bench_messages_" + ids;
+        Configuration configuration = new Configuration().addInputStream(new ByteArrayInputStream(
+                MAPPING.formatted(BenchMessage.class.getName(), table, generator).getBytes(StandardCharsets.UTF_8)));
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE));
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        configuration.setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    /**
+     * Repart d'une table vide à chaque mesure.
+     */
+    @Setup(Level.Iteration)
+    public void truncate() {
+        sessionFactory.inTransaction(session -> session
+                .createNativeMutationQuery("TRUNCATE TABLE " + table)
+                .executeUpdate());
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    /**
+     * Insère les messages dans une transaction, en vidant la session à chaque lot comme un import.
+     */
+    @Benchmark
+    public void insertMessages() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            LocalDateTime sentAt = LocalDateTime.now();
+            for (int i = 0; i < MESSAGES; i++) {
+                BenchMessage message = new BenchMessage();
+                message.conversationId = 1L + i % 1_000;
+                message.senderId = 1L + i % 2_000;
+                message.content = "Message " + i;
+                message.sentAt = sentAt;
+                session.persist(message);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    /**
+     * Ligne de la table messages. Mappée en XML plutôt que par annotations pour rester hors du
+     * scan d'entités de l'application, le benchmark étant dans son package.
+     */
+    public static class BenchMessage {
+        Long id;
+        Long conversationId;
+        Long senderId;
+        String content;
+        LocalDateTime sentAt;
+        boolean read;
+    }
+
+    /**
+     * Point d'entrée pour lancer le benchmark hors de Maven Surefire.
+     *
+     * @param args arguments ignorés
+     * @throws RunnerException si l'exécution JMH échoue
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+package com.mastere_project.vacances_tranquilles.benchmark;
+
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.util.schedule.DaySlotMask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le test de chevauchement entre les deux représentations des créneaux
+ * occupés d'une journée : une ligne par intervalle (comparaisons de bornes,
+ * comme le prédicat de la requête JPQL) et un masque de 96 créneaux (ET bit à bit).
+ * Lancement : {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.mastere_project.vacances_tranquilles.benchmark.ScheduleOverlapBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleOverlapBenchmark {
+
+    private static final int DAYS = 1024;
+    private static final int QUERIES = 256;
+
+    /** Nombre d'intervalles occupés par journée. */
+    @Param({ "2", "8", "32" })
+    private int intervalsPerDay;
+
+    private List<List<Schedule>> rowDays;
+    private DaySlotMask[] maskDays;
+    private LocalTime[] queryStarts;
+    private LocalTime[] queryEnds;
+    private DaySlotMask[] queryMasks;
+
+    /**
+     * Génère des journées et des plages de recherche alignées sur le quart d'heure.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        rowDays = new ArrayList<>(DAYS);
+        maskDays = new DaySlotMask[DAYS];
+        for (int d = 0; d < DAYS; d++) {
+            List<Schedule> rows = new ArrayList<>(intervalsPerDay);
+            DaySlotMask mask = DaySlotMask.EMPTY;
+            for (int i = 0; i < intervalsPerDay; i++) {
+                LocalTime start = randomQuarter(random, 6, 20);
+                LocalTime end = start.plusMinutes(15L + 15L * random.nextInt(4));
+                Schedule schedule = new Schedule();
+                schedule.setStartTime(start);
+                schedule.setEndTime(end);
+                rows.add(schedule);
+                mask = mask.or(DaySlotMask.of(start, end));
+            }
+            rowDays.add(rows);
+            maskDays[d] = mask;
+        }
+
+        queryStarts = new LocalTime[QUERIES];
+        queryEnds = new LocalTime[QUERIES];
+        queryMasks = new DaySlotMask[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            queryStarts[q] = randomQuarter(random, 7, 18);
+            queryEnds[q] = queryStarts[q].plusMinutes(30L + 15L * random.nextInt(8));
+            queryMasks[q] = DaySlotMask.of(queryStarts[q], queryEnds[q]);
+        }
+    }
+
+    /**
+     * Représentation en lignes : parcours des intervalles et comparaison des bornes.
+     *
+     * @param blackhole consommateur JMH
+     */
+    @Benchmark
+    public void rows(Blackhole blackhole) {
+        for (int q = 0; q < QUERIES; q++) {
+            LocalTime start = queryStarts[q];
+            LocalTime end = queryEnds[q];
+            for (List<Schedule> day : rowDays) {
+                boolean busy = false;
+                for (Schedule schedule : day) {
+                    if (schedule.getStartTime().isBefore(end) && schedule.getEndTime().isAfter(start)) {
+                        busy = true;
+                        break;
+                    }
+                }
+                blackhole.consume(busy);
+            }
+        }
+    }
+
+    /**
+     * Représentation en masque : un ET bit à bit par journée.
+     *
+     * @param blackhole consommateur JMH
+     */
+    @Benchmark
+    public void bitmap(Blackhole blackhole) {
+        for (int q = 0; q < QUERIES; q++) {
+            DaySlotMask requested = queryMasks[q];
+            for (DaySlotMask day : maskDays) {
+                blackhole.consume(day.overlaps(requested));
+            }
+        }
+    }
+
+    private static LocalTime randomQuarter(Random random, int fromHour, int toHour) {
+        return LocalTime.of(fromHour + random.nextInt(toHour - fromHour), 15 * random.nextInt(4));
+    }
+
+    /**
+     * Point d'entrée pour lancer le benchmark hors de Maven Surefire.
+     *
+     * @param args arguments ignorés
+     * @throws RunnerException si l'exécution JMH échoue
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ScheduleOverlapBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
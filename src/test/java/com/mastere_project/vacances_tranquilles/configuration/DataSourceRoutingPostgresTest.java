@@ -0,0 +1,156 @@
+package com.mastere_project.vacances_tranquilles.configuration;
+
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.util.datasource.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie la répartition des transactions JPA entre un primaire PostgreSQL et son réplica en
+ * streaming : chaque requête demande au serveur s'il est en récupération, ce qui n'est vrai que
+ * sur le réplica. Lancement sur un couple primaire/réplica jetable (schéma recréé sur le primaire) :
+ * {@code ROUTING_TEST_PRIMARY_URL=jdbc:postgresql://localhost:5432/routing_test
+ * ROUTING_TEST_REPLICA_URL=jdbc:postgresql://localhost:5433/routing_test
+ * mvn test -Dtest=DataSourceRoutingPostgresTest}
+ * (utilisateur et mot de passe communs : ROUTING_TEST_USERNAME, ROUTING_TEST_PASSWORD).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataSourceRoutingConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "ROUTING_TEST_REPLICA_URL", matches = ".+")
+@TestPropertySource(properties = {
+        "spring.datasource.url=${ROUTING_TEST_PRIMARY_URL}",
+        "spring.datasource.username=${ROUTING_TEST_USERNAME:postgres}",
+        "spring.datasource.password=${ROUTING_TEST_PASSWORD:}",
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=${ROUTING_TEST_REPLICA_URL}",
+        "app.datasource.replica.username=${ROUTING_TEST_USERNAME:postgres}",
+        "app.datasource.replica.password=${ROUTING_TEST_PASSWORD:}",
+        "app.datasource.replica.max-lag=PT5S"
+})
+class DataSourceRoutingPostgresTest {
+
+    private static final Duration REPLICATION_TIMEOUT = Duration.ofSeconds(10);
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isUsable()).as("réplica disponible").isTrue();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldRunOnReplica() {
+        assertThat(inRecovery(readOnly)).isTrue();
+    }
+
+    @Test
+    void readWriteTransaction_ShouldRunOnPrimary() {
+        assertThat(inRecovery(readWrite)).isFalse();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldRunOnPrimary_WhenReplicaIsSetAside() {
+        replicaLagMonitor.markUnavailable(new IllegalStateException("test"));
+
+        assertThat(inRecovery(readOnly)).isFalse();
+    }
+
+    @Test
+    void readOnlyRepositoryCall_ShouldSeeReplicatedWrite() throws InterruptedException {
+        User saved = userRepository.save(user("routing-" + System.nanoTime() + "@example.com"));
+        double before = replicaConnections();
+
+        long deadline = System.nanoTime() + REPLICATION_TIMEOUT.toNanos();
+        boolean found = false;
+        while (!found && System.nanoTime() < deadline) {
+            found = Boolean.TRUE.equals(readOnly.execute(status ->
+                    userRepository.findByEmail(saved.getEmail()).isPresent() && inRecovery()));
+            if (!found) {
+                Thread.sleep(50);
+            }
+        }
+
+        assertThat(found).as("utilisateur relu sur le réplica").isTrue();
+        assertThat(replicaConnections() - before).isPositive();
+    }
+
+    private Boolean inRecovery(TransactionTemplate transaction) {
+        return transaction.execute(status -> inRecovery());
+    }
+
+    private boolean inRecovery() {
+        return (Boolean) entityManager.createNativeQuery("SELECT pg_is_in_recovery()").getSingleResult();
+    }
+
+    private double replicaConnections() {
+        return meterRegistry.get("datasource.routing.connections").tag("target", "replica").counter().count();
+    }
+
+    private static User user(String email) {
+        User created = new User();
+        created.setFirstName("Test");
+        created.setLastName("User");
+        created.setEmail(email);
+        created.setPassword("password123");
+        created.setUserRole(UserRole.CLIENT);
+        created.setPhoneNumber("0123456789");
+        created.setAddress("123 Test Street");
+        created.setCity("Paris");
+        created.setPostalCode("75001");
+        return created;
+    }
+}
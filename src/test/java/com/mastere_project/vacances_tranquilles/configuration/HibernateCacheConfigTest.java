@@ -0,0 +1,161 @@
+package com.mastere_project.vacances_tranquilles.configuration;
+
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests du cache de second niveau : chaque appel de repository s'exécute dans sa propre
+ * transaction, comme dans les services, pour que les entrées soient écrites à la validation.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class HibernateCacheConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterBinder hibernateCacheMetrics;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(user("client@example.com"));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        serviceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromCache_AfterFirstRead() {
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void save_ShouldReplaceCachedUser_WhenProfileIsUpdated() {
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setCity("Lyon");
+        userRepository.save(loaded);
+        statistics.clear();
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+
+        assertThat(reloaded.getCity()).isEqualTo("Lyon");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void save_ShouldReplaceCachedUserAndInvalidateQueries_WhenUserIsAnonymized() {
+        assertThat(userRepository.findByEmail("client@example.com")).isPresent();
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setEmail("anonyme_" + user.getId() + "@deleted.local");
+        loaded.setIsAnonymized(true);
+        userRepository.save(loaded);
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getIsAnonymized()).isTrue();
+        assertThat(userRepository.findByEmail("client@example.com")).isEmpty();
+    }
+
+    @Test
+    void findByEmail_ShouldBeServedFromQueryCache_UntilUsersChange() {
+        userRepository.findByEmail("client@example.com");
+        userRepository.findByEmail("client@example.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        userRepository.save(user("other@example.com"));
+        statistics.clear();
+        userRepository.findByEmail("client@example.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void delete_ShouldEvictCachedService() {
+        Service service = new Service(null, "Ménage", "Ménage complet", "MENAGE", BigDecimal.TEN, user);
+        service = serviceRepository.save(service);
+        assertThat(serviceRepository.findById(service.getId())).isPresent();
+
+        serviceRepository.deleteById(service.getId());
+
+        assertThat(serviceRepository.findById(service.getId())).isEmpty();
+    }
+
+    @Test
+    void metrics_ShouldCountHitsAndMissesPerRegion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        hibernateCacheMetrics.bindTo(registry);
+        // Compteurs JCache, cumulés depuis le démarrage du contexte : Hibernate consulte aussi la
+        // région avant d'y déposer l'entité chargée, d'où des écarts positifs plutôt qu'exacts
+        double hits = gets(registry, "hit");
+        double misses = gets(registry, "miss");
+
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        assertThat(gets(registry, "hit") - hits).isPositive();
+        assertThat(gets(registry, "miss") - misses).isPositive();
+        assertThat(registry.get("cache.evictions").tag("cache", Service.CACHE_REGION).functionCounter())
+                .isNotNull();
+    }
+
+    private static double gets(SimpleMeterRegistry registry, String result) {
+        return registry.get("cache.gets").tag("cache", User.CACHE_REGION).tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static User user(String email) {
+        User created = new User();
+        created.setFirstName("Test");
+        created.setLastName("User");
+        created.setEmail(email);
+        created.setPassword("password123");
+        created.setUserRole(UserRole.PROVIDER);
+        created.setPhoneNumber("0123456789");
+        created.setAddress("123 Test Street");
+        created.setCity("Paris");
+        created.setPostalCode("75001");
+        return created;
+    }
+}
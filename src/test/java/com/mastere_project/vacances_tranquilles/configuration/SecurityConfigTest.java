@@ -2,11 +2,19 @@ package com.mastere_project.vacances_tranquilles.configuration;
 
 import com.mastere_project.vacances_tranquilles.util.jwt.JwtAuthenticationFilter;
 import com.mastere_project.vacances_tranquilles.util.jwt.JwtConfig;
+import com.mastere_project.vacances_tranquilles.util.password.BoundedPasswordEncoder;
+import com.mastere_project.vacances_tranquilles.util.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
@@ -18,6 +26,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import org.springframework.mock.web.MockHttpServletRequest;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 class SecurityConfigTest {
@@ -28,16 +37,26 @@ class SecurityConfigTest {
     @BeforeEach
     void setUp() {
         jwtConfig = mock(JwtConfig.class);
-        securityConfig = new SecurityConfig(jwtConfig);
+        securityConfig = new SecurityConfig(jwtConfig, mock(RateLimitFilter.class));
         // Set the allowedOrigin value for testing
         ReflectionTestUtils.setField(securityConfig, "allowedOrigin", "http://localhost:3000");
     }
 
     @Test
-    void passwordEncoder_shouldReturnBCryptPasswordEncoder() {
-        PasswordEncoder encoder = securityConfig.passwordEncoder();
-        assertThat(encoder).isNotNull();
-        assertThat(encoder.getClass().getSimpleName()).isEqualTo("BCryptPasswordEncoder");
+    void passwordEncoder_shouldReturnBoundedBCryptPasswordEncoder() {
+        ReflectionTestUtils.setField(securityConfig, "bcryptCost", 4);
+        ReflectionTestUtils.setField(securityConfig, "passwordHashThreads", 1);
+        ReflectionTestUtils.setField(securityConfig, "passwordHashQueueCapacity", 4);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        PasswordEncoder encoder = securityConfig.passwordEncoder(meterRegistry);
+
+        assertThat(encoder).isInstanceOf(BoundedPasswordEncoder.class);
+        String hash = encoder.encode("secret");
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(meterRegistry.get("auth.password.hash").timer().count()).isEqualTo(2);
+        ((BoundedPasswordEncoder) encoder).close();
     }
 
     @Test
@@ -126,12 +145,36 @@ class SecurityConfigTest {
         assertThat(user.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_MONITORING"))).isTrue();
     }
 
+    @Test
+    void monitoringAuthenticationManager_shouldAuthenticateMonitoringUser_withoutBoundedEncoder() {
+        // Given
+        ReflectionTestUtils.setField(securityConfig, "monitoringUsername", "monitor");
+        ReflectionTestUtils.setField(securityConfig, "monitoringPassword", "pass");
+        AuthenticationManager authenticationManager = securityConfig.monitoringAuthenticationManager();
+
+        // When
+        Authentication authentication = authenticationManager.authenticate(
+            new UsernamePasswordAuthenticationToken("monitor", "pass"));
+
+        // Then
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(ReflectionTestUtils.getField(securityConfig, "monitoringPasswordEncoder"))
+            .isInstanceOf(BCryptPasswordEncoder.class)
+            .isNotInstanceOf(BoundedPasswordEncoder.class);
+        UsernamePasswordAuthenticationToken wrongPassword = new UsernamePasswordAuthenticationToken("monitor", "wrong");
+        assertThatThrownBy(() -> authenticationManager.authenticate(wrongPassword))
+            .isInstanceOf(BadCredentialsException.class);
+    }
+
     @Test
     void prometheusSecurityFilterChain_shouldConfigureBasicAuthForPrometheus() throws Exception {
+        ReflectionTestUtils.setField(securityConfig, "monitoringUsername", "monitor");
+        ReflectionTestUtils.setField(securityConfig, "monitoringPassword", "pass");
         HttpSecurity http = mock(HttpSecurity.class, RETURNS_DEEP_STUBS);
 
         when(http.securityMatcher(anyString())).thenReturn(http);
         when(http.authorizeHttpRequests(any())).thenReturn(http);
+        when(http.authenticationManager(any())).thenReturn(http);
         when(http.httpBasic(any())).thenReturn(http);
         when(http.csrf(any())).thenReturn(http);
         when(http.build()).thenReturn(mock(DefaultSecurityFilterChain.class));
@@ -141,6 +184,7 @@ class SecurityConfigTest {
         assertThat(chain).isNotNull();
         verify(http).securityMatcher("/actuator/prometheus");
         verify(http).authorizeHttpRequests(any());
+        verify(http).authenticationManager(any());
         verify(http).httpBasic(any());
         verify(http).csrf(any());
         verify(http).build();
@@ -0,0 +1,34 @@
+package com.mastere_project.vacances_tranquilles.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StripeGatewayConfigTest {
+
+    @Test
+    void alignedReadTimeout_keepsReadTimeout_whenItFitsInCallTimeout() {
+        assertThat(StripeGatewayConfig.alignedReadTimeout(Duration.ofSeconds(2), Duration.ofSeconds(8), 0,
+                Duration.ofSeconds(10))).isEqualTo(Duration.ofSeconds(8));
+    }
+
+    @Test
+    void alignedReadTimeout_shortensReadTimeout_toFitEveryAttemptInCallTimeout() {
+        assertThat(StripeGatewayConfig.alignedReadTimeout(Duration.ofSeconds(2), Duration.ofSeconds(30), 0,
+                Duration.ofSeconds(10))).isEqualTo(Duration.ofSeconds(8));
+        assertThat(StripeGatewayConfig.alignedReadTimeout(Duration.ofSeconds(1), Duration.ofSeconds(8), 1,
+                Duration.ofSeconds(10))).isEqualTo(Duration.ofSeconds(4));
+    }
+
+    @Test
+    void alignedReadTimeout_rejectsConnectTimeoutAboveCallTimeout() {
+        Duration connectTimeout = Duration.ofSeconds(10);
+        Duration readTimeout = Duration.ofSeconds(8);
+        Duration callTimeout = Duration.ofSeconds(10);
+
+        assertThatThrownBy(() -> StripeGatewayConfig.alignedReadTimeout(connectTimeout, readTimeout, 0, callTimeout))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,412 @@
+package com.mastere_project.vacances_tranquilles.controller;
+
+import com.mastere_project.vacances_tranquilles.entity.Conversation;
+import com.mastere_project.vacances_tranquilles.entity.Message;
+import com.mastere_project.vacances_tranquilles.entity.Reservation;
+import com.mastere_project.vacances_tranquilles.entity.Review;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.ConversationReadStateRepository;
+import com.mastere_project.vacances_tranquilles.repository.ConversationRepository;
+import com.mastere_project.vacances_tranquilles.repository.MessageRepository;
+import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
+import com.mastere_project.vacances_tranquilles.repository.ReviewRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleDayRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.repository.UserRatingRepository;
+import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.util.jwt.JwtConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Nombre exact d'instructions SQL émises par Hibernate pour chaque point d'entrée, de la requête
+ * HTTP à la réponse, sans session ouverte pendant le rendu (open-in-view désactivé) : un chargement
+ * paresseux oublié échoue, un N+1 ou une association chargée en trop change le compte.
+ * Le cache de l'utilisateur connecté et le cache de second niveau sont désactivés : chaque requête
+ * relit l'utilisateur une fois et le compte ne dépend pas des requêtes précédentes.
+ * Le flux SSE et le webhook Stripe, dont le travail se fait hors de la requête, ne sont pas comptés.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "app.cors.allowed-origins=http://localhost",
+        "frontend.base.url=http://localhost",
+        "stripe.api.key=sk_test_unused",
+        "monitoring.username=monitoring",
+        "monitoring.password=monitoring",
+        "app.security.principal-cache.ttl=PT0S",
+        "app.cache.enabled=false",
+        "app.security.password.bcrypt-cost=4",
+        "app.rate-limit.enabled=false",
+        "app.stripe.gateway=fake",
+        "app.stripe.fake.latency=PT0S",
+        "app.stripe.webhook.requeue-interval=PT1H",
+        "app.reservations.auto-close.enabled=false",
+        "app.payments.reconciliation.enabled=false"
+})
+class ControllerSqlStatementCountTest {
+
+    private static final String PASSWORD = "motdepasse";
+    private static final String POSTAL_CODE = "75001";
+    private static final String CATEGORY = "MENAGE";
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JwtConfig jwt;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private ConversationReadStateRepository conversationReadStateRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserRatingRepository userRatingRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ScheduleRuleRepository scheduleRuleRepository;
+
+    @Autowired
+    private ScheduleDayRepository scheduleDayRepository;
+
+    private Statistics statistics;
+
+    private User client;
+    private User provider;
+    private Service service;
+    private Service unusedService;
+    private Conversation conversation;
+    private Message message;
+    private Reservation inProgress;
+    private Reservation withoutConversation;
+    private Reservation pending;
+    private Reservation closed;
+    private Review review;
+    private ScheduleRule rule;
+    private Schedule unavailability;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        client = userRepository.save(user("client", UserRole.CLIENT));
+        provider = userRepository.save(user("provider", UserRole.PROVIDER));
+        service = serviceRepository.save(service("Ménage complet"));
+        unusedService = serviceRepository.save(service("Repassage"));
+
+        conversation = new Conversation();
+        conversation.setUser1(client);
+        conversation.setUser2(provider);
+        conversation = conversationRepository.save(conversation);
+
+        message = new Message();
+        message.setConversation(conversation);
+        message.setSender(provider);
+        message.setContent("Bonjour");
+        message = messageRepository.save(message);
+
+        inProgress = reservationRepository.save(reservation(TODAY.plusDays(10), ReservationStatus.IN_PROGRESS,
+                conversation));
+        withoutConversation = reservationRepository.save(reservation(TODAY.plusDays(11),
+                ReservationStatus.IN_PROGRESS, null));
+        pending = reservationRepository.save(reservation(TODAY.plusDays(12), ReservationStatus.PENDING, null));
+        closed = reservationRepository.save(reservation(TODAY.minusDays(5), ReservationStatus.CLOSED, null));
+
+        review = new Review();
+        review.setNote(4);
+        review.setCommentaire("Client ponctuel");
+        review.setReservationId(closed.getId());
+        review.setReviewer(provider);
+        review.setReviewed(client);
+        review.setCreatedAt(LocalDateTime.now().minusDays(1));
+        review = reviewRepository.save(review);
+
+        rule = new ScheduleRule();
+        rule.setDaysOfWeek(0x7F);
+        rule.setStartTime(LocalTime.of(8, 0));
+        rule.setEndTime(LocalTime.of(20, 0));
+        rule.setValidFrom(TODAY.minusDays(30));
+        rule.setProvider(provider);
+        rule = scheduleRuleRepository.save(rule);
+
+        unavailability = new Schedule();
+        unavailability.setDate(TODAY.plusDays(20));
+        unavailability.setStartTime(LocalTime.of(14, 0));
+        unavailability.setEndTime(LocalTime.of(15, 0));
+        unavailability.setProvider(provider);
+        unavailability = scheduleRepository.save(unavailability);
+
+        availabilityIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAllInBatch();
+        conversationReadStateRepository.deleteAllInBatch();
+        reviewRepository.deleteAllInBatch();
+        userRatingRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        conversationRepository.deleteAllInBatch();
+        scheduleRepository.deleteAllInBatch();
+        scheduleDayRepository.deleteAllInBatch();
+        scheduleRuleRepository.deleteAllInBatch();
+        serviceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void authEndpoints() throws Exception {
+        assertStatements(2, post("/api/auth/register/client").contentType(MediaType.APPLICATION_JSON)
+                .content(registration("nouveau.client")));
+        assertStatements(2, post("/api/auth/register/provider").contentType(MediaType.APPLICATION_JSON)
+                .content(registration("nouveau.prestataire")));
+        assertStatements(1, post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "%s", "password": "%s"}""".formatted(client.getEmail(), PASSWORD)));
+    }
+
+    @Test
+    void reservationEndpoints() throws Exception {
+        assertStatements(2, as(client, get("/api/reservations")));
+        assertStatements(2, as(client, get("/api/reservations/" + inProgress.getId())));
+        assertStatements(7, as(client, post("/api/reservations").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"clientId": %d, "providerId": %d, "serviceId": %d, "totalPrice": 100,
+                         "reservationDate": "%sT00:00:00", "startDate": "%4$sT10:00:00", "endDate": "%4$sT12:00:00"}"""
+                        .formatted(client.getId(), provider.getId(), service.getId(), TODAY.plusDays(13)))));
+        assertStatements(3, as(provider, patch("/api/reservations/" + pending.getId() + "/status")
+                .contentType(MediaType.APPLICATION_JSON).content("""
+                        {"status": "IN_PROGRESS"}""")));
+    }
+
+    @Test
+    void conversationEndpoints() throws Exception {
+        assertStatements(2, as(client, get("/api/conversations")));
+        assertStatements(2, as(client, get("/api/conversations/" + conversation.getId())));
+        assertStatements(3, as(client, get("/api/conversations/" + conversation.getId() + "/reservation")));
+        assertStatements(5, as(client, post("/api/conversations").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"reservationId": %d}""".formatted(withoutConversation.getId()))));
+    }
+
+    @Test
+    void messageEndpoints() throws Exception {
+        assertStatements(7, as(client, get("/api/messages/conversation/" + conversation.getId())));
+        assertStatements(5, as(client, get("/api/messages/conversation/" + conversation.getId())
+                .param("limit", "20")));
+        assertStatements(3, as(client, post("/api/messages").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"conversationId": %d, "content": "Merci"}""".formatted(conversation.getId()))));
+        assertStatements(4, as(provider, put("/api/messages/" + message.getId())
+                .contentType(MediaType.APPLICATION_JSON).content("""
+                        {"content": "Bonjour !"}""")));
+    }
+
+    @Test
+    void reviewEndpoints() throws Exception {
+        assertStatements(8, as(client, post("/api/reviews").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"note": 5, "commentaire": "Parfait", "reservationId": %d}""".formatted(closed.getId()))));
+        assertStatements(2, as(client, get("/api/reviews/" + review.getId())));
+        assertStatements(2, as(client, get("/api/reviews/writer")));
+        assertStatements(2, as(client, get("/api/reviews/received")));
+        assertStatements(1, as(client, get("/api/reviews/provider/" + provider.getId())));
+        assertStatements(1, as(client, get("/api/reviews/provider/" + provider.getId() + "/rating")));
+        assertStatements(1, as(client, get("/api/reviews/provider/" + provider.getId() + "/with-reviewer")));
+        assertStatements(1, as(client, get("/api/reviews/reservation/" + closed.getId())));
+    }
+
+    @Test
+    void scheduleEndpoints() throws Exception {
+        assertStatements(3, as(provider, post("/api/schedules/rules").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"daysOfWeek": ["SATURDAY"], "startTime": "09:00", "endTime": "12:00", "validFrom": "%s"}"""
+                        .formatted(TODAY))));
+        assertStatements(2, as(provider, get("/api/schedules/rules")));
+        assertStatements(4, as(provider, delete("/api/schedules/rules/" + rule.getId())));
+        assertStatements(2, as(provider, post("/api/schedules/exceptions").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"type": "UNAVAILABLE", "date": "%s", "startTime": "09:00", "endTime": "10:00"}"""
+                        .formatted(TODAY.plusDays(21)))));
+        assertStatements(3, as(provider, get("/api/schedules/exceptions")
+                .param("from", TODAY.toString()).param("to", TODAY.plusDays(30).toString())));
+        assertStatements(3, as(provider, delete("/api/schedules/exceptions/" + unavailability.getId())
+                .param("type", "UNAVAILABLE")));
+        assertStatements(1, as(client, get("/api/schedules/providers/" + provider.getId() + "/availability")
+                .param("from", TODAY.toString()).param("to", TODAY.plusDays(6).toString())));
+    }
+
+    @Test
+    void serviceEndpoints() throws Exception {
+        assertStatements(2, as(provider, post("/api/services").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"title": "Jardinage", "description": "Tonte", "category": "JARDIN", "price": 30}""")));
+        assertStatements(1, as(client, get("/api/services/" + service.getId())));
+        assertStatements(2, as(provider, get("/api/services/my-services")));
+        assertStatements(2, as(provider, patch("/api/services/" + service.getId())
+                .contentType(MediaType.APPLICATION_JSON).content("""
+                        {"price": 55}""")));
+        assertStatements(3, as(provider, delete("/api/services/" + unusedService.getId())));
+        assertStatements(1, as(client, get("/api/services/search").param("category", CATEGORY)
+                .param("postalCode", POSTAL_CODE).param("date", TODAY.plusDays(15).toString())
+                .param("startTime", "10:00").param("endTime", "12:00")));
+    }
+
+    @Test
+    void stripeEndpoints() throws Exception {
+        assertStatements(4, as(client, post("/api/stripe/create-checkout-session")
+                .contentType(MediaType.APPLICATION_JSON).content("""
+                        {"serviceId": %d, "customerId": %d, "providerId": %d, "date": "%s",
+                         "startTime": "10:00", "endTime": "12:00"}"""
+                        .formatted(service.getId(), client.getId(), provider.getId(), TODAY.plusDays(14)))));
+        assertStatements(2, as(client, post("/api/stripe/confirm-reservation")
+                .contentType(MediaType.APPLICATION_JSON).content("""
+                        {"sessionId": "cs_inconnue"}""")));
+    }
+
+    @Test
+    void userEndpoints() throws Exception {
+        assertStatements(1, as(client, get("/api/users/profile")));
+        assertStatements(4, as(client, patch("/api/users/profile").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"city": "Lyon"}""")));
+        assertStatements(2, as(client, get("/api/users/" + provider.getId())));
+        assertStatements(4, as(client, delete("/api/users/profile")));
+    }
+
+    /**
+     * Exécute la requête (et sa reprise asynchrone le cas échéant), vérifie qu'elle réussit puis
+     * compare le nombre d'instructions SQL préparées par Hibernate à la valeur attendue.
+     */
+    private void assertStatements(long expected, MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        String endpoint = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        assertThat(result.getResponse().getStatus()).as(endpoint + " : " + result.getResponse().getContentAsString())
+                .isBetween(200, 299);
+        assertThat(statistics.getPrepareStatementCount()).as(endpoint).isEqualTo(expected);
+    }
+
+    private MockHttpServletRequestBuilder as(User user, MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + jwt.generateToken(user.getId(), user.getUserRole()));
+    }
+
+    private User user(String name, UserRole role) {
+        User user = new User();
+        user.setFirstName(name);
+        user.setLastName("Test");
+        user.setEmail(name + System.nanoTime() + "@example.com");
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setUserRole(role);
+        user.setPhoneNumber("0600000000");
+        user.setAddress("1 rue de Rivoli");
+        user.setCity("Paris");
+        user.setPostalCode(POSTAL_CODE);
+        return user;
+    }
+
+    private Service service(String title) {
+        Service created = new Service();
+        created.setTitle(title);
+        created.setDescription(title);
+        created.setCategory(CATEGORY);
+        created.setPrice(new BigDecimal("50.00"));
+        created.setProvider(provider);
+        return created;
+    }
+
+    private Reservation reservation(LocalDate date, ReservationStatus status, Conversation linked) {
+        Reservation created = new Reservation();
+        created.setClient(client);
+        created.setProvider(provider);
+        created.setService(service);
+        created.setReservationDate(date);
+        created.setStartDate(LocalTime.of(10, 0));
+        created.setEndDate(LocalTime.of(12, 0));
+        created.setTotalPrice(new BigDecimal("100.00"));
+        created.setStatus(status);
+        created.setConversation(linked);
+        return created;
+    }
+
+    private static String registration(String name) {
+        return """
+                {"firstName": "%s", "lastName": "Test", "email": "%1$s%d@example.com", "password": "%s",
+                 "phoneNumber": "0600000000", "address": "1 rue de Rivoli", "city": "Paris", "postalCode": "%s",
+                 "companyName": "Société", "siretSiren": "12345678900011"}"""
+                .formatted(name, System.nanoTime(), PASSWORD, POSTAL_CODE);
+    }
+}
@@ -33,8 +33,8 @@ class ConversationControllerTest {
 
     @Test
     void getConversations_shouldReturnList() {
-        ConversationSummaryDto c1 = new ConversationSummaryDto(1L, "User1", "Service1", null, null);
-        ConversationSummaryDto c2 = new ConversationSummaryDto(2L, "User2", "Service2", null, null);
+        ConversationSummaryDto c1 = new ConversationSummaryDto(1L, "User1", "Service1", null, null, 0, null, null);
+        ConversationSummaryDto c2 = new ConversationSummaryDto(2L, "User2", "Service2", null, null, 0, null, null);
         List<ConversationSummaryDto> conversations = Arrays.asList(c1, c2);
         when(conversationService.getConversationsForUser()).thenReturn(conversations);
 
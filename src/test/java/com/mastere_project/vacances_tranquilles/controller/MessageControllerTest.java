@@ -4,13 +4,17 @@ import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
 import com.mastere_project.vacances_tranquilles.dto.MessageResponseDTO;
 import com.mastere_project.vacances_tranquilles.exception.ErrorEntity;
 import com.mastere_project.vacances_tranquilles.service.MessageService;
+import com.mastere_project.vacances_tranquilles.service.MessageStreamService;
+import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -24,6 +28,9 @@ class MessageControllerTest {
     @Mock
     private MessageService messageService;
 
+    @Mock
+    private MessageStreamService messageStreamService;
+
     @InjectMocks
     private MessageController messageController;
 
@@ -76,10 +83,10 @@ class MessageControllerTest {
         MessageResponseDTO msg1 = new MessageResponseDTO(1L, "User1", "Hello", LocalDateTime.now(), true, "Me");
         MessageResponseDTO msg2 = new MessageResponseDTO(2L, "User2", "Hi", LocalDateTime.now(), false, "Me");
         List<MessageResponseDTO> messages = Arrays.asList(msg1, msg2);
-        when(messageService.getMessagesByConversationId(5L)).thenReturn(messages);
+        when(messageService.getMessagesByConversationId(5L, null, null, null)).thenReturn(messages);
 
         // When
-        ResponseEntity<Object> response = messageController.getMessagesByConversation(5L);
+        ResponseEntity<Object> response = messageController.getMessagesByConversation(5L, null, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -91,10 +98,10 @@ class MessageControllerTest {
     @Test
     void getMessagesByConversation_shouldReturnEmptyList() {
         // Given
-        when(messageService.getMessagesByConversationId(1L)).thenReturn(List.of());
+        when(messageService.getMessagesByConversationId(1L, null, null, null)).thenReturn(List.of());
 
         // When
-        ResponseEntity<Object> response = messageController.getMessagesByConversation(1L);
+        ResponseEntity<Object> response = messageController.getMessagesByConversation(1L, null, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -103,13 +110,24 @@ class MessageControllerTest {
         assertEquals(0, responseMessages.size());
     }
 
+    @Test
+    void getMessagesByConversation_shouldPassCursorParameters() {
+        MessageResponseDTO msg = new MessageResponseDTO(8L, "User2", "New", LocalDateTime.now(), false, "Me");
+        when(messageService.getMessagesByConversationId(5L, 7L, null, 20)).thenReturn(List.of(msg));
+
+        ResponseEntity<Object> response = messageController.getMessagesByConversation(5L, 7L, null, 20);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(msg), response.getBody());
+    }
+
     @Test
     void getMessagesByConversation_shouldReturnBadRequest_whenException() {
         // Given
-        when(messageService.getMessagesByConversationId(1L)).thenThrow(new RuntimeException("Error"));
+        when(messageService.getMessagesByConversationId(1L, null, null, null)).thenThrow(new RuntimeException("Error"));
 
         // When
-        ResponseEntity<Object> response = messageController.getMessagesByConversation(1L);
+        ResponseEntity<Object> response = messageController.getMessagesByConversation(1L, null, null, null);
 
         // Then
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -154,4 +172,17 @@ class MessageControllerTest {
         ErrorEntity error = (ErrorEntity) response.getBody();
         assertEquals("Error", error.getMessage());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void streamMessages_shouldSubscribeCurrentUser() {
+        SseEmitter emitter = new SseEmitter();
+        when(messageStreamService.subscribe(7L)).thenReturn(emitter);
+
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(7L);
+
+            assertSame(emitter, messageController.streamMessages());
+        }
+        verify(messageStreamService).subscribe(7L);
+    }
+}
@@ -3,6 +3,7 @@ package com.mastere_project.vacances_tranquilles.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.mastere_project.vacances_tranquilles.dto.ReservationDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReservationPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
 import com.mastere_project.vacances_tranquilles.dto.UpdateReservationStatusDTO;
 import com.mastere_project.vacances_tranquilles.exception.ApplicationControllerAdvice;
@@ -18,6 +19,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -51,21 +53,49 @@ class ReservationControllerTest {
     }
 
     @Test
-    void getAllReservations_shouldReturnReservationsList() throws Exception {
+    void getReservations_shouldReturnFirstPage() throws Exception {
         List<ReservationResponseDTO> reservations = Arrays.asList(
                 createSampleReservationResponseDTO(1L, "PENDING"),
                 createSampleReservationResponseDTO(2L, "IN_PROGRESS"));
 
-        when(reservationService.getAllReservations()).thenReturn(reservations);
+        when(reservationService.getReservations(null, null, null, null, 20))
+                .thenReturn(new ReservationPageDTO(reservations, "next"));
 
         mockMvc.perform(get("/api/reservations")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[1].id").value(2));
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[1].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
 
-        verify(reservationService, times(1)).getAllReservations();
+        verify(reservationService, times(1)).getReservations(null, null, null, null, 20);
+    }
+
+    @Test
+    void getReservations_shouldPassFiltersAndCursor() throws Exception {
+        when(reservationService.getReservations(ReservationStatus.PENDING, LocalDate.of(2030, 1, 1),
+                LocalDate.of(2030, 1, 31), "abc", 50))
+                .thenReturn(new ReservationPageDTO(List.of(), null));
+
+        mockMvc.perform(get("/api/reservations")
+                .param("status", "PENDING")
+                .param("from", "2030-01-01")
+                .param("to", "2030-01-31")
+                .param("cursor", "abc")
+                .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getReservations_invalidCursor_shouldReturnBadRequest() throws Exception {
+        when(reservationService.getReservations(null, null, null, "bad", 20))
+                .thenThrow(new IllegalArgumentException("Curseur de pagination invalide."));
+
+        mockMvc.perform(get("/api/reservations").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -1,6 +1,8 @@
 package com.mastere_project.vacances_tranquilles.controller;
 
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReviewPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewWithReviewerDTO;
 import com.mastere_project.vacances_tranquilles.service.ReviewService;
 import com.mastere_project.vacances_tranquilles.exception.ReservationNotFoundException;
@@ -100,70 +102,74 @@ class ReviewControllerTest {
     @Test
     void getReviewsWrittenByUser_ShouldReturnReviewsList() {
         List<ReviewDTO> reviews = Arrays.asList(mockReviewDTO);
-        when(reviewService.getReviewsWrittenByUser()).thenReturn(reviews);
+        when(reviewService.getReviewsWrittenByUser(null, 20)).thenReturn(new ReviewPageDTO<>(reviews, null));
 
-        ResponseEntity<List<ReviewDTO>> response = reviewController.getReviewsWrittenByUser();
+        ResponseEntity<ReviewPageDTO<ReviewDTO>> response = reviewController.getReviewsWrittenByUser(null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().get(0).getId()).isEqualTo(1L);
-        assertThat(response.getBody().get(0).getNote()).isEqualTo(5);
-        assertThat(response.getBody().get(0).getCommentaire()).isEqualTo("Excellent service");
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).hasSize(1);
+        assertThat(response.getBody().getContent().get(0).getId()).isEqualTo(1L);
+        assertThat(response.getBody().getContent().get(0).getNote()).isEqualTo(5);
+        assertThat(response.getBody().getContent().get(0).getCommentaire()).isEqualTo("Excellent service");
 
-        verify(reviewService, times(1)).getReviewsWrittenByUser();
+        verify(reviewService, times(1)).getReviewsWrittenByUser(null, 20);
     }
 
     @Test
     void getReviewsReceivedByUser_ShouldReturnReviewsList() {
         List<ReviewDTO> reviews = Arrays.asList(mockReviewDTO);
-        when(reviewService.getReviewsReceivedByUser()).thenReturn(reviews);
+        when(reviewService.getReviewsReceivedByUser(null, 20)).thenReturn(new ReviewPageDTO<>(reviews, null));
 
-        ResponseEntity<List<ReviewDTO>> response = reviewController.getReviewsReceivedByUser();
+        ResponseEntity<ReviewPageDTO<ReviewDTO>> response = reviewController.getReviewsReceivedByUser(null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().get(0).getId()).isEqualTo(1L);
-        assertThat(response.getBody().get(0).getNote()).isEqualTo(5);
-        assertThat(response.getBody().get(0).getCommentaire()).isEqualTo("Excellent service");
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).hasSize(1);
+        assertThat(response.getBody().getContent().get(0).getId()).isEqualTo(1L);
+        assertThat(response.getBody().getContent().get(0).getNote()).isEqualTo(5);
+        assertThat(response.getBody().getContent().get(0).getCommentaire()).isEqualTo("Excellent service");
 
-        verify(reviewService, times(1)).getReviewsReceivedByUser();
+        verify(reviewService, times(1)).getReviewsReceivedByUser(null, 20);
     }
 
     @Test
     void getReviewsByProviderId_ShouldReturnReviewsList() {
         List<ReviewDTO> reviews = Arrays.asList(mockReviewDTO);
-        when(reviewService.getReviewsByProviderId(1L)).thenReturn(reviews);
+        when(reviewService.getReviewsByProviderId(1L, null, 20)).thenReturn(new ReviewPageDTO<>(reviews, null));
 
-        ResponseEntity<List<ReviewDTO>> response = reviewController.getReviewsByProviderId(1L);
+        ResponseEntity<ReviewPageDTO<ReviewDTO>> response = reviewController.getReviewsByProviderId(1L, null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().get(0).getId()).isEqualTo(1L);
-        assertThat(response.getBody().get(0).getNote()).isEqualTo(5);
-        assertThat(response.getBody().get(0).getCommentaire()).isEqualTo("Excellent service");
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).hasSize(1);
+        assertThat(response.getBody().getContent().get(0).getId()).isEqualTo(1L);
+        assertThat(response.getBody().getContent().get(0).getNote()).isEqualTo(5);
+        assertThat(response.getBody().getContent().get(0).getCommentaire()).isEqualTo("Excellent service");
 
-        verify(reviewService, times(1)).getReviewsByProviderId(1L);
+        verify(reviewService, times(1)).getReviewsByProviderId(1L, null, 20);
     }
 
     @Test
     void getReviewsWithReviewerByProviderId_ShouldReturnReviewsWithReviewerList() {
         List<ReviewWithReviewerDTO> reviews = Arrays.asList(mockReviewWithReviewerDTO);
-        when(reviewService.getReviewsWithReviewerByProviderId(1L)).thenReturn(reviews);
+        when(reviewService.getReviewsWithReviewerByProviderId(1L, null, 20)).thenReturn(new ReviewPageDTO<>(reviews, null));
 
-        ResponseEntity<List<ReviewWithReviewerDTO>> response = reviewController.getReviewsWithReviewerByProviderId(1L);
+        ResponseEntity<ReviewPageDTO<ReviewWithReviewerDTO>> response = reviewController.getReviewsWithReviewerByProviderId(1L, null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().get(0).getId()).isEqualTo(1L);
-        assertThat(response.getBody().get(0).getNote()).isEqualTo(5);
-        assertThat(response.getBody().get(0).getCommentaire()).isEqualTo("Excellent service");
-        assertThat(response.getBody().get(0).getReviewerFirstName()).isEqualTo("Jean");
-
-        verify(reviewService, times(1)).getReviewsWithReviewerByProviderId(1L);
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).hasSize(1);
+        assertThat(response.getBody().getContent().get(0).getId()).isEqualTo(1L);
+        assertThat(response.getBody().getContent().get(0).getNote()).isEqualTo(5);
+        assertThat(response.getBody().getContent().get(0).getCommentaire()).isEqualTo("Excellent service");
+        assertThat(response.getBody().getContent().get(0).getReviewerFirstName()).isEqualTo("Jean");
+
+        verify(reviewService, times(1)).getReviewsWithReviewerByProviderId(1L, null, 20);
     }
 
     @Test
@@ -186,54 +192,58 @@ class ReviewControllerTest {
 
     @Test
     void getReviewsWrittenByUser_WhenNoReviews_ShouldReturnEmptyList() {
-        when(reviewService.getReviewsWrittenByUser()).thenReturn(Arrays.asList());
+        when(reviewService.getReviewsWrittenByUser(null, 20)).thenReturn(new ReviewPageDTO<>(List.of(), null));
 
-        ResponseEntity<List<ReviewDTO>> response = reviewController.getReviewsWrittenByUser();
+        ResponseEntity<ReviewPageDTO<ReviewDTO>> response = reviewController.getReviewsWrittenByUser(null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).isEmpty();
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).isEmpty();
 
-        verify(reviewService, times(1)).getReviewsWrittenByUser();
+        verify(reviewService, times(1)).getReviewsWrittenByUser(null, 20);
     }
 
     @Test
     void getReviewsReceivedByUser_WhenNoReviews_ShouldReturnEmptyList() {
-        when(reviewService.getReviewsReceivedByUser()).thenReturn(Arrays.asList());
+        when(reviewService.getReviewsReceivedByUser(null, 20)).thenReturn(new ReviewPageDTO<>(List.of(), null));
 
-        ResponseEntity<List<ReviewDTO>> response = reviewController.getReviewsReceivedByUser();
+        ResponseEntity<ReviewPageDTO<ReviewDTO>> response = reviewController.getReviewsReceivedByUser(null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).isEmpty();
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).isEmpty();
 
-        verify(reviewService, times(1)).getReviewsReceivedByUser();
+        verify(reviewService, times(1)).getReviewsReceivedByUser(null, 20);
     }
 
     @Test
     void getReviewsByProviderId_WhenNoReviews_ShouldReturnEmptyList() {
-        when(reviewService.getReviewsByProviderId(1L)).thenReturn(Arrays.asList());
+        when(reviewService.getReviewsByProviderId(1L, null, 20)).thenReturn(new ReviewPageDTO<>(List.of(), null));
 
-        ResponseEntity<List<ReviewDTO>> response = reviewController.getReviewsByProviderId(1L);
+        ResponseEntity<ReviewPageDTO<ReviewDTO>> response = reviewController.getReviewsByProviderId(1L, null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).isEmpty();
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).isEmpty();
 
-        verify(reviewService, times(1)).getReviewsByProviderId(1L);
+        verify(reviewService, times(1)).getReviewsByProviderId(1L, null, 20);
     }
 
     @Test
     void getReviewsWithReviewerByProviderId_WhenNoReviews_ShouldReturnEmptyList() {
-        when(reviewService.getReviewsWithReviewerByProviderId(1L)).thenReturn(Arrays.asList());
+        when(reviewService.getReviewsWithReviewerByProviderId(1L, null, 20)).thenReturn(new ReviewPageDTO<>(List.of(), null));
 
-        ResponseEntity<List<ReviewWithReviewerDTO>> response = reviewController.getReviewsWithReviewerByProviderId(1L);
+        ResponseEntity<ReviewPageDTO<ReviewWithReviewerDTO>> response = reviewController.getReviewsWithReviewerByProviderId(1L, null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).isEmpty();
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).isEmpty();
 
-        verify(reviewService, times(1)).getReviewsWithReviewerByProviderId(1L);
+        verify(reviewService, times(1)).getReviewsWithReviewerByProviderId(1L, null, 20);
     }
 
     @Test
@@ -380,17 +390,18 @@ class ReviewControllerTest {
         review2.setCommentaire("Très bien");
 
         List<ReviewDTO> reviews = Arrays.asList(review1, review2);
-        when(reviewService.getReviewsWrittenByUser()).thenReturn(reviews);
+        when(reviewService.getReviewsWrittenByUser(null, 20)).thenReturn(new ReviewPageDTO<>(reviews, null));
 
-        ResponseEntity<List<ReviewDTO>> response = reviewController.getReviewsWrittenByUser();
+        ResponseEntity<ReviewPageDTO<ReviewDTO>> response = reviewController.getReviewsWrittenByUser(null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).hasSize(2);
-        assertThat(response.getBody().get(0).getId()).isEqualTo(1L);
-        assertThat(response.getBody().get(1).getId()).isEqualTo(2L);
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).hasSize(2);
+        assertThat(response.getBody().getContent().get(0).getId()).isEqualTo(1L);
+        assertThat(response.getBody().getContent().get(1).getId()).isEqualTo(2L);
 
-        verify(reviewService, times(1)).getReviewsWrittenByUser();
+        verify(reviewService, times(1)).getReviewsWrittenByUser(null, 20);
     }
 
     @Test
@@ -406,16 +417,41 @@ class ReviewControllerTest {
         review2.setReviewerFirstName("Marie");
 
         List<ReviewWithReviewerDTO> reviews = Arrays.asList(review1, review2);
-        when(reviewService.getReviewsWithReviewerByProviderId(1L)).thenReturn(reviews);
+        when(reviewService.getReviewsWithReviewerByProviderId(1L, null, 20)).thenReturn(new ReviewPageDTO<>(reviews, null));
 
-        ResponseEntity<List<ReviewWithReviewerDTO>> response = reviewController.getReviewsWithReviewerByProviderId(1L);
+        ResponseEntity<ReviewPageDTO<ReviewWithReviewerDTO>> response = reviewController.getReviewsWithReviewerByProviderId(1L, null, 20);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody()).hasSize(2);
-        assertThat(response.getBody().get(0).getReviewerFirstName()).isEqualTo("Jean");
-        assertThat(response.getBody().get(1).getReviewerFirstName()).isEqualTo("Marie");
+        assertThat(response.getBody().getNextCursor()).isNull();
+        assertThat(response.getBody().getContent()).hasSize(2);
+        assertThat(response.getBody().getContent().get(0).getReviewerFirstName()).isEqualTo("Jean");
+        assertThat(response.getBody().getContent().get(1).getReviewerFirstName()).isEqualTo("Marie");
+
+        verify(reviewService, times(1)).getReviewsWithReviewerByProviderId(1L, null, 20);
+    }
+
+    @Test
+    void getRatingByProviderId_ShouldReturnRatingSummary() {
+        RatingSummaryDTO rating = new RatingSummaryDTO(2, 4.5, List.of(0L, 0L, 0L, 1L, 1L));
+        when(reviewService.getRatingByProviderId(1L)).thenReturn(rating);
 
-        verify(reviewService, times(1)).getReviewsWithReviewerByProviderId(1L);
+        ResponseEntity<RatingSummaryDTO> response = reviewController.getRatingByProviderId(1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(rating);
+        verify(reviewService, times(1)).getRatingByProviderId(1L);
+    }
+
+    @Test
+    void getReviewsByProviderId_ShouldPassCursorAndSize() {
+        ReviewPageDTO<ReviewDTO> page = new ReviewPageDTO<>(List.of(mockReviewDTO), "next");
+        when(reviewService.getReviewsByProviderId(1L, "abc", 5)).thenReturn(page);
+
+        ResponseEntity<ReviewPageDTO<ReviewDTO>> response = reviewController.getReviewsByProviderId(1L, "abc", 5);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(page);
+        assertThat(response.getBody().getNextCursor()).isEqualTo("next");
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.mastere_project.vacances_tranquilles.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mastere_project.vacances_tranquilles.dto.AvailabilityWindowDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleExceptionDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleRuleDTO;
+import com.mastere_project.vacances_tranquilles.exception.ApplicationControllerAdvice;
+import com.mastere_project.vacances_tranquilles.exception.ScheduleNotFoundException;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleExceptionType;
+import com.mastere_project.vacances_tranquilles.service.ScheduleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ScheduleControllerTest {
+
+    private MockMvc mockMvc;
+    private ScheduleService scheduleService;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        scheduleService = mock(ScheduleService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ScheduleController(scheduleService))
+                .setControllerAdvice(new ApplicationControllerAdvice())
+                .build();
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Test
+    void createRule_shouldReturnCreatedRule() throws Exception {
+        ScheduleRuleDTO dto = new ScheduleRuleDTO();
+        dto.setDaysOfWeek(EnumSet.of(DayOfWeek.MONDAY));
+        dto.setStartTime(LocalTime.of(9, 0));
+        dto.setEndTime(LocalTime.of(17, 0));
+        ScheduleRuleDTO created = new ScheduleRuleDTO();
+        created.setId(1L);
+        when(scheduleService.createRule(any(ScheduleRuleDTO.class))).thenReturn(created);
+
+        mockMvc.perform(post("/api/schedules/rules")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void createRule_invalid_shouldReturnBadRequest() throws Exception {
+        when(scheduleService.createRule(any(ScheduleRuleDTO.class)))
+                .thenThrow(new IllegalArgumentException("Au moins un jour de la semaine est obligatoire."));
+
+        mockMvc.perform(post("/api/schedules/rules")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getMyRules_shouldReturnList() throws Exception {
+        ScheduleRuleDTO rule = new ScheduleRuleDTO();
+        rule.setId(2L);
+        when(scheduleService.getMyRules()).thenReturn(List.of(rule));
+
+        mockMvc.perform(get("/api/schedules/rules"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void deleteRule_shouldReturnNoContent() throws Exception {
+        mockMvc.perform(delete("/api/schedules/rules/3"))
+                .andExpect(status().isNoContent());
+
+        verify(scheduleService).deleteRule(3L);
+    }
+
+    @Test
+    void deleteRule_notFound_shouldReturn404() throws Exception {
+        doThrow(new ScheduleNotFoundException("Règle de disponibilité introuvable"))
+                .when(scheduleService).deleteRule(3L);
+
+        mockMvc.perform(delete("/api/schedules/rules/3"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("SCHEDULE_NOT_FOUND"));
+    }
+
+    @Test
+    void createException_shouldReturnCreatedException() throws Exception {
+        ScheduleExceptionDTO created = new ScheduleExceptionDTO();
+        created.setId(4L);
+        created.setType(ScheduleExceptionType.UNAVAILABLE);
+        when(scheduleService.createException(any(ScheduleExceptionDTO.class))).thenReturn(created);
+
+        mockMvc.perform(post("/api/schedules/exceptions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"UNAVAILABLE\",\"date\":\"2030-01-07\",\"startTime\":\"10:00\",\"endTime\":\"12:00\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(4))
+                .andExpect(jsonPath("$.type").value("UNAVAILABLE"));
+    }
+
+    @Test
+    void getMyExceptions_shouldPassRange() throws Exception {
+        when(scheduleService.getMyExceptions(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31)))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/schedules/exceptions")
+                .param("from", "2030-01-01")
+                .param("to", "2030-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+    }
+
+    @Test
+    void deleteException_shouldPassType() throws Exception {
+        mockMvc.perform(delete("/api/schedules/exceptions/5").param("type", "AVAILABLE"))
+                .andExpect(status().isNoContent());
+
+        verify(scheduleService).deleteException(5L, ScheduleExceptionType.AVAILABLE);
+    }
+
+    @Test
+    void getProviderAvailability_shouldReturnWindows() throws Exception {
+        LocalDate day = LocalDate.of(2030, 1, 7);
+        when(scheduleService.getProviderAvailability(9L, day, day.plusDays(6)))
+                .thenReturn(List.of(new AvailabilityWindowDTO(day, LocalTime.of(9, 0), LocalTime.of(17, 0))));
+
+        mockMvc.perform(get("/api/schedules/providers/9/availability")
+                .param("from", "2030-01-07")
+                .param("to", "2030-01-13"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").exists())
+                .andExpect(jsonPath("$[0].startTime").exists());
+    }
+}
@@ -0,0 +1,131 @@
+package com.mastere_project.vacances_tranquilles.controller;
+
+import com.mastere_project.vacances_tranquilles.exception.ApplicationControllerAdvice;
+import com.mastere_project.vacances_tranquilles.exception.InvalidStripeSignatureException;
+import com.mastere_project.vacances_tranquilles.exception.PaymentGatewayUnavailableException;
+import com.mastere_project.vacances_tranquilles.model.enums.PaymentConfirmationStatus;
+import com.mastere_project.vacances_tranquilles.service.StripeService;
+import com.mastere_project.vacances_tranquilles.service.StripeWebhookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class StripeControllerTest {
+
+    private static final String CONFIRM_BODY = "{\"sessionId\":\"cs_1\"}";
+
+    private MockMvc mockMvc;
+    private StripeService stripeService;
+    private StripeWebhookService stripeWebhookService;
+
+    @BeforeEach
+    void setUp() {
+        stripeService = mock(StripeService.class);
+        stripeWebhookService = mock(StripeWebhookService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StripeController(stripeService, stripeWebhookService))
+                .setControllerAdvice(new ApplicationControllerAdvice())
+                .build();
+    }
+
+    @Test
+    void createCheckoutSession_shouldAnswerAsynchronously() throws Exception {
+        when(stripeService.createCheckoutSession(any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("sessionId", "cs_1")));
+
+        MvcResult result = mockMvc.perform(post("/api/stripe/create-checkout-session")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"serviceId\":1}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessionId").value("cs_1"));
+    }
+
+    @Test
+    void createCheckoutSession_shouldReturn503_whenStripeIsUnavailable() throws Exception {
+        when(stripeService.createCheckoutSession(any())).thenReturn(CompletableFuture.failedFuture(
+                new PaymentGatewayUnavailableException("Service de paiement momentanément indisponible.")));
+
+        MvcResult result = mockMvc.perform(post("/api/stripe/create-checkout-session")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"serviceId\":1}"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.code").value("PAYMENT_GATEWAY_UNAVAILABLE"));
+    }
+
+    @Test
+    void webhook_shouldPassRawBodyAndSignature() throws Exception {
+        String payload = "{\"id\":\"evt_1\",\"type\":\"checkout.session.completed\"}";
+
+        mockMvc.perform(post("/api/stripe/webhook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Stripe-Signature", "t=1,v1=abc")
+                .content(payload))
+                .andExpect(status().isOk());
+
+        verify(stripeWebhookService).receive(payload, "t=1,v1=abc");
+    }
+
+    @Test
+    void webhook_shouldReturn400_whenSignatureIsInvalid() throws Exception {
+        doThrow(new InvalidStripeSignatureException("Signature Stripe invalide"))
+                .when(stripeWebhookService).receive("{}", null);
+
+        mockMvc.perform(post("/api/stripe/webhook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_STRIPE_SIGNATURE"));
+    }
+
+    @Test
+    void confirmReservation_shouldReturn200_whenConfirmed() throws Exception {
+        when(stripeService.confirmReservation("cs_1")).thenReturn(PaymentConfirmationStatus.CONFIRMED);
+
+        mockMvc.perform(post("/api/stripe/confirm-reservation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(CONFIRM_BODY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+    }
+
+    @Test
+    void confirmReservation_shouldReturn202_whilePending() throws Exception {
+        when(stripeService.confirmReservation("cs_1")).thenReturn(PaymentConfirmationStatus.PENDING);
+
+        mockMvc.perform(post("/api/stripe/confirm-reservation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(CONFIRM_BODY))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void confirmReservation_shouldReturn409_whenFailed() throws Exception {
+        when(stripeService.confirmReservation("cs_1")).thenReturn(PaymentConfirmationStatus.FAILED);
+
+        mockMvc.perform(post("/api/stripe/confirm-reservation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(CONFIRM_BODY))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("FAILED"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.mastere_project.vacances_tranquilles.controller;
+
+import com.mastere_project.vacances_tranquilles.repository.StripeEventRepository;
+import com.mastere_project.vacances_tranquilles.util.stripe.StripeEventStub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Webhook Stripe à travers toute la chaîne de sécurité : Stripe appelle sans en-tête
+ * Authorization, la requête doit atteindre le contrôleur et n'être jugée que sur sa signature.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "app.cors.allowed-origins=http://localhost",
+        "frontend.base.url=http://localhost",
+        "stripe.api.key=sk_test_unused",
+        "stripe.webhook.secret=" + StripeWebhookSecurityTest.WEBHOOK_SECRET,
+        "monitoring.username=monitoring",
+        "monitoring.password=monitoring",
+        "app.security.password.bcrypt-cost=4",
+        "app.stripe.gateway=fake",
+        "app.stripe.webhook.requeue-interval=PT1H",
+        "app.reservations.auto-close.enabled=false",
+        "app.payments.reconciliation.enabled=false"
+})
+class StripeWebhookSecurityTest {
+
+    static final String WEBHOOK_SECRET = "whsec_test_secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StripeEventRepository stripeEventRepository;
+
+    @Test
+    void signedWebhookWithoutAuthorization_isAccepted() throws Exception {
+        StripeEventStub.SignedEvent event = StripeEventStub.paidCheckout("evt_security_1", "cs_security_1",
+                StripeEventStub.reservationMetadata(), WEBHOOK_SECRET);
+
+        mockMvc.perform(post("/api/stripe/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Stripe-Signature", event.signature())
+                        .content(event.payload()))
+                .andExpect(status().isOk());
+
+        assertThat(stripeEventRepository.existsById("evt_security_1")).isTrue();
+    }
+
+    @Test
+    void webhookWithBadSignature_isRejectedByTheController() throws Exception {
+        String payload = StripeEventStub.paidCheckout("evt_security_2", "cs_security_2",
+                StripeEventStub.reservationMetadata(), WEBHOOK_SECRET).payload();
+
+        mockMvc.perform(post("/api/stripe/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Stripe-Signature", StripeEventStub.sign(payload, "whsec_other", Instant.now()))
+                        .content(payload))
+                .andExpect(status().isBadRequest());
+
+        assertThat(stripeEventRepository.existsById("evt_security_2")).isFalse();
+    }
+}
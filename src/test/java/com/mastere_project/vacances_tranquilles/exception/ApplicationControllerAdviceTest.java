@@ -75,6 +75,41 @@ class ApplicationControllerAdviceTest {
         assertThat(response.getBody().getMessage()).isEqualTo("Invalid argument");
     }
 
+    @Test
+    @DisplayName("handlePasswordHashingBusyException should return 503 with Retry-After")
+    void handlePasswordHashingBusyException_shouldReturn503() {
+        PasswordHashingBusyException ex = new PasswordHashingBusyException("Busy");
+        ResponseEntity<ErrorEntity> response = advice.handlePasswordHashingBusyException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo("SERVER_BUSY");
+    }
+
+    @Test
+    @DisplayName("handleInvalidStripeSignatureException should return 400")
+    void handleInvalidStripeSignatureException_shouldReturn400() {
+        InvalidStripeSignatureException ex = new InvalidStripeSignatureException("Signature Stripe invalide");
+        ResponseEntity<ErrorEntity> response = advice.handleInvalidStripeSignatureException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo("INVALID_STRIPE_SIGNATURE");
+    }
+
+    @Test
+    @DisplayName("handlePaymentGatewayUnavailableException should return 503 with Retry-After")
+    void handlePaymentGatewayUnavailableException_shouldReturn503() {
+        PaymentGatewayUnavailableException ex = new PaymentGatewayUnavailableException("Unavailable");
+        ResponseEntity<ErrorEntity> response = advice.handlePaymentGatewayUnavailableException(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("5");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo("PAYMENT_GATEWAY_UNAVAILABLE");
+    }
+
     @Test
     @DisplayName("handleAccountLockedException should return 423 and error entity")
     void handleAccountLockedException_shouldReturn423() {
@@ -214,6 +249,17 @@ class ApplicationControllerAdviceTest {
         assertThat(response.getBody().getMessage()).isEqualTo("Service introuvable");
     }
 
+    @Test
+    @DisplayName("handleScheduleNotFound should return 404 and error entity")
+    void handleScheduleNotFound_shouldReturn404() {
+        ScheduleNotFoundException ex = new ScheduleNotFoundException("Règle introuvable");
+        ResponseEntity<ErrorEntity> response = advice.handleScheduleNotFound(ex);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo("SCHEDULE_NOT_FOUND");
+        assertThat(response.getBody().getMessage()).isEqualTo("Règle introuvable");
+    }
+
     @Test
     @DisplayName("handleUserNotFound should return 404 and error entity")
     void handleUserNotFound_shouldReturn404() {
@@ -428,4 +474,15 @@ class ApplicationControllerAdviceTest {
         assertThat(response.getBody().getCode()).isEqualTo("REVIEW_ALREADY_EXISTS");
         assertThat(response.getBody().getMessage()).isEqualTo("Vous avez déjà créé un avis pour cette réservation");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("handleReservationSlotUnavailable should return 409 and error entity")
+    void handleReservationSlotUnavailable_shouldReturn409() {
+        ReservationSlotUnavailableException ex = new ReservationSlotUnavailableException("Ce créneau n'est plus disponible pour ce prestataire");
+        ResponseEntity<ErrorEntity> response = advice.handleReservationSlotUnavailable(ex);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo("RESERVATION_SLOT_UNAVAILABLE");
+        assertThat(response.getBody().getMessage()).isEqualTo("Ce créneau n'est plus disponible pour ce prestataire");
+    }
+}
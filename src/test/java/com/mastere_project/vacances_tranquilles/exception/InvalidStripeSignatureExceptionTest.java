@@ -0,0 +1,21 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidStripeSignatureExceptionTest {
+    @Test
+    void testMessage() {
+        String message = "Signature Stripe invalide";
+        InvalidStripeSignatureException exception = new InvalidStripeSignatureException(message);
+        assertEquals(message, exception.getMessage());
+    }
+
+    @Test
+    void testMessageAndCause() {
+        Throwable cause = new RuntimeException("cause");
+        InvalidStripeSignatureException exception = new InvalidStripeSignatureException("Signature Stripe invalide", cause);
+        assertEquals("Signature Stripe invalide", exception.getMessage());
+        assertSame(cause, exception.getCause());
+    }
+}
@@ -0,0 +1,13 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingBusyExceptionTest {
+    @Test
+    void testMessage() {
+        String message = "Serveur momentanément surchargé.";
+        PasswordHashingBusyException exception = new PasswordHashingBusyException(message);
+        assertEquals(message, exception.getMessage());
+    }
+}
@@ -0,0 +1,13 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentGatewayUnavailableExceptionTest {
+    @Test
+    void testMessage() {
+        String message = "Service de paiement momentanément indisponible.";
+        PaymentGatewayUnavailableException exception = new PaymentGatewayUnavailableException(message);
+        assertEquals(message, exception.getMessage());
+    }
+}
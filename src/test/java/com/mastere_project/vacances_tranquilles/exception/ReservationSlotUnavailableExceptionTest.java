@@ -0,0 +1,32 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationSlotUnavailableExceptionTest {
+
+    @Test
+    @DisplayName("Doit construire l'exception avec le message fourni")
+    void shouldCreateExceptionWithMessage() {
+        // Arrange
+        String message = "Ce créneau n'est plus disponible pour ce prestataire";
+
+        // Act
+        ReservationSlotUnavailableException exception = new ReservationSlotUnavailableException(message);
+
+        // Assert
+        assertEquals(message, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Le type doit bien être RuntimeException")
+    void shouldBeRuntimeException() {
+        // Act
+        ReservationSlotUnavailableException exception = new ReservationSlotUnavailableException("test");
+
+        // Assert
+        assertTrue(exception instanceof RuntimeException);
+    }
+}
@@ -0,0 +1,32 @@
+package com.mastere_project.vacances_tranquilles.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleNotFoundExceptionTest {
+
+    @Test
+    @DisplayName("Doit construire l'exception avec le message fourni")
+    void shouldCreateExceptionWithMessage() {
+        // Arrange
+        String message = "La règle de disponibilité demandée n'existe pas.";
+
+        // Act
+        ScheduleNotFoundException exception = new ScheduleNotFoundException(message);
+
+        // Assert
+        assertEquals(message, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Le type doit bien être RuntimeException")
+    void shouldBeRuntimeException() {
+        // Act
+        ScheduleNotFoundException exception = new ScheduleNotFoundException("test");
+
+        // Assert
+        assertTrue(exception instanceof RuntimeException);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mastere_project.vacances_tranquilles.mapper.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.ScheduleExceptionDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleRuleDTO;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleExceptionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleMapperImplTest {
+
+    private ScheduleMapperImpl mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ScheduleMapperImpl();
+    }
+
+    @Test
+    @DisplayName("Les conversions doivent retourner null pour une entrée null")
+    void conversions_ReturnNull_WhenInputIsNull() {
+        assertNull(mapper.toRuleDto(null));
+        assertNull(mapper.toRuleEntity(null));
+        assertNull(mapper.toExceptionDto((Schedule) null));
+        assertNull(mapper.toExceptionDto((ScheduleRule) null));
+    }
+
+    @Test
+    @DisplayName("toRuleEntity puis toRuleDto conservent tous les champs")
+    void ruleConversion_RoundTrips() {
+        ScheduleRuleDTO dto = new ScheduleRuleDTO();
+        dto.setId(3L);
+        dto.setDaysOfWeek(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        dto.setStartTime(LocalTime.of(9, 0));
+        dto.setEndTime(LocalTime.of(17, 0));
+        dto.setValidFrom(LocalDate.of(2030, 1, 1));
+        dto.setValidUntil(LocalDate.of(2030, 12, 31));
+
+        ScheduleRule entity = mapper.toRuleEntity(dto);
+
+        assertEquals(0b10001, entity.getDaysOfWeek());
+        assertEquals(dto, mapper.toRuleDto(entity));
+    }
+
+    @Test
+    @DisplayName("toRuleEntity accepte une liste de jours absente")
+    void toRuleEntity_HandlesMissingDays() {
+        assertEquals(0, mapper.toRuleEntity(new ScheduleRuleDTO()).getDaysOfWeek());
+    }
+
+    @Test
+    @DisplayName("Une plage bloquée devient une exception UNAVAILABLE")
+    void toExceptionDto_FromSchedule() {
+        Schedule schedule = new Schedule(4L, LocalDate.of(2030, 1, 2), LocalTime.of(10, 0), LocalTime.of(11, 0), null);
+
+        ScheduleExceptionDTO dto = mapper.toExceptionDto(schedule);
+
+        assertEquals(4L, dto.getId());
+        assertEquals(ScheduleExceptionType.UNAVAILABLE, dto.getType());
+        assertEquals(LocalDate.of(2030, 1, 2), dto.getDate());
+        assertEquals(LocalTime.of(10, 0), dto.getStartTime());
+        assertEquals(LocalTime.of(11, 0), dto.getEndTime());
+    }
+
+    @Test
+    @DisplayName("Une règle d'une journée devient une exception AVAILABLE")
+    void toExceptionDto_FromRule() {
+        LocalDate day = LocalDate.of(2030, 1, 5);
+        ScheduleRule rule = new ScheduleRule(5L, 1 << 5, LocalTime.of(8, 0), LocalTime.of(12, 0), day, day, null);
+
+        ScheduleExceptionDTO dto = mapper.toExceptionDto(rule);
+
+        assertEquals(5L, dto.getId());
+        assertEquals(ScheduleExceptionType.AVAILABLE, dto.getType());
+        assertEquals(day, dto.getDate());
+    }
+}
@@ -0,0 +1,55 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadState;
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadStateId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour ConversationReadStateRepository : avancée du dernier message lu.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ConversationReadStateRepositoryTest {
+
+    private static final ConversationReadStateId ID = new ConversationReadStateId(3L, 7L);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ConversationReadStateRepository readStateRepository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persistAndFlush(new ConversationReadState(ID, 10L));
+    }
+
+    @Test
+    void advance_ShouldMoveWatermarkForward() {
+        assertThat(readStateRepository.advance(3L, 7L, 15L)).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(readStateRepository.findById(ID).orElseThrow().getLastReadMessageId()).isEqualTo(15L);
+    }
+
+    @Test
+    void advance_ShouldNeverMoveWatermarkBackward() {
+        assertThat(readStateRepository.advance(3L, 7L, 10L)).isZero();
+        assertThat(readStateRepository.advance(3L, 7L, 4L)).isZero();
+
+        entityManager.clear();
+        assertThat(readStateRepository.findById(ID).orElseThrow().getLastReadMessageId()).isEqualTo(10L);
+    }
+
+    @Test
+    void advance_ShouldReturnZero_WhenStateIsMissing() {
+        assertThat(readStateRepository.advance(3L, 8L, 15L)).isZero();
+    }
+}
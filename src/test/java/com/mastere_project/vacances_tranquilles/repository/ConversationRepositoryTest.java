@@ -2,6 +2,9 @@ package com.mastere_project.vacances_tranquilles.repository;
 
 import com.mastere_project.vacances_tranquilles.dto.ConversationSummaryDto;
 import com.mastere_project.vacances_tranquilles.entity.Conversation;
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadState;
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadStateId;
+import com.mastere_project.vacances_tranquilles.entity.Message;
 import com.mastere_project.vacances_tranquilles.entity.Reservation;
 import com.mastere_project.vacances_tranquilles.entity.Service;
 import com.mastere_project.vacances_tranquilles.entity.User;
@@ -15,6 +18,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
@@ -124,6 +128,70 @@ class ConversationRepositoryTest {
         assertEquals(LocalTime.of(10, 0), dto.startTime());
     }
 
+    @Test
+    void findConversationsForUser_shouldCountMessagesAfterReadWatermark() {
+        Message first = persistMessage(provider, "Bonjour");
+        persistMessage(provider, "Êtes-vous disponible ?");
+        persistMessage(client, "Oui");
+
+        assertEquals(2, conversationRepository.findConversationsForUser(client.getId()).get(0).unreadCount());
+        assertEquals(1, conversationRepository.findConversationsForUser(provider.getId()).get(0).unreadCount());
+
+        entityManager.persistAndFlush(new ConversationReadState(
+                new ConversationReadStateId(conversation.getId(), client.getId()), first.getId()));
+
+        assertEquals(1, conversationRepository.findConversationsForUser(client.getId()).get(0).unreadCount());
+    }
+
+    @Test
+    void findConversationsForUser_shouldReturnLastMessagePreviewAndActivity() {
+        persistMessage(provider, "Bonjour");
+        Message last = persistMessage(client, "x".repeat(150));
+
+        ConversationSummaryDto dto = conversationRepository.findConversationsForUser(client.getId()).get(0);
+
+        assertEquals("x".repeat(100), dto.lastMessagePreview());
+        assertEquals(last.getSentAt().withNano(0), dto.lastActivityAt().withNano(0));
+    }
+
+    @Test
+    void findConversationsForUser_shouldFallBackToCreationDate_whenNoMessages() {
+        ConversationSummaryDto dto = conversationRepository.findConversationsForUser(client.getId()).get(0);
+
+        assertNull(dto.lastMessagePreview());
+        assertEquals(0, dto.unreadCount());
+        assertEquals(conversation.getCreatedAt().withNano(0), dto.lastActivityAt().withNano(0));
+    }
+
+    @Test
+    void findConversationsForUser_shouldOrderByLastActivity() {
+        Conversation recent = new Conversation();
+        recent.setUser1(client);
+        recent.setUser2(provider);
+        recent = entityManager.persistAndFlush(recent);
+        Reservation recentReservation = new Reservation();
+        recentReservation.setClient(client);
+        recentReservation.setProvider(provider);
+        recentReservation.setService(service);
+        recentReservation.setConversation(recent);
+        recentReservation.setReservationDate(LocalDate.now().minusDays(10));
+        recentReservation.setStartDate(LocalTime.of(8, 0));
+        recentReservation.setEndDate(LocalTime.of(9, 0));
+        entityManager.persistAndFlush(recentReservation);
+
+        Message message = new Message();
+        message.setConversation(recent);
+        message.setSender(provider);
+        message.setContent("Nouveau message");
+        message.setSentAt(LocalDateTime.now().plusHours(1));
+        entityManager.persistAndFlush(message);
+
+        List<ConversationSummaryDto> result = conversationRepository.findConversationsForUser(client.getId());
+
+        assertEquals(List.of(recent.getId(), conversation.getId()),
+                result.stream().map(ConversationSummaryDto::conversationId).toList());
+    }
+
     @Test
     void findConversationsForUser_shouldReturnEmptyList_whenUserHasNoConversations() {
         User otherUser = new User();
@@ -228,7 +296,7 @@ class ConversationRepositoryTest {
     }
 
     @Test
-    void findConversationsForUser_shouldOrderByDateDesc() {
+    void findConversationsForUser_shouldOrderByDateDesc_whenActivityIsEqual() {
         // Créer une deuxième réservation avec une date antérieure
         Reservation oldReservation = new Reservation();
         oldReservation.setClient(client);
@@ -242,6 +310,8 @@ class ConversationRepositoryTest {
         Conversation oldConversation = new Conversation();
         oldConversation.setUser1(client);
         oldConversation.setUser2(provider);
+        // Même dernière activité : la date de réservation départage les conversations
+        oldConversation.setCreatedAt(conversation.getCreatedAt());
         oldConversation = entityManager.persistAndFlush(oldConversation);
         oldReservation.setConversation(oldConversation);
         entityManager.persistAndFlush(oldReservation);
@@ -259,4 +329,12 @@ class ConversationRepositoryTest {
         assertEquals(oldConversation.getId(), result.get(1).conversationId());
         assertEquals(LocalDate.now().minusDays(1), result.get(1).reservationDate());
     }
+
+    private Message persistMessage(User sender, String content) {
+        Message message = new Message();
+        message.setConversation(conversation);
+        message.setSender(sender);
+        message.setContent(content);
+        return entityManager.persistAndFlush(message);
+    }
 }
@@ -0,0 +1,78 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.JobLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour JobLeaseRepository : prise, prolongation et libération d'un bail, avancement de la tâche.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class JobLeaseRepositoryTest {
+
+    private static final String JOB = "reservation-auto-close";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        entityManager.persistAndFlush(new JobLease(JOB, "node-a", Instant.EPOCH));
+    }
+
+    @Test
+    void acquire_ShouldTakeExpiredLease() {
+        assertThat(jobLeaseRepository.acquire(JOB, "node-a", now, now.plusSeconds(600))).isEqualTo(1);
+
+        entityManager.clear();
+        JobLease lease = jobLeaseRepository.findById(JOB).orElseThrow();
+        assertThat(lease.getOwner()).isEqualTo("node-a");
+        assertThat(lease.getLockedUntil()).isEqualTo(now.plusSeconds(600));
+    }
+
+    @Test
+    void acquire_ShouldRefuseLeaseHeldByAnotherNode() {
+        jobLeaseRepository.acquire(JOB, "node-a", now, now.plusSeconds(600));
+
+        assertThat(jobLeaseRepository.acquire(JOB, "node-b", now.plusSeconds(1), now.plusSeconds(601))).isZero();
+        assertThat(jobLeaseRepository.acquire(JOB, "node-a", now.plusSeconds(1), now.plusSeconds(601))).isEqualTo(1);
+    }
+
+    @Test
+    void release_ShouldLetAnotherNodeTakeLease() {
+        jobLeaseRepository.acquire(JOB, "node-a", now, now.plusSeconds(600));
+
+        assertThat(jobLeaseRepository.release(JOB, "node-b", now.plusSeconds(1))).isZero();
+        assertThat(jobLeaseRepository.release(JOB, "node-a", now.plusSeconds(1))).isEqualTo(1);
+        assertThat(jobLeaseRepository.acquire(JOB, "node-b", now.plusSeconds(2), now.plusSeconds(602))).isEqualTo(1);
+    }
+
+    @Test
+    void markCompletedThrough_ShouldOnlyBeRecordedByLeaseOwner() {
+        jobLeaseRepository.acquire(JOB, "node-a", now, now.plusSeconds(600));
+
+        assertThat(jobLeaseRepository.markCompletedThrough(JOB, "node-b", LocalDate.of(2030, 1, 7))).isZero();
+        assertThat(jobLeaseRepository.markCompletedThrough(JOB, "node-a", LocalDate.of(2030, 1, 7))).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(jobLeaseRepository.findById(JOB).orElseThrow().getCompletedThrough())
+                .isEqualTo(LocalDate.of(2030, 1, 7));
+    }
+}
@@ -0,0 +1,105 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.LoginAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour LoginAttemptRepository : comptage des échecs par fenêtre, blocage et purge.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class LoginAttemptRepositoryTest {
+
+    private static final String KEY = "victim@test.com";
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LoginAttemptRepository loginAttemptRepository;
+
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        entityManager.persistAndFlush(new LoginAttempt(KEY, 0, Instant.EPOCH, null, now.plus(WINDOW)));
+    }
+
+    @Test
+    void recordFailure_ShouldOpenWindowThenAccumulate() {
+        recordFailure(now);
+        recordFailure(now.plusSeconds(1));
+
+        LoginAttempt attempt = reload();
+        assertThat(attempt.getFailures()).isEqualTo(2);
+        assertThat(attempt.getWindowStart()).isEqualTo(now);
+        assertThat(attempt.getExpiresAt()).isEqualTo(now.plus(WINDOW));
+    }
+
+    @Test
+    void recordFailure_ShouldRestartWindow_whenPreviousWindowIsClosed() {
+        recordFailure(now);
+        recordFailure(now.plusSeconds(1));
+
+        Instant later = now.plus(WINDOW).plusSeconds(1);
+        recordFailure(later);
+
+        LoginAttempt attempt = reload();
+        assertThat(attempt.getFailures()).isEqualTo(1);
+        assertThat(attempt.getWindowStart()).isEqualTo(later);
+    }
+
+    @Test
+    void blockIfExceeded_ShouldBlockOnlyAtThreshold() {
+        recordFailure(now);
+        assertThat(loginAttemptRepository.blockIfExceeded(KEY, 2, now.plusSeconds(600))).isZero();
+
+        recordFailure(now.plusSeconds(1));
+        assertThat(loginAttemptRepository.blockIfExceeded(KEY, 2, now.plusSeconds(600))).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(loginAttemptRepository.existsByThrottleKeyAndBlockedUntilAfter(KEY, now.plusSeconds(2))).isTrue();
+        assertThat(loginAttemptRepository.existsByThrottleKeyAndBlockedUntilAfter(KEY, now.plusSeconds(600))).isFalse();
+        // Un échec pendant le blocage n'est pas compté
+        assertThat(loginAttemptRepository.recordFailure(KEY, now.plusSeconds(3), now.plusSeconds(3).minus(WINDOW),
+                now.plusSeconds(3).plus(WINDOW))).isZero();
+    }
+
+    @Test
+    void deleteExpired_ShouldKeepLiveEntries() {
+        entityManager.persistAndFlush(new LoginAttempt("random@test.com", 1, now.minus(WINDOW), null, now));
+
+        assertThat(loginAttemptRepository.deleteExpired(now)).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(loginAttemptRepository.findAll()).extracting(LoginAttempt::getThrottleKey).containsExactly(KEY);
+    }
+
+    @Test
+    void deleteByKey_ShouldRemoveEntry() {
+        assertThat(loginAttemptRepository.deleteByKey(KEY)).isEqualTo(1);
+        assertThat(loginAttemptRepository.deleteByKey(KEY)).isZero();
+    }
+
+    private void recordFailure(Instant at) {
+        assertThat(loginAttemptRepository.recordFailure(KEY, at, at.minus(WINDOW), at.plus(WINDOW))).isEqualTo(1);
+    }
+
+    private LoginAttempt reload() {
+        entityManager.clear();
+        return loginAttemptRepository.findById(KEY).orElseThrow();
+    }
+}
@@ -2,14 +2,18 @@ package com.mastere_project.vacances_tranquilles.repository;
 
 import com.mastere_project.vacances_tranquilles.dto.MessageResponseDTO;
 import com.mastere_project.vacances_tranquilles.entity.Conversation;
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadState;
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadStateId;
 import com.mastere_project.vacances_tranquilles.entity.Message;
 import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.ReadWatermark;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
@@ -151,7 +155,8 @@ class MessageRepositoryTest {
         MessageResponseDTO thirdMessage = result.get(2);
         assertEquals("John Doe", thirdMessage.getSenderName());
         assertEquals("Troisième message", thirdMessage.getContent());
-        assertEquals(true, thirdMessage.getIsRead());
+        // L'ancien indicateur de lecture n'est plus lu : sans état de lecture, rien n'est lu
+        assertEquals(false, thirdMessage.getIsRead());
         assertEquals("John Doe", thirdMessage.getMyName());
     }
 
@@ -170,70 +175,50 @@ class MessageRepositoryTest {
     }
 
     @Test
-    void markMessagesAsRead_shouldMarkUnreadMessagesAsRead() {
-        // Vérifier l'état initial
-        List<Message> initialMessages = messageRepository.findByConversationIdOrderBySentAtAsc(conversation.getId());
-        long unreadCount = initialMessages.stream().filter(m -> !m.isRead()).count();
-        assertEquals(2, unreadCount); // message1 et message2 sont non lus
+    void findMessagesDTOByConversationId_shouldDeriveReadFlagFromRecipientWatermark() {
+        // Le destinataire a lu jusqu'au premier message, l'expéditeur jusqu'au deuxième
+        entityManager.persistAndFlush(new ConversationReadState(
+                new ConversationReadStateId(conversation.getId(), receiver.getId()), message1.getId()));
+        entityManager.persistAndFlush(new ConversationReadState(
+                new ConversationReadStateId(conversation.getId(), sender.getId()), message2.getId()));
 
-        // Marquer comme lus les messages non lus envoyés par l'autre utilisateur
-        int updatedCount = messageRepository.markMessagesAsRead(conversation.getId(), sender.getId());
+        List<MessageResponseDTO> result = messageRepository.findMessagesDTOByConversationId(conversation.getId(), "John Doe");
 
-        assertEquals(1, updatedCount); // Seul message2 (envoyé par receiver) devrait être marqué comme lu
-        
-        // Vérifier que les messages ont été mis à jour
-        entityManager.clear(); // Vider le cache pour recharger depuis la DB
-        List<Message> updatedMessages = messageRepository.findByConversationIdOrderBySentAtAsc(conversation.getId());
-        
-        // message1 (envoyé par sender) devrait rester non lu
-        Message message1Updated = updatedMessages.stream()
-                .filter(m -> m.getId().equals(message1.getId()))
-                .findFirst()
-                .orElse(null);
-        assertNotNull(message1Updated);
-        assertFalse(message1Updated.isRead());
-        
-        // message2 (envoyé par receiver) devrait être marqué comme lu
-        Message message2Updated = updatedMessages.stream()
-                .filter(m -> m.getId().equals(message2.getId()))
-                .findFirst()
-                .orElse(null);
-        assertNotNull(message2Updated);
-        assertTrue(message2Updated.isRead());
-        
-        // message3 (déjà lu) devrait rester lu
-        Message message3Updated = updatedMessages.stream()
-                .filter(m -> m.getId().equals(message3.getId()))
-                .findFirst()
-                .orElse(null);
-        assertNotNull(message3Updated);
-        assertTrue(message3Updated.isRead());
+        assertEquals(3, result.size());
+        assertTrue(result.get(0).getIsRead());  // message1 de John, lu par Jane
+        assertTrue(result.get(1).getIsRead());  // message2 de Jane, lu par John
+        assertFalse(result.get(2).getIsRead()); // message3 de John, pas encore lu par Jane
     }
 
     @Test
-    void markMessagesAsRead_shouldReturnZero_whenNoUnreadMessages() {
-        // Marquer tous les messages comme lus
-        messageRepository.markMessagesAsRead(conversation.getId(), sender.getId());
-        entityManager.clear();
+    void findMessagesDTOByConversationId_shouldReturnUnread_whenNoWatermark() {
+        List<MessageResponseDTO> result = messageRepository.findMessagesDTOByConversationId(conversation.getId(), "John Doe");
 
-        // Essayer de marquer à nouveau comme lus
-        int updatedCount = messageRepository.markMessagesAsRead(conversation.getId(), sender.getId());
+        assertTrue(result.stream().noneMatch(MessageResponseDTO::getIsRead));
+    }
 
-        
-        assertEquals(0, updatedCount);
+    @Test
+    void findLatestMessageId_shouldReturnLastMessage() {
+        assertEquals(message3.getId(), messageRepository.findLatestMessageId(conversation.getId()));
     }
 
     @Test
-    void markMessagesAsRead_shouldReturnZero_whenNoMessages() {
-        // Créer une conversation sans messages
+    void findLatestMessageId_shouldReturnNull_whenNoMessages() {
         Conversation emptyConversation = new Conversation();
         emptyConversation.setUser1(sender);
         emptyConversation.setUser2(receiver);
         emptyConversation = entityManager.persistAndFlush(emptyConversation);
 
-        int updatedCount = messageRepository.markMessagesAsRead(emptyConversation.getId(), sender.getId());
+        assertNull(messageRepository.findLatestMessageId(emptyConversation.getId()));
+    }
 
-        assertEquals(0, updatedCount);
+    @Test
+    void findReadWatermarks_shouldReturnLastFlaggedMessagePerReader() {
+        // Seul message3 (envoyé par John) porte l'ancien indicateur : Jane l'a lu
+        List<ReadWatermark> result = messageRepository.findReadWatermarks();
+
+        assertEquals(List.of(new ReadWatermark(conversation.getId(), receiver.getId(), message3.getId())), result);
+        assertTrue(messageRepository.existsByReadTrue());
     }
 
     @Test
@@ -246,4 +231,40 @@ class MessageRepositoryTest {
         assertTrue(result.get(0).getSentAt().isBefore(result.get(1).getSentAt()));
         assertTrue(result.get(1).getSentAt().isBefore(result.get(2).getSentAt()));
     }
+
+    @Test
+    void findMessagesDTOAfterId_shouldReturnOnlyNewerMessages() {
+        List<MessageResponseDTO> result = messageRepository.findMessagesDTOAfterId(conversation.getId(),
+                message1.getId(), "John Doe", PageRequest.of(0, 10));
+
+        assertEquals(List.of(message2.getId(), message3.getId()),
+                result.stream().map(MessageResponseDTO::getId).toList());
+        assertEquals("Jane Smith", result.get(0).getSenderName());
+        assertEquals("John Doe", result.get(0).getMyName());
+    }
+
+    @Test
+    void findMessagesDTOAfterId_shouldReturnEmptyList_whenUpToDate() {
+        List<MessageResponseDTO> result = messageRepository.findMessagesDTOAfterId(conversation.getId(),
+                message3.getId(), "John Doe", PageRequest.of(0, 10));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findMessagesDTOBeforeId_shouldReturnLatestMessages_whenNoCursor() {
+        List<MessageResponseDTO> result = messageRepository.findMessagesDTOBeforeId(conversation.getId(),
+                null, "John Doe", PageRequest.of(0, 2));
+
+        assertEquals(List.of(message3.getId(), message2.getId()),
+                result.stream().map(MessageResponseDTO::getId).toList());
+    }
+
+    @Test
+    void findMessagesDTOBeforeId_shouldPageBackThroughHistory() {
+        List<MessageResponseDTO> result = messageRepository.findMessagesDTOBeforeId(conversation.getId(),
+                message3.getId(), "John Doe", PageRequest.of(0, 1));
+
+        assertEquals(List.of(message2.getId()), result.stream().map(MessageResponseDTO::getId).toList());
+    }
 }
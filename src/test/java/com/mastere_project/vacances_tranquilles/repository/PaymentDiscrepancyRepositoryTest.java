@@ -0,0 +1,49 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.PaymentDiscrepancy;
+import com.mastere_project.vacances_tranquilles.model.enums.PaymentDiscrepancyType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour PaymentDiscrepancyRepository : remplacement des écarts d'une journée.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class PaymentDiscrepancyRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PaymentDiscrepancyRepository discrepancyRepository;
+
+    @Test
+    void deleteByReconciliationDate_ShouldOnlyRemoveThatDay() {
+        entityManager.persist(discrepancy(DAY, "cs_1"));
+        entityManager.persist(discrepancy(DAY, "cs_2"));
+        entityManager.persist(discrepancy(DAY.minusDays(1), "cs_0"));
+        entityManager.flush();
+
+        assertThat(discrepancyRepository.deleteByReconciliationDate(DAY)).isEqualTo(2);
+
+        assertThat(discrepancyRepository.findByReconciliationDateOrderById(DAY)).isEmpty();
+        assertThat(discrepancyRepository.findByReconciliationDateOrderById(DAY.minusDays(1)))
+                .extracting(PaymentDiscrepancy::getStripeSessionId).containsExactly("cs_0");
+    }
+
+    private static PaymentDiscrepancy discrepancy(LocalDate day, String sessionId) {
+        return new PaymentDiscrepancy(null, day, PaymentDiscrepancyType.MISSING_PAYMENT, sessionId, null, 10000L,
+                null, Instant.now());
+    }
+}
@@ -0,0 +1,97 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour PaymentRepository : lecture par sessions Stripe, marquage et reprise des
+ * paiements non retrouvés par lots.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class PaymentRepositoryTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Payment first;
+    private Payment second;
+    private Payment third;
+
+    @BeforeEach
+    void setUp() {
+        first = entityManager.persist(payment("cs_1", DAY.plusHours(9)));
+        second = entityManager.persist(payment("cs_2", DAY.plusHours(10)));
+        third = entityManager.persist(payment("cs_3", DAY.plusHours(11)));
+        entityManager.persist(payment("cs_next_day", DAY.plusDays(1).plusHours(1)));
+        entityManager.persist(payment(null, DAY.plusHours(12)));
+        entityManager.flush();
+    }
+
+    @Test
+    void findByStripeSessionIdIn_ShouldReturnOnlyRequestedSessions() {
+        List<Payment> payments = paymentRepository.findByStripeSessionIdIn(List.of("cs_1", "cs_3", "cs_unknown"));
+
+        assertThat(payments).extracting(Payment::getStripeSessionId).containsExactlyInAnyOrder("cs_1", "cs_3");
+    }
+
+    @Test
+    void findUnreconciled_ShouldSkipMarkedPayments_andPageById() {
+        Instant runStartedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        assertThat(paymentRepository.markReconciled(List.of(second.getId()), runStartedAt)).isEqualTo(1);
+        entityManager.clear();
+
+        List<Payment> firstPage = paymentRepository.findUnreconciled(DAY, DAY.plusDays(1), runStartedAt, 0L,
+                PageRequest.of(0, 1));
+        List<Payment> nextPage = paymentRepository.findUnreconciled(DAY, DAY.plusDays(1), runStartedAt,
+                firstPage.get(0).getId(), PageRequest.of(0, 1));
+        List<Payment> lastPage = paymentRepository.findUnreconciled(DAY, DAY.plusDays(1), runStartedAt,
+                nextPage.get(0).getId(), PageRequest.of(0, 1));
+
+        assertThat(firstPage).extracting(Payment::getId).containsExactly(first.getId());
+        assertThat(nextPage).extracting(Payment::getId).containsExactly(third.getId());
+        assertThat(lastPage).isEmpty();
+    }
+
+    @Test
+    void findUnreconciled_ShouldIgnoreMarksOfPreviousRuns() {
+        Instant previousRun = Instant.now().minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        paymentRepository.markReconciled(List.of(first.getId(), second.getId(), third.getId()), previousRun);
+        entityManager.clear();
+
+        List<Payment> payments = paymentRepository.findUnreconciled(DAY, DAY.plusDays(1),
+                Instant.now().truncatedTo(ChronoUnit.MILLIS), 0L, PageRequest.of(0, 10));
+
+        assertThat(payments).extracting(Payment::getStripeSessionId).containsExactly("cs_1", "cs_2", "cs_3");
+    }
+
+    private static Payment payment(String sessionId, LocalDateTime paymentDate) {
+        Payment payment = new Payment();
+        payment.setStatus("PAID");
+        payment.setAmount(new BigDecimal("100.00"));
+        payment.setCurrency("eur");
+        payment.setPaymentDate(paymentDate);
+        payment.setPaymentMethod("STRIPE_CHECKOUT");
+        payment.setStripeSessionId(sessionId);
+        return payment;
+    }
+}
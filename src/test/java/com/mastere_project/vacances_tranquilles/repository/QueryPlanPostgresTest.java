@@ -0,0 +1,185 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, sur une base PostgreSQL locale créée par les migrations Flyway puis peuplée
+ * (db/plan-seed.sql), qu'aucune requête des repositories sur les chemins chauds ne parcourt
+ * une table séquentiellement. Les parcours sont lus dans pg_stat_xact_user_tables, avant et
+ * après chaque requête de la transaction du test.
+ * Lancement sur une base jetable, vidée à chaque exécution :
+ * {@code PLAN_TEST_DATASOURCE_URL=jdbc:postgresql://localhost:5432/plan_test mvn test -Dtest=QueryPlanPostgresTest}
+ * (utilisateur et mot de passe : PLAN_TEST_DATASOURCE_USERNAME, PLAN_TEST_DATASOURCE_PASSWORD).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "PLAN_TEST_DATASOURCE_URL", matches = ".+")
+@TestPropertySource(properties = {
+        "spring.datasource.url=${PLAN_TEST_DATASOURCE_URL}",
+        "spring.datasource.username=${PLAN_TEST_DATASOURCE_USERNAME:postgres}",
+        "spring.datasource.password=${PLAN_TEST_DATASOURCE_PASSWORD:}",
+        "spring.flyway.enabled=true",
+        "spring.flyway.clean-disabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class QueryPlanPostgresTest {
+
+    private static final long CLIENT_ID = 4001L;
+    private static final long PROVIDER_ID = 4002L;
+    private static final long CONVERSATION_ID = 1234L;
+    private static final LocalDate DATE = LocalDate.now().plusDays(3);
+
+    @TestConfiguration
+    static class SeededDatabase {
+
+        /**
+         * Repart d'un schéma vide à chaque exécution : migrations puis jeu de données.
+         */
+        @Bean
+        FlywayMigrationStrategy cleanMigrateAndSeed() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+                new ResourceDatabasePopulator(new ClassPathResource("db/plan-seed.sql"))
+                        .execute(flyway.getConfiguration().getDataSource());
+            };
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Test
+    void reservationQueries_ShouldUseIndexes() {
+        assertNoSeqScan(() -> reservationRepository.findByClientId(CLIENT_ID));
+        assertNoSeqScan(() -> reservationRepository.findByProviderId(PROVIDER_ID));
+        assertNoSeqScan(() -> reservationRepository.findPageByClientId(CLIENT_ID, null, null, null, null, null,
+                null, PageRequest.of(0, 20)));
+        assertNoSeqScan(() -> reservationRepository.findPageByProviderId(PROVIDER_ID, ReservationStatus.CLOSED,
+                DATE.minusYears(1), DATE, DATE, LocalTime.NOON, 150_000L, PageRequest.of(0, 20)));
+        assertNoSeqScan(() -> reservationRepository.existsOverlapping(PROVIDER_ID, DATE, LocalTime.of(10, 0),
+                LocalTime.of(11, 0), ReservationStatus.CANCELLED));
+        assertNoSeqScan(() -> reservationRepository.findByConversationId(CONVERSATION_ID));
+        assertNoSeqScan(() -> reservationRepository.findByStripeSessionId("cs_unknown"));
+        assertNoSeqScan(() -> reservationRepository.findFinishedIds(ReservationStatus.IN_PROGRESS,
+                LocalDate.now().minusYears(1).plusDays(2), LocalTime.NOON, PageRequest.of(0, 500)));
+    }
+
+    @Test
+    void messageQueries_ShouldUseIndexes() {
+        assertNoSeqScan(() -> messageRepository.findByConversationIdOrderBySentAtAsc(CONVERSATION_ID));
+        assertNoSeqScan(() -> messageRepository.findMessagesDTOByConversationId(CONVERSATION_ID, "Moi"));
+        assertNoSeqScan(() -> messageRepository.findMessagesDTOBeforeId(CONVERSATION_ID, null, "Moi",
+                PageRequest.of(0, 50)));
+        assertNoSeqScan(() -> messageRepository.findMessagesDTOAfterId(CONVERSATION_ID, 300_000L, "Moi",
+                PageRequest.of(0, 50)));
+        assertNoSeqScan(() -> messageRepository.findLatestMessageId(CONVERSATION_ID));
+        assertNoSeqScan(() -> conversationRepository.findConversationsForUser(CLIENT_ID));
+        assertNoSeqScan(() -> conversationRepository.findByUser1IdOrUser2Id(CLIENT_ID, CLIENT_ID));
+        assertNoSeqScan(() -> conversationRepository.findByUser2IdAndUser1Id(PROVIDER_ID, CLIENT_ID));
+    }
+
+    @Test
+    void scheduleQueries_ShouldUseIndexes() {
+        assertNoSeqScan(() -> scheduleRepository.findByProviderIdAndDate(PROVIDER_ID, DATE));
+        assertNoSeqScan(() -> scheduleRepository.findByProviderIdAndDateBetween(PROVIDER_ID, DATE,
+                DATE.plusDays(7)));
+        assertNoSeqScan(() -> scheduleRepository.existsOverlapping(PROVIDER_ID, DATE, LocalTime.of(10, 0),
+                LocalTime.of(11, 0)));
+    }
+
+    @Test
+    void reviewQueries_ShouldUseIndexes() {
+        assertNoSeqScan(() -> reviewRepository.findByReviewedId(PROVIDER_ID));
+        assertNoSeqScan(() -> reviewRepository.findPageByReviewedId(PROVIDER_ID, null, null, PageRequest.of(0, 20)));
+        assertNoSeqScan(() -> reviewRepository.findPageWithReviewerByReviewedId(PROVIDER_ID,
+                LocalDateTime.now().minusDays(10), 50_000L, PageRequest.of(0, 20)));
+        assertNoSeqScan(() -> reviewRepository.findPageByReviewerId(CLIENT_ID, null, null, PageRequest.of(0, 20)));
+        assertNoSeqScan(() -> reviewRepository.existsByReservationIdAndReviewerId(4000L, CLIENT_ID));
+        assertNoSeqScan(() -> reviewRepository.findByReservationId(4000L));
+    }
+
+    @Test
+    void userAndServiceQueries_ShouldUseIndexes() {
+        assertNoSeqScan(() -> userRepository.findByEmail("user4001@example.com"));
+        assertNoSeqScan(() -> serviceRepository.findByProviderId(PROVIDER_ID));
+        assertNoSeqScan(() -> serviceRepository.findAvailableServices("CAT1", "00042", DATE, LocalTime.of(10, 0),
+                LocalTime.of(11, 0)));
+        assertNoSeqScan(() -> serviceRepository.findAvailableServices(null, "00042", DATE, LocalTime.of(10, 0),
+                LocalTime.of(11, 0)));
+        assertNoSeqScan(() -> serviceRepository.findAvailableServicesBitmap("CAT1", "00042", DATE,
+                LocalTime.of(10, 0), LocalTime.of(11, 0), 0xF0L, 0L));
+    }
+
+    /**
+     * Exécute une requête et vérifie qu'elle n'a parcouru séquentiellement aucune table.
+     */
+    private void assertNoSeqScan(Runnable query) {
+        Map<String, Long> before = seqScans();
+        query.run();
+        Map<String, Long> after = seqScans();
+        List<String> scanned = after.entrySet().stream()
+                .filter(entry -> entry.getValue() > before.getOrDefault(entry.getKey(), 0L))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        assertThat(scanned).as("tables parcourues séquentiellement").isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> seqScans() {
+        List<Object[]> rows = entityManager
+                .createNativeQuery("SELECT relname, seq_scan FROM pg_stat_xact_user_tables")
+                .getResultList();
+        Map<String, Long> scans = new HashMap<>();
+        for (Object[] row : rows) {
+            scans.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return scans;
+    }
+}
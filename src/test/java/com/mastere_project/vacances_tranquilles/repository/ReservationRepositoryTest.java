@@ -1,20 +1,25 @@
 package com.mastere_project.vacances_tranquilles.repository;
 
+import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
 import com.mastere_project.vacances_tranquilles.entity.Reservation;
 import com.mastere_project.vacances_tranquilles.entity.User;
 import com.mastere_project.vacances_tranquilles.entity.Service;
 import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
+import com.mastere_project.vacances_tranquilles.util.pagination.ReservationCursor;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -273,6 +278,164 @@ class ReservationRepositoryTest {
         assertThat(count).isEqualTo(3);
     }
 
+    @Test
+    void existsOverlapping_ShouldDetectOverlappingReservation() {
+        LocalDate date = LocalDate.of(2024, 1, 15);
+
+        assertThat(reservationRepository.existsOverlapping(provider.getId(), date,
+                LocalTime.of(11, 0), LocalTime.of(13, 0), ReservationStatus.CANCELLED)).isTrue();
+        assertThat(reservationRepository.existsOverlapping(provider.getId(), date,
+                LocalTime.of(9, 0), LocalTime.of(14, 0), ReservationStatus.CANCELLED)).isTrue();
+    }
+
+    @Test
+    void existsOverlapping_ShouldIgnoreAdjacentSlotsAndOtherDays() {
+        assertThat(reservationRepository.existsOverlapping(provider.getId(), LocalDate.of(2024, 1, 15),
+                LocalTime.of(12, 0), LocalTime.of(14, 0), ReservationStatus.CANCELLED)).isFalse();
+        assertThat(reservationRepository.existsOverlapping(provider.getId(), LocalDate.of(2024, 1, 16),
+                LocalTime.of(10, 0), LocalTime.of(12, 0), ReservationStatus.CANCELLED)).isFalse();
+        assertThat(reservationRepository.existsOverlapping(client.getId(), LocalDate.of(2024, 1, 15),
+                LocalTime.of(10, 0), LocalTime.of(12, 0), ReservationStatus.CANCELLED)).isFalse();
+    }
+
+    @Test
+    void existsOverlapping_ShouldIgnoreExcludedStatus() {
+        Reservation cancelled = createReservation(client, provider, service, ReservationStatus.CANCELLED);
+        cancelled.setStartDate(LocalTime.of(14, 0));
+        cancelled.setEndDate(LocalTime.of(16, 0));
+        entityManager.persistAndFlush(cancelled);
+
+        assertThat(reservationRepository.existsOverlapping(provider.getId(), LocalDate.of(2024, 1, 15),
+                LocalTime.of(14, 30), LocalTime.of(15, 0), ReservationStatus.CANCELLED)).isFalse();
+    }
+
+    @Test
+    void findPageByProviderId_ShouldWalkAllReservationsWithCursor() {
+        // Ajoute des réservations sur plusieurs jours, dont des égalités sur (date, heure)
+        for (int day = 16; day <= 20; day++) {
+            for (int hour : new int[] { 9, 14, 14 }) {
+                Reservation reservation = createReservation(client, provider, service, ReservationStatus.PENDING);
+                reservation.setReservationDate(LocalDate.of(2024, 1, day));
+                reservation.setStartDate(LocalTime.of(hour, 0));
+                reservation.setEndDate(LocalTime.of(hour + 1, 0));
+                entityManager.persist(reservation);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> expected = reservationRepository.findByProviderId(provider.getId()).stream()
+                .sorted(Comparator.comparing(Reservation::getReservationDate)
+                        .thenComparing(Reservation::getStartDate)
+                        .thenComparing(Reservation::getId)
+                        .reversed())
+                .map(Reservation::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        ReservationResponseDTO last = null;
+        int pages = 0;
+        do {
+            List<ReservationResponseDTO> page = reservationRepository.findPageByProviderId(provider.getId(),
+                    null, null, null,
+                    last == null ? null : last.getReservationDate().toLocalDate(),
+                    last == null ? null : last.getStartDate().toLocalTime(),
+                    last == null ? null : last.getId(),
+                    PageRequest.of(0, 4));
+            page.forEach(r -> walked.add(r.getId()));
+            last = page.isEmpty() ? null : page.get(page.size() - 1);
+            pages++;
+        } while (last != null && pages < 20);
+
+        assertThat(walked).containsExactlyElementsOf(expected);
+        assertThat(expected).hasSize(18);
+    }
+
+    @Test
+    void findPageByProviderId_ShouldSkipReservationsWithoutDates() {
+        Reservation withoutDates = createReservation(client, provider, service, ReservationStatus.PENDING);
+        withoutDates.setReservationDate(null);
+        withoutDates.setStartDate(null);
+        withoutDates.setEndDate(null);
+        entityManager.persistAndFlush(withoutDates);
+        entityManager.clear();
+
+        // PostgreSQL placerait la ligne sans date en tête du tri décroissant, donc en fin de page :
+        // chaque page doit se terminer sur une ligne dont on peut tirer un curseur
+        List<Long> walked = new ArrayList<>();
+        ReservationCursor cursor = null;
+        int pages = 0;
+        do {
+            List<ReservationResponseDTO> page = reservationRepository.findPageByProviderId(provider.getId(),
+                    null, null, null,
+                    cursor == null ? null : cursor.reservationDate(),
+                    cursor == null ? null : cursor.startTime(),
+                    cursor == null ? null : cursor.id(),
+                    PageRequest.of(0, 1));
+            page.forEach(r -> walked.add(r.getId()));
+            cursor = page.isEmpty() ? null : ReservationCursor.after(page.get(0));
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertThat(walked).containsExactlyInAnyOrder(reservation1.getId(), reservation2.getId(),
+                reservation3.getId());
+        assertThat(reservationRepository.findPageByProviderId(provider.getId(), null, null, null,
+                null, null, null, PageRequest.of(0, 10)))
+                .extracting(ReservationResponseDTO::getId)
+                .doesNotContain(withoutDates.getId());
+    }
+
+    @Test
+    void findPageByClientId_ShouldProjectFieldsAndApplyFilters() {
+        Reservation later = createReservation(client, provider, service, ReservationStatus.PENDING);
+        later.setReservationDate(LocalDate.of(2024, 2, 1));
+        entityManager.persistAndFlush(later);
+
+        List<ReservationResponseDTO> page = reservationRepository.findPageByClientId(client.getId(),
+                ReservationStatus.PENDING, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                null, null, null, PageRequest.of(0, 10));
+
+        assertThat(page).hasSize(1);
+        ReservationResponseDTO dto = page.get(0);
+        assertThat(dto.getId()).isEqualTo(reservation1.getId());
+        assertThat(dto.getStartDate()).isEqualTo(LocalDate.of(2024, 1, 15).atTime(10, 0));
+        assertThat(dto.getEndDate()).isEqualTo(LocalDate.of(2024, 1, 15).atTime(12, 0));
+        assertThat(dto.getClientName()).isEqualTo("John Doe");
+        assertThat(dto.getProviderName()).isEqualTo("Jane Smith");
+        assertThat(dto.getServiceName()).isEqualTo("Test Service");
+        assertThat(dto.getConversationId()).isNull();
+    }
+
+    @Test
+    void findFinishedIds_ShouldReturnOnlyEndedReservationsWithStatus() {
+        Reservation laterToday = createReservation(client, provider, service, ReservationStatus.IN_PROGRESS);
+        laterToday.setStartDate(LocalTime.of(17, 0));
+        laterToday.setEndDate(LocalTime.of(19, 0));
+        entityManager.persistAndFlush(laterToday);
+
+        List<Long> ids = reservationRepository.findFinishedIds(ReservationStatus.IN_PROGRESS,
+                LocalDate.of(2024, 1, 15), LocalTime.of(18, 0), PageRequest.of(0, 10));
+        List<Long> nextDay = reservationRepository.findFinishedIds(ReservationStatus.IN_PROGRESS,
+                LocalDate.of(2024, 1, 16), LocalTime.of(0, 0), PageRequest.of(0, 10));
+
+        assertThat(ids).containsExactly(reservation2.getId());
+        assertThat(nextDay).containsExactly(reservation2.getId(), laterToday.getId());
+    }
+
+    @Test
+    void updateStatusByIds_ShouldOnlyUpdateReservationsInExpectedStatus() {
+        int updated = reservationRepository.updateStatusByIds(
+                List.of(reservation1.getId(), reservation2.getId()),
+                ReservationStatus.IN_PROGRESS, ReservationStatus.CLOSED);
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(reservationRepository.findById(reservation1.getId()).orElseThrow().getStatus())
+                .isEqualTo(ReservationStatus.PENDING);
+        assertThat(reservationRepository.findById(reservation2.getId()).orElseThrow().getStatus())
+                .isEqualTo(ReservationStatus.CLOSED);
+    }
+
     /**
      * Crée une réservation de test avec les paramètres spécifiés.
      */
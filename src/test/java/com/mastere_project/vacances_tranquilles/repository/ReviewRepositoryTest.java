@@ -1,18 +1,23 @@
 package com.mastere_project.vacances_tranquilles.repository;
 
+import com.mastere_project.vacances_tranquilles.dto.ReviewDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReviewWithReviewerDTO;
 import com.mastere_project.vacances_tranquilles.entity.Review;
 import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.RatingBucket;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -461,4 +466,79 @@ class ReviewRepositoryTest {
         assertThat(reviewsForReservation1.get(0).getReservationId()).isEqualTo(1L);
         assertThat(reviewsForReservation1.get(0).getId()).isEqualTo(specificReview.get().getId());
     }
-}
+
+    @Test
+    @DisplayName("streamRatingBuckets should group reviews by reviewed user and note")
+    void streamRatingBuckets_shouldGroupByReviewedUserAndNote() {
+        List<RatingBucket> buckets;
+        try (Stream<RatingBucket> stream = reviewRepository.streamRatingBuckets()) {
+            buckets = stream.toList();
+        }
+
+        assertThat(buckets).containsExactlyInAnyOrder(
+                new RatingBucket(user1.getId(), 4, 1),
+                new RatingBucket(user2.getId(), 5, 2),
+                new RatingBucket(user3.getId(), 3, 1));
+        assertThat(buckets).extracting(RatingBucket::userId).isSorted();
+    }
+
+    @Test
+    @DisplayName("findPageWithReviewerByReviewedId should page received reviews newest first with reviewer name")
+    void findPageWithReviewerByReviewedId_shouldPageNewestFirst() {
+        review1.setCreatedAt(LocalDateTime.of(2030, 1, 1, 10, 0));
+        review4.setCreatedAt(LocalDateTime.of(2030, 1, 2, 10, 0));
+        entityManager.persistAndFlush(review1);
+        entityManager.persistAndFlush(review4);
+        entityManager.clear();
+
+        List<ReviewWithReviewerDTO> first = reviewRepository.findPageWithReviewerByReviewedId(
+                user2.getId(), null, null, PageRequest.of(0, 1));
+
+        assertThat(first).hasSize(1);
+        assertThat(first.get(0).getId()).isEqualTo(review4.getId());
+        assertThat(first.get(0).getNote()).isEqualTo(5);
+        assertThat(first.get(0).getReviewerId()).isEqualTo(user3.getId());
+        assertThat(first.get(0).getReviewedId()).isEqualTo(user2.getId());
+        assertThat(first.get(0).getReviewerFirstName()).isEqualTo("Test3");
+
+        List<ReviewWithReviewerDTO> second = reviewRepository.findPageWithReviewerByReviewedId(
+                user2.getId(), first.get(0).getCreatedAt(), first.get(0).getId(), PageRequest.of(0, 2));
+
+        assertThat(second).extracting(ReviewWithReviewerDTO::getId).containsExactly(review1.getId());
+        assertThat(second.get(0).getReviewerFirstName()).isEqualTo("Test1");
+    }
+
+    @Test
+    @DisplayName("findPageByReviewerId should break createdAt ties on id")
+    void findPageByReviewerId_shouldBreakTiesOnId() {
+        LocalDateTime sameInstant = LocalDateTime.of(2030, 1, 1, 10, 0);
+        review1.setCreatedAt(sameInstant);
+        review3.setCreatedAt(sameInstant);
+        entityManager.persistAndFlush(review1);
+        entityManager.persistAndFlush(review3);
+        entityManager.clear();
+        Long higherId = Math.max(review1.getId(), review3.getId());
+        Long lowerId = Math.min(review1.getId(), review3.getId());
+
+        List<ReviewDTO> first = reviewRepository.findPageByReviewerId(user1.getId(), null, null, PageRequest.of(0, 1));
+        List<ReviewDTO> second = reviewRepository.findPageByReviewerId(user1.getId(), sameInstant, higherId,
+                PageRequest.of(0, 1));
+
+        assertThat(first).extracting(ReviewDTO::getId).containsExactly(higherId);
+        assertThat(second).extracting(ReviewDTO::getId).containsExactly(lowerId);
+        assertThat(second.get(0).getReviewerId()).isEqualTo(user1.getId());
+    }
+
+    @Test
+    @DisplayName("findPageByReviewedId should return an empty page after the last review")
+    void findPageByReviewedId_shouldReturnEmptyAfterLastReview() {
+        // Curseur relu en base : la précision des horodatages y est inférieure à celle de LocalDateTime.now()
+        List<ReviewDTO> all = reviewRepository.findPageByReviewedId(user1.getId(), null, null, PageRequest.of(0, 20));
+        ReviewDTO last = all.get(all.size() - 1);
+
+        List<ReviewDTO> page = reviewRepository.findPageByReviewedId(user1.getId(),
+                last.getCreatedAt(), last.getId(), PageRequest.of(0, 20));
+
+        assertThat(page).isEmpty();
+    }
+}
\ No newline at end of file
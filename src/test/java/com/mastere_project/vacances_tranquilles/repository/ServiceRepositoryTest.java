@@ -0,0 +1,251 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.dto.ServiceDTO;
+import com.mastere_project.vacances_tranquilles.entity.Reservation;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleStorage;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.service.impl.AvailabilityIndexImpl;
+import com.mastere_project.vacances_tranquilles.service.impl.ScheduleDayServiceImpl;
+import com.mastere_project.vacances_tranquilles.util.schedule.DaySlotMask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour ServiceRepository.
+ * Vérifie les requêtes de recherche de services disponibles et utilise la
+ * requête sur les intervalles comme référence pour l'index en mémoire et pour
+ * la variante sur les masques journaliers.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ServiceRepositoryTest {
+
+    private static final String[] CATEGORIES = {"Ménage", "Jardinage", "Bricolage"};
+    private static final String[] POSTAL_CODES = {"75001", "69001"};
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ScheduleDayRepository scheduleDayRepository;
+
+    @Autowired
+    private ScheduleRuleRepository scheduleRuleRepository;
+
+    private User client;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        client = persistUser("client@example.com", UserRole.CLIENT, "75001");
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void findAvailableServices_excludesProviderWithOverlappingSchedule() {
+        User provider = persistUser("provider@example.com", UserRole.PROVIDER, "75001");
+        persistService(provider, "Ménage");
+        persistSchedule(provider, date, LocalTime.of(11, 0), LocalTime.of(13, 0));
+
+        assertThat(serviceRepository.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0))).isEmpty();
+        assertThat(serviceRepository.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(13, 0), LocalTime.of(14, 0))).hasSize(1);
+    }
+
+    @Test
+    void findAvailableServices_excludesProviderWithActiveReservation_only() {
+        User provider = persistUser("provider@example.com", UserRole.PROVIDER, "75001");
+        Service service = persistService(provider, "Ménage");
+        persistReservation(provider, service, date, LocalTime.of(10, 0), LocalTime.of(12, 0),
+                ReservationStatus.CANCELLED);
+
+        assertThat(serviceRepository.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0))).hasSize(1);
+
+        persistReservation(provider, service, date, LocalTime.of(11, 0), LocalTime.of(12, 0),
+                ReservationStatus.PENDING);
+
+        assertThat(serviceRepository.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0))).isEmpty();
+    }
+
+    @Test
+    void availabilityIndex_matchesQuery_onRandomData() {
+        Random random = new Random(42);
+        persistRandomData(random);
+
+        AvailabilityIndexImpl index = new AvailabilityIndexImpl(serviceRepository, scheduleRepository,
+                reservationRepository, scheduleRuleRepository, true);
+        index.rebuild();
+        assertThat(index.isReady()).isTrue();
+
+        for (int i = 0; i < 200; i++) {
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            String postalCode = POSTAL_CODES[random.nextInt(POSTAL_CODES.length)];
+            LocalDate day = date.plusDays(random.nextInt(2));
+            LocalTime start = LocalTime.of(7 + random.nextInt(12), random.nextBoolean() ? 0 : 30);
+            LocalTime end = start.plusMinutes(30L + 30L * random.nextInt(8));
+
+            Set<Long> expected = serviceRepository.findAvailableServices(category, postalCode, day, start, end)
+                    .stream().map(Service::getId).collect(Collectors.toSet());
+            Set<Long> actual = index.findAvailableServices(category, postalCode, day, start, end)
+                    .stream().map(ServiceDTO::getId).collect(Collectors.toSet());
+
+            assertThat(actual)
+                    .as("%s %s %s %s-%s", category, postalCode, day, start, end)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void findAvailableServicesBitmap_matchesRowQuery_onQuarterAlignedData() {
+        Random random = new Random(7);
+        persistRandomData(random);
+        new ScheduleDayServiceImpl(scheduleRepository, scheduleDayRepository, ScheduleStorage.BITMAP)
+                .migrateFromRows();
+        entityManager.flush();
+        entityManager.clear();
+
+        for (int i = 0; i < 200; i++) {
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            String postalCode = POSTAL_CODES[random.nextInt(POSTAL_CODES.length)];
+            LocalDate day = date.plusDays(random.nextInt(2));
+            LocalTime start = LocalTime.of(7 + random.nextInt(12), 15 * random.nextInt(4));
+            LocalTime end = start.plusMinutes(15L + 15L * random.nextInt(12));
+            DaySlotMask requested = DaySlotMask.of(start, end);
+
+            Set<Long> expected = serviceRepository.findAvailableServices(category, postalCode, day, start, end)
+                    .stream().map(Service::getId).collect(Collectors.toSet());
+            Set<Long> actual = serviceRepository.findAvailableServicesBitmap(category, postalCode, day, start, end,
+                    requested.low(), requested.high())
+                    .stream().map(Service::getId).collect(Collectors.toSet());
+
+            assertThat(actual)
+                    .as("%s %s %s %s-%s", category, postalCode, day, start, end)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void findAvailableServicesBitmap_isConservative_withinPartialSlot() {
+        User provider = persistUser("provider@example.com", UserRole.PROVIDER, "75001");
+        persistService(provider, "Ménage");
+        persistSchedule(provider, date, LocalTime.of(10, 0), LocalTime.of(10, 5));
+        new ScheduleDayServiceImpl(scheduleRepository, scheduleDayRepository, ScheduleStorage.BITMAP)
+                .migrateFromRows();
+        LocalTime start = LocalTime.of(10, 10);
+        LocalTime end = LocalTime.of(11, 0);
+        DaySlotMask requested = DaySlotMask.of(start, end);
+
+        assertThat(serviceRepository.findAvailableServices("Ménage", "75001", date, start, end)).hasSize(1);
+        assertThat(serviceRepository.findAvailableServicesBitmap("Ménage", "75001", date, start, end,
+                requested.low(), requested.high())).isEmpty();
+    }
+
+    private void persistRandomData(Random random) {
+        List<User> providers = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            User provider = persistUser("provider" + i + "@example.com", UserRole.PROVIDER,
+                    POSTAL_CODES[random.nextInt(POSTAL_CODES.length)]);
+            providers.add(provider);
+            int serviceCount = 1 + random.nextInt(2);
+            for (int j = 0; j < serviceCount; j++) {
+                Service service = persistService(provider, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                for (int k = 0; k < 2; k++) {
+                    LocalTime start = LocalTime.of(8 + random.nextInt(10), random.nextBoolean() ? 0 : 30);
+                    persistReservation(provider, service, date.plusDays(random.nextInt(2)), start,
+                            start.plusMinutes(30L + 30L * random.nextInt(4)),
+                            ReservationStatus.values()[random.nextInt(ReservationStatus.values().length)]);
+                }
+            }
+        }
+        for (int i = 0; i < 30; i++) {
+            User provider = providers.get(random.nextInt(providers.size()));
+            LocalTime start = LocalTime.of(7 + random.nextInt(12), random.nextBoolean() ? 0 : 30);
+            persistSchedule(provider, date.plusDays(random.nextInt(2)), start,
+                    start.plusMinutes(30L + 30L * random.nextInt(6)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User persistUser(String email, UserRole role, String postalCode) {
+        User user = new User();
+        user.setFirstName("Jane");
+        user.setLastName("Smith");
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setUserRole(role);
+        user.setPhoneNumber("0987654321");
+        user.setAddress("456 Provider Street");
+        user.setCity("Paris");
+        user.setPostalCode(postalCode);
+        if (role == UserRole.PROVIDER) {
+            user.setCompanyName("Test Company");
+            user.setSiretSiren("12345678900000");
+        }
+        return entityManager.persistAndFlush(user);
+    }
+
+    private Service persistService(User provider, String category) {
+        Service service = new Service();
+        service.setTitle("Service " + category);
+        service.setDescription("Description");
+        service.setCategory(category);
+        service.setPrice(BigDecimal.valueOf(50));
+        service.setProvider(provider);
+        return entityManager.persistAndFlush(service);
+    }
+
+    private void persistSchedule(User provider, LocalDate day, LocalTime start, LocalTime end) {
+        Schedule schedule = new Schedule();
+        schedule.setProvider(provider);
+        schedule.setDate(day);
+        schedule.setStartTime(start);
+        schedule.setEndTime(end);
+        entityManager.persist(schedule);
+    }
+
+    private void persistReservation(User provider, Service service, LocalDate day, LocalTime start,
+            LocalTime end, ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setClient(client);
+        reservation.setProvider(provider);
+        reservation.setService(service);
+        reservation.setReservationDate(day);
+        reservation.setStartDate(start);
+        reservation.setEndDate(end);
+        reservation.setTotalPrice(BigDecimal.valueOf(50));
+        reservation.setStatus(status);
+        entityManager.persist(reservation);
+    }
+}
@@ -0,0 +1,99 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.StripeEvent;
+import com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour StripeEventRepository : prise des événements par bail, fin de traitement et reprise.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class StripeEventRepositoryTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StripeEventRepository stripeEventRepository;
+
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        entityManager.persistAndFlush(event("evt_1", "cs_1", now.minusSeconds(10)));
+    }
+
+    @Test
+    void claim_ShouldBeWonOnce_untilLeaseExpires() {
+        assertThat(stripeEventRepository.claim("evt_1", now, now.plus(LEASE))).isEqualTo(1);
+        assertThat(stripeEventRepository.claim("evt_1", now.plusSeconds(1), now.plus(LEASE))).isZero();
+
+        Instant afterLease = now.plus(LEASE).plusSeconds(1);
+        assertThat(stripeEventRepository.claim("evt_1", afterLease, afterLease.plus(LEASE))).isEqualTo(1);
+
+        StripeEvent claimed = reload("evt_1");
+        assertThat(claimed.getStatus()).isEqualTo(StripeEventStatus.PROCESSING);
+        assertThat(claimed.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void complete_ShouldRecordOutcome_andPreventNewClaims() {
+        stripeEventRepository.claim("evt_1", now, now.plus(LEASE));
+
+        stripeEventRepository.complete("evt_1", StripeEventStatus.PROCESSED, 42L, null, now);
+
+        StripeEvent processed = reload("evt_1");
+        assertThat(processed.getStatus()).isEqualTo(StripeEventStatus.PROCESSED);
+        assertThat(processed.getReservationId()).isEqualTo(42L);
+        assertThat(processed.getLockedUntil()).isNull();
+        assertThat(stripeEventRepository.claim("evt_1", now.plus(LEASE).plusSeconds(1), now.plus(LEASE))).isZero();
+    }
+
+    @Test
+    void findPendingIds_ShouldReturnWaitingAndAbandonedEvents_oldestFirst() {
+        entityManager.persistAndFlush(event("evt_0", "cs_0", now.minusSeconds(20)));
+        entityManager.persistAndFlush(event("evt_2", "cs_2", now.minusSeconds(5)));
+        stripeEventRepository.claim("evt_2", now, now.plus(LEASE));
+        stripeEventRepository.claim("evt_0", now.minus(LEASE).minusSeconds(1), now.minusSeconds(1));
+
+        assertThat(stripeEventRepository.findPendingIds(now, PageRequest.of(0, 10)))
+                .containsExactly("evt_0", "evt_1");
+        assertThat(stripeEventRepository.findPendingIds(now, PageRequest.of(0, 1))).containsExactly("evt_0");
+    }
+
+    @Test
+    void findStatusesBySessionId_ShouldListEveryEventOfTheSession() {
+        entityManager.persistAndFlush(event("evt_2", "cs_1", now));
+        stripeEventRepository.complete("evt_2", StripeEventStatus.IGNORED, null, null, now);
+
+        assertThat(stripeEventRepository.findStatusesBySessionId("cs_1"))
+                .containsExactlyInAnyOrder(StripeEventStatus.RECEIVED, StripeEventStatus.IGNORED);
+        assertThat(stripeEventRepository.findStatusesBySessionId("cs_unknown")).isEmpty();
+    }
+
+    private StripeEvent reload(String id) {
+        entityManager.clear();
+        return stripeEventRepository.findById(id).orElseThrow();
+    }
+
+    private static StripeEvent event(String id, String sessionId, Instant receivedAt) {
+        return new StripeEvent(id, "checkout.session.completed", sessionId, "{}", StripeEventStatus.RECEIVED, 0,
+                receivedAt, null, null, null, null);
+    }
+}
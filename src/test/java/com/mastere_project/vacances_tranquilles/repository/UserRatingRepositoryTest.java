@@ -0,0 +1,54 @@
+package com.mastere_project.vacances_tranquilles.repository;
+
+import com.mastere_project.vacances_tranquilles.entity.UserRating;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests pour UserRatingRepository : ajout atomique d'une note à un agrégat.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class UserRatingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRatingRepository userRatingRepository;
+
+    @BeforeEach
+    void setUp() {
+        UserRating rating = new UserRating();
+        rating.setUserId(7L);
+        entityManager.persistAndFlush(rating);
+    }
+
+    @Test
+    void addNote_ShouldUpdateCountSumAndHistogram() {
+        assertThat(userRatingRepository.addNote(7L, 5)).isEqualTo(1);
+        assertThat(userRatingRepository.addNote(7L, 5)).isEqualTo(1);
+        assertThat(userRatingRepository.addNote(7L, 2)).isEqualTo(1);
+
+        entityManager.clear();
+        UserRating rating = userRatingRepository.findById(7L).orElseThrow();
+        assertThat(rating.getReviewCount()).isEqualTo(3);
+        assertThat(rating.getRatingSum()).isEqualTo(12);
+        assertThat(rating.getCount1()).isZero();
+        assertThat(rating.getCount2()).isEqualTo(1);
+        assertThat(rating.getCount3()).isZero();
+        assertThat(rating.getCount4()).isZero();
+        assertThat(rating.getCount5()).isEqualTo(2);
+    }
+
+    @Test
+    void addNote_ShouldReturnZero_WhenAggregateIsMissing() {
+        assertThat(userRatingRepository.addNote(8L, 4)).isZero();
+    }
+}
@@ -0,0 +1,432 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.ServiceDTO;
+import com.mastere_project.vacances_tranquilles.entity.Reservation;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityIndexImplTest {
+
+    @Mock
+    private ServiceRepository serviceRepository;
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ScheduleRuleRepository scheduleRuleRepository;
+
+    private AvailabilityIndexImpl index;
+    private User provider;
+    private Service service;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        index = new AvailabilityIndexImpl(serviceRepository, scheduleRepository, reservationRepository,
+                scheduleRuleRepository, true);
+        provider = provider(1L, "75001");
+        service = service(10L, "Ménage", provider);
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void isReady_false_beforeRebuild() {
+        assertFalse(index.isReady());
+    }
+
+    @Test
+    void isReady_false_whenDisabled() {
+        AvailabilityIndexImpl disabled = new AvailabilityIndexImpl(serviceRepository, scheduleRepository,
+                reservationRepository, scheduleRuleRepository, false);
+
+        disabled.rebuild();
+
+        assertFalse(disabled.isReady());
+        verifyNoInteractions(serviceRepository, scheduleRepository, reservationRepository, scheduleRuleRepository);
+    }
+
+    @Test
+    void isReady_false_whenLoadingFails() {
+        when(serviceRepository.findAllWithProvider()).thenThrow(new IllegalStateException("db down"));
+
+        index.rebuild();
+
+        assertFalse(index.isReady());
+    }
+
+    @Test
+    void findAvailableServices_returnsService_whenProviderIsFree() {
+        load(List.of(service), List.of(), List.of());
+
+        List<ServiceDTO> result = index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0));
+
+        assertTrue(index.isReady());
+        assertEquals(1, result.size());
+        assertEquals(10L, result.get(0).getId());
+        assertEquals(1L, result.get(0).getProviderId());
+        assertEquals("Ménage", result.get(0).getCategory());
+    }
+
+    @Test
+    void findAvailableServices_filtersOnCategoryAndPostalCode() {
+        load(List.of(service), List.of(), List.of());
+
+        assertTrue(index.findAvailableServices("Jardinage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+        assertTrue(index.findAvailableServices("Ménage", "69001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void findAvailableServices_excludesProvider_whenScheduleOverlaps() {
+        load(List.of(service), List.of(schedule(100L, provider, date, 11, 13)), List.of());
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void findAvailableServices_keepsProvider_whenIntervalsOnlyTouch() {
+        load(List.of(service), List.of(schedule(100L, provider, date, 8, 10),
+                schedule(101L, provider, date, 12, 14)), List.of());
+
+        assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+    }
+
+    @Test
+    void findAvailableServices_keepsProvider_whenBusyOnAnotherDay() {
+        load(List.of(service), List.of(schedule(100L, provider, date.plusDays(1), 10, 12)), List.of());
+
+        assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+    }
+
+    @Test
+    void findAvailableServices_excludesProvider_whenRequestContainsBusyInterval() {
+        load(List.of(service), List.of(), List.of(reservation(200L, provider, date, 10, 11, ReservationStatus.PENDING)));
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(9, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void findAvailableServices_detectsOverlap_acrossMergedIntervals() {
+        load(List.of(service), List.of(schedule(100L, provider, date, 8, 10),
+                schedule(101L, provider, date, 9, 11),
+                schedule(102L, provider, date, 15, 16)), List.of());
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 30), LocalTime.of(12, 0)).isEmpty());
+        assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(11, 0), LocalTime.of(15, 0)).size());
+    }
+
+    @Test
+    void onReservationSaved_cancelledReservation_freesSlot() {
+        Reservation reservation = reservation(200L, provider, date, 10, 12, ReservationStatus.PENDING);
+        load(List.of(service), List.of(), List.of(reservation));
+
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        index.onReservationSaved(reservation);
+
+        assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+    }
+
+    @Test
+    void onReservationSaved_newReservation_blocksSlot() {
+        load(List.of(service), List.of(), List.of());
+
+        index.onReservationSaved(reservation(200L, provider, date, 10, 12, ReservationStatus.PENDING));
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(11, 0), LocalTime.of(13, 0)).isEmpty());
+    }
+
+    @Test
+    void onScheduleDeleted_freesSlot_butKeepsOtherIntervals() {
+        load(List.of(service), List.of(schedule(100L, provider, date, 10, 12),
+                schedule(101L, provider, date, 10, 12)), List.of());
+
+        index.onScheduleDeleted(100L);
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+
+        index.onScheduleDeleted(101L);
+        assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+    }
+
+    @Test
+    void onScheduleSaved_movedSchedule_replacesPreviousInterval() {
+        Schedule schedule = schedule(100L, provider, date, 10, 12);
+        load(List.of(service), List.of(schedule), List.of());
+
+        schedule.setStartTime(LocalTime.of(14, 0));
+        schedule.setEndTime(LocalTime.of(16, 0));
+        index.onScheduleSaved(schedule);
+
+        assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(15, 0), LocalTime.of(17, 0)).isEmpty());
+    }
+
+    @Test
+    void onServiceSaved_categoryChange_movesService() {
+        load(List.of(service), List.of(), List.of());
+
+        service.setCategory("Jardinage");
+        index.onServiceSaved(service);
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+        assertEquals(1, index.findAvailableServices("Jardinage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+    }
+
+    @Test
+    void onServiceDeleted_removesService() {
+        load(List.of(service), List.of(), List.of());
+
+        index.onServiceDeleted(10L);
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void onProviderUpdated_postalCodeChange_movesProviderServices() {
+        load(List.of(service), List.of(), List.of());
+
+        provider.setPostalCode("69001");
+        index.onProviderUpdated(provider);
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+        assertEquals(1, index.findAvailableServices("Ménage", "69001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+    }
+
+    @Test
+    void updates_areIgnored_whenDisabled() {
+        AvailabilityIndexImpl disabled = new AvailabilityIndexImpl(serviceRepository, scheduleRepository,
+                reservationRepository, scheduleRuleRepository, false);
+
+        disabled.onServiceSaved(service);
+
+        assertTrue(disabled.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void findAvailableServices_returnsCopies() {
+        load(List.of(service), List.of(), List.of());
+
+        ServiceDTO first = index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).get(0);
+        first.setTitle("modifié");
+
+        ServiceDTO second = index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).get(0);
+        assertEquals("Service 10", second.getTitle());
+    }
+
+    @Test
+    void findAvailableServices_requiresRuleCoverage_whenProviderDeclaredRules() {
+        load(List.of(service), List.of(), List.of(), List.of(rule(provider, date.getDayOfWeek(), 9, 17, null)));
+
+        assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(16, 0), LocalTime.of(18, 0)).isEmpty());
+        assertTrue(index.findAvailableServices("Ménage", "75001", date.plusDays(1),
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void findAvailableServices_excludesProvider_whenRuleExpired() {
+        load(List.of(service), List.of(), List.of(),
+                List.of(rule(provider, date.getDayOfWeek(), 9, 17, date.minusDays(1))));
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void onScheduleRulesUpdated_replacesAndClearsRules() {
+        load(List.of(service), List.of(), List.of());
+
+        index.onScheduleRulesUpdated(1L, List.of(new RecurringRule(
+                RecurringRule.daysMask(List.of(date.getDayOfWeek())), LocalTime.of(14, 0), LocalTime.of(18, 0),
+                date, null)));
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+
+        index.onScheduleRulesUpdated(1L, List.of());
+        assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+    }
+
+    @Test
+    void onReservationSaved_isAppliedAfterCommit_only() {
+        load(List.of(service), List.of(), List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.onReservationSaved(reservation(300L, provider, date, 10, 12, ReservationStatus.PENDING));
+
+            assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                    LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void onServiceSaved_isDiscarded_whenTransactionRollsBack() {
+        load(List.of(), List.of(), List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.onServiceSaved(service);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void rebuild_picksUpChangesMadeElsewhere() {
+        load(List.of(service), List.of(), List.of());
+
+        // Réservation faite sur un autre nœud : seul le rechargement la voit
+        load(List.of(service), List.of(), List.of(reservation(300L, provider, date, 10, 12, ReservationStatus.PENDING)));
+
+        assertTrue(index.isReady());
+        assertTrue(index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void rebuild_keepsServingPreviousCatalog_andReplaysConcurrentUpdates() {
+        load(List.of(service), List.of(), List.of());
+        Service created = service(11L, "Ménage", provider(2L, "75001"));
+        when(serviceRepository.findAllWithProvider()).thenAnswer(invocation -> {
+            // Pendant le chargement : l'ancien catalogue sert les recherches, une création est validée
+            assertEquals(1, index.findAvailableServices("Ménage", "75001", date,
+                    LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+            index.onServiceSaved(created);
+            return List.of(service);
+        });
+
+        index.rebuild();
+
+        assertEquals(2, index.findAvailableServices("Ménage", "75001", date,
+                LocalTime.of(10, 0), LocalTime.of(12, 0)).size());
+    }
+
+    private void load(List<Service> services, List<Schedule> schedules, List<Reservation> reservations) {
+        load(services, schedules, reservations, List.of());
+    }
+
+    private void load(List<Service> services, List<Schedule> schedules, List<Reservation> reservations,
+            List<ScheduleRule> rules) {
+        when(serviceRepository.findAllWithProvider()).thenReturn(services);
+        when(scheduleRepository.findByDateGreaterThanEqual(any(LocalDate.class))).thenReturn(schedules);
+        when(reservationRepository.findByReservationDateGreaterThanEqualAndStatusNot(any(LocalDate.class),
+                eq(ReservationStatus.CANCELLED))).thenReturn(reservations);
+        when(scheduleRuleRepository.findAll()).thenReturn(rules);
+        index.rebuild();
+    }
+
+    private static ScheduleRule rule(User provider, DayOfWeek day, int startHour, int endHour, LocalDate until) {
+        ScheduleRule rule = new ScheduleRule();
+        rule.setProvider(provider);
+        rule.setDaysOfWeek(RecurringRule.daysMask(List.of(day)));
+        rule.setStartTime(LocalTime.of(startHour, 0));
+        rule.setEndTime(LocalTime.of(endHour, 0));
+        rule.setValidFrom(LocalDate.now().minusWeeks(1));
+        rule.setValidUntil(until);
+        return rule;
+    }
+
+    private static User provider(Long id, String postalCode) {
+        User user = new User();
+        user.setId(id);
+        user.setUserRole(UserRole.PROVIDER);
+        user.setPostalCode(postalCode);
+        return user;
+    }
+
+    private static Service service(Long id, String category, User provider) {
+        Service s = new Service();
+        s.setId(id);
+        s.setTitle("Service " + id);
+        s.setDescription("Description");
+        s.setCategory(category);
+        s.setPrice(BigDecimal.TEN);
+        s.setProvider(provider);
+        return s;
+    }
+
+    private static Schedule schedule(Long id, User provider, LocalDate date, int startHour, int endHour) {
+        Schedule schedule = new Schedule();
+        schedule.setId(id);
+        schedule.setProvider(provider);
+        schedule.setDate(date);
+        schedule.setStartTime(LocalTime.of(startHour, 0));
+        schedule.setEndTime(LocalTime.of(endHour, 0));
+        return schedule;
+    }
+
+    private static Reservation reservation(Long id, User provider, LocalDate date, int startHour, int endHour,
+            ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setProvider(provider);
+        reservation.setReservationDate(date);
+        reservation.setStartDate(LocalTime.of(startHour, 0));
+        reservation.setEndDate(LocalTime.of(endHour, 0));
+        reservation.setStatus(status);
+        return reservation;
+    }
+}
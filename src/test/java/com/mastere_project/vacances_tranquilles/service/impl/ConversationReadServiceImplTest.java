@@ -0,0 +1,124 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadState;
+import com.mastere_project.vacances_tranquilles.entity.ConversationReadStateId;
+import com.mastere_project.vacances_tranquilles.model.ReadWatermark;
+import com.mastere_project.vacances_tranquilles.repository.ConversationReadStateRepository;
+import com.mastere_project.vacances_tranquilles.repository.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationReadServiceImplTest {
+
+    private static final ConversationReadStateId ID = new ConversationReadStateId(3L, 7L);
+
+    @Mock
+    private ConversationReadStateRepository readStateRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ConversationReadServiceImpl conversationReadService;
+
+    @BeforeEach
+    void setUp() {
+        conversationReadService = new ConversationReadServiceImpl(readStateRepository, messageRepository,
+                transactionManager);
+    }
+
+    @Test
+    void markRead_skipsWrite_whenWatermarkIsAlreadyUpToDate() {
+        when(readStateRepository.findById(ID)).thenReturn(Optional.of(new ConversationReadState(ID, 20L)));
+
+        assertThat(conversationReadService.markRead(3L, 7L, 20L)).isFalse();
+
+        verify(readStateRepository, never()).advance(anyLong(), anyLong(), anyLong());
+        verify(readStateRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void markRead_advancesExistingWatermark() {
+        when(readStateRepository.findById(ID)).thenReturn(Optional.of(new ConversationReadState(ID, 10L)));
+        when(readStateRepository.advance(3L, 7L, 20L)).thenReturn(1);
+
+        assertThat(conversationReadService.markRead(3L, 7L, 20L)).isTrue();
+
+        verify(readStateRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void markRead_createsWatermark_onFirstRead() {
+        when(readStateRepository.findById(ID)).thenReturn(Optional.empty());
+
+        assertThat(conversationReadService.markRead(3L, 7L, 20L)).isTrue();
+
+        verify(readStateRepository).saveAndFlush(new ConversationReadState(ID, 20L));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void markRead_advancesConcurrentlyCreatedWatermark() {
+        when(readStateRepository.findById(ID)).thenReturn(Optional.empty());
+        when(readStateRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(readStateRepository.advance(3L, 7L, 20L)).thenReturn(1);
+
+        assertThat(conversationReadService.markRead(3L, 7L, 20L)).isTrue();
+
+        verify(readStateRepository).advance(3L, 7L, 20L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void migrateFromMessageFlags_createsMissingWatermarks() {
+        when(messageRepository.findReadWatermarks()).thenReturn(List.of(
+                new ReadWatermark(3L, 7L, 12L),
+                new ReadWatermark(4L, 8L, 30L)));
+        when(readStateRepository.existsById(ID)).thenReturn(true);
+        when(readStateRepository.existsById(new ConversationReadStateId(4L, 8L))).thenReturn(false);
+
+        int count = conversationReadService.migrateFromMessageFlags();
+
+        assertThat(count).isEqualTo(1);
+        ArgumentCaptor<List<ConversationReadState>> captor = ArgumentCaptor.forClass(List.class);
+        verify(readStateRepository).saveAll(captor.capture());
+        assertThat(captor.getValue())
+                .containsExactly(new ConversationReadState(new ConversationReadStateId(4L, 8L), 30L));
+    }
+
+    @Test
+    void onApplicationReady_migrates_whenTableIsEmptyAndMessagesWereRead() {
+        when(readStateRepository.count()).thenReturn(0L);
+        when(messageRepository.existsByReadTrue()).thenReturn(true);
+        when(messageRepository.findReadWatermarks()).thenReturn(List.of());
+
+        conversationReadService.onApplicationReady();
+
+        verify(messageRepository).findReadWatermarks();
+    }
+
+    @Test
+    void onApplicationReady_doesNothing_whenWatermarksExist() {
+        when(readStateRepository.count()).thenReturn(5L);
+
+        conversationReadService.onApplicationReady();
+
+        verifyNoInteractions(messageRepository);
+    }
+}
@@ -19,6 +19,8 @@ import com.mastere_project.vacances_tranquilles.repository.ConversationRepositor
 import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +30,7 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
@@ -48,12 +51,17 @@ class ConversationServiceImplTest {
     ConversationMapper conversationMapper;
     @Mock
     ReservationMapper reservationMapper;
+    @Mock
+    CurrentUserService currentUserService;
     @InjectMocks
     ConversationServiceImpl service;
 
     @BeforeEach
     void setUp() {
         lenient().when(conversationMapper.toDto(any())).thenReturn(new ConversationDTO());
+        // Résout l'utilisateur connecté à partir des bouchons de UserRepository de chaque test
+        lenient().when(currentUserService.findCurrentUser()).thenAnswer(invocation ->
+                userRepository.findById(SecurityUtils.getCurrentUserId()).map(AuthenticatedUser::from));
     }
 
     @Test
@@ -67,7 +75,7 @@ class ConversationServiceImplTest {
             when(userRepository.findById(1L)).thenReturn(Optional.of(currentUser));
 
             ConversationSummaryDto dto = new ConversationSummaryDto(1L, "User1", "Service1", LocalDate.now(),
-                    LocalTime.now());
+                    LocalTime.now(), 0, "Bonjour", LocalDateTime.now());
             when(conversationRepository.findConversationsForUser(1L)).thenReturn(List.of(dto));
 
             List<ConversationSummaryDto> result = service.getConversationsForUser();
@@ -124,7 +132,7 @@ class ConversationServiceImplTest {
             reservation.setProvider(provider);
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(client));
-            when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithParticipantsById(1L)).thenReturn(Optional.of(reservation));
             when(reservationRepository.save(any())).thenReturn(reservation);
 
             Conversation conv = new Conversation();
@@ -164,7 +172,7 @@ class ConversationServiceImplTest {
             reservation.setProvider(provider);
 
             when(userRepository.findById(3L)).thenReturn(Optional.of(currentUser));
-            when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithParticipantsById(1L)).thenReturn(Optional.of(reservation));
 
             assertThrows(ConversationForbiddenException.class, () -> service.createConversation(1L));
         }
@@ -190,7 +198,7 @@ class ConversationServiceImplTest {
             client.setUserRole(UserRole.CLIENT);
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(client));
-            when(reservationRepository.findById(1L)).thenReturn(Optional.empty());
+            when(reservationRepository.findWithParticipantsById(1L)).thenReturn(Optional.empty());
 
             assertThrows(ReservationNotFoundException.class, () -> service.createConversation(1L));
         }
@@ -215,7 +223,7 @@ class ConversationServiceImplTest {
             reservation.setProvider(provider);
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(client));
-            when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithParticipantsById(1L)).thenReturn(Optional.of(reservation));
 
             assertThrows(ConversationForbiddenException.class, () -> service.createConversation(1L));
         }
@@ -247,7 +255,7 @@ class ConversationServiceImplTest {
             reservation.setConversation(existingConversation);
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(client));
-            when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithParticipantsById(1L)).thenReturn(Optional.of(reservation));
 
             assertThrows(ConversationAlreadyExistsException.class, () -> service.createConversation(1L));
         }
@@ -273,7 +281,7 @@ class ConversationServiceImplTest {
             reservation.setProvider(client2); // Provider avec rôle CLIENT (invalide)
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(client1));
-            when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithParticipantsById(1L)).thenReturn(Optional.of(reservation));
 
             assertThrows(ConversationForbiddenException.class, () -> service.createConversation(1L));
         }
@@ -404,8 +412,8 @@ class ConversationServiceImplTest {
             reservation2.setProvider(provider);
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(client));
-            when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation1));
-            when(reservationRepository.findById(2L)).thenReturn(Optional.of(reservation2));
+            when(reservationRepository.findWithParticipantsById(1L)).thenReturn(Optional.of(reservation1));
+            when(reservationRepository.findWithParticipantsById(2L)).thenReturn(Optional.of(reservation2));
             when(reservationRepository.save(any())).thenReturn(reservation1).thenReturn(reservation2);
 
             Conversation conv1 = new Conversation();
@@ -454,7 +462,7 @@ class ConversationServiceImplTest {
             reservation.setProvider(provider);
 
             when(userRepository.findById(2L)).thenReturn(Optional.of(provider));
-            when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithParticipantsById(1L)).thenReturn(Optional.of(reservation));
             when(reservationRepository.save(any())).thenReturn(reservation);
 
             Conversation conv = new Conversation();
@@ -0,0 +1,123 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CurrentUserServiceImplTest {
+
+    private UserRepository userRepository;
+    private CurrentUserServiceImpl currentUserService;
+    private MockedStatic<SecurityUtils> securityUtils;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        currentUserService = new CurrentUserServiceImpl(userRepository, Duration.ofMinutes(1), 2);
+        securityUtils = mockStatic(SecurityUtils.class);
+        securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        securityUtils.close();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findCurrentUser_readsDatabaseOnce_whileCached() {
+        AuthenticatedUser first = currentUserService.findCurrentUser().orElseThrow();
+        AuthenticatedUser second = currentUserService.findCurrentUser().orElseThrow();
+
+        assertEquals(first, second);
+        assertEquals(UserRole.CLIENT, first.role());
+        assertEquals("Jean Dupont", first.fullName());
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findCurrentUser_reloads_whenTtlIsZero() {
+        CurrentUserServiceImpl uncached = new CurrentUserServiceImpl(userRepository, Duration.ZERO, 2);
+
+        uncached.findCurrentUser();
+        uncached.findCurrentUser();
+
+        verify(userRepository, times(2)).findById(1L);
+        assertEquals(0, uncached.cacheSize());
+    }
+
+    @Test
+    void evict_forcesReload() {
+        currentUserService.findCurrentUser();
+        User renamed = user(1L);
+        renamed.setFirstName("Paul");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(renamed));
+
+        currentUserService.evict(1L);
+
+        assertEquals("Paul", currentUserService.findCurrentUser().orElseThrow().firstName());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void findCurrentUser_doesNotCacheMissingUser() {
+        securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(9L);
+        when(userRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertTrue(currentUserService.findCurrentUser().isEmpty());
+        assertTrue(currentUserService.findCurrentUser().isEmpty());
+
+        verify(userRepository, times(2)).findById(9L);
+        assertEquals(0, currentUserService.cacheSize());
+    }
+
+    @Test
+    void findCurrentUser_keepsCacheBounded() {
+        for (long id = 1; id <= 5; id++) {
+            long userId = id;
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(userId);
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user(userId)));
+            currentUserService.findCurrentUser();
+        }
+
+        assertTrue(currentUserService.cacheSize() <= 2);
+    }
+
+    @Test
+    void findCurrentUser_isMemoizedInRequest() {
+        CurrentUserServiceImpl uncached = new CurrentUserServiceImpl(userRepository, Duration.ZERO, 2);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        uncached.findCurrentUser();
+        uncached.findCurrentUser();
+
+        verify(userRepository, times(1)).findById(1L);
+        assertNotNull(request.getAttribute(CurrentUserServiceImpl.REQUEST_ATTRIBUTE));
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("Jean");
+        user.setLastName("Dupont");
+        user.setUserRole(UserRole.CLIENT);
+        return user;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionSummary;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.param.checkout.SessionCreateParams;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FakeStripeGatewayTest {
+
+    private static final SessionCreateParams PARAMS = SessionCreateParams.builder().build();
+
+    @Test
+    void createCheckoutSession_returnsDistinctFakeSessions() throws Exception {
+        FakeStripeGateway gateway = new FakeStripeGateway(Duration.ZERO, 0);
+
+        String first = gateway.createCheckoutSession(PARAMS);
+        String second = gateway.createCheckoutSession(PARAMS);
+
+        assertThat(first).startsWith("cs_fake_").isNotEqualTo(second);
+    }
+
+    @Test
+    void createCheckoutSession_failsLikeANetworkError_atConfiguredRate() {
+        FakeStripeGateway gateway = new FakeStripeGateway(Duration.ZERO, 1);
+
+        assertThatThrownBy(() -> gateway.createCheckoutSession(PARAMS)).isInstanceOf(ApiConnectionException.class);
+    }
+
+    @Test
+    void listCheckoutSessions_pagesThroughCreatedSessions() throws Exception {
+        FakeStripeGateway gateway = new FakeStripeGateway(Duration.ZERO, 0);
+        Instant from = Instant.now().minusSeconds(1);
+        String first = gateway.createCheckoutSession(paidCheckout(5000, 2));
+        String second = gateway.createCheckoutSession(PARAMS);
+        String third = gateway.createCheckoutSession(PARAMS);
+        Instant to = Instant.now().plusSeconds(1);
+
+        StripeSessionPage page = gateway.listCheckoutSessions(from, to, null, 2);
+        StripeSessionPage next = gateway.listCheckoutSessions(from, to, second, 2);
+
+        assertThat(page.sessions()).extracting(StripeSessionSummary::id).containsExactly(first, second);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(page.sessions().get(0).amountTotal()).isEqualTo(10000L);
+        assertThat(page.sessions().get(0).currency()).isEqualTo("eur");
+        assertThat(page.sessions().get(0).isPaid()).isTrue();
+        assertThat(next.sessions()).extracting(StripeSessionSummary::id).containsExactly(third);
+        assertThat(next.hasMore()).isFalse();
+        assertThat(gateway.listCheckoutSessions(to, to.plusSeconds(60), null, 2).sessions()).isEmpty();
+    }
+
+    @Test
+    void createCheckoutSession_keepsOnlyTheConfiguredNumberOfSessions() throws Exception {
+        FakeStripeGateway gateway = new FakeStripeGateway(Duration.ZERO, 0, 2);
+        Instant from = Instant.now().minusSeconds(1);
+        gateway.createCheckoutSession(PARAMS);
+        String second = gateway.createCheckoutSession(PARAMS);
+        String third = gateway.createCheckoutSession(PARAMS);
+
+        StripeSessionPage page = gateway.listCheckoutSessions(from, Instant.now().plusSeconds(1), null, 10);
+
+        assertThat(page.sessions()).extracting(StripeSessionSummary::id).containsExactly(second, third);
+    }
+
+    @Test
+    void constructor_rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new FakeStripeGateway(Duration.ZERO, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FakeStripeGateway(Duration.ofMillis(-1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FakeStripeGateway(Duration.ZERO, 0, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SessionCreateParams paidCheckout(long unitAmount, long quantity) {
+        return SessionCreateParams.builder()
+                .addLineItem(SessionCreateParams.LineItem.builder()
+                        .setQuantity(quantity)
+                        .setPriceData(SessionCreateParams.LineItem.PriceData.builder()
+                                .setCurrency("eur")
+                                .setUnitAmount(unitAmount)
+                                .build())
+                        .build())
+                .build();
+    }
+}
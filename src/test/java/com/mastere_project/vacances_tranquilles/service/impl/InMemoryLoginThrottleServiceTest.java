@@ -0,0 +1,129 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.LoginThrottlePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLoginThrottleServiceTest {
+
+    private static final LoginThrottlePolicy POLICY =
+            new LoginThrottlePolicy(3, Duration.ofMinutes(10), Duration.ofMinutes(5));
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryLoginThrottleService throttle;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2030-01-07T10:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new InMemoryLoginThrottleService(POLICY, 10, meterRegistry, clock);
+    }
+
+    @Test
+    void recordFailure_blocksAtThreshold_untilBlockEnds() {
+        throttle.recordFailure("a@test.com");
+        throttle.recordFailure("a@test.com");
+        assertFalse(throttle.isBlocked("a@test.com"));
+
+        throttle.recordFailure("a@test.com");
+        assertTrue(throttle.isBlocked("a@test.com"));
+        assertFalse(throttle.isBlocked("b@test.com"));
+
+        clock.advance(Duration.ofMinutes(5));
+        assertFalse(throttle.isBlocked("a@test.com"));
+    }
+
+    @Test
+    void recordFailure_forgetsFailuresOutsideWindow() {
+        throttle.recordFailure("a@test.com");
+        throttle.recordFailure("a@test.com");
+        clock.advance(Duration.ofMinutes(10));
+
+        throttle.recordFailure("a@test.com");
+
+        assertFalse(throttle.isBlocked("a@test.com"));
+    }
+
+    @Test
+    void reset_clearsFailures() {
+        throttle.recordFailure("a@test.com");
+        throttle.recordFailure("a@test.com");
+        throttle.reset("a@test.com");
+        throttle.recordFailure("a@test.com");
+
+        assertFalse(throttle.isBlocked("a@test.com"));
+        assertEquals(1, throttle.trackedKeys());
+    }
+
+    @Test
+    void purgeExpired_removesClosedWindowsAndEndedBlocks() {
+        throttle.recordFailure("a@test.com");
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("blocked@test.com");
+        }
+        clock.advance(Duration.ofMinutes(10));
+        throttle.recordFailure("fresh@test.com");
+
+        assertEquals(2, throttle.purgeExpired());
+        assertEquals(1, throttle.trackedKeys());
+        assertEquals(1.0, meterRegistry.get("login.throttle.tracked").gauge().value());
+        assertEquals(2.0, meterRegistry.get("login.throttle.evictions").tag("reason", "expired").counter().count());
+    }
+
+    @Test
+    void recordFailure_staysUnderCap_andKeepsBlockedKeys() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("victim@test.com");
+        }
+        for (int i = 0; i < 100; i++) {
+            throttle.recordFailure("random" + i + "@test.com");
+            assertTrue(throttle.trackedKeys() <= 10);
+        }
+
+        assertTrue(throttle.isBlocked("victim@test.com"));
+        assertTrue(meterRegistry.get("login.throttle.evictions").tag("reason", "capacity").counter().count() > 0);
+    }
+
+    @Test
+    void isBlocked_rejectsNullKey() {
+        assertThrows(NullPointerException.class, () -> throttle.isBlocked(null));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.JobLease;
+import com.mastere_project.vacances_tranquilles.repository.JobLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobLeaseServiceImplTest {
+
+    private static final String JOB = "reservation-auto-close";
+
+    @Mock
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JobLeaseServiceImpl jobLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseService = new JobLeaseServiceImpl(jobLeaseRepository, transactionManager);
+    }
+
+    @Test
+    void tryAcquire_createsExpiredRow_thenAcquires() {
+        when(jobLeaseRepository.existsById(JOB)).thenReturn(false);
+        when(jobLeaseRepository.acquire(eq(JOB), eq(jobLeaseService.getOwner()), any(), any())).thenReturn(1);
+
+        assertThat(jobLeaseService.tryAcquire(JOB, Duration.ofMinutes(10))).isTrue();
+
+        ArgumentCaptor<JobLease> captor = ArgumentCaptor.forClass(JobLease.class);
+        verify(jobLeaseRepository).saveAndFlush(captor.capture());
+        assertThat(captor.getValue().getLockedUntil()).isEqualTo(Instant.EPOCH);
+    }
+
+    @Test
+    void tryAcquire_requestsLeaseForGivenDuration() {
+        when(jobLeaseRepository.existsById(JOB)).thenReturn(true);
+        when(jobLeaseRepository.acquire(eq(JOB), any(), any(), any())).thenReturn(1);
+
+        jobLeaseService.tryAcquire(JOB, Duration.ofMinutes(10));
+
+        ArgumentCaptor<Instant> now = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> until = ArgumentCaptor.forClass(Instant.class);
+        verify(jobLeaseRepository).acquire(eq(JOB), eq(jobLeaseService.getOwner()), now.capture(), until.capture());
+        assertThat(Duration.between(now.getValue(), until.getValue())).isEqualTo(Duration.ofMinutes(10));
+        verify(jobLeaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void tryAcquire_returnsFalse_whenHeldByAnotherNode() {
+        when(jobLeaseRepository.existsById(JOB)).thenReturn(true);
+        when(jobLeaseRepository.acquire(eq(JOB), any(), any(), any())).thenReturn(0);
+
+        assertThat(jobLeaseService.tryAcquire(JOB, Duration.ofMinutes(10))).isFalse();
+    }
+
+    @Test
+    void tryAcquire_toleratesConcurrentRowCreation() {
+        when(jobLeaseRepository.existsById(JOB)).thenReturn(false);
+        when(jobLeaseRepository.saveAndFlush(any(JobLease.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(jobLeaseRepository.acquire(eq(JOB), any(), any(), any())).thenReturn(0);
+
+        assertThat(jobLeaseService.tryAcquire(JOB, Duration.ofMinutes(10))).isFalse();
+    }
+
+    @Test
+    void release_expiresOwnLease() {
+        jobLeaseService.release(JOB);
+
+        verify(jobLeaseRepository).release(eq(JOB), eq(jobLeaseService.getOwner()), any(Instant.class));
+    }
+
+    @Test
+    void findCompletedThrough_readsLeaseRow() {
+        when(jobLeaseRepository.findById(JOB))
+                .thenReturn(Optional.of(new JobLease(JOB, "node-a", Instant.EPOCH, LocalDate.of(2030, 1, 7))));
+
+        assertThat(jobLeaseService.findCompletedThrough(JOB)).contains(LocalDate.of(2030, 1, 7));
+    }
+
+    @Test
+    void markCompletedThrough_recordsDayForOwnLease() {
+        jobLeaseService.markCompletedThrough(JOB, LocalDate.of(2030, 1, 7));
+
+        verify(jobLeaseRepository).markCompletedThrough(JOB, jobLeaseService.getOwner(), LocalDate.of(2030, 1, 7));
+    }
+
+    @Test
+    void owner_isUniquePerInstance() {
+        JobLeaseServiceImpl other = new JobLeaseServiceImpl(jobLeaseRepository, transactionManager);
+
+        assertThat(other.getOwner()).isNotEqualTo(jobLeaseService.getOwner());
+    }
+}
@@ -11,15 +11,21 @@ import com.mastere_project.vacances_tranquilles.mapper.MessageMapper;
 import com.mastere_project.vacances_tranquilles.repository.ConversationRepository;
 import com.mastere_project.vacances_tranquilles.repository.MessageRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.ConversationReadService;
+import com.mastere_project.vacances_tranquilles.service.MessageStreamService;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 import com.mastere_project.vacances_tranquilles.dto.MessageResponseDTO;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,11 +40,20 @@ class MessageServiceImplTest {
 
     @Mock UserRepository userRepository;
 
+    @Mock MessageStreamService messageStreamService;
+
+    @Mock ConversationReadService conversationReadService;
+
+    @Mock CurrentUserService currentUserService;
+
     @InjectMocks MessageServiceImpl service;
 
     @BeforeEach
     void setUp() { 
         MockitoAnnotations.openMocks(this); 
+        // Résout l'utilisateur connecté à partir des bouchons de UserRepository de chaque test
+        lenient().when(currentUserService.findCurrentUser()).thenAnswer(invocation ->
+                userRepository.findById(SecurityUtils.getCurrentUserId()).map(AuthenticatedUser::from));
     }
 
     @Test
@@ -78,16 +93,94 @@ class MessageServiceImplTest {
             when(conversationRepository.findById(10L)).thenReturn(Optional.of(conv));
             when(messageRepository.findByConversationIdOrderBySentAtAsc(10L)).thenReturn(List.of(m1, m2));
             when(messageRepository.saveAll(any())).thenReturn(List.of(m1, m2));
-            when(messageRepository.markMessagesAsRead(10L, 1L)).thenReturn(1);
+            when(messageRepository.findLatestMessageId(10L)).thenReturn(2L);
             when(messageRepository.findMessagesDTOByConversationId(10L, "John Doe")).thenReturn(List.of());
             
             List<MessageResponseDTO> result = service.getMessagesByConversationId(10L);
             
             assertEquals(0, result.size());
-            verify(messageRepository).markMessagesAsRead(10L, 1L);
+            verify(conversationReadService).markRead(10L, 1L, 2L);
+        }
+    }
+
+    @Test
+    void testGetMessagesAfterIdReturnsOnlyNewMessages() {
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+            stubParticipant();
+            MessageResponseDTO newMessage = new MessageResponseDTO(6L, "Jane Smith", "Hi", null, false, "John Doe");
+            when(messageRepository.findMessagesDTOAfterId(10L, 5L, "John Doe", PageRequest.of(0, 20)))
+                    .thenReturn(List.of(newMessage));
+
+            List<MessageResponseDTO> result = service.getMessagesByConversationId(10L, 5L, null, 20);
+
+            assertEquals(List.of(newMessage), result);
+            verify(conversationReadService).markRead(10L, 1L, 2L);
+            verify(messageRepository, never()).findMessagesDTOByConversationId(any(), any());
+        }
+    }
+
+    @Test
+    void testGetMessagesBeforeIdReturnsChronologicalPage() {
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+            stubParticipant();
+            MessageResponseDTO newer = new MessageResponseDTO(4L, "Jane Smith", "B", null, true, "John Doe");
+            MessageResponseDTO older = new MessageResponseDTO(3L, "John Doe", "A", null, true, "John Doe");
+            when(messageRepository.findMessagesDTOBeforeId(10L, 5L, "John Doe",
+                    PageRequest.of(0, MessageServiceImpl.DEFAULT_MESSAGE_LIMIT)))
+                    .thenReturn(List.of(newer, older));
+
+            List<MessageResponseDTO> result = service.getMessagesByConversationId(10L, null, 5L, null);
+
+            assertEquals(List.of(older, newer), result);
+        }
+    }
+
+    @Test
+    void testGetMessagesWithoutCursorReturnsFullHistory() {
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+            stubParticipant();
+            when(messageRepository.findMessagesDTOByConversationId(10L, "John Doe")).thenReturn(List.of());
+
+            List<MessageResponseDTO> result = service.getMessagesByConversationId(10L, null, null, null);
+
+            assertTrue(result.isEmpty());
+            verify(messageRepository, never()).findMessagesDTOBeforeId(any(), any(), any(), any(Pageable.class));
         }
     }
 
+    @Test
+    void testGetMessagesSkipsReadStateForEmptyConversation() {
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+            stubParticipant();
+            when(messageRepository.findLatestMessageId(10L)).thenReturn(null);
+            when(messageRepository.findMessagesDTOByConversationId(10L, "John Doe")).thenReturn(List.of());
+
+            service.getMessagesByConversationId(10L);
+
+            verifyNoInteractions(conversationReadService);
+        }
+    }
+
+    @Test
+    void testGetMessagesRejectsBothCursors() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getMessagesByConversationId(10L, 1L, 5L, null));
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    void testGetMessagesRejectsInvalidLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getMessagesByConversationId(10L, 1L, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getMessagesByConversationId(10L, 1L, null, MessageServiceImpl.MAX_MESSAGE_LIMIT + 1));
+        verifyNoInteractions(messageRepository);
+    }
+
     @Test
     void testSendMessageSuccess() {
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
@@ -122,6 +215,7 @@ class MessageServiceImplTest {
             
             MessageDTO result = service.sendMessage(dto);
             assertEquals("msg", result.getContent());
+            verify(messageStreamService).publish(List.of(1L, 2L), MessageStreamService.MESSAGE_EVENT, dto);
         }
     }
 
@@ -172,6 +266,7 @@ class MessageServiceImplTest {
             when(conversationRepository.findById(10L)).thenReturn(Optional.of(conv));
             
             assertThrows(ConversationForbiddenException.class, () -> service.sendMessage(dto));
+            verifyNoInteractions(messageStreamService);
         }
     }
 
@@ -221,13 +316,46 @@ class MessageServiceImplTest {
             MessageDTO dto = new MessageDTO(); 
             dto.setContent("new");
             
-            when(messageRepository.findById(1L)).thenReturn(Optional.of(m));
+            when(messageRepository.findWithConversationById(1L)).thenReturn(Optional.of(m));
             when(messageRepository.save(any())).thenReturn(m);
             when(messageMapper.toDto(m)).thenReturn(dto);
             
             MessageDTO result = service.updateMessage(1L, dto);
             
             assertEquals("new", result.getContent());
+            verifyNoInteractions(messageStreamService);
+        }
+    }
+
+    @Test
+    void testUpdateMessagePublishesToParticipants() {
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(2L);
+            
+            User currentUser = new User(); 
+            currentUser.setId(2L);
+            when(userRepository.findById(2L)).thenReturn(Optional.of(currentUser));
+            
+            User u1 = new User(); 
+            u1.setId(1L);
+            Conversation conv = new Conversation(); 
+            conv.setId(10L);
+            conv.setUser1(u1);
+            conv.setUser2(currentUser);
+            Message m = new Message(); 
+            m.setId(1L); 
+            m.setSender(currentUser); 
+            m.setConversation(conv);
+            MessageDTO dto = new MessageDTO(); 
+            dto.setContent("new");
+            
+            when(messageRepository.findWithConversationById(1L)).thenReturn(Optional.of(m));
+            when(messageRepository.save(any())).thenReturn(m);
+            when(messageMapper.toDto(m)).thenReturn(dto);
+            
+            service.updateMessage(1L, dto);
+            
+            verify(messageStreamService).publish(List.of(1L, 2L), MessageStreamService.MESSAGE_UPDATED_EVENT, dto);
         }
     }
 
@@ -241,7 +369,7 @@ class MessageServiceImplTest {
             currentUser.setUserRole(UserRole.PROVIDER);
             when(userRepository.findById(2L)).thenReturn(Optional.of(currentUser));
             
-            when(messageRepository.findById(1L)).thenReturn(Optional.empty());
+            when(messageRepository.findWithConversationById(1L)).thenReturn(Optional.empty());
             MessageDTO dto = new MessageDTO();
             dto.setContent("test message");
             
@@ -265,7 +393,7 @@ class MessageServiceImplTest {
             sender.setId(2L); 
             m.setSender(sender);
             
-            when(messageRepository.findById(1L)).thenReturn(Optional.of(m));
+            when(messageRepository.findWithConversationById(1L)).thenReturn(Optional.of(m));
             MessageDTO dto = new MessageDTO();
             dto.setContent("test message");
             
@@ -297,7 +425,7 @@ class MessageServiceImplTest {
             
             when(conversationRepository.findById(10L)).thenReturn(Optional.of(conv));
             when(messageRepository.findByConversationIdOrderBySentAtAsc(10L)).thenReturn(List.of());
-            when(messageRepository.markMessagesAsRead(10L, 1L)).thenReturn(0);
+            when(messageRepository.findLatestMessageId(10L)).thenReturn(2L);
             when(messageRepository.findMessagesDTOByConversationId(10L, "John Doe")).thenReturn(List.of());
             
             List<MessageResponseDTO> result = service.getMessagesByConversationId(10L);
@@ -343,13 +471,13 @@ class MessageServiceImplTest {
             
             when(conversationRepository.findById(10L)).thenReturn(Optional.of(conv));
             when(messageRepository.findByConversationIdOrderBySentAtAsc(10L)).thenReturn(List.of(m1, m2));
-            when(messageRepository.markMessagesAsRead(10L, 1L)).thenReturn(0);
+            when(messageRepository.findLatestMessageId(10L)).thenReturn(2L);
             when(messageRepository.findMessagesDTOByConversationId(10L, "John Doe")).thenReturn(List.of());
             
             List<MessageResponseDTO> result = service.getMessagesByConversationId(10L);
             
             assertEquals(0, result.size());
-            verify(messageRepository).markMessagesAsRead(10L, 1L);
+            verify(conversationReadService).markRead(10L, 1L, 2L);
         }
     }
 
@@ -409,7 +537,7 @@ class MessageServiceImplTest {
             MessageDTO dto = new MessageDTO(); 
             dto.setContent(null); // Test null content
             
-            when(messageRepository.findById(1L)).thenReturn(Optional.of(m));
+            when(messageRepository.findWithConversationById(1L)).thenReturn(Optional.of(m));
             
             assertThrows(IllegalArgumentException.class, () -> service.updateMessage(1L, dto));
         }
@@ -470,9 +598,27 @@ class MessageServiceImplTest {
             MessageDTO dto = new MessageDTO(); 
             dto.setContent(""); // Test empty content
             
-            when(messageRepository.findById(1L)).thenReturn(Optional.of(m));
+            when(messageRepository.findWithConversationById(1L)).thenReturn(Optional.of(m));
             
             assertThrows(IllegalArgumentException.class, () -> service.updateMessage(1L, dto));
         }
     }
-} 
\ No newline at end of file
+
+    private void stubParticipant() {
+        User currentUser = new User();
+        currentUser.setId(1L);
+        currentUser.setFirstName("John");
+        currentUser.setLastName("Doe");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(currentUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(currentUser);
+
+        Conversation conv = new Conversation();
+        conv.setId(10L);
+        User u2 = new User();
+        u2.setId(2L);
+        conv.setUser1(currentUser);
+        conv.setUser2(u2);
+        when(conversationRepository.findById(10L)).thenReturn(Optional.of(conv));
+        when(messageRepository.findLatestMessageId(10L)).thenReturn(2L);
+    }
+}
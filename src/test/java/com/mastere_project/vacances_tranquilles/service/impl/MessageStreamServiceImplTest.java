@@ -0,0 +1,284 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
+import com.mastere_project.vacances_tranquilles.model.MessageEvent;
+import com.mastere_project.vacances_tranquilles.service.MessageEventBus;
+import com.mastere_project.vacances_tranquilles.service.MessageEventListener;
+import com.mastere_project.vacances_tranquilles.service.MessageStreamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.DoubleSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MessageStreamServiceImplTest {
+
+    private static final int MAX_PENDING = 3;
+    private static final Duration SEND_TIMEOUT = Duration.ofMillis(200);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MessageStreamServiceImpl messageStreamService;
+    private MessageDTO message;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        messageStreamService = new MessageStreamServiceImpl(new LocalMessageEventBus(), meterRegistry,
+                Duration.ofMinutes(30), 2, MAX_PENDING, SEND_TIMEOUT);
+        message = new MessageDTO();
+        message.setId(1L);
+        message.setConversationId(10L);
+        message.setContent("Bonjour");
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageStreamService.shutdown();
+    }
+
+    @Test
+    void subscribe_registersConnection_andExposesGauge() {
+        messageStreamService.subscribe(1L);
+        messageStreamService.subscribe(1L);
+        messageStreamService.subscribe(2L);
+
+        assertThat(messageStreamService.getConnectionCount()).isEqualTo(3);
+        assertThat(meterRegistry.get("messages.stream.connections").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    void publish_sendsToEveryStreamOfEachParticipant() throws Exception {
+        SseEmitter first = mock(SseEmitter.class);
+        SseEmitter second = mock(SseEmitter.class);
+        SseEmitter outsider = mock(SseEmitter.class);
+        messageStreamService.register(1L, first);
+        messageStreamService.register(1L, second);
+        messageStreamService.register(3L, outsider);
+
+        messageStreamService.publish(List.of(1L, 2L), MessageStreamService.MESSAGE_EVENT, message);
+
+        verify(first, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(second, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+        awaitFanOuts(2);
+        verify(outsider, never()).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(meterRegistry.get("messages.stream.delivered").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void publish_dropsBrokenStream_andCountsDroppedDelivery() throws Exception {
+        SseEmitter broken = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+        messageStreamService.register(1L, broken);
+
+        messageStreamService.publish(List.of(1L), MessageStreamService.MESSAGE_EVENT, message);
+
+        awaitDropped(1);
+        assertThat(messageStreamService.getConnectionCount()).isZero();
+        assertThat(meterRegistry.get("messages.stream.fanout").timer().count()).isZero();
+    }
+
+    @Test
+    void publish_doesNothing_whenNoParticipantIsConnected() {
+        messageStreamService.publish(List.of(1L, 2L), MessageStreamService.MESSAGE_EVENT, message);
+
+        assertThat(meterRegistry.get("messages.stream.fanout").timer().count()).isZero();
+        assertThat(meterRegistry.get("messages.stream.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void sendHeartbeats_removesStreamsThatCannotBeWritten() throws Exception {
+        SseEmitter alive = mock(SseEmitter.class);
+        SseEmitter gone = mock(SseEmitter.class);
+        doThrow(new IllegalStateException("completed")).when(gone).send(any(SseEmitter.SseEventBuilder.class));
+        messageStreamService.register(1L, alive);
+        messageStreamService.register(2L, gone);
+
+        messageStreamService.sendHeartbeats();
+
+        verify(alive, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+        awaitConnections(1);
+        verify(gone).completeWithError(any());
+        assertThat(meterRegistry.get("messages.stream.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void publish_isNotDelayedBySlowStream() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter slow = blockingEmitter(release);
+        SseEmitter fast = mock(SseEmitter.class);
+        messageStreamService.register(1L, slow);
+        messageStreamService.register(2L, fast);
+        try {
+            messageStreamService.publish(List.of(1L), MessageStreamService.MESSAGE_EVENT, message);
+            verify(slow, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+
+            messageStreamService.publish(List.of(1L, 2L), MessageStreamService.MESSAGE_EVENT, message);
+
+            verify(fast, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void publish_closesStream_whenSendIsBlockedBeyondTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter stalled = blockingEmitter(release);
+        messageStreamService.register(1L, stalled);
+        try {
+            messageStreamService.publish(List.of(1L), MessageStreamService.MESSAGE_EVENT, message);
+            verify(stalled, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+            Thread.sleep(SEND_TIMEOUT.toMillis() + 50);
+
+            messageStreamService.publish(List.of(1L), MessageStreamService.MESSAGE_EVENT, message);
+
+            verify(stalled).completeWithError(any(TimeoutException.class));
+            assertThat(messageStreamService.getConnectionCount()).isZero();
+            assertThat(meterRegistry.get("messages.stream.dropped").counter().count()).isEqualTo(1.0);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void publish_closesStream_whenSendQueueOverflows() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter slow = blockingEmitter(release);
+        messageStreamService.register(1L, slow);
+        try {
+            messageStreamService.publish(List.of(1L), MessageStreamService.MESSAGE_EVENT, message);
+            verify(slow, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+
+            for (int i = 0; i <= MAX_PENDING; i++) {
+                messageStreamService.publish(List.of(1L), MessageStreamService.MESSAGE_EVENT, message);
+            }
+
+            verify(slow).completeWithError(any(IllegalStateException.class));
+            assertThat(messageStreamService.getConnectionCount()).isZero();
+        } finally {
+            release.countDown();
+        }
+        // Le message refusé puis ceux restés en file sont comptés perdus une fois l'envoi débloqué
+        awaitDropped(1 + MAX_PENDING);
+    }
+
+    @Test
+    void publish_reachesStreamsOpenOnAnotherNode_onlyOnce() throws Exception {
+        List<InMemoryMessageEventBus> network = new CopyOnWriteArrayList<>();
+        SimpleMeterRegistry otherRegistry = new SimpleMeterRegistry();
+        MessageStreamServiceImpl nodeA = new MessageStreamServiceImpl(new InMemoryMessageEventBus(network),
+                meterRegistry, Duration.ofMinutes(30), 2, MAX_PENDING, SEND_TIMEOUT);
+        MessageStreamServiceImpl nodeB = new MessageStreamServiceImpl(new InMemoryMessageEventBus(network),
+                otherRegistry, Duration.ofMinutes(30), 2, MAX_PENDING, SEND_TIMEOUT);
+        try {
+            SseEmitter sender = mock(SseEmitter.class);
+            SseEmitter recipient = mock(SseEmitter.class);
+            nodeA.register(1L, sender);
+            nodeB.register(2L, recipient);
+
+            nodeA.publish(List.of(1L, 2L), MessageStreamService.MESSAGE_EVENT, message);
+
+            verify(sender, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+            verify(recipient, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+            awaitCount(() -> otherRegistry.get("messages.stream.delivered").counter().count(), 1.0);
+            awaitCount(() -> meterRegistry.get("messages.stream.delivered").counter().count(), 1.0);
+            verify(sender, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+            verify(recipient, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        } finally {
+            nodeA.shutdown();
+            nodeB.shutdown();
+        }
+    }
+
+    @Test
+    void unregister_isIdempotent() {
+        SseEmitter emitter = mock(SseEmitter.class);
+        messageStreamService.register(1L, emitter);
+
+        messageStreamService.unregister(1L, emitter);
+        messageStreamService.unregister(1L, emitter);
+
+        assertThat(messageStreamService.getConnectionCount()).isZero();
+    }
+
+    /**
+     * Transport en mémoire entre les nœuds d'un même test : chaque publication est livrée aux
+     * autres nœuds qui tiennent un flux d'un destinataire.
+     */
+    private static final class InMemoryMessageEventBus implements MessageEventBus {
+
+        private final List<InMemoryMessageEventBus> network;
+        private MessageEventListener listener;
+
+        private InMemoryMessageEventBus(List<InMemoryMessageEventBus> network) {
+            this.network = network;
+            network.add(this);
+        }
+
+        @Override
+        public void publish(MessageEvent event) {
+            network.stream()
+                    .filter(node -> node != this && node.listener.hasSubscribers(event.userIds()))
+                    .forEach(node -> node.listener.deliver(event));
+        }
+
+        @Override
+        public void subscribe(MessageEventListener listener) {
+            this.listener = listener;
+        }
+    }
+
+    private static void awaitCount(DoubleSupplier count, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (count.getAsDouble() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(count.getAsDouble()).isEqualTo(expected);
+    }
+
+    private static SseEmitter blockingEmitter(CountDownLatch release) throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(emitter)
+                .send(any(SseEmitter.SseEventBuilder.class));
+        return emitter;
+    }
+
+    private void awaitConnections(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (messageStreamService.getConnectionCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(messageStreamService.getConnectionCount()).isEqualTo(expected);
+    }
+
+    private void awaitDropped(double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (meterRegistry.get("messages.stream.dropped").counter().count() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get("messages.stream.dropped").counter().count()).isEqualTo(expected);
+    }
+
+    private void awaitFanOuts(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (meterRegistry.get("messages.stream.fanout").timer().count() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get("messages.stream.fanout").timer().count()).isEqualTo(expected);
+    }
+}
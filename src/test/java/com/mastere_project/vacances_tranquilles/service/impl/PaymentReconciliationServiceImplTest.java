@@ -0,0 +1,253 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.Payment;
+import com.mastere_project.vacances_tranquilles.entity.PaymentDiscrepancy;
+import com.mastere_project.vacances_tranquilles.exception.PaymentGatewayUnavailableException;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionSummary;
+import com.mastere_project.vacances_tranquilles.model.enums.PaymentDiscrepancyType;
+import com.mastere_project.vacances_tranquilles.repository.PaymentDiscrepancyRepository;
+import com.mastere_project.vacances_tranquilles.repository.PaymentRepository;
+import com.mastere_project.vacances_tranquilles.service.JobLeaseService;
+import com.mastere_project.vacances_tranquilles.service.StripeClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final Instant FROM = DAY.atStartOfDay(ZONE).toInstant();
+    private static final Instant TO = DAY.plusDays(1).atStartOfDay(ZONE).toInstant();
+    private static final Instant SESSIONS_FROM = FROM.minus(Duration.ofDays(1));
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentDiscrepancyRepository discrepancyRepository;
+
+    @Mock
+    private StripeClient stripeClient;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentReconciliationServiceImpl reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciliationService = new PaymentReconciliationServiceImpl(paymentRepository, discrepancyRepository,
+                stripeClient, jobLeaseService, transactionManager, meterRegistry, 2, true, Duration.ofHours(1));
+    }
+
+    @Test
+    void reconcile_comparesStripePagesWithPayments_andReportsEachKindOfDiscrepancy() {
+        StripeSessionSummary missing = session("cs_missing", "paid", 10000L, FROM.plusSeconds(60));
+        StripeSessionSummary matching = session("cs_ok", "paid", 10000L, FROM.plusSeconds(120));
+        StripeSessionSummary wrongAmount = session("cs_amount", "paid", 9000L, FROM.plusSeconds(180));
+        StripeSessionSummary unpaid = session("cs_unpaid", "unpaid", 10000L, SESSIONS_FROM.plusSeconds(60));
+        StripeSessionSummary previousDay = session("cs_previous", "paid", 10000L, SESSIONS_FROM.plusSeconds(120));
+        when(stripeClient.listCheckoutSessions(SESSIONS_FROM, TO, null, 2))
+                .thenReturn(page(true, missing, matching));
+        when(stripeClient.listCheckoutSessions(SESSIONS_FROM, TO, "cs_ok", 2))
+                .thenReturn(page(true, wrongAmount, unpaid));
+        when(stripeClient.listCheckoutSessions(SESSIONS_FROM, TO, "cs_unpaid", 2))
+                .thenReturn(page(false, previousDay));
+        when(paymentRepository.findByStripeSessionIdIn(any()))
+                .thenReturn(List.of(payment(1L, "cs_ok", "100.00", 9)))
+                .thenReturn(List.of(payment(2L, "cs_amount", "100.00", 10), payment(3L, "cs_unpaid", "100.00", 11)))
+                .thenReturn(List.of());
+        when(paymentRepository.findUnreconciled(any(), any(), any(), eq(0L), any()))
+                .thenReturn(List.of(payment(4L, "cs_unknown", "50.00", 12)));
+
+        int discrepancies = reconciliationService.reconcile(DAY);
+
+        assertThat(discrepancies).isEqualTo(4);
+        assertThat(savedDiscrepancies()).extracting(PaymentDiscrepancy::getType, PaymentDiscrepancy::getStripeSessionId,
+                PaymentDiscrepancy::getPaymentId, PaymentDiscrepancy::getStripeAmount, PaymentDiscrepancy::getLocalAmount)
+                .containsExactly(
+                        tuple(PaymentDiscrepancyType.MISSING_PAYMENT, "cs_missing", null, 10000L, null),
+                        tuple(PaymentDiscrepancyType.AMOUNT_MISMATCH, "cs_amount", 2L, 9000L, 10000L),
+                        tuple(PaymentDiscrepancyType.STATUS_MISMATCH, "cs_unpaid", 3L, 10000L, 10000L),
+                        tuple(PaymentDiscrepancyType.UNKNOWN_SESSION, "cs_unknown", 4L, null, 5000L));
+        assertThat(savedDiscrepancies()).allMatch(discrepancy -> DAY.equals(discrepancy.getReconciliationDate()));
+        verify(discrepancyRepository).deleteByReconciliationDate(DAY);
+        verify(paymentRepository).markReconciled(eq(List.of(1L)), any());
+        verify(paymentRepository).markReconciled(eq(List.of(2L, 3L)), any());
+        verify(paymentRepository).findUnreconciled(eq(LocalDateTime.ofInstant(FROM, ZONE)),
+                eq(LocalDateTime.ofInstant(TO, ZONE)), any(), eq(0L), any());
+        assertThat(meterRegistry.get("payments.reconciliation.discrepancies").tag("type", "MISSING_PAYMENT")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("payments.reconciliation.run").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_leavesPaymentsOfOtherDaysToTheirOwnRun() {
+        when(stripeClient.listCheckoutSessions(SESSIONS_FROM, TO, null, 2))
+                .thenReturn(page(false, session("cs_1", "paid", 9000L, SESSIONS_FROM.plusSeconds(60))));
+        Payment paidYesterday = payment(1L, "cs_1", "100.00", 0);
+        paidYesterday.setPaymentDate(LocalDateTime.ofInstant(FROM, ZONE).minusHours(1));
+        when(paymentRepository.findByStripeSessionIdIn(List.of("cs_1"))).thenReturn(List.of(paidYesterday));
+        when(paymentRepository.findUnreconciled(any(), any(), any(), eq(0L), any())).thenReturn(List.of());
+
+        assertThat(reconciliationService.reconcile(DAY)).isZero();
+
+        verify(paymentRepository).markReconciled(eq(List.of(1L)), any());
+        verify(discrepancyRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void reconcile_pagesThroughUnreconciledPaymentsById() {
+        when(stripeClient.listCheckoutSessions(SESSIONS_FROM, TO, null, 2)).thenReturn(page(false));
+        when(paymentRepository.findUnreconciled(any(), any(), any(), eq(0L), any()))
+                .thenReturn(List.of(payment(3L, "cs_3", "10.00", 9), payment(5L, "cs_5", "10.00", 9)));
+        when(paymentRepository.findUnreconciled(any(), any(), any(), eq(5L), any()))
+                .thenReturn(List.of(payment(8L, "cs_8", "10.00", 9)));
+
+        assertThat(reconciliationService.reconcile(DAY)).isEqualTo(3);
+
+        verify(paymentRepository, never()).findByStripeSessionIdIn(any());
+        verify(paymentRepository, times(2)).findUnreconciled(any(), any(), any(), any(), any());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void reconcile_stops_whenStripeIsUnavailable() {
+        when(stripeClient.listCheckoutSessions(any(), any(), isNull(), anyInt())).thenReturn(
+                CompletableFuture.failedFuture(new PaymentGatewayUnavailableException("indisponible")));
+
+        assertThatThrownBy(() -> reconciliationService.reconcile(DAY))
+                .isInstanceOf(PaymentGatewayUnavailableException.class);
+        verify(paymentRepository, never()).findUnreconciled(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void scheduledReconciliation_skips_whenLeaseIsHeldElsewhere() {
+        when(jobLeaseService.tryAcquire(PaymentReconciliationServiceImpl.JOB_NAME, Duration.ofHours(1)))
+                .thenReturn(false);
+
+        reconciliationService.scheduledReconciliation();
+
+        verifyNoInteractions(stripeClient, paymentRepository, discrepancyRepository);
+        verify(jobLeaseService, never()).release(any());
+    }
+
+    @Test
+    void scheduledReconciliation_releasesLease_evenWhenStripeFails() {
+        when(jobLeaseService.tryAcquire(PaymentReconciliationServiceImpl.JOB_NAME, Duration.ofHours(1)))
+                .thenReturn(true);
+        when(stripeClient.listCheckoutSessions(any(), any(), isNull(), anyInt())).thenReturn(
+                CompletableFuture.failedFuture(new PaymentGatewayUnavailableException("indisponible")));
+
+        assertThatThrownBy(() -> reconciliationService.scheduledReconciliation())
+                .isInstanceOf(PaymentGatewayUnavailableException.class);
+        verify(jobLeaseService).release(PaymentReconciliationServiceImpl.JOB_NAME);
+    }
+
+    @Test
+    void scheduledReconciliation_resumesInterruptedDay_andCatchesUpToYesterday() {
+        LocalDate yesterday = LocalDate.now(ZONE).minusDays(1);
+        LocalDate missed = yesterday.minusDays(1);
+        when(jobLeaseService.tryAcquire(PaymentReconciliationServiceImpl.JOB_NAME, Duration.ofHours(1)))
+                .thenReturn(true);
+        when(jobLeaseService.findCompletedThrough(PaymentReconciliationServiceImpl.JOB_NAME))
+                .thenReturn(Optional.of(missed.minusDays(1)));
+        when(stripeClient.listCheckoutSessions(any(), any(), isNull(), anyInt()))
+                .thenReturn(page(true, session("cs_1", "paid", 10000L, FROM), session("cs_2", "paid", 10000L, FROM)));
+        when(stripeClient.listCheckoutSessions(any(), any(), eq("cs_2"), anyInt()))
+                .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayUnavailableException("indisponible")))
+                .thenReturn(page(false));
+        when(paymentRepository.findUnreconciled(any(), any(), any(), eq(0L), any())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> reconciliationService.scheduledReconciliation())
+                .isInstanceOf(PaymentGatewayUnavailableException.class);
+
+        verify(jobLeaseService, never()).markCompletedThrough(any(), any());
+        assertThat(meterRegistry.get("payments.reconciliation.failures").counter().count()).isEqualTo(1.0);
+
+        reconciliationService.scheduledReconciliation();
+
+        verify(discrepancyRepository, times(2)).deleteByReconciliationDate(missed);
+        verify(discrepancyRepository).deleteByReconciliationDate(yesterday);
+        verify(jobLeaseService).markCompletedThrough(PaymentReconciliationServiceImpl.JOB_NAME, missed);
+        verify(jobLeaseService).markCompletedThrough(PaymentReconciliationServiceImpl.JOB_NAME, yesterday);
+        assertThat(meterRegistry.get("payments.reconciliation.failures").counter().count()).isEqualTo(1.0);
+        verify(jobLeaseService, times(2)).release(PaymentReconciliationServiceImpl.JOB_NAME);
+    }
+
+    @Test
+    void scheduledReconciliation_reconcilesOnlyYesterday_whenNoDayWasRecorded() {
+        LocalDate yesterday = LocalDate.now(ZONE).minusDays(1);
+        when(jobLeaseService.tryAcquire(PaymentReconciliationServiceImpl.JOB_NAME, Duration.ofHours(1)))
+                .thenReturn(true);
+        when(stripeClient.listCheckoutSessions(any(), any(), isNull(), anyInt())).thenReturn(page(false));
+        when(paymentRepository.findUnreconciled(any(), any(), any(), eq(0L), any())).thenReturn(List.of());
+
+        reconciliationService.scheduledReconciliation();
+
+        verify(discrepancyRepository).deleteByReconciliationDate(yesterday);
+        verify(discrepancyRepository, times(1)).deleteByReconciliationDate(any());
+        verify(jobLeaseService).markCompletedThrough(PaymentReconciliationServiceImpl.JOB_NAME, yesterday);
+    }
+
+    @Test
+    void constructor_rejectsPageSizesStripeCannotServe() {
+        assertThatThrownBy(() -> new PaymentReconciliationServiceImpl(paymentRepository, discrepancyRepository,
+                stripeClient, jobLeaseService, transactionManager, meterRegistry, 101, true, Duration.ofHours(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PaymentDiscrepancy> savedDiscrepancies() {
+        ArgumentCaptor<Collection<PaymentDiscrepancy>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(discrepancyRepository, atLeastOnce()).saveAll(captor.capture());
+        List<PaymentDiscrepancy> saved = new ArrayList<>();
+        captor.getAllValues().forEach(saved::addAll);
+        return saved;
+    }
+
+    private static CompletableFuture<StripeSessionPage> page(boolean hasMore, StripeSessionSummary... sessions) {
+        return CompletableFuture.completedFuture(new StripeSessionPage(List.of(sessions), hasMore));
+    }
+
+    private static StripeSessionSummary session(String id, String paymentStatus, Long amountTotal, Instant created) {
+        return new StripeSessionSummary(id, paymentStatus, amountTotal, "eur", created);
+    }
+
+    private static Payment payment(Long id, String sessionId, String amount, int hour) {
+        return new Payment(id, "PAID", new BigDecimal(amount), DAY.atTime(hour, 0), "STRIPE_CHECKOUT", sessionId,
+                "eur", null);
+    }
+}
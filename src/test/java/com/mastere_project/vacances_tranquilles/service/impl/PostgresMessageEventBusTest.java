@@ -0,0 +1,133 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.MessageDTO;
+import com.mastere_project.vacances_tranquilles.entity.Message;
+import com.mastere_project.vacances_tranquilles.mapper.MessageMapper;
+import com.mastere_project.vacances_tranquilles.repository.MessageRepository;
+import com.mastere_project.vacances_tranquilles.service.MessageStreamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Vérifie la diffusion des messages entre deux nœuds par LISTEN/NOTIFY : deux transports et deux
+ * services de diffusion partagent une base PostgreSQL, un message publié sur l'un est livré aux
+ * flux ouverts sur l'autre. Lancement sur une base locale :
+ * {@code MESSAGE_BUS_TEST_URL=jdbc:postgresql://localhost:5432/postgres mvn test -Dtest=PostgresMessageEventBusTest}
+ * (utilisateur et mot de passe : MESSAGE_BUS_TEST_USERNAME, MESSAGE_BUS_TEST_PASSWORD).
+ */
+@EnabledIfEnvironmentVariable(named = "MESSAGE_BUS_TEST_URL", matches = ".+")
+class PostgresMessageEventBusTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final MessageMapper messageMapper = mock(MessageMapper.class);
+    private DriverManagerDataSource dataSource;
+    private PostgresMessageEventBus busA;
+    private PostgresMessageEventBus busB;
+    private MessageStreamServiceImpl nodeA;
+    private MessageStreamServiceImpl nodeB;
+    private MessageDTO message;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(System.getenv("MESSAGE_BUS_TEST_URL"));
+        properties.setUsername(Optional.ofNullable(System.getenv("MESSAGE_BUS_TEST_USERNAME")).orElse("postgres"));
+        properties.setPassword(Optional.ofNullable(System.getenv("MESSAGE_BUS_TEST_PASSWORD")).orElse(""));
+        dataSource = new DriverManagerDataSource(properties.determineUrl(), properties.determineUsername(),
+                properties.determinePassword());
+        busA = bus(properties);
+        busB = bus(properties);
+        nodeA = node(busA);
+        nodeB = node(busB);
+        busA.start();
+        busB.start();
+        awaitListeners(2);
+
+        message = new MessageDTO();
+        message.setId(42L);
+        message.setConversationId(10L);
+        message.setContent("Bonjour");
+        Message entity = new Message();
+        when(messageRepository.findById(42L)).thenReturn(Optional.of(entity));
+        when(messageMapper.toDto(entity)).thenReturn(message);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+        busA.stop();
+        busB.stop();
+    }
+
+    @Test
+    void publish_reachesStreamOpenOnOtherNode_andSkipsOwnNotification() throws Exception {
+        SseEmitter sender = mock(SseEmitter.class);
+        SseEmitter recipient = mock(SseEmitter.class);
+        nodeA.register(1L, sender);
+        nodeB.register(2L, recipient);
+
+        nodeA.publish(List.of(1L, 2L), MessageStreamService.MESSAGE_EVENT, message);
+
+        verify(recipient, timeout(TIMEOUT.toMillis())).send(any(SseEmitter.SseEventBuilder.class));
+        verify(sender, timeout(TIMEOUT.toMillis())).send(any(SseEmitter.SseEventBuilder.class));
+        Thread.sleep(500);
+        verify(sender, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(recipient, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(messageRepository, times(1)).findById(42L);
+    }
+
+    @Test
+    void publish_doesNotReloadMessage_whenNoRecipientIsConnectedToOtherNode() throws Exception {
+        nodeA.publish(List.of(1L, 2L), MessageStreamService.MESSAGE_EVENT, message);
+
+        Thread.sleep(500);
+        verify(messageRepository, never()).findById(any());
+    }
+
+    private PostgresMessageEventBus bus(DataSourceProperties properties) {
+        return new PostgresMessageEventBus(new JdbcTemplate(dataSource), messageRepository, messageMapper,
+                new DataSourceTransactionManager(dataSource), properties, Duration.ofMillis(100));
+    }
+
+    private static MessageStreamServiceImpl node(PostgresMessageEventBus bus) {
+        return new MessageStreamServiceImpl(bus, new SimpleMeterRegistry(), Duration.ofMinutes(30), 2, 10,
+                Duration.ofSeconds(10));
+    }
+
+    /**
+     * Attend que les connexions d'écoute des deux transports soient abonnées au canal.
+     */
+    private void awaitListeners(int expected) throws InterruptedException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+        Integer listening = 0;
+        while (System.currentTimeMillis() < deadline) {
+            listening = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity WHERE query = ?",
+                    Integer.class, "LISTEN " + PostgresMessageEventBus.CHANNEL);
+            if (listening != null && listening >= expected) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        assertThat(listening).isGreaterThanOrEqualTo(expected);
+    }
+}
@@ -0,0 +1,169 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ProviderSlotLockImplTest {
+
+    private static final int THREADS = 32;
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    private PlatformTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+    private ProviderSlotLockImpl providerSlotLock;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        providerSlotLock = new ProviderSlotLockImpl(transactionManager, jdbcTemplate, 64);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Un seul des appels concurrents sur le même créneau doit réussir")
+    void executeLocked_sameSlot_exactlyOneWinner() throws Exception {
+        // Réservation naïve « vérifier puis enregistrer », sûre uniquement sous le verrou
+        int[] bookings = new int[1];
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return providerSlotLock.executeLocked(1L, DATE, () -> {
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    try {
+                        if (bookings[0] > 0) {
+                            return false;
+                        }
+                        Thread.yield();
+                        bookings[0]++;
+                        return true;
+                    } finally {
+                        inside.decrementAndGet();
+                    }
+                });
+            }));
+        }
+        start.countDown();
+
+        int winners = 0;
+        for (Future<Boolean> result : results) {
+            if (Boolean.TRUE.equals(result.get(10, TimeUnit.SECONDS))) {
+                winners++;
+            }
+        }
+        assertThat(winners).isEqualTo(1);
+        assertThat(bookings[0]).isEqualTo(1);
+        assertThat(maxInside.get()).isEqualTo(1);
+        verify(transactionManager, times(THREADS)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Un prestataire sur une autre bande ne doit pas attendre le verrou d'un autre")
+    void executeLocked_unrelatedProvider_isNotBlocked() throws Exception {
+        long otherProvider = 2L;
+        while (providerSlotLock.stripeIndex(otherProvider, DATE) == providerSlotLock.stripeIndex(1L, DATE)) {
+            otherProvider++;
+        }
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Boolean> holder = executor.submit(() -> providerSlotLock.executeLocked(1L, DATE, () -> {
+            holding.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Plusieurs réservations d'autres prestataires se terminent pendant que le premier verrou est tenu
+        List<Future<Boolean>> others = new ArrayList<>();
+        for (int i = 0; i < THREADS - 1; i++) {
+            long providerId = otherProvider;
+            others.add(executor.submit(() -> providerSlotLock.executeLocked(providerId, DATE, () -> true)));
+        }
+        for (Future<Boolean> other : others) {
+            assertThat(other.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(holder.isDone()).isFalse();
+
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("L'action doit s'exécuter dans une nouvelle transaction")
+    void executeLocked_runsActionInNewTransaction() {
+        String result = providerSlotLock.executeLocked(1L, DATE, () -> "ok");
+
+        assertThat(result).isEqualTo("ok");
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager).commit(any());
+        verify(jdbcTemplate, never()).queryForList(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Sur PostgreSQL, un verrou consultatif doit être pris dans la transaction")
+    void executeLocked_takesAdvisoryLock_onPostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+
+        providerSlotLock.executeLocked(7L, DATE, () -> true);
+        providerSlotLock.executeLocked(7L, DATE, () -> true);
+
+        verify(jdbcTemplate, times(2)).queryForList("SELECT pg_advisory_xact_lock(?, ?)", 7, (int) DATE.toEpochDay());
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    @DisplayName("Une exception de l'action doit libérer le verrou")
+    void executeLocked_releasesLock_whenActionFails() throws Exception {
+        assertThatThrownBy(() -> providerSlotLock.executeLocked(1L, DATE, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        Future<Boolean> next = executor.submit(() -> providerSlotLock.executeLocked(1L, DATE, () -> true));
+        assertThat(next.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveStripeCount() {
+        assertThatThrownBy(() -> new ProviderSlotLockImpl(transactionManager, jdbcTemplate, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,195 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
+import com.mastere_project.vacances_tranquilles.entity.UserRating;
+import com.mastere_project.vacances_tranquilles.model.RatingBucket;
+import com.mastere_project.vacances_tranquilles.repository.ReviewRepository;
+import com.mastere_project.vacances_tranquilles.repository.UserRatingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingAggregateServiceImplTest {
+
+    @Mock
+    private UserRatingRepository userRatingRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RatingAggregateServiceImpl ratingAggregateService;
+
+    @BeforeEach
+    void setUp() {
+        ratingAggregateService = new RatingAggregateServiceImpl(userRatingRepository, reviewRepository,
+                transactionManager, false);
+    }
+
+    @Test
+    void getRating_computesAverageAndHistogram_andCachesResult() {
+        when(userRatingRepository.findById(2L)).thenReturn(Optional.of(rating(2L, 0, 0, 1, 0, 2)));
+
+        RatingSummaryDTO first = ratingAggregateService.getRating(2L);
+        RatingSummaryDTO second = ratingAggregateService.getRating(2L);
+
+        assertThat(first.getReviewCount()).isEqualTo(3);
+        assertThat(first.getAverage()).isEqualTo(4.33);
+        assertThat(first.getHistogram()).containsExactly(0L, 0L, 1L, 0L, 2L);
+        assertThat(second).isSameAs(first);
+        verify(userRatingRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void getRating_returnsEmptySummary_whenUserHasNoReview() {
+        when(userRatingRepository.findById(2L)).thenReturn(Optional.empty());
+
+        RatingSummaryDTO summary = ratingAggregateService.getRating(2L);
+
+        assertThat(summary.getReviewCount()).isZero();
+        assertThat(summary.getAverage()).isNull();
+        assertThat(summary.getHistogram()).containsExactly(0L, 0L, 0L, 0L, 0L);
+    }
+
+    @Test
+    void getRatings_readsOnlyUncachedUsers_inOneQuery() {
+        when(userRatingRepository.findById(1L)).thenReturn(Optional.of(rating(1L, 0, 0, 0, 1, 0)));
+        RatingSummaryDTO cached = ratingAggregateService.getRating(1L);
+        when(userRatingRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(rating(2L, 0, 0, 0, 0, 1)));
+
+        Map<Long, RatingSummaryDTO> ratings = ratingAggregateService.getRatings(List.of(1L, 2L, 3L));
+
+        assertThat(ratings.get(1L)).isSameAs(cached);
+        assertThat(ratings.get(2L).getAverage()).isEqualTo(5.0);
+        assertThat(ratings.get(3L).getReviewCount()).isZero();
+        verify(userRatingRepository).findAllById(Set.of(2L, 3L));
+    }
+
+    @Test
+    void onReviewCreated_createsMissingAggregate_thenAddsNote() {
+        when(userRatingRepository.existsById(2L)).thenReturn(false);
+
+        ratingAggregateService.onReviewCreated(2L, 4);
+
+        ArgumentCaptor<UserRating> captor = ArgumentCaptor.forClass(UserRating.class);
+        verify(userRatingRepository).saveAndFlush(captor.capture());
+        assertThat(captor.getValue().getUserId()).isEqualTo(2L);
+        assertThat(captor.getValue().getReviewCount()).isZero();
+        verify(userRatingRepository).addNote(2L, 4);
+    }
+
+    @Test
+    void onReviewCreated_addsNote_whenAggregateWasCreatedConcurrently() {
+        when(userRatingRepository.existsById(2L)).thenReturn(false);
+        when(userRatingRepository.saveAndFlush(any(UserRating.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        ratingAggregateService.onReviewCreated(2L, 4);
+
+        verify(userRatingRepository).addNote(2L, 4);
+    }
+
+    @Test
+    void onReviewCreated_evictsCachedRating_afterCommit() {
+        when(userRatingRepository.findById(2L)).thenReturn(Optional.of(rating(2L, 0, 0, 0, 1, 0)),
+                Optional.of(rating(2L, 0, 0, 0, 1, 1)));
+        when(userRatingRepository.existsById(2L)).thenReturn(true);
+        ratingAggregateService.getRating(2L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ratingAggregateService.onReviewCreated(2L, 5);
+
+            // Tant que la transaction n'est pas validée, l'ancienne valeur reste servie
+            assertThat(ratingAggregateService.getRating(2L).getReviewCount()).isEqualTo(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(ratingAggregateService.getRating(2L).getReviewCount()).isEqualTo(2);
+        verify(userRatingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_aggregatesBucketsPerUser_inOnePass() {
+        when(reviewRepository.streamRatingBuckets()).thenReturn(Stream.of(
+                new RatingBucket(1L, 4, 2),
+                new RatingBucket(1L, 5, 1),
+                new RatingBucket(2L, 1, 3)));
+
+        int count = ratingAggregateService.rebuild();
+
+        assertThat(count).isEqualTo(2);
+        verify(userRatingRepository).deleteAllInBatch();
+        ArgumentCaptor<List<UserRating>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userRatingRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+        UserRating first = captor.getValue().get(0);
+        assertThat(first.getUserId()).isEqualTo(1L);
+        assertThat(first.getReviewCount()).isEqualTo(3);
+        assertThat(first.getRatingSum()).isEqualTo(13);
+        assertThat(first.getCount4()).isEqualTo(2);
+        assertThat(first.getCount5()).isEqualTo(1);
+        UserRating second = captor.getValue().get(1);
+        assertThat(second.getReviewCount()).isEqualTo(3);
+        assertThat(second.getCount1()).isEqualTo(3);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void onApplicationReady_rebuilds_whenAggregatesAreMissing() {
+        when(userRatingRepository.count()).thenReturn(0L);
+        when(reviewRepository.count()).thenReturn(4L);
+        when(reviewRepository.streamRatingBuckets()).thenReturn(Stream.empty());
+
+        ratingAggregateService.onApplicationReady();
+
+        verify(userRatingRepository).deleteAllInBatch();
+    }
+
+    @Test
+    void onApplicationReady_doesNothing_whenAggregatesExist() {
+        when(userRatingRepository.count()).thenReturn(3L);
+
+        ratingAggregateService.onApplicationReady();
+
+        verify(reviewRepository, never()).streamRatingBuckets();
+        verify(userRatingRepository, never()).deleteAllInBatch();
+    }
+
+    private static UserRating rating(Long userId, long c1, long c2, long c3, long c4, long c5) {
+        UserRating rating = new UserRating();
+        rating.setUserId(userId);
+        rating.setCount1(c1);
+        rating.setCount2(c2);
+        rating.setCount3(c3);
+        rating.setCount4(c4);
+        rating.setCount5(c5);
+        rating.setReviewCount(c1 + c2 + c3 + c4 + c5);
+        rating.setRatingSum(c1 + 2 * c2 + 3 * c3 + 4 * c4 + 5 * c5);
+        return rating;
+    }
+}
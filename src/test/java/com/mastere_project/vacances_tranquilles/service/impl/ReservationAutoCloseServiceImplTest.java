@@ -0,0 +1,136 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
+import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
+import com.mastere_project.vacances_tranquilles.service.JobLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationAutoCloseServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 7, 18, 30);
+    private static final PageRequest CHUNK = PageRequest.of(0, 2);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReservationAutoCloseServiceImpl autoCloseService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        autoCloseService = new ReservationAutoCloseServiceImpl(reservationRepository, jobLeaseService,
+                transactionManager, meterRegistry, 2, true, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void closeFinishedReservations_processesChunksUntilExhausted() {
+        when(reservationRepository.findFinishedIds(ReservationStatus.IN_PROGRESS, LocalDate.of(2030, 1, 7),
+                LocalTime.of(18, 30), CHUNK))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(reservationRepository.updateStatusByIds(List.of(1L, 2L), ReservationStatus.IN_PROGRESS,
+                ReservationStatus.CLOSED)).thenReturn(2);
+        when(reservationRepository.updateStatusByIds(List.of(3L), ReservationStatus.IN_PROGRESS,
+                ReservationStatus.CLOSED)).thenReturn(1);
+
+        int closed = autoCloseService.closeFinishedReservations(NOW);
+
+        assertThat(closed).isEqualTo(3);
+        assertThat(meterRegistry.get("reservations.autoclose.rows").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("reservations.autoclose.batch").timer().count()).isEqualTo(2);
+        verify(transactionManager, times(2)).commit(any());
+        verify(reservationRepository, never()).findAll();
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void closeFinishedReservations_returnsZero_whenNothingToClose() {
+        when(reservationRepository.findFinishedIds(any(), any(), any(), any())).thenReturn(List.of());
+
+        assertThat(autoCloseService.closeFinishedReservations(NOW)).isZero();
+        verify(reservationRepository, never()).updateStatusByIds(any(), any(), any());
+    }
+
+    @Test
+    void closeFinishedReservations_stops_whenFullChunkClosesNothing() {
+        // Protection contre une boucle infinie si les lignes ne sortent pas du critère
+        when(reservationRepository.findFinishedIds(any(), any(), any(), any())).thenReturn(List.of(1L, 2L));
+        when(reservationRepository.updateStatusByIds(any(), any(), any())).thenReturn(0);
+
+        assertThat(autoCloseService.closeFinishedReservations(NOW)).isZero();
+        verify(reservationRepository, times(1)).updateStatusByIds(any(), any(), any());
+    }
+
+    @Test
+    void scheduledAutoClose_runsAndReleasesLease_whenAcquired() {
+        when(jobLeaseService.tryAcquire(ReservationAutoCloseServiceImpl.JOB_NAME, Duration.ofMinutes(10)))
+                .thenReturn(true);
+        when(reservationRepository.findFinishedIds(any(), any(), any(), any())).thenReturn(List.of());
+
+        autoCloseService.scheduledAutoClose();
+
+        verify(reservationRepository).findFinishedIds(any(), any(), any(), any());
+        verify(jobLeaseService).release(ReservationAutoCloseServiceImpl.JOB_NAME);
+    }
+
+    @Test
+    void scheduledAutoClose_releasesLease_whenBatchFails() {
+        when(jobLeaseService.tryAcquire(any(), any())).thenReturn(true);
+        when(reservationRepository.findFinishedIds(any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> autoCloseService.scheduledAutoClose()).isInstanceOf(IllegalStateException.class);
+        verify(jobLeaseService).release(ReservationAutoCloseServiceImpl.JOB_NAME);
+    }
+
+    @Test
+    void scheduledAutoClose_skips_whenLeaseHeldElsewhere() {
+        when(jobLeaseService.tryAcquire(any(), any())).thenReturn(false);
+
+        autoCloseService.scheduledAutoClose();
+
+        verifyNoInteractions(reservationRepository);
+        verify(jobLeaseService, never()).release(any());
+    }
+
+    @Test
+    void scheduledAutoClose_doesNothing_whenDisabled() {
+        ReservationAutoCloseServiceImpl disabled = new ReservationAutoCloseServiceImpl(reservationRepository,
+                jobLeaseService, transactionManager, meterRegistry, 2, false, Duration.ofMinutes(10));
+
+        disabled.scheduledAutoClose();
+
+        verifyNoInteractions(reservationRepository, jobLeaseService);
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveChunkSize() {
+        assertThatThrownBy(() -> new ReservationAutoCloseServiceImpl(reservationRepository, jobLeaseService,
+                transactionManager, meterRegistry, 0, true, Duration.ofMinutes(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
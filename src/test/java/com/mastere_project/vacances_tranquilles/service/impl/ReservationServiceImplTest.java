@@ -1,20 +1,33 @@
 package com.mastere_project.vacances_tranquilles.service.impl;
 
 import com.mastere_project.vacances_tranquilles.dto.ReservationDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReservationPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
 import com.mastere_project.vacances_tranquilles.dto.UpdateReservationStatusDTO;
+import com.mastere_project.vacances_tranquilles.entity.Payment;
 import com.mastere_project.vacances_tranquilles.entity.Reservation;
 import com.mastere_project.vacances_tranquilles.entity.User;
 import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
 import com.mastere_project.vacances_tranquilles.exception.ReservationNotFoundException;
+import com.mastere_project.vacances_tranquilles.exception.ReservationSlotUnavailableException;
 import com.mastere_project.vacances_tranquilles.exception.UnauthorizedReservationAccessException;
 import com.mastere_project.vacances_tranquilles.mapper.ReservationMapper;
+import com.mastere_project.vacances_tranquilles.model.CheckoutPayment;
 import com.mastere_project.vacances_tranquilles.model.enums.ReservationStatus;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.PaymentRepository;
 import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
 import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.service.ProviderSlotLock;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.util.pagination.ReservationCursor;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,6 +36,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -31,15 +46,19 @@ import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @ExtendWith(MockitoExtension.class)
 class ReservationServiceImplTest {
 
+    private static final CheckoutPayment PAYMENT = new CheckoutPayment("cs_test_1", 10000, "eur");
+
     @Mock
     private ReservationRepository reservationRepository;
 
@@ -52,12 +71,35 @@ class ReservationServiceImplTest {
     @Mock
     private ReservationMapper reservationMapper;
 
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private ScheduleRuleRepository scheduleRuleRepository;
+
+    @Mock
+    private ProviderSlotLock providerSlotLock;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
     @InjectMocks
     private ReservationServiceImpl reservationService;
 
     @BeforeEach
     void setUp() {
-        // Setup common mocks
+        // Le verrou exécute directement l'action dans les tests unitaires
+        lenient().when(providerSlotLock.executeLocked(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        // Résout l'utilisateur connecté à partir des bouchons de UserRepository de chaque test
+        lenient().when(currentUserService.findCurrentUser()).thenAnswer(invocation ->
+                userRepository.findById(SecurityUtils.getCurrentUserId()).map(AuthenticatedUser::from));
     }
 
     @Test
@@ -86,6 +128,98 @@ class ReservationServiceImplTest {
         }
     }
 
+    @Test
+    @DisplayName("getReservations should return a page and a cursor when more rows exist")
+    void getReservations_shouldReturnPageWithNextCursor_forClient() {
+        ReflectionTestUtils.setField(reservationService, "keysetPagination", true);
+        User client = createSampleUser(1L, UserRole.CLIENT);
+        List<ReservationResponseDTO> rows = List.of(
+                pageRow(3L, LocalDate.of(2030, 1, 9), LocalTime.of(10, 0)),
+                pageRow(2L, LocalDate.of(2030, 1, 8), LocalTime.of(14, 0)),
+                pageRow(1L, LocalDate.of(2030, 1, 8), LocalTime.of(9, 0)));
+
+        try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(client));
+            when(reservationRepository.findPageByClientId(1L, null, null, null, null, null, null,
+                    PageRequest.of(0, 3))).thenReturn(rows);
+
+            ReservationPageDTO page = reservationService.getReservations(null, null, null, null, 2);
+
+            assertThat(page.getContent()).extracting(ReservationResponseDTO::getId).containsExactly(3L, 2L);
+            assertThat(ReservationCursor.decode(page.getNextCursor()))
+                    .isEqualTo(new ReservationCursor(LocalDate.of(2030, 1, 8), LocalTime.of(14, 0), 2L));
+            verify(reservationRepository, never()).findByClientId(any());
+            verifyNoInteractions(reservationMapper);
+        }
+    }
+
+    @Test
+    @DisplayName("getReservations should pass filters and cursor to the provider query")
+    void getReservations_shouldUseCursorAndFilters_forProvider() {
+        ReflectionTestUtils.setField(reservationService, "keysetPagination", true);
+        User provider = createSampleUser(2L, UserRole.PROVIDER);
+        ReservationCursor cursor = new ReservationCursor(LocalDate.of(2030, 1, 8), LocalTime.of(14, 0), 2L);
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 31);
+        List<ReservationResponseDTO> rows = List.of(pageRow(1L, LocalDate.of(2030, 1, 8), LocalTime.of(9, 0)));
+
+        try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentUserId).thenReturn(2L);
+            when(userRepository.findById(2L)).thenReturn(Optional.of(provider));
+            when(reservationRepository.findPageByProviderId(2L, ReservationStatus.PENDING, from, to,
+                    cursor.reservationDate(), cursor.startTime(), cursor.id(), PageRequest.of(0, 21)))
+                    .thenReturn(rows);
+
+            ReservationPageDTO page = reservationService.getReservations(ReservationStatus.PENDING, from, to,
+                    cursor.encode(), 20);
+
+            assertThat(page.getContent()).hasSize(1);
+            assertThat(page.getNextCursor()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("getReservations should fall back to the full list when keyset pagination is disabled")
+    void getReservations_shouldReturnFilteredFullList_whenPaginationDisabled() {
+        ReflectionTestUtils.setField(reservationService, "keysetPagination", false);
+        User client = createSampleUser(1L, UserRole.CLIENT);
+        Reservation pending = createSampleReservation(1L, ReservationStatus.PENDING);
+        Reservation closed = createSampleReservation(2L, ReservationStatus.CLOSED);
+        ReservationResponseDTO pendingDto = createSampleReservationResponseDTO(1L, ReservationStatus.PENDING);
+        ReservationResponseDTO closedDto = createSampleReservationResponseDTO(2L, ReservationStatus.CLOSED);
+
+        try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(client));
+            when(reservationRepository.findByClientId(1L)).thenReturn(List.of(pending, closed));
+            when(reservationMapper.toResponseDTO(pending)).thenReturn(pendingDto);
+            when(reservationMapper.toResponseDTO(closed)).thenReturn(closedDto);
+
+            ReservationPageDTO page = reservationService.getReservations(ReservationStatus.PENDING, null, null,
+                    null, 20);
+
+            assertThat(page.getContent()).containsExactly(pendingDto);
+            assertThat(page.getNextCursor()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("getReservations should reject invalid page sizes and ranges")
+    void getReservations_shouldRejectInvalidArguments() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        int tooLarge = ReservationServiceImpl.MAX_PAGE_SIZE + 1;
+
+        assertThatThrownBy(() -> reservationService.getReservations(null, null, null, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reservationService.getReservations(null, null, null, null, tooLarge))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reservationService.getReservations(null, today, yesterday, null, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(reservationRepository);
+    }
+
     @Test
     @DisplayName("getReservationById should return reservation when user is authorized")
     void getReservationById_shouldReturnReservation_whenUserAuthorized() {
@@ -146,7 +280,7 @@ class ReservationServiceImplTest {
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
             mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(providerId);
             when(userRepository.findById(providerId)).thenReturn(Optional.of(provider));
-            when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithDetailsById(reservationId)).thenReturn(Optional.of(reservation));
             when(reservationRepository.save(any(Reservation.class))).thenReturn(updatedReservation);
             when(reservationMapper.toResponseDTO(updatedReservation)).thenReturn(expectedDto);
 
@@ -155,7 +289,7 @@ class ReservationServiceImplTest {
 
             assertThat(result).isEqualTo(expectedDto);
             verify(userRepository).findById(providerId);
-            verify(reservationRepository).findById(reservationId);
+            verify(reservationRepository).findWithDetailsById(reservationId);
             verify(reservationRepository).save(any(Reservation.class));
             verify(reservationMapper).toResponseDTO(updatedReservation);
         }
@@ -175,7 +309,7 @@ class ReservationServiceImplTest {
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
             mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(providerId);
             when(userRepository.findById(providerId)).thenReturn(Optional.of(provider));
-            when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithDetailsById(reservationId)).thenReturn(Optional.of(reservation));
 
             assertThatThrownBy(() -> reservationService.changeStatusOfReservationByProvider(reservationId, updateDTO))
                     .isInstanceOf(UnauthorizedReservationAccessException.class)
@@ -198,7 +332,7 @@ class ReservationServiceImplTest {
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
             mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(providerId);
             when(userRepository.findById(providerId)).thenReturn(Optional.of(provider));
-            when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.findWithDetailsById(reservationId)).thenReturn(Optional.of(reservation));
             when(reservationRepository.save(any(Reservation.class))).thenReturn(updatedReservation);
             when(reservationMapper.toResponseDTO(updatedReservation)).thenReturn(expectedDto);
 
@@ -207,7 +341,7 @@ class ReservationServiceImplTest {
 
             assertThat(result).isEqualTo(expectedDto);
             verify(userRepository).findById(providerId);
-            verify(reservationRepository).findById(reservationId);
+            verify(reservationRepository).findWithDetailsById(reservationId);
             verify(reservationRepository).save(any(Reservation.class));
             verify(reservationMapper).toResponseDTO(updatedReservation);
         }
@@ -342,6 +476,182 @@ class ReservationServiceImplTest {
         }
     }
 
+    @Test
+    @DisplayName("createReservation should run the slot check and save under the provider/day lock")
+    void createReservation_shouldSaveUnderProviderSlotLock() {
+        ReservationDTO dto = createSlotReservationDTO(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        stubReservationParties();
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+
+            reservationService.createReservation(dto);
+
+            verify(providerSlotLock).executeLocked(eq(2L), eq(LocalDate.of(2030, 1, 7)), any());
+            verify(reservationRepository).existsOverlapping(2L, LocalDate.of(2030, 1, 7),
+                    LocalTime.of(10, 0), LocalTime.of(12, 0), ReservationStatus.CANCELLED);
+            verify(availabilityIndex).onReservationSaved(any(Reservation.class));
+        }
+    }
+
+    @Test
+    @DisplayName("createPaidReservation should save the reservation and its payment without a logged-in user")
+    void createPaidReservation_shouldSaveWithStripeSession() {
+        ReservationDTO dto = createSlotReservationDTO(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        stubReservationParties();
+        when(reservationRepository.findByStripeSessionId("cs_test_1")).thenReturn(Optional.empty());
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        reservationService.createPaidReservation(dto, new CheckoutPayment("cs_test_1", 12550, "eur"));
+
+        verify(paymentRepository).save(argThat(payment -> "cs_test_1".equals(payment.getStripeSessionId())
+                && payment.getAmount().compareTo(new BigDecimal("125.50")) == 0
+                && "eur".equals(payment.getCurrency())
+                && ReservationServiceImpl.PAYMENT_STATUS_PAID.equals(payment.getStatus())
+                && payment.getPaymentDate() != null));
+        verify(reservationRepository).save(argThat(reservation -> "cs_test_1".equals(reservation.getStripeSessionId())
+                && reservation.getStatus() == ReservationStatus.PENDING
+                && reservation.getPayment() != null
+                && "cs_test_1".equals(reservation.getPayment().getStripeSessionId())));
+        verify(availabilityIndex).onReservationSaved(any(Reservation.class));
+    }
+
+    @Test
+    @DisplayName("createPaidReservation should return the reservation already created by the session")
+    void createPaidReservation_shouldBeIdempotent() {
+        ReservationDTO dto = createSlotReservationDTO(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        Reservation existing = createSampleReservation(7L, ReservationStatus.PENDING);
+        ReservationResponseDTO expected = createSampleReservationResponseDTO(7L, ReservationStatus.PENDING);
+        when(reservationRepository.findByStripeSessionId("cs_test_1")).thenReturn(Optional.of(existing));
+        when(reservationMapper.toResponseDTO(existing)).thenReturn(expected);
+
+        ReservationResponseDTO result = reservationService.createPaidReservation(dto, PAYMENT);
+
+        assertThat(result).isSameAs(expected);
+        verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(providerSlotLock, availabilityIndex);
+    }
+
+    @Test
+    @DisplayName("createPaidReservation should not save twice when the session wins the race under the lock")
+    void createPaidReservation_shouldRecheckSessionUnderLock() {
+        ReservationDTO dto = createSlotReservationDTO(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        Reservation existing = createSampleReservation(7L, ReservationStatus.PENDING);
+        stubReservationParties();
+        when(reservationRepository.findByStripeSessionId("cs_test_1"))
+                .thenReturn(Optional.empty(), Optional.of(existing));
+        when(reservationRepository.existsByStripeSessionId("cs_test_1")).thenReturn(true);
+
+        reservationService.createPaidReservation(dto, PAYMENT);
+
+        verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(paymentRepository);
+        verify(reservationMapper).toResponseDTO(existing);
+        verifyNoInteractions(availabilityIndex);
+    }
+
+    @Test
+    @DisplayName("createReservation should reject a slot overlapping an existing reservation")
+    void createReservation_shouldThrowException_whenReservationOverlaps() {
+        ReservationDTO dto = createSlotReservationDTO(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        stubReservationParties();
+        when(reservationRepository.existsOverlapping(2L, LocalDate.of(2030, 1, 7),
+                LocalTime.of(10, 0), LocalTime.of(12, 0), ReservationStatus.CANCELLED)).thenReturn(true);
+
+        try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+
+            assertThatThrownBy(() -> reservationService.createReservation(dto))
+                    .isInstanceOf(ReservationSlotUnavailableException.class);
+            verify(reservationRepository, never()).save(any());
+            verifyNoInteractions(availabilityIndex);
+        }
+    }
+
+    @Test
+    @DisplayName("createReservation should reject a slot overlapping a blocked schedule")
+    void createReservation_shouldThrowException_whenScheduleOverlaps() {
+        ReservationDTO dto = createSlotReservationDTO(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        stubReservationParties();
+        when(scheduleRepository.existsOverlapping(2L, LocalDate.of(2030, 1, 7),
+                LocalTime.of(10, 0), LocalTime.of(12, 0))).thenReturn(true);
+
+        try (MockedStatic<SecurityUtils> mocked = mockStatic(SecurityUtils.class)) {
+            mocked.when(SecurityUtils::getCurrentUserId).thenReturn(1L);
+
+            assertThatThrownBy(() -> reservationService.createReservation(dto))
+                    .isInstanceOf(ReservationSlotUnavailableException.class);
+            verify(reservationRepository, never()).save(any());
+        }
+    }
+
+    @Test
+    @DisplayName("checkSlotAvailable should reject a slot outside the provider's declared rules")
+    void checkSlotAvailable_shouldThrowException_whenRulesDoNotCoverSlot() {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        User provider = createSampleUser(2L, UserRole.PROVIDER);
+        when(scheduleRuleRepository.findByProviderId(2L)).thenReturn(List.of(
+                new ScheduleRule(1L, 1, LocalTime.of(9, 0), LocalTime.of(12, 0), monday, null, provider)));
+
+        assertThatThrownBy(() -> reservationService.checkSlotAvailable(2L, monday,
+                LocalTime.of(11, 0), LocalTime.of(13, 0)))
+                .isInstanceOf(ReservationSlotUnavailableException.class);
+        assertThatCode(() -> reservationService.checkSlotAvailable(2L, monday,
+                LocalTime.of(9, 0), LocalTime.of(12, 0)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("checkSlotAvailable should accept any free slot when the provider has no rules")
+    void checkSlotAvailable_shouldAcceptFreeSlot_whenProviderHasNoRules() {
+        when(scheduleRuleRepository.findByProviderId(2L)).thenReturn(List.of());
+
+        assertThatCode(() -> reservationService.checkSlotAvailable(2L, LocalDate.of(2030, 1, 7),
+                LocalTime.of(22, 0), LocalTime.of(23, 0)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("checkSlotAvailable should keep a provider with only an extra available day available elsewhere")
+    void checkSlotAvailable_shouldAcceptFreeSlot_whenProviderOnlyHasAvailableExceptions() {
+        LocalDate sunday = LocalDate.of(2030, 1, 13);
+        User provider = createSampleUser(2L, UserRole.PROVIDER);
+        when(scheduleRuleRepository.findByProviderId(2L)).thenReturn(List.of(
+                new ScheduleRule(1L, 64, LocalTime.of(10, 0), LocalTime.of(12, 0), sunday, sunday, provider)));
+
+        assertThatCode(() -> reservationService.checkSlotAvailable(2L, LocalDate.of(2030, 1, 7),
+                LocalTime.of(22, 0), LocalTime.of(23, 0)))
+                .doesNotThrowAnyException();
+    }
+
+    private ReservationDTO createSlotReservationDTO(LocalTime start, LocalTime end) {
+        LocalDate date = LocalDate.of(2030, 1, 7);
+        ReservationDTO dto = new ReservationDTO();
+        dto.setClientId(1L);
+        dto.setProviderId(2L);
+        dto.setServiceId(1L);
+        dto.setReservationDate(date.atStartOfDay());
+        dto.setStartDate(date.atTime(start));
+        dto.setEndDate(date.atTime(end));
+        dto.setTotalPrice(BigDecimal.valueOf(200.0));
+        return dto;
+    }
+
+    private void stubReservationParties() {
+        User provider = createSampleUser(2L, UserRole.PROVIDER);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(createSampleUser(1L, UserRole.CLIENT)));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(provider));
+        when(serviceRepository.findById(1L)).thenReturn(Optional.of(createSampleService(1L, provider)));
+    }
+
+    private ReservationResponseDTO pageRow(Long id, LocalDate date, LocalTime start) {
+        return new ReservationResponseDTO(id, ReservationStatus.PENDING, date, start, start.plusHours(1),
+                BigDecimal.valueOf(50.0), 1L, "John", "Doe", "john@example.com",
+                2L, "Jane", "Smith", "jane@example.com", 1L, "Test Service", "Test Description", null);
+    }
+
     private User createSampleUser(Long id, UserRole role) {
         User user = new User();
         user.setId(id);
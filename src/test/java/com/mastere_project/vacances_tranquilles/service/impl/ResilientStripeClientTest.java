@@ -0,0 +1,188 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.exception.PaymentGatewayUnavailableException;
+import com.mastere_project.vacances_tranquilles.exception.StripeException;
+import com.mastere_project.vacances_tranquilles.exception.StripeSessionCreationException;
+import com.mastere_project.vacances_tranquilles.model.StripeSessionPage;
+import com.mastere_project.vacances_tranquilles.service.StripeGateway;
+import com.mastere_project.vacances_tranquilles.util.resilience.CircuitBreaker;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.param.checkout.SessionCreateParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ResilientStripeClientTest {
+
+    private static final SessionCreateParams PARAMS = SessionCreateParams.builder().build();
+
+    private StripeGateway gateway;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private ResilientStripeClient client;
+
+    @BeforeEach
+    void setUp() {
+        gateway = mock(StripeGateway.class);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CircuitBreaker("stripe", 2, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void createCheckoutSession_runsOnBulkheadAndRecordsLatency() throws Exception {
+        client = client(2, 2, Duration.ofSeconds(5));
+        when(gateway.createCheckoutSession(PARAMS)).thenAnswer(invocation -> Thread.currentThread().getName());
+
+        String threadName = client.createCheckoutSession(PARAMS).get(5, TimeUnit.SECONDS);
+
+        assertThat(threadName).startsWith("stripe-call-");
+        assertThat(meterRegistry.get("stripe.gateway.latency").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void clientErrors_doNotOpenTheCircuit() throws Exception {
+        client = client(1, 1, Duration.ofSeconds(5));
+        when(gateway.createCheckoutSession(PARAMS))
+                .thenThrow(new InvalidRequestException("bad request", null, "req_1", null, 400, null));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.createCheckoutSession(PARAMS).join())
+                    .hasCauseInstanceOf(StripeSessionCreationException.class);
+        }
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void listCheckoutSessions_goesThroughTheSameBulkhead() throws Exception {
+        client = client(1, 1, Duration.ofSeconds(5));
+        Instant from = Instant.parse("2030-01-07T00:00:00Z");
+        Instant to = Instant.parse("2030-01-08T00:00:00Z");
+        StripeSessionPage page = new StripeSessionPage(List.of(), false);
+        when(gateway.listCheckoutSessions(from, to, "cs_1", 100)).thenReturn(page)
+                .thenThrow(new InvalidRequestException("bad cursor", null, "req_1", null, 400, null));
+
+        assertThat(client.listCheckoutSessions(from, to, "cs_1", 100).get(5, TimeUnit.SECONDS)).isSameAs(page);
+        assertThatThrownBy(() -> client.listCheckoutSessions(from, to, "cs_1", 100).join())
+                .hasCauseInstanceOf(StripeException.class);
+        assertThat(meterRegistry.get("stripe.gateway.latency").tag("operation", "checkout.session.list").timers())
+                .hasSize(2);
+    }
+
+    @Test
+    void serverErrors_openTheCircuit_thenCallsFailFastWithoutReachingStripe() throws Exception {
+        client = client(1, 1, Duration.ofSeconds(5));
+        when(gateway.createCheckoutSession(PARAMS)).thenThrow(new ApiConnectionException("connection reset"));
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.createCheckoutSession(PARAMS).join())
+                    .hasCauseInstanceOf(StripeSessionCreationException.class);
+        }
+        CompletableFuture<String> shortCircuited = client.createCheckoutSession(PARAMS);
+
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(shortCircuited::join).hasCauseInstanceOf(PaymentGatewayUnavailableException.class);
+        verify(gateway, times(2)).createCheckoutSession(any());
+        assertThat(meterRegistry.get("stripe.gateway.latency").tag("outcome", "short_circuited").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void slowCalls_timeOut_andCountAsFailures() throws Exception {
+        client = client(1, 1, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        when(gateway.createCheckoutSession(PARAMS)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "cs_late";
+        });
+
+        assertThatThrownBy(() -> client.createCheckoutSession(PARAMS).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PaymentGatewayUnavailableException.class);
+        release.countDown();
+
+        assertThat(meterRegistry.get("stripe.gateway.latency").tag("outcome", "timeout").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void callTimingOutInTheQueue_isNeverSentToStripe() throws Exception {
+        circuitBreaker = new CircuitBreaker("stripe", 10, Duration.ofMinutes(1));
+        client = client(1, 2, Duration.ofMillis(100));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gateway.createCheckoutSession(PARAMS)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "cs_1";
+        });
+        CompletableFuture<String> running = client.createCheckoutSession(PARAMS);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = client.createCheckoutSession(PARAMS);
+
+        assertThatThrownBy(queued::join).hasCauseInstanceOf(PaymentGatewayUnavailableException.class);
+        assertThatThrownBy(running::join).hasCauseInstanceOf(PaymentGatewayUnavailableException.class);
+        release.countDown();
+
+        // La cloison traite la file dans l'ordre : l'appel suivant passe après l'appel expiré
+        assertThat(client.createCheckoutSession(PARAMS).get(5, TimeUnit.SECONDS)).isEqualTo("cs_1");
+        verify(gateway, times(2)).createCheckoutSession(PARAMS);
+    }
+
+    @Test
+    void fullBulkhead_rejectsImmediately() throws Exception {
+        client = client(1, 1, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gateway.createCheckoutSession(PARAMS)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "cs_1";
+        });
+
+        CompletableFuture<String> running = client.createCheckoutSession(PARAMS);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = client.createCheckoutSession(PARAMS);
+        CompletableFuture<String> rejected = client.createCheckoutSession(PARAMS);
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(PaymentGatewayUnavailableException.class);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("cs_1");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("cs_1");
+    }
+
+    @Test
+    void worksOfflineWithTheFakeGateway() throws Exception {
+        client = new ResilientStripeClient(new FakeStripeGateway(Duration.ZERO, 0), meterRegistry, 4, 16,
+                Duration.ofSeconds(5), circuitBreaker);
+
+        assertThat(client.createCheckoutSession(PARAMS).get(5, TimeUnit.SECONDS)).startsWith("cs_fake_");
+    }
+
+    private ResilientStripeClient client(int threads, int queueCapacity, Duration callTimeout) {
+        return new ResilientStripeClient(gateway, meterRegistry, threads, queueCapacity, callTimeout, circuitBreaker);
+    }
+}
@@ -1,6 +1,8 @@
 package com.mastere_project.vacances_tranquilles.service.impl;
 
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReviewPageDTO;
 import com.mastere_project.vacances_tranquilles.dto.ReviewWithReviewerDTO;
 import com.mastere_project.vacances_tranquilles.entity.Review;
 import com.mastere_project.vacances_tranquilles.entity.Reservation;
@@ -16,7 +18,11 @@ import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 import com.mastere_project.vacances_tranquilles.repository.ReviewRepository;
 import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.RatingAggregateService;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.util.pagination.ReviewCursor;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +30,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDateTime;
@@ -33,6 +40,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -52,6 +60,12 @@ class ReviewServiceImplTest {
     @Mock
     private ReviewMapper reviewMapper;
 
+    @Mock
+    private RatingAggregateService ratingAggregateService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -66,6 +80,9 @@ class ReviewServiceImplTest {
         mockReview = createMockReview();
         mockReviewDTO = createMockReviewDTO();
         mockReservation = createMockReservation();
+        // Résout l'utilisateur connecté à partir des bouchons de UserRepository de chaque test
+        lenient().when(currentUserService.findCurrentUser()).thenAnswer(invocation ->
+                userRepository.findById(SecurityUtils.getCurrentUserId()).map(AuthenticatedUser::from));
     }
 
     @Test
@@ -95,6 +112,7 @@ class ReviewServiceImplTest {
             verify(reviewMapper).toEntity(any(ReviewDTO.class));
             verify(reviewRepository).save(any(Review.class));
             verify(reviewMapper).toDTO(mockReview);
+            verify(ratingAggregateService).onReviewCreated(2L, mockReviewDTO.getNote());
         }
     }
 
@@ -114,6 +132,7 @@ class ReviewServiceImplTest {
             verify(reservationRepository, never()).findById(any());
             verify(reviewRepository, never()).existsByReservationIdAndReviewerId(any(), any());
             verify(reviewRepository, never()).save(any());
+            verifyNoInteractions(ratingAggregateService);
         }
     }
 
@@ -364,25 +383,60 @@ class ReviewServiceImplTest {
     }
 
     @Test
-    void getReviewsWrittenByUser_ShouldReturnReviewsList() {
+    void getReviewsWrittenByUser_ShouldReturnFirstPage() {
         Long currentUserId = 1L;
-        List<Review> reviews = Arrays.asList(mockReview);
 
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
             mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(currentUserId);
             when(userRepository.findById(currentUserId)).thenReturn(Optional.of(mockUser));
-            when(reviewRepository.findByReviewerId(currentUserId)).thenReturn(reviews);
-            when(reviewMapper.toDTO(mockReview)).thenReturn(mockReviewDTO);
+            when(reviewRepository.findPageByReviewerId(currentUserId, null, null, PageRequest.of(0, 21)))
+                    .thenReturn(List.of(mockReviewDTO));
 
-            List<ReviewDTO> result = reviewService.getReviewsWrittenByUser();
+            ReviewPageDTO<ReviewDTO> result = reviewService.getReviewsWrittenByUser(null, 20);
 
             assertNotNull(result);
-            assertEquals(1, result.size());
-            assertEquals(mockReviewDTO, result.get(0));
+            assertEquals(List.of(mockReviewDTO), result.getContent());
+            assertNull(result.getNextCursor());
 
             verify(userRepository).findById(currentUserId);
-            verify(reviewRepository).findByReviewerId(currentUserId);
-            verify(reviewMapper).toDTO(mockReview);
+            verifyNoInteractions(reviewMapper);
+        }
+    }
+
+    @Test
+    void getReviewsWrittenByUser_WhenMoreRowsThanPage_ShouldReturnNextCursor() {
+        Long currentUserId = 1L;
+        ReviewDTO newer = reviewDTO(9L, LocalDateTime.of(2030, 1, 2, 10, 0));
+        ReviewDTO older = reviewDTO(8L, LocalDateTime.of(2030, 1, 1, 10, 0));
+
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(currentUserId);
+            when(userRepository.findById(currentUserId)).thenReturn(Optional.of(mockUser));
+            when(reviewRepository.findPageByReviewerId(currentUserId, null, null, PageRequest.of(0, 2)))
+                    .thenReturn(List.of(newer, older));
+
+            ReviewPageDTO<ReviewDTO> result = reviewService.getReviewsWrittenByUser(null, 1);
+
+            assertEquals(List.of(newer), result.getContent());
+            assertEquals(new ReviewCursor(newer.getCreatedAt(), 9L), ReviewCursor.decode(result.getNextCursor()));
+        }
+    }
+
+    @Test
+    void getReviewsWrittenByUser_WithCursor_ShouldQueryAfterCursor() {
+        Long currentUserId = 1L;
+        ReviewCursor cursor = new ReviewCursor(LocalDateTime.of(2030, 1, 2, 10, 0), 9L);
+
+        try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(currentUserId);
+            when(userRepository.findById(currentUserId)).thenReturn(Optional.of(mockUser));
+            when(reviewRepository.findPageByReviewerId(currentUserId, cursor.createdAt(), 9L, PageRequest.of(0, 21)))
+                    .thenReturn(List.of());
+
+            ReviewPageDTO<ReviewDTO> result = reviewService.getReviewsWrittenByUser(cursor.encode(), 20);
+
+            assertThat(result.getContent()).isEmpty();
+            assertNull(result.getNextCursor());
         }
     }
 
@@ -395,11 +449,11 @@ class ReviewServiceImplTest {
             when(userRepository.findById(currentUserId)).thenReturn(Optional.empty());
 
             AccessDeniedException exception = assertThrows(AccessDeniedException.class,
-                    () -> reviewService.getReviewsWrittenByUser());
+                    () -> reviewService.getReviewsWrittenByUser(null, 20));
 
             assertEquals("Utilisateur non trouvé", exception.getMessage());
             verify(userRepository).findById(currentUserId);
-            verify(reviewRepository, never()).findByReviewerId(any());
+            verify(reviewRepository, never()).findPageByReviewerId(any(), any(), any(), any());
         }
     }
 
@@ -414,34 +468,39 @@ class ReviewServiceImplTest {
             when(userRepository.findById(currentUserId)).thenReturn(Optional.of(userWithNullRole));
 
             AccessDeniedException exception = assertThrows(AccessDeniedException.class,
-                    () -> reviewService.getReviewsWrittenByUser());
+                    () -> reviewService.getReviewsWrittenByUser(null, 20));
 
             assertEquals("Rôle utilisateur non défini en base de données", exception.getMessage());
             verify(userRepository).findById(currentUserId);
-            verify(reviewRepository, never()).findByReviewerId(any());
+            verify(reviewRepository, never()).findPageByReviewerId(any(), any(), any(), any());
         }
     }
 
     @Test
-    void getReviewsReceivedByUser_ShouldReturnReviewsList() {
+    void getReviewsWrittenByUser_WhenSizeOutOfBounds_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> reviewService.getReviewsWrittenByUser(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reviewService.getReviewsWrittenByUser(null, ReviewServiceImpl.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(userRepository, reviewRepository);
+    }
+
+    @Test
+    void getReviewsReceivedByUser_ShouldReturnFirstPage() {
         Long currentUserId = 1L;
-        List<Review> reviews = Arrays.asList(mockReview);
 
         try (MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
             mockedSecurityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(currentUserId);
             when(userRepository.findById(currentUserId)).thenReturn(Optional.of(mockUser));
-            when(reviewRepository.findByReviewedId(currentUserId)).thenReturn(reviews);
-            when(reviewMapper.toDTO(mockReview)).thenReturn(mockReviewDTO);
+            when(reviewRepository.findPageByReviewedId(currentUserId, null, null, PageRequest.of(0, 21)))
+                    .thenReturn(List.of(mockReviewDTO));
 
-            List<ReviewDTO> result = reviewService.getReviewsReceivedByUser();
+            ReviewPageDTO<ReviewDTO> result = reviewService.getReviewsReceivedByUser(null, 20);
 
             assertNotNull(result);
-            assertEquals(1, result.size());
-            assertEquals(mockReviewDTO, result.get(0));
+            assertEquals(List.of(mockReviewDTO), result.getContent());
+            assertNull(result.getNextCursor());
 
             verify(userRepository).findById(currentUserId);
-            verify(reviewRepository).findByReviewedId(currentUserId);
-            verify(reviewMapper).toDTO(mockReview);
         }
     }
 
@@ -454,11 +513,11 @@ class ReviewServiceImplTest {
             when(userRepository.findById(currentUserId)).thenReturn(Optional.empty());
 
             AccessDeniedException exception = assertThrows(AccessDeniedException.class,
-                    () -> reviewService.getReviewsReceivedByUser());
+                    () -> reviewService.getReviewsReceivedByUser(null, 20));
 
             assertEquals("Utilisateur non trouvé", exception.getMessage());
             verify(userRepository).findById(currentUserId);
-            verify(reviewRepository, never()).findByReviewedId(any());
+            verify(reviewRepository, never()).findPageByReviewedId(any(), any(), any(), any());
         }
     }
 
@@ -473,121 +532,86 @@ class ReviewServiceImplTest {
             when(userRepository.findById(currentUserId)).thenReturn(Optional.of(userWithNullRole));
 
             AccessDeniedException exception = assertThrows(AccessDeniedException.class,
-                    () -> reviewService.getReviewsReceivedByUser());
+                    () -> reviewService.getReviewsReceivedByUser(null, 20));
 
             assertEquals("Rôle utilisateur non défini en base de données", exception.getMessage());
             verify(userRepository).findById(currentUserId);
-            verify(reviewRepository, never()).findByReviewedId(any());
+            verify(reviewRepository, never()).findPageByReviewedId(any(), any(), any(), any());
         }
     }
 
     @Test
-    void getReviewsByProviderId_ShouldReturnReviewsList() {
+    void getReviewsByProviderId_ShouldReturnFirstPage() {
         Long providerId = 2L;
-        List<Review> mockReviews = Arrays.asList(mockReview);
 
-        when(reviewRepository.findByReviewedId(providerId)).thenReturn(mockReviews);
-        when(reviewMapper.toDTO(mockReview)).thenReturn(mockReviewDTO);
+        when(reviewRepository.findPageByReviewedId(providerId, null, null, PageRequest.of(0, 21)))
+                .thenReturn(List.of(mockReviewDTO));
 
-        List<ReviewDTO> result = reviewService.getReviewsByProviderId(providerId);
+        ReviewPageDTO<ReviewDTO> result = reviewService.getReviewsByProviderId(providerId, null, 20);
 
-        assertThat(result).isNotNull().hasSize(1);
-        assertThat(result.get(0)).isEqualTo(mockReviewDTO);
-        verify(reviewRepository).findByReviewedId(providerId);
-        verify(reviewMapper).toDTO(mockReview);
+        assertThat(result.getContent()).containsExactly(mockReviewDTO);
+        assertThat(result.getNextCursor()).isNull();
+        verifyNoInteractions(reviewMapper);
     }
 
     @Test
-    void getReviewsByProviderId_WhenNoReviews_ShouldReturnEmptyList() {
+    void getReviewsByProviderId_WhenNoReviews_ShouldReturnEmptyPage() {
         Long providerId = 2L;
 
-        when(reviewRepository.findByReviewedId(providerId)).thenReturn(Collections.emptyList());
+        when(reviewRepository.findPageByReviewedId(providerId, null, null, PageRequest.of(0, 21)))
+                .thenReturn(Collections.emptyList());
 
-        List<ReviewDTO> result = reviewService.getReviewsByProviderId(providerId);
+        ReviewPageDTO<ReviewDTO> result = reviewService.getReviewsByProviderId(providerId, "", 20);
 
-        assertThat(result).isNotNull().isEmpty();
-        verify(reviewRepository).findByReviewedId(providerId);
-        verify(reviewMapper, never()).toDTO(any(Review.class));
+        assertThat(result.getContent()).isNotNull().isEmpty();
+        assertThat(result.getNextCursor()).isNull();
     }
 
     @Test
-    void getReviewsWithReviewerByProviderId_ShouldReturnReviewsWithReviewerList() {
-        Long providerId = 2L;
-        List<Review> mockReviews = Arrays.asList(mockReview);
-
-        when(reviewRepository.findByReviewedId(providerId)).thenReturn(mockReviews);
-
-        List<ReviewWithReviewerDTO> result = reviewService.getReviewsWithReviewerByProviderId(providerId);
-
-        assertThat(result).isNotNull().hasSize(1);
-
-        ReviewWithReviewerDTO firstReview = result.get(0);
-        assertThat(firstReview.getId()).isEqualTo(mockReview.getId());
-        assertThat(firstReview.getNote()).isEqualTo(mockReview.getNote());
-        assertThat(firstReview.getCommentaire()).isEqualTo(mockReview.getCommentaire());
-        assertThat(firstReview.getReservationId()).isEqualTo(mockReview.getReservationId());
-        assertThat(firstReview.getReviewerId()).isEqualTo(mockReview.getReviewer().getId());
-        assertThat(firstReview.getReviewedId()).isEqualTo(mockReview.getReviewed().getId());
-        assertThat(firstReview.getCreatedAt()).isEqualTo(mockReview.getCreatedAt());
-        assertThat(firstReview.getReviewerFirstName()).isEqualTo(mockReview.getReviewer().getFirstName());
-
-        verify(reviewRepository).findByReviewedId(providerId);
+    void getReviewsByProviderId_WithInvalidCursor_ShouldThrowException() {
+        assertThatThrownBy(() -> reviewService.getReviewsByProviderId(2L, "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Curseur de pagination invalide.");
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
-    void getReviewsWithReviewerByProviderId_WhenNoReviews_ShouldReturnEmptyList() {
+    void getReviewsWithReviewerByProviderId_ShouldReturnProjectedPage() {
         Long providerId = 2L;
+        ReviewWithReviewerDTO projected = new ReviewWithReviewerDTO(1L, 5, "Excellent service", 1L, 1L, 2L,
+                LocalDateTime.of(2030, 1, 2, 10, 0), "Jean");
 
-        when(reviewRepository.findByReviewedId(providerId)).thenReturn(Collections.emptyList());
+        when(reviewRepository.findPageWithReviewerByReviewedId(providerId, null, null, PageRequest.of(0, 21)))
+                .thenReturn(List.of(projected));
 
-        List<ReviewWithReviewerDTO> result = reviewService.getReviewsWithReviewerByProviderId(providerId);
+        ReviewPageDTO<ReviewWithReviewerDTO> result =
+                reviewService.getReviewsWithReviewerByProviderId(providerId, null, 20);
 
-        assertThat(result).isNotNull().isEmpty();
-        verify(reviewRepository).findByReviewedId(providerId);
+        assertThat(result.getContent()).containsExactly(projected);
+        assertThat(result.getNextCursor()).isNull();
+        verify(reviewRepository, never()).findByReviewedId(any());
     }
 
     @Test
-    void getReviewsWithReviewerByProviderId_WithMultipleReviews_ShouldReturnAllReviews() {
+    void getReviewsWithReviewerByProviderId_WithMultipleReviews_ShouldPaginate() {
         Long providerId = 2L;
+        ReviewWithReviewerDTO first = new ReviewWithReviewerDTO(3L, 5, "Excellent service", 1L, 1L, 2L,
+                LocalDateTime.of(2030, 1, 3, 10, 0), "Jean");
+        ReviewWithReviewerDTO second = new ReviewWithReviewerDTO(2L, 4, "Très bon service", 2L, 3L, 2L,
+                LocalDateTime.of(2030, 1, 2, 10, 0), "Marie");
+        ReviewWithReviewerDTO third = new ReviewWithReviewerDTO(1L, 3, "Correct", 3L, 4L, 2L,
+                LocalDateTime.of(2030, 1, 1, 10, 0), "Paul");
 
-        Review review1 = createMockReview();
-        review1.setId(1L);
-        review1.setNote(5);
-        review1.setCommentaire("Excellent service");
-
-        Review review2 = createMockReview();
-        review2.setId(2L);
-        review2.setNote(4);
-        review2.setCommentaire("Très bon service");
-
-        User reviewer1 = createMockUser();
-        reviewer1.setId(1L);
-        reviewer1.setFirstName("Jean");
+        when(reviewRepository.findPageWithReviewerByReviewedId(providerId, null, null, PageRequest.of(0, 3)))
+                .thenReturn(List.of(first, second, third));
 
-        User reviewer2 = createMockUser();
-        reviewer2.setId(3L);
-        reviewer2.setFirstName("Marie");
+        ReviewPageDTO<ReviewWithReviewerDTO> result =
+                reviewService.getReviewsWithReviewerByProviderId(providerId, null, 2);
 
-        review1.setReviewer(reviewer1);
-        review2.setReviewer(reviewer2);
-
-        List<Review> mockReviews = Arrays.asList(review1, review2);
-
-        when(reviewRepository.findByReviewedId(providerId)).thenReturn(mockReviews);
-
-        List<ReviewWithReviewerDTO> result = reviewService.getReviewsWithReviewerByProviderId(providerId);
-
-        assertThat(result).isNotNull().hasSize(2);
-
-        assertThat(result.get(0).getId()).isEqualTo(1L);
-        assertThat(result.get(0).getNote()).isEqualTo(5);
-        assertThat(result.get(0).getReviewerFirstName()).isEqualTo("Jean");
-
-        assertThat(result.get(1).getId()).isEqualTo(2L);
-        assertThat(result.get(1).getNote()).isEqualTo(4);
-        assertThat(result.get(1).getReviewerFirstName()).isEqualTo("Marie");
-
-        verify(reviewRepository).findByReviewedId(providerId);
+        assertThat(result.getContent()).extracting(ReviewWithReviewerDTO::getReviewerFirstName)
+                .containsExactly("Jean", "Marie");
+        assertThat(ReviewCursor.decode(result.getNextCursor()))
+                .isEqualTo(new ReviewCursor(second.getCreatedAt(), 2L));
     }
 
     @Test
@@ -606,6 +630,17 @@ class ReviewServiceImplTest {
         verify(reviewMapper).toDTO(mockReview);
     }
 
+    @Test
+    void getRatingByProviderId_ShouldReturnAggregate() {
+        RatingSummaryDTO rating = new RatingSummaryDTO(3, 4.33, List.of(0L, 0L, 0L, 2L, 1L));
+        when(ratingAggregateService.getRating(2L)).thenReturn(rating);
+
+        RatingSummaryDTO result = reviewService.getRatingByProviderId(2L);
+
+        assertThat(result).isSameAs(rating);
+        verifyNoInteractions(reviewRepository);
+    }
+
     @Test
     void getReviewsByReservationId_WhenNoReviews_ShouldReturnEmptyList() {
         Long reservationId = 1L;
@@ -775,4 +810,12 @@ class ReviewServiceImplTest {
         reservation.setStatus(ReservationStatus.CLOSED);
         return reservation;
     }
+
+    private ReviewDTO reviewDTO(Long id, LocalDateTime createdAt) {
+        ReviewDTO dto = new ReviewDTO();
+        dto.setId(id);
+        dto.setNote(5);
+        dto.setCreatedAt(createdAt);
+        return dto;
+    }
 }
@@ -0,0 +1,145 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleDay;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleStorage;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleDayRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.util.schedule.DaySlotMask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleDayServiceImplTest {
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    @Mock
+    private ScheduleDayRepository scheduleDayRepository;
+
+    private ScheduleDayServiceImpl scheduleDayService;
+    private User provider;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        scheduleDayService = new ScheduleDayServiceImpl(scheduleRepository, scheduleDayRepository,
+                ScheduleStorage.BITMAP);
+        provider = new User();
+        provider.setId(1L);
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void migrateFromRows_mergesIntervalsPerProviderDay() {
+        when(scheduleRepository.findAll()).thenReturn(List.of(
+                schedule(provider, date, 9, 10),
+                schedule(provider, date, 14, 15),
+                schedule(provider, date.plusDays(1), 9, 10)));
+        when(scheduleDayRepository.findAll()).thenReturn(List.of());
+        when(scheduleDayRepository.count()).thenReturn(2L);
+
+        int count = scheduleDayService.migrateFromRows();
+
+        assertEquals(2, count);
+        ArgumentCaptor<List<ScheduleDay>> captor = ArgumentCaptor.forClass(List.class);
+        verify(scheduleDayRepository).saveAll(captor.capture());
+        ScheduleDay day = captor.getValue().stream()
+                .filter(d -> d.getDate().equals(date))
+                .findFirst()
+                .orElseThrow();
+        DaySlotMask expected = DaySlotMask.of(LocalTime.of(9, 0), LocalTime.of(10, 0))
+                .or(DaySlotMask.of(LocalTime.of(14, 0), LocalTime.of(15, 0)));
+        assertEquals(expected.low(), day.getSlotsLow());
+        assertEquals(expected.high(), day.getSlotsHigh());
+        assertSame(provider, day.getProvider());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void migrateFromRows_isIdempotent_andRemovesStaleDays() {
+        DaySlotMask mask = DaySlotMask.of(LocalTime.of(9, 0), LocalTime.of(10, 0));
+        ScheduleDay upToDate = new ScheduleDay(1L, date, mask.low(), mask.high(), provider);
+        ScheduleDay stale = new ScheduleDay(2L, date.plusDays(3), 1L, 0L, provider);
+        when(scheduleRepository.findAll()).thenReturn(List.of(schedule(provider, date, 9, 10)));
+        when(scheduleDayRepository.findAll()).thenReturn(List.of(upToDate, stale));
+
+        scheduleDayService.migrateFromRows();
+
+        ArgumentCaptor<List<ScheduleDay>> saved = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<ScheduleDay>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(scheduleDayRepository).saveAll(saved.capture());
+        verify(scheduleDayRepository).deleteAll(deleted.capture());
+        assertTrue(saved.getValue().isEmpty());
+        assertEquals(List.of(stale), deleted.getValue());
+    }
+
+    @Test
+    void refreshDay_createsDay_whenMissing() {
+        when(scheduleRepository.findByProviderIdAndDate(1L, date)).thenReturn(List.of(schedule(provider, date, 9, 10)));
+        when(scheduleDayRepository.findByProviderIdAndDate(1L, date)).thenReturn(Optional.empty());
+
+        scheduleDayService.refreshDay(provider, date);
+
+        ArgumentCaptor<ScheduleDay> captor = ArgumentCaptor.forClass(ScheduleDay.class);
+        verify(scheduleDayRepository).save(captor.capture());
+        assertEquals(DaySlotMask.of(LocalTime.of(9, 0), LocalTime.of(10, 0)).low(), captor.getValue().getSlotsLow());
+    }
+
+    @Test
+    void refreshDay_deletesDay_whenNoIntervalLeft() {
+        ScheduleDay existing = new ScheduleDay(1L, date, 1L, 0L, provider);
+        when(scheduleRepository.findByProviderIdAndDate(1L, date)).thenReturn(List.of());
+        when(scheduleDayRepository.findByProviderIdAndDate(1L, date)).thenReturn(Optional.of(existing));
+
+        scheduleDayService.refreshDay(provider, date);
+
+        verify(scheduleDayRepository).delete(existing);
+        verify(scheduleDayRepository, never()).save(any());
+    }
+
+    @Test
+    void onApplicationReady_doesNothing_inRowsMode() {
+        ScheduleDayServiceImpl rowsService = new ScheduleDayServiceImpl(scheduleRepository, scheduleDayRepository,
+                ScheduleStorage.ROWS);
+
+        rowsService.onApplicationReady();
+
+        verifyNoInteractions(scheduleRepository, scheduleDayRepository);
+    }
+
+    @Test
+    void refreshDay_doesNothing_inRowsMode() {
+        ScheduleDayServiceImpl rowsService = new ScheduleDayServiceImpl(scheduleRepository, scheduleDayRepository,
+                ScheduleStorage.ROWS);
+        User provider = new User();
+        provider.setId(1L);
+
+        rowsService.refreshDay(provider, LocalDate.now());
+
+        verifyNoInteractions(scheduleRepository, scheduleDayRepository);
+    }
+
+    private static Schedule schedule(User provider, LocalDate date, int startHour, int endHour) {
+        Schedule schedule = new Schedule();
+        schedule.setProvider(provider);
+        schedule.setDate(date);
+        schedule.setStartTime(LocalTime.of(startHour, 0));
+        schedule.setEndTime(LocalTime.of(endHour, 0));
+        return schedule;
+    }
+}
@@ -0,0 +1,352 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.AvailabilityWindowDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleExceptionDTO;
+import com.mastere_project.vacances_tranquilles.dto.ScheduleRuleDTO;
+import com.mastere_project.vacances_tranquilles.entity.Schedule;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.exception.ScheduleNotFoundException;
+import com.mastere_project.vacances_tranquilles.mapper.ScheduleMapper;
+import com.mastere_project.vacances_tranquilles.mapper.impl.ScheduleMapperImpl;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleExceptionType;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
+import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
+import com.mastere_project.vacances_tranquilles.service.ScheduleDayService;
+import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.InjectMocks;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleServiceImplTest {
+
+    @Mock
+    private ScheduleRuleRepository scheduleRuleRepository;
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Spy
+    private ScheduleMapper scheduleMapper = new ScheduleMapperImpl();
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private ScheduleDayService scheduleDayService;
+    @Mock
+    private CurrentUserService currentUserService;
+    @InjectMocks
+    private ScheduleServiceImpl scheduleService;
+
+    private MockedStatic<SecurityUtils> securityUtilsMock;
+    private User provider;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        securityUtilsMock = Mockito.mockStatic(SecurityUtils.class);
+        provider = new User();
+        provider.setId(1L);
+        provider.setUserRole(UserRole.PROVIDER);
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        securityUtilsMock.close();
+    }
+
+    private void loginAs(User user) {
+        securityUtilsMock.when(SecurityUtils::getCurrentUserId).thenReturn(user.getId());
+        when(currentUserService.findCurrentUser()).thenReturn(Optional.of(AuthenticatedUser.from(user)));
+        lenient().when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+    }
+
+    private ScheduleRuleDTO weekdaysRule() {
+        ScheduleRuleDTO dto = new ScheduleRuleDTO();
+        dto.setDaysOfWeek(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        dto.setStartTime(LocalTime.of(9, 0));
+        dto.setEndTime(LocalTime.of(17, 0));
+        dto.setValidUntil(LocalDate.now().plusMonths(3));
+        return dto;
+    }
+
+    @Test
+    void createRule_savesRule_andRefreshesIndex() {
+        loginAs(provider);
+        when(scheduleRuleRepository.save(any(ScheduleRule.class))).thenAnswer(invocation -> {
+            ScheduleRule rule = invocation.getArgument(0);
+            rule.setId(10L);
+            return rule;
+        });
+        ScheduleRule stored = new ScheduleRule(10L, 0b11111, LocalTime.of(9, 0), LocalTime.of(17, 0),
+                LocalDate.now(), null, provider);
+        when(scheduleRuleRepository.findByProviderId(1L)).thenReturn(List.of(stored));
+
+        ScheduleRuleDTO result = scheduleService.createRule(weekdaysRule());
+
+        assertEquals(10L, result.getId());
+        assertEquals(LocalDate.now(), result.getValidFrom());
+        assertEquals(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), result.getDaysOfWeek());
+        verify(availabilityIndex).onScheduleRulesUpdated(1L, List.of(RecurringRule.from(stored)));
+    }
+
+    @Test
+    void createRule_rejectsNonProvider() {
+        User client = new User();
+        client.setId(2L);
+        client.setUserRole(UserRole.CLIENT);
+        loginAs(client);
+
+        ScheduleRuleDTO dto = weekdaysRule();
+        assertThrows(AccessDeniedException.class, () -> scheduleService.createRule(dto));
+        verify(scheduleRuleRepository, never()).save(any());
+    }
+
+    @Test
+    void createRule_rejectsMissingDays() {
+        loginAs(provider);
+        ScheduleRuleDTO dto = weekdaysRule();
+        dto.setDaysOfWeek(EnumSet.noneOf(DayOfWeek.class));
+
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.createRule(dto));
+    }
+
+    @Test
+    void createRule_rejectsInvertedTimes() {
+        loginAs(provider);
+        ScheduleRuleDTO dto = weekdaysRule();
+        dto.setStartTime(LocalTime.of(18, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.createRule(dto));
+    }
+
+    @Test
+    void createRule_rejectsValidUntilBeforeValidFrom() {
+        loginAs(provider);
+        ScheduleRuleDTO dto = weekdaysRule();
+        dto.setValidFrom(LocalDate.now().plusDays(10));
+        dto.setValidUntil(LocalDate.now().plusDays(5));
+
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.createRule(dto));
+    }
+
+    @Test
+    void deleteRule_notFound_throws() {
+        loginAs(provider);
+        when(scheduleRuleRepository.findById(5L)).thenReturn(Optional.empty());
+
+        assertThrows(ScheduleNotFoundException.class, () -> scheduleService.deleteRule(5L));
+    }
+
+    @Test
+    void deleteRule_notOwner_throwsAccessDenied() {
+        loginAs(provider);
+        User other = new User();
+        other.setId(99L);
+        ScheduleRule rule = new ScheduleRule(5L, 1, LocalTime.of(9, 0), LocalTime.of(10, 0), tomorrow, null, other);
+        when(scheduleRuleRepository.findById(5L)).thenReturn(Optional.of(rule));
+
+        assertThrows(AccessDeniedException.class, () -> scheduleService.deleteRule(5L));
+        verify(scheduleRuleRepository, never()).delete(any());
+    }
+
+    @Test
+    void deleteRule_deletes_andClearsIndexRules() {
+        loginAs(provider);
+        ScheduleRule rule = new ScheduleRule(5L, 1, LocalTime.of(9, 0), LocalTime.of(10, 0), tomorrow, null, provider);
+        when(scheduleRuleRepository.findById(5L)).thenReturn(Optional.of(rule));
+        when(scheduleRuleRepository.findByProviderId(1L)).thenReturn(List.of());
+
+        scheduleService.deleteRule(5L);
+
+        verify(scheduleRuleRepository).delete(rule);
+        verify(availabilityIndex).onScheduleRulesUpdated(1L, List.of());
+    }
+
+    @Test
+    void createException_available_createsSingleDayRule() {
+        loginAs(provider);
+        ScheduleExceptionDTO dto = new ScheduleExceptionDTO();
+        dto.setType(ScheduleExceptionType.AVAILABLE);
+        dto.setDate(tomorrow);
+        dto.setStartTime(LocalTime.of(18, 0));
+        dto.setEndTime(LocalTime.of(20, 0));
+        when(scheduleRuleRepository.save(any(ScheduleRule.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ScheduleExceptionDTO result = scheduleService.createException(dto);
+
+        ArgumentCaptor<ScheduleRule> captor = ArgumentCaptor.forClass(ScheduleRule.class);
+        verify(scheduleRuleRepository).save(captor.capture());
+        ScheduleRule rule = captor.getValue();
+        assertEquals(tomorrow, rule.getValidFrom());
+        assertEquals(tomorrow, rule.getValidUntil());
+        assertEquals(RecurringRule.daysMask(List.of(tomorrow.getDayOfWeek())), rule.getDaysOfWeek());
+        assertEquals(ScheduleExceptionType.AVAILABLE, result.getType());
+        verify(scheduleRepository, never()).save(any());
+    }
+
+    @Test
+    void createException_unavailable_createsBlockedSlot() {
+        loginAs(provider);
+        ScheduleExceptionDTO dto = new ScheduleExceptionDTO();
+        dto.setType(ScheduleExceptionType.UNAVAILABLE);
+        dto.setDate(tomorrow);
+        dto.setStartTime(LocalTime.of(10, 0));
+        dto.setEndTime(LocalTime.of(12, 0));
+        when(scheduleRepository.save(any(Schedule.class))).thenAnswer(invocation -> {
+            Schedule schedule = invocation.getArgument(0);
+            schedule.setId(7L);
+            return schedule;
+        });
+
+        ScheduleExceptionDTO result = scheduleService.createException(dto);
+
+        assertEquals(7L, result.getId());
+        assertEquals(ScheduleExceptionType.UNAVAILABLE, result.getType());
+        verify(availabilityIndex).onScheduleSaved(any(Schedule.class));
+        verify(scheduleDayService).refreshDay(provider, tomorrow);
+        verify(scheduleRuleRepository, never()).save(any());
+    }
+
+    @Test
+    void createException_rejectsPastDate() {
+        loginAs(provider);
+        ScheduleExceptionDTO dto = new ScheduleExceptionDTO();
+        dto.setType(ScheduleExceptionType.UNAVAILABLE);
+        dto.setDate(LocalDate.now().minusDays(1));
+        dto.setStartTime(LocalTime.of(10, 0));
+        dto.setEndTime(LocalTime.of(12, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.createException(dto));
+    }
+
+    @Test
+    void createException_rejectsMissingType() {
+        loginAs(provider);
+        ScheduleExceptionDTO dto = new ScheduleExceptionDTO();
+        dto.setDate(tomorrow);
+
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.createException(dto));
+    }
+
+    @Test
+    void getMyExceptions_returnsSingleDayRulesAndBlockedSlots() {
+        loginAs(provider);
+        ScheduleRule oneOff = new ScheduleRule(1L, 1, LocalTime.of(18, 0), LocalTime.of(20, 0), tomorrow, tomorrow,
+                provider);
+        ScheduleRule recurring = new ScheduleRule(2L, 1, LocalTime.of(9, 0), LocalTime.of(17, 0), tomorrow, null,
+                provider);
+        Schedule blocked = new Schedule(3L, tomorrow, LocalTime.of(10, 0), LocalTime.of(11, 0), provider);
+        when(scheduleRuleRepository.findByProviderId(1L)).thenReturn(List.of(oneOff, recurring));
+        when(scheduleRepository.findByProviderIdAndDateBetween(1L, tomorrow, tomorrow.plusDays(7)))
+                .thenReturn(List.of(blocked));
+
+        List<ScheduleExceptionDTO> result = scheduleService.getMyExceptions(tomorrow, tomorrow.plusDays(7));
+
+        assertEquals(2, result.size());
+        assertEquals(ScheduleExceptionType.AVAILABLE, result.get(0).getType());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(ScheduleExceptionType.UNAVAILABLE, result.get(1).getType());
+        assertEquals(3L, result.get(1).getId());
+    }
+
+    @Test
+    void deleteException_unavailable_deletesBlockedSlot() {
+        loginAs(provider);
+        Schedule blocked = new Schedule(3L, tomorrow, LocalTime.of(10, 0), LocalTime.of(11, 0), provider);
+        when(scheduleRepository.findById(3L)).thenReturn(Optional.of(blocked));
+
+        scheduleService.deleteException(3L, ScheduleExceptionType.UNAVAILABLE);
+
+        verify(scheduleRepository).delete(blocked);
+        verify(availabilityIndex).onScheduleDeleted(3L);
+        verify(scheduleDayService).refreshDay(provider, tomorrow);
+    }
+
+    @Test
+    void deleteException_unavailable_notFound_throws() {
+        loginAs(provider);
+        when(scheduleRepository.findById(3L)).thenReturn(Optional.empty());
+
+        assertThrows(ScheduleNotFoundException.class,
+                () -> scheduleService.deleteException(3L, ScheduleExceptionType.UNAVAILABLE));
+    }
+
+    @Test
+    void deleteException_available_deletesRule() {
+        loginAs(provider);
+        ScheduleRule oneOff = new ScheduleRule(1L, 1, LocalTime.of(18, 0), LocalTime.of(20, 0), tomorrow, tomorrow,
+                provider);
+        when(scheduleRuleRepository.findById(1L)).thenReturn(Optional.of(oneOff));
+        when(scheduleRuleRepository.findByProviderId(1L)).thenReturn(List.of());
+
+        scheduleService.deleteException(1L, ScheduleExceptionType.AVAILABLE);
+
+        verify(scheduleRuleRepository).delete(oneOff);
+    }
+
+    @Test
+    void deleteException_available_refusesRecurringRule() {
+        loginAs(provider);
+        ScheduleRule weekdays = new ScheduleRule(1L, 31, LocalTime.of(9, 0), LocalTime.of(17, 0), tomorrow, null,
+                provider);
+        when(scheduleRuleRepository.findById(1L)).thenReturn(Optional.of(weekdays));
+
+        assertThrows(ScheduleNotFoundException.class,
+                () -> scheduleService.deleteException(1L, ScheduleExceptionType.AVAILABLE));
+        verify(scheduleRuleRepository, never()).delete(any());
+    }
+
+    @Test
+    void getProviderAvailability_expandsRulesOverRange() {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        ScheduleRule rule = new ScheduleRule(1L, RecurringRule.daysMask(List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY)),
+                LocalTime.of(9, 0), LocalTime.of(17, 0), monday, null, provider);
+        when(scheduleRuleRepository.findByProviderId(1L)).thenReturn(List.of(rule));
+
+        List<AvailabilityWindowDTO> result = scheduleService.getProviderAvailability(1L, monday, monday.plusDays(7));
+
+        assertEquals(List.of(
+                new AvailabilityWindowDTO(monday, LocalTime.of(9, 0), LocalTime.of(17, 0)),
+                new AvailabilityWindowDTO(monday.plusDays(1), LocalTime.of(9, 0), LocalTime.of(17, 0)),
+                new AvailabilityWindowDTO(monday.plusDays(7), LocalTime.of(9, 0), LocalTime.of(17, 0))), result);
+    }
+
+    @Test
+    void getProviderAvailability_rejectsInvalidRange() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        LocalDate nextYear = today.plusDays(ScheduleServiceImpl.MAX_RANGE_DAYS);
+
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.getProviderAvailability(1L, today, yesterday));
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.getProviderAvailability(1L, today, nextYear));
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.getProviderAvailability(1L, null, today));
+    }
+}
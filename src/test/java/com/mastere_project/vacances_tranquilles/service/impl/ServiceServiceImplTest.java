@@ -1,14 +1,24 @@
 package com.mastere_project.vacances_tranquilles.service.impl;
 
+import com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO;
 import com.mastere_project.vacances_tranquilles.dto.ServiceDTO;
 import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
 import com.mastere_project.vacances_tranquilles.entity.User;
 import com.mastere_project.vacances_tranquilles.exception.ServiceNotFoundException;
 import com.mastere_project.vacances_tranquilles.mapper.ServiceMapper;
 import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.repository.ScheduleRuleRepository;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import com.mastere_project.vacances_tranquilles.service.AvailabilityIndex;
+import com.mastere_project.vacances_tranquilles.service.RatingAggregateService;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.util.schedule.DaySlotMask;
+import com.mastere_project.vacances_tranquilles.util.schedule.RecurringRule;
+import com.mastere_project.vacances_tranquilles.model.enums.ScheduleStorage;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.model.AuthenticatedUser;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,7 +36,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.security.access.AccessDeniedException;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +49,14 @@ class ServiceServiceImplTest {
     private ServiceMapper serviceMapper;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private ScheduleRuleRepository scheduleRuleRepository;
+    @Mock
+    private RatingAggregateService ratingAggregateService;
+    @Mock
+    private CurrentUserService currentUserService;
     @InjectMocks
     private ServiceServiceImpl serviceService;
 
@@ -45,6 +65,9 @@ class ServiceServiceImplTest {
     @BeforeEach
     void setUp() {
         securityUtilsMock = Mockito.mockStatic(SecurityUtils.class);
+        // Résout l'utilisateur connecté à partir des bouchons de UserRepository de chaque test
+        lenient().when(currentUserService.findCurrentUser()).thenAnswer(invocation ->
+                userRepository.findById(SecurityUtils.getCurrentUserId()).map(AuthenticatedUser::from));
     }
 
     @AfterEach
@@ -64,8 +87,8 @@ class ServiceServiceImplTest {
         saved.setProvider(provider);
         ServiceDTO expectedDto = new ServiceDTO();
 
-        when(SecurityUtils.getCurrentUserId()).thenReturn(1L);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(provider));
+        doReturn(Optional.of(AuthenticatedUser.from(provider))).when(currentUserService).findCurrentUser();
+        when(userRepository.getReferenceById(1L)).thenReturn(provider);
         when(serviceMapper.toEntity(dto)).thenReturn(entity);
         when(serviceRepository.save(entity)).thenReturn(saved);
         when(serviceMapper.toDto(saved)).thenReturn(expectedDto);
@@ -73,6 +96,8 @@ class ServiceServiceImplTest {
         ServiceDTO result = serviceService.createService(dto);
         assertEquals(expectedDto, result);
         verify(serviceRepository).save(entity);
+        assertSame(provider, entity.getProvider());
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -104,7 +129,7 @@ class ServiceServiceImplTest {
         provider.setId(1L);
         service.setProvider(provider);
 
-        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+        when(serviceRepository.findWithProviderById(1L)).thenReturn(Optional.of(service));
         when(SecurityUtils.getCurrentUserId()).thenReturn(1L);
 
         ServiceDTO dto = new ServiceDTO();
@@ -122,7 +147,7 @@ class ServiceServiceImplTest {
         ServiceDTO result = serviceService.partialUpdateService(1L, dto);
 
         // Vérification
-        verify(serviceRepository).findById(1L);
+        verify(serviceRepository).findWithProviderById(1L);
         verify(serviceRepository).save(service);
         assertNotNull(result);
         assertEquals(provider, service.getProvider());
@@ -139,7 +164,7 @@ class ServiceServiceImplTest {
         provider.setId(1L);
         service.setProvider(provider);
 
-        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+        when(serviceRepository.findWithProviderById(1L)).thenReturn(Optional.of(service));
         when(SecurityUtils.getCurrentUserId()).thenReturn(1L);
 
         ServiceDTO dto = new ServiceDTO(); // Tous les champs sont null
@@ -175,6 +200,98 @@ class ServiceServiceImplTest {
         verify(serviceRepository).findAvailableServices(category, postalCode, date, start, end);
     }
 
+    @Test
+    void searchAvailableServices_usesIndex_whenIndexIsReady() {
+        String category = "Entretien";
+        String postalCode = "75001";
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime start = LocalTime.of(10, 0);
+        LocalTime end = LocalTime.of(12, 0);
+
+        List<ServiceDTO> indexed = List.of(new ServiceDTO());
+        when(availabilityIndex.isReady()).thenReturn(true);
+        when(availabilityIndex.findAvailableServices(category, postalCode, date, start, end)).thenReturn(indexed);
+
+        List<ServiceDTO> result = serviceService.searchAvailableServices(category, postalCode, date, start, end);
+
+        assertSame(indexed, result);
+        verifyNoInteractions(serviceRepository);
+    }
+
+    @Test
+    void searchAvailableServices_attachesProviderRatings_inOneLookup() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime start = LocalTime.of(10, 0);
+        LocalTime end = LocalTime.of(12, 0);
+        ServiceDTO first = new ServiceDTO();
+        first.setProviderId(1L);
+        ServiceDTO second = new ServiceDTO();
+        second.setProviderId(1L);
+        ServiceDTO other = new ServiceDTO();
+        other.setProviderId(2L);
+        RatingSummaryDTO rating = new RatingSummaryDTO(2, 4.5, List.of(0L, 0L, 0L, 1L, 1L));
+        RatingSummaryDTO empty = new RatingSummaryDTO(0, null, List.of(0L, 0L, 0L, 0L, 0L));
+        when(availabilityIndex.isReady()).thenReturn(true);
+        when(availabilityIndex.findAvailableServices("Entretien", "75001", date, start, end))
+                .thenReturn(List.of(first, second, other));
+        when(ratingAggregateService.getRatings(Set.of(1L, 2L))).thenReturn(Map.of(1L, rating, 2L, empty));
+
+        List<ServiceDTO> result = serviceService.searchAvailableServices("Entretien", "75001", date, start, end);
+
+        assertSame(rating, result.get(0).getProviderRating());
+        assertSame(rating, result.get(1).getProviderRating());
+        assertSame(empty, result.get(2).getProviderRating());
+        verify(ratingAggregateService).getRatings(Set.of(1L, 2L));
+    }
+
+    @Test
+    void searchAvailableServices_usesBitmapQuery_whenStorageIsBitmap() {
+        ServiceServiceImpl bitmapService = new ServiceServiceImpl(serviceRepository, serviceMapper, userRepository,
+                availabilityIndex, scheduleRuleRepository, ratingAggregateService, currentUserService,
+                ScheduleStorage.BITMAP);
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime start = LocalTime.of(10, 0);
+        LocalTime end = LocalTime.of(12, 0);
+        DaySlotMask requested = DaySlotMask.of(start, end);
+
+        when(serviceRepository.findAvailableServicesBitmap("Entretien", "75001", date, start, end,
+                requested.low(), requested.high())).thenReturn(List.of(new Service()));
+        when(serviceMapper.toDto(any(Service.class))).thenReturn(new ServiceDTO());
+
+        List<ServiceDTO> result = bitmapService.searchAvailableServices("Entretien", "75001", date, start, end);
+
+        assertEquals(1, result.size());
+        verify(serviceRepository, never()).findAvailableServices(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchAvailableServices_filtersProvidersWhoseRulesDoNotCoverSlot() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime start = LocalTime.of(10, 0);
+        LocalTime end = LocalTime.of(12, 0);
+        User withRules = new User();
+        withRules.setId(1L);
+        User withoutRules = new User();
+        withoutRules.setId(2L);
+        Service ruled = new Service();
+        ruled.setProvider(withRules);
+        Service free = new Service();
+        free.setProvider(withoutRules);
+        ScheduleRule afternoon = new ScheduleRule(5L, RecurringRule.daysMask(List.of(date.getDayOfWeek())),
+                LocalTime.of(14, 0), LocalTime.of(18, 0), date, null, withRules);
+        ServiceDTO freeDto = new ServiceDTO();
+
+        when(serviceRepository.findAvailableServices("Entretien", "75001", date, start, end))
+                .thenReturn(List.of(ruled, free));
+        when(scheduleRuleRepository.findByProviderIdIn(Set.of(1L, 2L))).thenReturn(List.of(afternoon));
+        when(serviceMapper.toDto(free)).thenReturn(freeDto);
+
+        List<ServiceDTO> result = serviceService.searchAvailableServices("Entretien", "75001", date, start, end);
+
+        assertEquals(List.of(freeDto), result);
+        verify(serviceMapper, never()).toDto(ruled);
+    }
+
     @Test
     void searchAvailableServices_throwsException_whenStartAfterEnd() {
         LocalDate date = LocalDate.now().plusDays(1);
@@ -258,7 +375,7 @@ class ServiceServiceImplTest {
         User provider = new User();
         provider.setId(2L);
         service.setProvider(provider);
-        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+        when(serviceRepository.findWithProviderById(1L)).thenReturn(Optional.of(service));
         when(SecurityUtils.getCurrentUserId()).thenReturn(1L);
         ServiceDTO dto = new ServiceDTO();
         assertThrows(AccessDeniedException.class, () -> serviceService.partialUpdateService(1L, dto));
@@ -266,7 +383,7 @@ class ServiceServiceImplTest {
 
     @Test
     void partialUpdateService_serviceNotFound_throwsException() {
-        when(serviceRepository.findById(1L)).thenReturn(Optional.empty());
+        when(serviceRepository.findWithProviderById(1L)).thenReturn(Optional.empty());
         ServiceDTO dto = new ServiceDTO();
         assertThrows(ServiceNotFoundException.class, () -> serviceService.partialUpdateService(1L, dto));
     }
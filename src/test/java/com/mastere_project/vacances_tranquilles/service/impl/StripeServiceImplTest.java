@@ -1,13 +1,16 @@
 package com.mastere_project.vacances_tranquilles.service.impl;
 
-import com.mastere_project.vacances_tranquilles.dto.ReservationDTO;
 import com.mastere_project.vacances_tranquilles.dto.StripeCheckoutSessionRequestDTO;
 import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.exception.ReservationSlotUnavailableException;
 import com.mastere_project.vacances_tranquilles.exception.StripeSessionCreationException;
+import com.mastere_project.vacances_tranquilles.model.enums.PaymentConfirmationStatus;
+import com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus;
+import com.mastere_project.vacances_tranquilles.repository.ReservationRepository;
 import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.repository.StripeEventRepository;
 import com.mastere_project.vacances_tranquilles.service.ReservationService;
-import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
+import com.mastere_project.vacances_tranquilles.service.StripeClient;
 import com.stripe.param.checkout.SessionCreateParams;
 
 import org.junit.jupiter.api.Test;
@@ -18,8 +21,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,118 +39,114 @@ class StripeServiceImplTest {
     @Mock
     private ReservationService reservationService;
 
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private StripeEventRepository stripeEventRepository;
+
+    @Mock
+    private StripeClient stripeClient;
+
     @InjectMocks
     private StripeServiceImpl stripeService;
 
     @Test
     void createCheckoutSession_shouldReturnSessionId() {
         // Arrange
-        StripeCheckoutSessionRequestDTO dto = new StripeCheckoutSessionRequestDTO();
-        dto.setServiceId(1L);
-        dto.setCustomerId(2L);
-        dto.setProviderId(3L);
-        dto.setDate(LocalDate.of(2025, 8, 8));
-        dto.setStartTime(LocalTime.of(10, 0));
-        dto.setEndTime(LocalTime.of(12, 0));
+        StripeCheckoutSessionRequestDTO dto = checkoutRequest();
+        when(serviceRepo.findById(1L)).thenReturn(Optional.of(massage()));
+        ArgumentCaptor<SessionCreateParams> params = ArgumentCaptor.forClass(SessionCreateParams.class);
+        when(stripeClient.createCheckoutSession(params.capture()))
+                .thenReturn(CompletableFuture.completedFuture("sess_12345"));
+
+        // Act
+        Map<String, String> result = stripeService.createCheckoutSession(dto).join();
+
+        // Assert
+        assertThat(result).containsEntry("sessionId", "sess_12345");
+        assertThat(params.getValue().getLineItems().get(0).getPriceData().getUnitAmount()).isEqualTo(10000L);
+        assertThat(params.getValue().getMetadata()).containsEntry("customerId", "2").containsEntry("endTime", "12:00");
+    }
 
-        Service service = new Service();
-        service.setId(1L);
-        service.setTitle("Massage");
-        service.setPrice(BigDecimal.valueOf(50.0));
+    @Test
+    void createCheckoutSession_shouldPropagateFailure_ifStripeFails() {
+        // Arrange
+        StripeCheckoutSessionRequestDTO dto = checkoutRequest();
+        when(serviceRepo.findById(1L)).thenReturn(Optional.of(massage()));
+        when(stripeClient.createCheckoutSession(any(SessionCreateParams.class))).thenReturn(
+                CompletableFuture.failedFuture(new StripeSessionCreationException("La création de la session Stripe a échoué.")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> stripeService.createCheckoutSession(dto).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(StripeSessionCreationException.class)
+                .hasMessageContaining("La création de la session Stripe a échoué");
+    }
+
+    @Test
+    void createCheckoutSession_shouldNotCreateSession_whenSlotUnavailable() {
+        StripeCheckoutSessionRequestDTO dto = checkoutRequest();
+        when(serviceRepo.findById(1L)).thenReturn(Optional.of(massage()));
+        doThrow(new ReservationSlotUnavailableException("Ce créneau n'est plus disponible pour ce prestataire"))
+                .when(reservationService).checkSlotAvailable(3L, dto.getDate(), dto.getStartTime(), dto.getEndTime());
+
+        assertThatThrownBy(() -> stripeService.createCheckoutSession(dto))
+                .isInstanceOf(ReservationSlotUnavailableException.class);
+        verifyNoInteractions(stripeClient);
+    }
+
+    @Test
+    void confirmReservation_shouldReturnConfirmed_whenSessionHasReservation() {
+        when(reservationRepository.existsByStripeSessionId("sess_123")).thenReturn(true);
 
-        when(serviceRepo.findById(1L)).thenReturn(Optional.of(service));
+        assertThat(stripeService.confirmReservation("sess_123")).isEqualTo(PaymentConfirmationStatus.CONFIRMED);
+        // Simple lecture locale : aucun appel à Stripe ni création de réservation
+        verifyNoInteractions(stripeClient, reservationService);
+    }
 
-        Session mockSession = mock(Session.class);
-        when(mockSession.getId()).thenReturn("sess_12345");
+    @Test
+    void confirmReservation_shouldReturnPending_whenWebhookNotProcessedYet() {
+        when(reservationRepository.existsByStripeSessionId("sess_123")).thenReturn(false);
+        when(stripeEventRepository.findStatusesBySessionId("sess_123")).thenReturn(List.of());
 
-        // Mock static method
-        try (MockedStatic<Session> mockedSession = mockStatic(Session.class)) {
-            mockedSession.when(() -> Session.create(any(SessionCreateParams.class)))
-                    .thenReturn(mockSession);
+        assertThat(stripeService.confirmReservation("sess_123")).isEqualTo(PaymentConfirmationStatus.PENDING);
+    }
 
-            // Act
-            Map<String, String> result = stripeService.createCheckoutSession(dto);
+    @Test
+    void confirmReservation_shouldReturnPending_whileAnEventIsStillQueued() {
+        when(reservationRepository.existsByStripeSessionId("sess_123")).thenReturn(false);
+        when(stripeEventRepository.findStatusesBySessionId("sess_123"))
+                .thenReturn(List.of(StripeEventStatus.FAILED, StripeEventStatus.RECEIVED));
 
-            // Assert
-            assertThat(result).containsEntry("sessionId", "sess_12345");
-        }
+        assertThat(stripeService.confirmReservation("sess_123")).isEqualTo(PaymentConfirmationStatus.PENDING);
     }
 
     @Test
-    void createCheckoutSession_shouldThrowException_ifStripeFails() {
-        // Arrange
+    void confirmReservation_shouldReturnFailed_whenProcessingFailed() {
+        when(reservationRepository.existsByStripeSessionId("sess_123")).thenReturn(false);
+        when(stripeEventRepository.findStatusesBySessionId("sess_123"))
+                .thenReturn(List.of(StripeEventStatus.IGNORED, StripeEventStatus.FAILED));
+
+        assertThat(stripeService.confirmReservation("sess_123")).isEqualTo(PaymentConfirmationStatus.FAILED);
+    }
+
+    private static StripeCheckoutSessionRequestDTO checkoutRequest() {
         StripeCheckoutSessionRequestDTO dto = new StripeCheckoutSessionRequestDTO();
         dto.setServiceId(1L);
         dto.setCustomerId(2L);
         dto.setProviderId(3L);
-        dto.setDate(LocalDate.now());
+        dto.setDate(LocalDate.of(2025, 8, 8));
         dto.setStartTime(LocalTime.of(10, 0));
         dto.setEndTime(LocalTime.of(12, 0));
-    
-        Service service = new Service();
-        service.setId(1L);
-        service.setTitle("Massage");
-        service.setPrice(BigDecimal.valueOf(50.0));
-        when(serviceRepo.findById(1L)).thenReturn(Optional.of(service));
-    
-        // On moque Stripe.Session.create pour lever une StripeException
-        try (MockedStatic<Session> mockedSession = mockStatic(Session.class)) {
-            StripeException stripeException = mock(StripeException.class);
-            mockedSession
-               .when(() -> Session.create(any(SessionCreateParams.class)))
-               .thenThrow(stripeException);
-    
-            // Act & Assert
-            assertThatThrownBy(() -> stripeService.createCheckoutSession(dto))
-                .isInstanceOf(StripeSessionCreationException.class)
-                .hasMessageContaining("La création de la session Stripe a échoué");
-        }
+        return dto;
     }
 
-    @Test
-    void confirmReservation_shouldCallReservationService() {
-        // Arrange
-        Session session = new Session();
-        Map<String, String> metadata = Map.of(
-                "serviceId", "1",
-                "customerId", "2",
-                "providerId", "3",
-                "date", "2025-08-08",
-                "startTime", "10:00",
-                "endTime", "12:00");
-
+    private static Service massage() {
         Service service = new Service();
         service.setId(1L);
+        service.setTitle("Massage");
         service.setPrice(BigDecimal.valueOf(50.0));
-
-        try (MockedStatic<Session> mockedSession = mockStatic(Session.class)) {
-            mockedSession.when(() -> Session.retrieve("sess_123"))
-                    .thenReturn(session);
-            session.setMetadata(metadata);
-
-            when(serviceRepo.findById(1L)).thenReturn(Optional.of(service));
-
-            // Act
-            stripeService.confirmReservation("sess_123");
-
-            // Assert
-            verify(reservationService, times(1)).createReservation(any(ReservationDTO.class));
-        }
-    }
-
-    @Test
-    void confirmReservation_shouldThrowException_whenStripeFails() {
-        // On moque Stripe.Session.retrieve pour lever une StripeException
-        try (MockedStatic<Session> mockedSession = mockStatic(Session.class)) {
-            StripeException stripeException = mock(StripeException.class);
-            mockedSession
-               .when(() -> Session.retrieve("invalid_id"))
-               .thenThrow(stripeException);
-    
-            // Act & Assert
-            assertThatThrownBy(() -> stripeService.confirmReservation("invalid_id"))
-                .isInstanceOf(StripeSessionCreationException.class)
-                .hasMessageContaining("La récupération de la session Stripe a échoué");
-        }
+        return service;
     }
 }
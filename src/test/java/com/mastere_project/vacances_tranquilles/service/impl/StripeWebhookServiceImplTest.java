@@ -0,0 +1,246 @@
+package com.mastere_project.vacances_tranquilles.service.impl;
+
+import com.mastere_project.vacances_tranquilles.dto.ReservationDTO;
+import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
+import com.mastere_project.vacances_tranquilles.entity.Service;
+import com.mastere_project.vacances_tranquilles.entity.StripeEvent;
+import com.mastere_project.vacances_tranquilles.exception.InvalidStripeSignatureException;
+import com.mastere_project.vacances_tranquilles.exception.ReservationSlotUnavailableException;
+import com.mastere_project.vacances_tranquilles.model.CheckoutPayment;
+import com.mastere_project.vacances_tranquilles.model.enums.StripeEventStatus;
+import com.mastere_project.vacances_tranquilles.repository.ServiceRepository;
+import com.mastere_project.vacances_tranquilles.repository.StripeEventRepository;
+import com.mastere_project.vacances_tranquilles.service.ReservationService;
+import com.mastere_project.vacances_tranquilles.util.stripe.StripeEventStub;
+import com.mastere_project.vacances_tranquilles.util.stripe.StripeWebhookEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class StripeWebhookServiceImplTest {
+
+    private static final String SECRET = "whsec_test";
+    private static final CheckoutPayment PAYMENT = new CheckoutPayment("cs_1", 10000, "eur");
+
+    private StripeEventRepository stripeEventRepository;
+    private ServiceRepository serviceRepository;
+    private ReservationService reservationService;
+    private SimpleMeterRegistry meterRegistry;
+    private StripeWebhookServiceImpl webhookService;
+
+    @BeforeEach
+    void setUp() {
+        stripeEventRepository = mock(StripeEventRepository.class);
+        serviceRepository = mock(ServiceRepository.class);
+        reservationService = mock(ReservationService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        webhookService = new StripeWebhookServiceImpl(stripeEventRepository, serviceRepository, reservationService,
+                mock(PlatformTransactionManager.class), meterRegistry, SECRET, 1, 10, Duration.ofMinutes(5), 3);
+
+        Service service = new Service();
+        service.setId(1L);
+        service.setPrice(BigDecimal.valueOf(50));
+        when(serviceRepository.findById(1L)).thenReturn(Optional.of(service));
+        when(stripeEventRepository.claim(any(), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhookService.close();
+    }
+
+    @Test
+    void receive_storesPaidCheckoutThenCreatesReservationAsynchronously() {
+        StripeEventStub.SignedEvent signed = StripeEventStub.paidCheckout("evt_1", "cs_1",
+                StripeEventStub.reservationMetadata(), SECRET);
+        when(stripeEventRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            StripeEvent saved = invocation.getArgument(0);
+            saved.setAttempts(1);
+            when(stripeEventRepository.findById("evt_1")).thenReturn(Optional.of(saved));
+            return saved;
+        });
+        when(reservationService.createPaidReservation(any(), eq(PAYMENT))).thenReturn(reservation(9L));
+
+        webhookService.receive(signed.payload(), signed.signature());
+
+        verify(stripeEventRepository, timeout(2000))
+                .complete(eq("evt_1"), eq(StripeEventStatus.PROCESSED), eq(9L), isNull(), any());
+        ArgumentCaptor<StripeEvent> stored = ArgumentCaptor.forClass(StripeEvent.class);
+        verify(stripeEventRepository).saveAndFlush(stored.capture());
+        assertThat(stored.getValue().getSessionId()).isEqualTo("cs_1");
+        assertThat(stored.getValue().getPayload()).isEqualTo(signed.payload());
+        ArgumentCaptor<ReservationDTO> dto = ArgumentCaptor.forClass(ReservationDTO.class);
+        verify(reservationService).createPaidReservation(dto.capture(), eq(PAYMENT));
+        assertThat(dto.getValue().getClientId()).isEqualTo(2L);
+        assertThat(dto.getValue().getProviderId()).isEqualTo(3L);
+        assertThat(dto.getValue().getTotalPrice()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void receive_rejectsInvalidSignature() {
+        StripeEventStub.SignedEvent signed = StripeEventStub.paidCheckout("evt_1", "cs_1",
+                StripeEventStub.reservationMetadata(), "whsec_other");
+
+        assertThatThrownBy(() -> webhookService.receive(signed.payload(), signed.signature()))
+                .isInstanceOf(InvalidStripeSignatureException.class);
+        assertThatThrownBy(() -> webhookService.receive(signed.payload(), null))
+                .isInstanceOf(InvalidStripeSignatureException.class);
+        verifyNoInteractions(stripeEventRepository);
+        assertThat(meterRegistry.get("stripe.webhook.events").tag("outcome", "invalid").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void receive_rejectsReplayedSignature() {
+        String payload = StripeEventStub.checkoutEvent("evt_1", StripeWebhookEvent.CHECKOUT_SESSION_COMPLETED,
+                "cs_1", "paid", StripeEventStub.reservationMetadata());
+        String stale = StripeEventStub.sign(payload, SECRET, Instant.now().minus(Duration.ofHours(1)));
+
+        assertThatThrownBy(() -> webhookService.receive(payload, stale))
+                .isInstanceOf(InvalidStripeSignatureException.class);
+        verifyNoInteractions(stripeEventRepository);
+    }
+
+    @Test
+    void receive_rejectsEverything_whenSecretIsNotConfigured() {
+        StripeWebhookServiceImpl unconfigured = new StripeWebhookServiceImpl(stripeEventRepository, serviceRepository,
+                reservationService, mock(PlatformTransactionManager.class), meterRegistry, "", 1, 10,
+                Duration.ofMinutes(5), 3);
+        StripeEventStub.SignedEvent signed = StripeEventStub.paidCheckout("evt_1", "cs_1", Map.of(), SECRET);
+
+        assertThatThrownBy(() -> unconfigured.receive(signed.payload(), signed.signature()))
+                .isInstanceOf(InvalidStripeSignatureException.class);
+        unconfigured.close();
+    }
+
+    @Test
+    void receive_acceptsRedeliveredEventWithoutProcessingItAgain() {
+        StripeEventStub.SignedEvent signed = StripeEventStub.paidCheckout("evt_1", "cs_1",
+                StripeEventStub.reservationMetadata(), SECRET);
+        when(stripeEventRepository.existsById("evt_1")).thenReturn(true);
+
+        webhookService.receive(signed.payload(), signed.signature());
+
+        verify(stripeEventRepository, never()).saveAndFlush(any());
+        verify(stripeEventRepository, never()).claim(any(), any(), any());
+        assertThat(meterRegistry.get("stripe.webhook.events").tag("outcome", "duplicate").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void receive_acceptsConcurrentRedelivery_whenInsertLosesTheRace() {
+        StripeEventStub.SignedEvent signed = StripeEventStub.paidCheckout("evt_1", "cs_1",
+                StripeEventStub.reservationMetadata(), SECRET);
+        when(stripeEventRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThatCode(() -> webhookService.receive(signed.payload(), signed.signature())).doesNotThrowAnyException();
+
+        verify(stripeEventRepository, never()).claim(any(), any(), any());
+    }
+
+    @Test
+    void process_doesNothing_whenEventIsClaimedElsewhere() {
+        when(stripeEventRepository.claim(eq("evt_1"), any(), any())).thenReturn(0);
+
+        webhookService.process("evt_1");
+
+        verify(stripeEventRepository, never()).findById(any());
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void process_ignoresUnpaidSession() {
+        stored("evt_1", StripeEventStub.checkoutEvent("evt_1", StripeWebhookEvent.CHECKOUT_SESSION_COMPLETED,
+                "cs_1", "unpaid", StripeEventStub.reservationMetadata()), 1);
+
+        webhookService.process("evt_1");
+
+        verify(stripeEventRepository).complete(eq("evt_1"), eq(StripeEventStatus.IGNORED), isNull(), isNull(), any());
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void process_failsPermanently_whenSlotIsTaken() {
+        stored("evt_1", paidPayload(), 1);
+        when(reservationService.createPaidReservation(any(), any()))
+                .thenThrow(new ReservationSlotUnavailableException("Ce créneau n'est plus disponible"));
+
+        webhookService.process("evt_1");
+
+        verify(stripeEventRepository).complete(eq("evt_1"), eq(StripeEventStatus.FAILED), isNull(),
+                eq("Ce créneau n'est plus disponible"), any());
+    }
+
+    @Test
+    void process_retriesTransientErrors_untilAttemptsAreExhausted() {
+        when(reservationService.createPaidReservation(any(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        stored("evt_1", paidPayload(), 1);
+        webhookService.process("evt_1");
+        verify(stripeEventRepository).complete(eq("evt_1"), eq(StripeEventStatus.RECEIVED), isNull(), eq("timeout"),
+                isNull());
+
+        stored("evt_1", paidPayload(), 3);
+        webhookService.process("evt_1");
+        verify(stripeEventRepository).complete(eq("evt_1"), eq(StripeEventStatus.FAILED), isNull(), eq("timeout"),
+                any(Instant.class));
+    }
+
+    @Test
+    void process_usesReservationPrice_whenEventHasNoAmount() {
+        stored("evt_1", paidPayload().replace("\"amount_total\":10000,", "").replace("\"currency\":\"eur\",", ""), 1);
+        when(reservationService.createPaidReservation(any(), any())).thenReturn(reservation(9L));
+
+        webhookService.process("evt_1");
+
+        verify(reservationService).createPaidReservation(any(), eq(PAYMENT));
+    }
+
+    @Test
+    void requeuePending_submitsEventsLeftBehind() {
+        stored("evt_1", paidPayload(), 1);
+        when(stripeEventRepository.findPendingIds(any(), any())).thenReturn(List.of("evt_1"));
+        when(reservationService.createPaidReservation(any(), eq(PAYMENT))).thenReturn(reservation(9L));
+
+        assertThat(webhookService.requeuePending()).isEqualTo(1);
+
+        verify(stripeEventRepository, timeout(2000))
+                .complete(eq("evt_1"), eq(StripeEventStatus.PROCESSED), eq(9L), isNull(), any());
+    }
+
+    private void stored(String id, String payload, int attempts) {
+        StripeWebhookEvent event = StripeWebhookEvent.parse(payload);
+        when(stripeEventRepository.findById(id)).thenReturn(Optional.of(new StripeEvent(id, event.type(),
+                event.sessionId(), payload, StripeEventStatus.PROCESSING, attempts, Instant.now(), null, null, null,
+                null)));
+    }
+
+    private static String paidPayload() {
+        return StripeEventStub.checkoutEvent("evt_1", StripeWebhookEvent.CHECKOUT_SESSION_COMPLETED, "cs_1", "paid",
+                StripeEventStub.reservationMetadata());
+    }
+
+    private static ReservationResponseDTO reservation(Long id) {
+        ReservationResponseDTO dto = new ReservationResponseDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
@@ -2,15 +2,21 @@ package com.mastere_project.vacances_tranquilles.service.impl;
 
 import com.mastere_project.vacances_tranquilles.dto.*;
 import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.exception.AccountLockedException;
 import com.mastere_project.vacances_tranquilles.exception.EmailAlreadyExistsException;
 import com.mastere_project.vacances_tranquilles.exception.EmailNotFoundException;
 import com.mastere_project.vacances_tranquilles.exception.MissingFieldException;
+import com.mastere_project.vacances_tranquilles.exception.PasswordHashingBusyException;
 import com.mastere_project.vacances_tranquilles.exception.WrongPasswordException;
 import com.mastere_project.vacances_tranquilles.mapper.UserMapper;
 import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
 import com.mastere_project.vacances_tranquilles.repository.UserRepository;
 import com.mastere_project.vacances_tranquilles.util.jwt.JwtConfig;
 import com.mastere_project.vacances_tranquilles.util.jwt.SecurityUtils;
+import com.mastere_project.vacances_tranquilles.model.LoginThrottlePolicy;
+import com.mastere_project.vacances_tranquilles.service.CurrentUserService;
+import com.mastere_project.vacances_tranquilles.service.LoginThrottleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -19,10 +25,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -46,10 +54,18 @@ class UserServiceImplTest {
     private JwtConfig jwtConfig;
 
     @Mock
-    private com.mastere_project.vacances_tranquilles.repository.ReviewRepository reviewRepository;
+    private com.mastere_project.vacances_tranquilles.service.RatingAggregateService ratingAggregateService;
 
     @Mock
-    private com.mastere_project.vacances_tranquilles.mapper.ReviewMapper reviewMapper;
+    private com.mastere_project.vacances_tranquilles.service.AvailabilityIndex availabilityIndex;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Spy
+    private LoginThrottleService loginThrottleService = new InMemoryLoginThrottleService(
+            new LoginThrottlePolicy(5, Duration.ofMinutes(10), Duration.ofMinutes(10)), 100,
+            new SimpleMeterRegistry());
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -392,17 +408,21 @@ class UserServiceImplTest {
     void getUserBasicInfoById_ShouldReturnUserBasicInfo() {
         Long userId = 37L;
         
+        com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO rating =
+                new com.mastere_project.vacances_tranquilles.dto.RatingSummaryDTO(1, 5.0, java.util.List.of(0L, 0L, 0L, 0L, 1L));
+        
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
-        when(reviewRepository.findByReviewedId(userId)).thenReturn(java.util.List.of());
+        when(ratingAggregateService.getRating(userId)).thenReturn(rating);
         
         UserBasicInfoDTO result = userService.getUserBasicInfoById(userId);
         
         assertNotNull(result);
         assertEquals("Teste", result.getFirstName());
         assertEquals("Teste", result.getLastName());
+        assertSame(rating, result.getRating());
         
         verify(userRepository).findById(userId);
-        verify(reviewRepository).findByReviewedId(userId);
+        verify(ratingAggregateService).getRating(userId);
     }
 
     @Test
@@ -574,34 +594,16 @@ class UserServiceImplTest {
     }
 
     @Test
-    void getUserBasicInfoById_WhenReviewRepositoryThrowsException_ShouldPropagateException() {
-        Long userId = 37L;
-        
-        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
-        when(reviewRepository.findByReviewedId(userId)).thenThrow(new RuntimeException("Review repository error"));
-        
-        assertThrows(RuntimeException.class, () -> userService.getUserBasicInfoById(userId));
-        
-        verify(userRepository).findById(userId);
-        verify(reviewRepository).findByReviewedId(userId);
-    }
-
-    @Test
-    void getUserBasicInfoById_WhenReviewMapperThrowsException_ShouldPropagateException() {
+    void getUserBasicInfoById_WhenRatingServiceThrowsException_ShouldPropagateException() {
         Long userId = 37L;
         
-        // Créer une liste avec une review pour que le mapper soit appelé
-        com.mastere_project.vacances_tranquilles.entity.Review mockReview = new com.mastere_project.vacances_tranquilles.entity.Review();
-        mockReview.setId(1L);
-        
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
-        when(reviewRepository.findByReviewedId(userId)).thenReturn(java.util.List.of(mockReview));
-        when(reviewMapper.toDTO(any())).thenThrow(new RuntimeException("Mapper error"));
+        when(ratingAggregateService.getRating(userId)).thenThrow(new RuntimeException("Rating error"));
         
         assertThrows(RuntimeException.class, () -> userService.getUserBasicInfoById(userId));
         
         verify(userRepository).findById(userId);
-        verify(reviewRepository).findByReviewedId(userId);
+        verify(ratingAggregateService).getRating(userId);
     }
 
     // Tests pour les cas limites avec des données null
@@ -736,6 +738,38 @@ class UserServiceImplTest {
         verify(passwordEncoder, times(2)).matches(userDTO.getPassword(), mockUser.getPassword());
     }
 
+    @Test
+    void login_WhenPasswordHashingIsBusy_ShouldNotWrapException() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setEmail("test@test.com");
+        userDTO.setPassword("password123");
+
+        when(userRepository.findByEmail(userDTO.getEmail())).thenReturn(Optional.of(mockUser));
+        when(passwordEncoder.matches(userDTO.getPassword(), mockUser.getPassword()))
+                .thenThrow(new PasswordHashingBusyException("Busy"));
+
+        assertThrows(PasswordHashingBusyException.class, () -> userService.login(userDTO));
+        verify(loginThrottleService, never()).recordFailure(anyString());
+    }
+
+    @Test
+    void login_WhenTooManyFailedAttempts_ShouldLockAccount() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setEmail("test@test.com");
+        userDTO.setPassword("wrongpassword");
+
+        when(userRepository.findByEmail(userDTO.getEmail())).thenReturn(Optional.of(mockUser));
+        when(passwordEncoder.matches(userDTO.getPassword(), mockUser.getPassword())).thenReturn(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(WrongPasswordException.class, () -> userService.login(userDTO));
+        }
+
+        assertThrows(AccountLockedException.class, () -> userService.login(userDTO));
+        verify(userRepository, times(5)).findByEmail(userDTO.getEmail());
+        verify(loginThrottleService, times(5)).recordFailure(userDTO.getEmail());
+    }
+
     @Test
     void registerClient_WhenPasswordIsEmpty_ShouldHandleGracefully() {
         RegisterClientDTO dto = new RegisterClientDTO();
@@ -821,7 +855,6 @@ class UserServiceImplTest {
         userWithNullFields.setLastName(null);
         
         when(userRepository.findById(userId)).thenReturn(Optional.of(userWithNullFields));
-        when(reviewRepository.findByReviewedId(userId)).thenReturn(java.util.List.of());
         
         UserBasicInfoDTO result = userService.getUserBasicInfoById(userId);
         
@@ -830,7 +863,7 @@ class UserServiceImplTest {
         assertNull(result.getLastName());
         
         verify(userRepository).findById(userId);
-        verify(reviewRepository).findByReviewedId(userId);
+        verify(ratingAggregateService).getRating(userId);
     }
 
     @Test
@@ -0,0 +1,179 @@
+package com.mastere_project.vacances_tranquilles.util.datasource;
+
+import com.mastere_project.vacances_tranquilles.configuration.HibernateCacheConfig;
+import com.mastere_project.vacances_tranquilles.entity.User;
+import com.mastere_project.vacances_tranquilles.model.enums.UserRole;
+import com.mastere_project.vacances_tranquilles.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Marquage des transactions servies par le réplica et mode de cache de leur session, sur H2 :
+ * la source de données n'est pas répartie ici, seules les décisions du gestionnaire sont vérifiées.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReplicaAwareTransactionManagerTest {
+
+    @TestConfiguration
+    static class ReplicaRouting {
+
+        @Bean
+        ReplicaLagMonitor replicaLagMonitor() {
+            return mock(ReplicaLagMonitor.class);
+        }
+
+        @Bean
+        ReplicaAwareTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                ReplicaLagMonitor replicaLagMonitor) {
+            return new ReplicaAwareTransactionManager(entityManagerFactory, replicaLagMonitor);
+        }
+    }
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(user("replica@example.com"));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        when(monitor.isUsable()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void replicaRead_readsCachesWithoutFillingThem() {
+        assertThat(cacheMode(readOnly)).isEqualTo(CacheMode.GET);
+        readOnly.executeWithoutResult(status -> {
+            assertThat(ReplicaAwareTransactionManager.isReplicaRead()).isTrue();
+            userRepository.findById(user.getId());
+            userRepository.findByEmail(user.getEmail());
+        });
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isFalse();
+        // La requête relue sur le primaire ne trouve pas de résultat rangé par le réplica
+        statistics.clear();
+        readWrite.executeWithoutResult(status -> userRepository.findByEmail(user.getEmail()));
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+
+        // Rempli par une lecture sur le primaire, le cache sert ensuite aussi les lectures du réplica
+        readWrite.executeWithoutResult(status -> userRepository.findById(user.getId()));
+        statistics.clear();
+        readOnly.executeWithoutResult(status -> userRepository.findById(user.getId()));
+        assertThat(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void readOnlyTransaction_staysOnPrimaryAndFillsCaches_whenReplicaIsUnusable() {
+        when(monitor.isUsable()).thenReturn(false);
+
+        readOnly.executeWithoutResult(status -> {
+            assertThat(ReplicaAwareTransactionManager.isReplicaRead()).isFalse();
+            assertThat(cacheMode()).isEqualTo(CacheMode.NORMAL);
+            userRepository.findById(user.getId());
+        });
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isTrue();
+    }
+
+    @Test
+    void readWriteTransaction_isNeverMarked() {
+        readWrite.executeWithoutResult(status -> {
+            assertThat(ReplicaAwareTransactionManager.isReplicaRead()).isFalse();
+            assertThat(cacheMode()).isEqualTo(CacheMode.NORMAL);
+        });
+    }
+
+    @Test
+    void mark_followsSuspendedTransaction() {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        readOnly.executeWithoutResult(status -> {
+            requiresNew.executeWithoutResult(inner -> {
+                assertThat(ReplicaAwareTransactionManager.isReplicaRead()).isFalse();
+                assertThat(cacheMode()).isEqualTo(CacheMode.NORMAL);
+            });
+            assertThat(ReplicaAwareTransactionManager.isReplicaRead()).isTrue();
+            assertThat(cacheMode()).isEqualTo(CacheMode.GET);
+        });
+
+        assertThat(ReplicaAwareTransactionManager.isReplicaRead()).isFalse();
+    }
+
+    private CacheMode cacheMode(TransactionTemplate transaction) {
+        return transaction.execute(status -> cacheMode());
+    }
+
+    private CacheMode cacheMode() {
+        return entityManager.unwrap(Session.class).getCacheMode();
+    }
+
+    private static User user(String email) {
+        User created = new User();
+        created.setFirstName("Test");
+        created.setLastName("User");
+        created.setEmail(email);
+        created.setPassword("password123");
+        created.setUserRole(UserRole.CLIENT);
+        created.setPhoneNumber("0123456789");
+        created.setAddress("123 Test Street");
+        created.setCity("Paris");
+        created.setPostalCode("75001");
+        return created;
+    }
+}
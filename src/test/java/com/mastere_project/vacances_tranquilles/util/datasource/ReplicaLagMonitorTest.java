@@ -0,0 +1,114 @@
+package com.mastere_project.vacances_tranquilles.util.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @Test
+    void isUnusable_beforeFirstCheck() {
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(monitor.lagSeconds()).isNaN();
+    }
+
+    @Test
+    void check_marksReplicaUsable_whenLagIsWithinLimit() throws SQLException {
+        lag(2.5);
+
+        monitor.check();
+
+        assertThat(monitor.isUsable()).isTrue();
+        assertThat(meterRegistry.get("datasource.replica.lag").gauge().value()).isEqualTo(2.5);
+        assertThat(meterRegistry.get("datasource.replica.usable").gauge().value()).isEqualTo(1);
+        verify(statement).setQueryTimeout(anyInt());
+        verify(connection).close();
+    }
+
+    @Test
+    void check_setsReplicaAside_whenLagExceedsLimit() throws SQLException {
+        lag(1);
+        monitor.check();
+
+        lag(5.2);
+        monitor.check();
+
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(monitor.lagSeconds()).isEqualTo(5.2);
+    }
+
+    @Test
+    void check_setsReplicaAside_whenReplicaIsUnreachable() throws SQLException {
+        lag(0);
+        monitor.check();
+        when(replica.getConnection()).thenThrow(new SQLException("connexion refusée"));
+
+        monitor.check();
+
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(monitor.lagSeconds()).isNaN();
+        assertThat(meterRegistry.get("datasource.replica.usable").gauge().value()).isZero();
+    }
+
+    @Test
+    void markUnavailable_setsReplicaAsideUntilNextCheck() throws SQLException {
+        lag(0);
+        monitor.check();
+
+        monitor.markUnavailable(new SQLException("connexion perdue"));
+        assertThat(monitor.isUsable()).isFalse();
+
+        monitor.check();
+        assertThat(monitor.isUsable()).isTrue();
+    }
+
+    @Test
+    void constructor_rejectsNegativeMaxLag() {
+        Duration maxLag = Duration.ofSeconds(-1);
+        assertThatThrownBy(() -> new ReplicaLagMonitor(replica, maxLag, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void lag(double seconds) throws SQLException {
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+    }
+}
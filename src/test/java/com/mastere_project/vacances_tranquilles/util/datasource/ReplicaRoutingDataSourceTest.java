@@ -0,0 +1,102 @@
+package com.mastere_project.vacances_tranquilles.util.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private ReplicaLagMonitor monitor;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ReplicaRoutingDataSource(primary, replica, monitor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaAwareTransactionManager.REPLICA_READ_KEY);
+    }
+
+    @Test
+    void getConnection_usesReplica_forReadOnlyTransaction() throws SQLException {
+        markReplicaRead();
+        when(monitor.isUsable()).thenReturn(true);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        assertThat(connections("replica")).isEqualTo(1);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_usesPrimary_forTransactionNotMarkedForReplica() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(connections("primary")).isEqualTo(1);
+        verifyNoInteractions(replica, monitor);
+    }
+
+    @Test
+    void getConnection_usesPrimary_whenReplicaLags() throws SQLException {
+        markReplicaRead();
+        when(monitor.isUsable()).thenReturn(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void getConnection_fallsBackToPrimary_andSetsReplicaAside_whenReplicaIsUnreachable() throws SQLException {
+        markReplicaRead();
+        when(monitor.isUsable()).thenReturn(true);
+        SQLException failure = new SQLException("connexion refusée");
+        when(replica.getConnection()).thenThrow(failure);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(monitor).markUnavailable(failure);
+        assertThat(connections("replica")).isZero();
+        assertThat(connections("primary")).isEqualTo(1);
+    }
+
+    private static void markReplicaRead() {
+        TransactionSynchronizationManager.bindResource(ReplicaAwareTransactionManager.REPLICA_READ_KEY, Boolean.TRUE);
+    }
+
+    private double connections(String target) {
+        return meterRegistry.get("datasource.routing.connections").tag("target", target).counter().count();
+    }
+}
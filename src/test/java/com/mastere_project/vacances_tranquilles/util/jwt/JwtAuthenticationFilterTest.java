@@ -10,11 +10,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
+import io.jsonwebtoken.JwtException;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.time.Instant;
 
 import static org.mockito.Mockito.*;
 
@@ -46,15 +49,14 @@ class JwtAuthenticationFilterTest {
     @DisplayName("doFilterInternal - should authenticate with valid token")
     void doFilterInternal_shouldAuthenticateWithValidToken() throws ServletException, IOException {
         String token = "valid.jwt.token";
-        String email = "user@example.com";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
         when(request.getRequestURI()).thenReturn("/api/test");
-        when(jwtConfig.extractEmail(token)).thenReturn(email);
-        when(jwtConfig.extractUserId(token)).thenReturn(1L);
-        when(jwtConfig.validateToken(token, 1L)).thenReturn(true);
+        when(jwtConfig.verify(token)).thenReturn(verifiedToken());
 
         filter.doFilterInternal(request, response, filterChain);
 
+        verify(jwtConfig, times(1)).verify(token);
+        verifyNoMoreInteractions(jwtConfig);
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assert authentication != null;
         assert authentication.getPrincipal().equals(1L);
@@ -65,12 +67,9 @@ class JwtAuthenticationFilterTest {
     @DisplayName("doFilterInternal - should not authenticate with invalid token")
     void doFilterInternal_shouldNotAuthenticateWithInvalidToken() throws ServletException, IOException {
         String token = "invalid.jwt.token";
-        String email = "user@example.com";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
         when(request.getRequestURI()).thenReturn("/api/test");
-        when(jwtConfig.extractEmail(token)).thenReturn(email);
-        when(jwtConfig.extractUserId(token)).thenReturn(1L);
-        when(jwtConfig.validateToken(token, 1L)).thenReturn(false);
+        when(jwtConfig.verify(token)).thenThrow(new JwtException("Signature invalide"));
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -114,11 +113,9 @@ class JwtAuthenticationFilterTest {
         Authentication mockAuth = mock(Authentication.class);
         SecurityContextHolder.getContext().setAuthentication(mockAuth);
         String token = "valid.jwt.token";
-        String email = "user@example.com";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
         when(request.getRequestURI()).thenReturn("/api/test");
-        when(jwtConfig.extractEmail(token)).thenReturn(email);
-        when(jwtConfig.validateToken(token, 1L)).thenReturn(true);
+        when(jwtConfig.verify(token)).thenReturn(verifiedToken());
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -126,4 +123,17 @@ class JwtAuthenticationFilterTest {
         assert SecurityContextHolder.getContext().getAuthentication() == mockAuth;
         verify(filterChain).doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private static VerifiedToken verifiedToken() {
+        return new VerifiedToken("1", "CLIENT", Instant.now().plusSeconds(3600));
+    }
+
+    @Test
+    @DisplayName("shouldNotFilter - should skip the Stripe webhook and Prometheus only")
+    void shouldNotFilter_shouldSkipStripeWebhookAndPrometheus() throws ServletException {
+        assert filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/stripe/webhook"));
+        assert filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/prometheus"));
+        assert !filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/stripe/webhook"));
+        assert !filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/stripe/create-checkout-session"));
+    }
+}
@@ -108,4 +108,79 @@ class JwtConfigTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("au moins 32 caractères");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("verify - should return subject, role and expiration")
+    void verify_shouldReturnVerifiedContent() {
+        String token = jwtConfig.generateToken(5L, UserRole.PROVIDER);
+
+        VerifiedToken verified = jwtConfig.verify(token);
+
+        assertThat(verified.userId()).isEqualTo(5L);
+        assertThat(verified.role()).isEqualTo("PROVIDER");
+        assertThat(verified.expiresAt()).isAfter(java.time.Instant.now());
+    }
+
+    @Test
+    @DisplayName("verify - should serve a repeated token from the cache")
+    void verify_shouldReturnCachedResultForSameToken() {
+        String token = jwtConfig.generateToken(5L, UserRole.CLIENT);
+
+        assertThat(jwtConfig.verify(token)).isSameAs(jwtConfig.verify(token));
+    }
+
+    @Test
+    @DisplayName("verify - should not cache when the cache is disabled")
+    void verify_shouldParseEachTime_whenCacheDisabled() {
+        JwtConfig uncached = new JwtConfig(0);
+        String token = uncached.generateToken(5L, UserRole.CLIENT);
+
+        VerifiedToken first = uncached.verify(token);
+        VerifiedToken second = uncached.verify(token);
+
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("verify - should reject a cached signature reused with another payload")
+    void verify_shouldRejectTamperedPayloadWithCachedSignature() {
+        String token = jwtConfig.generateToken(5L, UserRole.CLIENT);
+        jwtConfig.verify(token);
+        String[] parts = token.split("\\.");
+        String forgedPayload = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"1\",\"role\":\"ADMIN\",\"exp\":4102444800}".getBytes(StandardCharsets.UTF_8));
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThatThrownBy(() -> jwtConfig.verify(forged)).isInstanceOf(JwtException.class);
+        assertThat(jwtConfig.verify(token).userId()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("verify - should reject an expired token")
+    void verify_shouldRejectExpiredToken() throws Exception {
+        Field secretKeyField = JwtConfig.class.getDeclaredField("secretKey");
+        secretKeyField.setAccessible(true);
+        String secretKey = (String) secretKeyField.get(jwtConfig);
+        Key key = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS256.getJcaName());
+        String token = Jwts.builder()
+                .setSubject("1")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThatThrownBy(() -> jwtConfig.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("verify - should stay bounded when the cache is full")
+    void verify_shouldBoundCacheSize() throws Exception {
+        JwtConfig small = new JwtConfig(2);
+        for (long id = 1; id <= 5; id++) {
+            small.verify(small.generateToken(id, UserRole.CLIENT));
+        }
+
+        Field cacheField = JwtConfig.class.getDeclaredField("verifiedTokens");
+        cacheField.setAccessible(true);
+        assertThat((java.util.Map<?, ?>) cacheField.get(small)).hasSizeLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mastere_project.vacances_tranquilles.util.pagination;
+
+import com.mastere_project.vacances_tranquilles.dto.ReservationResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReservationCursorTest {
+
+    @Test
+    void encode_thenDecode_shouldRoundTrip() {
+        ReservationCursor cursor = new ReservationCursor(LocalDate.of(2030, 1, 7), LocalTime.of(9, 30), 42L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("|", "=", "+", "/");
+        assertThat(ReservationCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void after_shouldUseLastReservationPosition() {
+        ReservationResponseDTO dto = new ReservationResponseDTO();
+        dto.setId(7L);
+        dto.setReservationDate(LocalDate.of(2030, 1, 7).atStartOfDay());
+        dto.setStartDate(LocalDate.of(2030, 1, 7).atTime(14, 0));
+
+        assertThat(ReservationCursor.after(dto))
+                .isEqualTo(new ReservationCursor(LocalDate.of(2030, 1, 7), LocalTime.of(14, 0), 7L));
+    }
+
+    @Test
+    void decode_shouldRejectInvalidCursors() {
+        String notBase64 = "%%%";
+        String wrongParts = encode("2030-01-07|09:30");
+        String wrongDate = encode("2030-13-07|09:30|1");
+        String wrongId = encode("2030-01-07|09:30|abc");
+
+        for (String value : new String[] { notBase64, wrongParts, wrongDate, wrongId }) {
+            assertThatThrownBy(() -> ReservationCursor.decode(value))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Curseur de pagination invalide.");
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,40 @@
+package com.mastere_project.vacances_tranquilles.util.password;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BCryptCostCalibratorTest {
+
+    /** Durée simulée d'un hachage : 20 ms au coût 10, doublée à chaque point de coût. */
+    private static long simulated(int cost) {
+        return Duration.ofMillis(20).toNanos() << (cost - BCryptCostCalibrator.MIN_COST);
+    }
+
+    @Test
+    void calibrate_shouldPickHighestCostUnderTarget() {
+        // 20 ms -> 40 -> 80 -> 160 : 80 ms est le dernier palier sous 100 ms
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ofMillis(100), BCryptCostCalibratorTest::simulated))
+                .isEqualTo(12);
+    }
+
+    @Test
+    void calibrate_shouldNotGoBelowMinimum_onSlowHost() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ofMillis(5), BCryptCostCalibratorTest::simulated))
+                .isEqualTo(BCryptCostCalibrator.MIN_COST);
+    }
+
+    @Test
+    void calibrate_shouldNotExceedMaximum_onFastHost() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ofHours(1), cost -> 1L))
+                .isEqualTo(BCryptCostCalibrator.MAX_COST);
+    }
+
+    @Test
+    void calibrate_shouldMeasureRealHash() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ofMillis(1)))
+                .isEqualTo(BCryptCostCalibrator.MIN_COST);
+    }
+}
@@ -0,0 +1,94 @@
+package com.mastere_project.vacances_tranquilles.util.password;
+
+import com.mastere_project.vacances_tranquilles.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_shouldDelegate() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hash").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void matches_shouldRethrowDelegateException() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, meterRegistry);
+
+        assertThatThrownBy(() -> encoder.matches(null, "$2a$04$abc"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matches_shouldRejectImmediately_whenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.matches(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        awaitQueueDepth(1);
+
+        assertThatThrownBy(() -> encoder.matches("c", "hash")).isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.get("auth.password.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveSizes() {
+        PasswordEncoder delegate = new BCryptPasswordEncoder(4);
+        assertThatThrownBy(() -> new BoundedPasswordEncoder(delegate, 0, 1, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BoundedPasswordEncoder(delegate, 1, 0, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void awaitQueueDepth(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.queue").gauge().value() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get("auth.password.queue").gauge().value()).isEqualTo(expected);
+    }
+}
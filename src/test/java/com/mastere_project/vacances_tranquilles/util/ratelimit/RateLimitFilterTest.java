@@ -0,0 +1,131 @@
+package com.mastere_project.vacances_tranquilles.util.ratelimit;
+
+import com.mastere_project.vacances_tranquilles.util.jwt.JwtConfig;
+import com.mastere_project.vacances_tranquilles.util.jwt.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private JwtConfig jwtConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = mock(JwtConfig.class);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(jwtConfig, meterRegistry, true, 100,
+                "2/PT1H", "3/PT1H", "1/PT1H", "5/PT1H");
+    }
+
+    @Test
+    void anonymousRoute_isLimitedPerIp_with429AndRetryAfter() throws Exception {
+        assertThat(perform(request("/api/auth/login", "10.0.0.1", null)).getStatus()).isEqualTo(200);
+        assertThat(perform(request("/api/auth/login", "10.0.0.1", null)).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = perform(request("/api/auth/login", "10.0.0.1", null));
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isBetween(1L, 1800L);
+        assertThat(rejected.getContentAsString()).contains("TOO_MANY_REQUESTS");
+        assertThat(perform(request("/api/auth/login", "10.0.0.2", null)).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("http.ratelimit.rejected").tag("group", "auth").counter().count())
+                .isEqualTo(1.0);
+        verifyNoInteractions(jwtConfig);
+    }
+
+    @Test
+    void authenticatedRoute_isLimitedPerUser_acrossIps() throws Exception {
+        when(jwtConfig.verify("token-1")).thenReturn(new VerifiedToken("1", "CLIENT", Instant.now().plusSeconds(3600)));
+
+        assertThat(perform(request("/api/services/search", "10.0.0.1", "token-1")).getStatus()).isEqualTo(200);
+
+        assertThat(perform(request("/api/services/search", "10.0.0.2", "token-1")).getStatus()).isEqualTo(429);
+        // Même utilisateur, autre groupe de routes : seau distinct
+        assertThat(perform(request("/api/messages/conversation/1", "10.0.0.2", "token-1")).getStatus())
+                .isEqualTo(200);
+    }
+
+    @Test
+    void invalidToken_fallsBackToIp() throws Exception {
+        when(jwtConfig.verify("bad")).thenThrow(new JwtException("invalid"));
+
+        assertThat(perform(request("/api/services/search", "10.0.0.1", "bad")).getStatus()).isEqualTo(200);
+        assertThat(perform(request("/api/services/search", "10.0.0.1", null)).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void routesOutsideApi_areNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(perform(request("/actuator/prometheus", "10.0.0.1", null)).getStatus()).isEqualTo(200);
+        }
+        assertThat(filter.bucketCount()).isZero();
+    }
+
+    @Test
+    void disabledFilter_letsEverythingThrough() throws Exception {
+        RateLimitFilter disabled = new RateLimitFilter(jwtConfig, new SimpleMeterRegistry(), false, 100,
+                "1/PT1H", "1/PT1H", "1/PT1H", "1/PT1H");
+        FilterChain chain = mock(FilterChain.class);
+
+        for (int i = 0; i < 3; i++) {
+            disabled.doFilter(request("/api/auth/login", "10.0.0.1", null), new MockHttpServletResponse(), chain);
+        }
+
+        verify(chain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    void evictIdle_keepsOnlyBucketsStillRefilling() throws Exception {
+        RateLimitFilter fast = new RateLimitFilter(jwtConfig, new SimpleMeterRegistry(), true, 100,
+                "1000/PT0.001S", "1/PT1H", "1/PT1H", "1/PT1H");
+        fast.doFilter(request("/api/auth/login", "10.0.0.1", null), new MockHttpServletResponse(), new MockFilterChain());
+        fast.doFilter(request("/api/reservations", "10.0.0.1", null), new MockHttpServletResponse(), new MockFilterChain());
+        Thread.sleep(5);
+
+        assertThat(fast.evictIdle()).isEqualTo(1);
+        assertThat(fast.bucketCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketTable_isCapped() throws Exception {
+        RateLimitFilter capped = new RateLimitFilter(jwtConfig, meterRegistry, true, 2,
+                "1/PT1H", "1/PT1H", "1/PT1H", "1/PT1H");
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            capped.doFilter(request("/api/auth/login", "10.0.0." + i, null), response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+
+        assertThat(capped.bucketCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("http.ratelimit.overflow").counter().count()).isEqualTo(3.0);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String uri, String remoteAddr, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddr);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+}
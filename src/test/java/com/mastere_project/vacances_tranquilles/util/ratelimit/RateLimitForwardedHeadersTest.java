@@ -0,0 +1,86 @@
+package com.mastere_project.vacances_tranquilles.util.ratelimit;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clé de limitation de débit derrière un répartiteur de charge, sur un vrai Tomcat : l'adresse
+ * annoncée dans X-Forwarded-For n'est retenue que si la connexion vient d'un proxy de confiance.
+ * Les requêtes du test partent de 127.0.0.1, proxy interne par défaut.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "app.cors.allowed-origins=http://localhost",
+        "frontend.base.url=http://localhost",
+        "stripe.api.key=sk_test_unused",
+        "monitoring.username=monitoring",
+        "monitoring.password=monitoring",
+        "app.security.password.bcrypt-cost=4",
+        "app.rate-limit.auth=2/PT1H",
+        "app.stripe.gateway=fake",
+        "app.stripe.webhook.requeue-interval=PT1H",
+        "app.reservations.auto-close.enabled=false",
+        "app.payments.reconciliation.enabled=false"
+})
+class RateLimitForwardedHeadersTest {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void clientAddressFromTrustedProxy_isTheRateLimitKey() throws Exception {
+        assertThat(login(port, "203.0.113.10")).isNotEqualTo(TOO_MANY_REQUESTS);
+        assertThat(login(port, "203.0.113.10")).isNotEqualTo(TOO_MANY_REQUESTS);
+
+        assertThat(login(port, "203.0.113.10")).isEqualTo(TOO_MANY_REQUESTS);
+        // Autre client derrière le même proxy : seau distinct
+        assertThat(login(port, "203.0.113.11")).isNotEqualTo(TOO_MANY_REQUESTS);
+    }
+
+    /**
+     * Aucun proxy de confiance : un client ne change pas de seau en forgeant X-Forwarded-For.
+     */
+    @Nested
+    @TestPropertySource(properties = "server.tomcat.remoteip.internal-proxies=")
+    class WithoutTrustedProxy {
+
+        @LocalServerPort
+        private int nestedPort;
+
+        @Test
+        void forwardedHeader_isIgnored() throws Exception {
+            assertThat(login(nestedPort, "198.51.100.1")).isNotEqualTo(TOO_MANY_REQUESTS);
+            assertThat(login(nestedPort, "198.51.100.2")).isNotEqualTo(TOO_MANY_REQUESTS);
+
+            assertThat(login(nestedPort, "198.51.100.3")).isEqualTo(TOO_MANY_REQUESTS);
+        }
+    }
+
+    private static int login(int port, String forwardedFor) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"inconnu@example.com\",\"password\":\"x\"}"))
+                .build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,26 @@
+package com.mastere_project.vacances_tranquilles.util.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RateLimitRuleTest {
+
+    @Test
+    void parse_shouldReadCapacityAndPeriod() {
+        RateLimitRule rule = RateLimitRule.parse("60 / PT1M");
+
+        assertThat(rule).isEqualTo(new RateLimitRule(60, Duration.ofMinutes(1)));
+        assertThat(rule.intervalNanos()).isEqualTo(Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void parse_shouldRejectInvalidRules() {
+        assertThatThrownBy(() -> RateLimitRule.parse("60")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRule.parse("x/PT1M")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRule.parse("0/PT1M")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRule.parse("10/PT0S")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.mastere_project.vacances_tranquilles.util.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_allowsBurstThenRefillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(new RateLimitRule(3, Duration.ofSeconds(3)), 0L);
+
+        assertThat(bucket.tryConsume(0L)).isZero();
+        assertThat(bucket.tryConsume(0L)).isZero();
+        assertThat(bucket.tryConsume(0L)).isZero();
+        assertThat(bucket.tryConsume(0L)).isEqualTo(SECOND);
+
+        assertThat(bucket.tryConsume(SECOND)).isZero();
+        assertThat(bucket.tryConsume(SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void isFull_onceAllTokensAreBack() {
+        TokenBucket bucket = new TokenBucket(new RateLimitRule(2, Duration.ofSeconds(2)), 0L);
+        assertThat(bucket.isFull(0L)).isTrue();
+
+        bucket.tryConsume(0L);
+        bucket.tryConsume(0L);
+
+        assertThat(bucket.isFull(SECOND)).isFalse();
+        assertThat(bucket.isFull(2 * SECOND)).isTrue();
+    }
+
+    @Test
+    void tryConsume_neverGrantsMoreThanCapacity_underContention() throws Exception {
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(new RateLimitRule(100, Duration.ofHours(1)), now);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                executor.execute(() -> {
+                    if (bucket.tryConsume(now) == 0) {
+                        granted.incrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(granted.get()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,93 @@
+package com.mastere_project.vacances_tranquilles.util.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN = Duration.ofSeconds(30);
+
+    private AtomicLong clock;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        breaker = new CircuitBreaker("test", 3, OPEN, clock::get);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures_only() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void letsOneProbeThrough_afterOpenDuration_andClosesOnSuccess() {
+        open();
+        clock.addAndGet(OPEN.toNanos());
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void reopens_whenProbeFails() {
+        open();
+        clock.addAndGet(OPEN.toNanos());
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        clock.addAndGet(OPEN.toNanos() - 1);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void replacesProbe_thatNeverReported() {
+        open();
+        clock.addAndGet(OPEN.toNanos());
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        clock.addAndGet(OPEN.toNanos());
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new CircuitBreaker("test", 0, OPEN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CircuitBreaker("test", 1, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,106 @@
+package com.mastere_project.vacances_tranquilles.util.schedule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaySlotMaskTest {
+
+    @Test
+    @DisplayName("Doit occuper exactement les créneaux d'un intervalle aligné")
+    void of_alignedInterval_setsExactSlots() {
+        DaySlotMask mask = DaySlotMask.of(LocalTime.of(10, 0), LocalTime.of(11, 0));
+
+        for (int slot = 0; slot < DaySlotMask.SLOTS_PER_DAY; slot++) {
+            assertEquals(slot >= 40 && slot < 44, mask.isSet(slot), "créneau " + slot);
+        }
+    }
+
+    @Test
+    @DisplayName("Doit arrondir les bornes vers l'extérieur")
+    void of_unalignedInterval_roundsOutwards() {
+        DaySlotMask mask = DaySlotMask.of(LocalTime.of(10, 5), LocalTime.of(10, 20));
+
+        assertFalse(mask.isSet(39));
+        assertTrue(mask.isSet(40));
+        assertTrue(mask.isSet(41));
+        assertFalse(mask.isSet(42));
+    }
+
+    @Test
+    @DisplayName("Doit répartir un intervalle sur les deux mots")
+    void of_intervalAcrossWords_setsBothWords() {
+        DaySlotMask mask = DaySlotMask.of(LocalTime.of(15, 30), LocalTime.of(16, 30));
+
+        assertTrue(mask.isSet(62));
+        assertTrue(mask.isSet(63));
+        assertTrue(mask.isSet(64));
+        assertTrue(mask.isSet(65));
+        assertEquals(0b11L, mask.high());
+        assertEquals(0b11L << 62, mask.low());
+    }
+
+    @Test
+    @DisplayName("Doit couvrir la journée entière jusqu'au dernier créneau")
+    void of_wholeDay_setsAllSlots() {
+        DaySlotMask mask = DaySlotMask.of(LocalTime.MIDNIGHT, LocalTime.MAX);
+
+        assertEquals(-1L, mask.low());
+        assertEquals((1L << 32) - 1, mask.high());
+    }
+
+    @Test
+    @DisplayName("Doit retourner un masque vide pour un intervalle vide ou inversé")
+    void of_emptyInterval_returnsEmpty() {
+        assertTrue(DaySlotMask.of(LocalTime.NOON, LocalTime.NOON).isEmpty());
+        assertTrue(DaySlotMask.of(LocalTime.NOON, LocalTime.of(11, 0)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Doit refuser des bornes nulles")
+    void of_nullBounds_throws() {
+        assertThrows(IllegalArgumentException.class, () -> DaySlotMask.of(null, LocalTime.NOON));
+        assertThrows(IllegalArgumentException.class, () -> DaySlotMask.of(LocalTime.NOON, null));
+    }
+
+    @Test
+    @DisplayName("Ne doit pas considérer des intervalles contigus comme chevauchants")
+    void overlaps_touchingIntervals_false() {
+        DaySlotMask busy = DaySlotMask.of(LocalTime.of(8, 0), LocalTime.of(10, 0));
+
+        assertFalse(busy.overlaps(DaySlotMask.of(LocalTime.of(10, 0), LocalTime.of(12, 0))));
+        assertTrue(busy.overlaps(DaySlotMask.of(LocalTime.of(9, 45), LocalTime.of(12, 0))));
+    }
+
+    @Test
+    @DisplayName("Doit détecter un chevauchement dans le second mot")
+    void overlaps_highWord_true() {
+        DaySlotMask busy = DaySlotMask.of(LocalTime.of(20, 0), LocalTime.of(21, 0));
+
+        assertTrue(busy.overlaps(DaySlotMask.of(LocalTime.of(20, 30), LocalTime.of(22, 0))));
+        assertFalse(busy.overlaps(DaySlotMask.of(LocalTime.of(9, 0), LocalTime.of(10, 0))));
+    }
+
+    @Test
+    @DisplayName("Doit combiner deux masques")
+    void or_combinesMasks() {
+        DaySlotMask morning = DaySlotMask.of(LocalTime.of(9, 0), LocalTime.of(10, 0));
+        DaySlotMask evening = DaySlotMask.of(LocalTime.of(19, 0), LocalTime.of(20, 0));
+
+        DaySlotMask both = morning.or(evening);
+
+        assertTrue(both.overlaps(morning));
+        assertTrue(both.overlaps(evening));
+        assertFalse(both.overlaps(DaySlotMask.of(LocalTime.of(12, 0), LocalTime.of(13, 0))));
+    }
+
+    @Test
+    @DisplayName("Doit refuser un index de créneau hors limites")
+    void isSet_invalidSlot_throws() {
+        assertThrows(IllegalArgumentException.class, () -> DaySlotMask.EMPTY.isSet(-1));
+        assertThrows(IllegalArgumentException.class, () -> DaySlotMask.EMPTY.isSet(DaySlotMask.SLOTS_PER_DAY));
+    }
+}
@@ -0,0 +1,52 @@
+package com.mastere_project.vacances_tranquilles.util.schedule;
+
+import com.mastere_project.vacances_tranquilles.entity.ScheduleRule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurringRuleTest {
+
+    @Test
+    @DisplayName("Doit encoder et décoder les jours de la semaine")
+    void daysMask_roundTrips() {
+        Set<DayOfWeek> days = EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.SUNDAY);
+
+        int mask = RecurringRule.daysMask(days);
+
+        assertEquals(0b1000101, mask);
+        assertEquals(days, RecurringRule.daysOf(mask));
+    }
+
+    @Test
+    @DisplayName("Doit s'appliquer sans date de fin")
+    void appliesTo_withoutEnd() {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        RecurringRule rule = new RecurringRule(RecurringRule.daysMask(List.of(DayOfWeek.MONDAY)),
+                LocalTime.of(9, 0), LocalTime.of(12, 0), monday, null);
+
+        assertTrue(rule.appliesTo(monday.plusWeeks(52)));
+        assertFalse(rule.appliesTo(monday.minusWeeks(1)));
+        assertFalse(rule.appliesTo(monday.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Doit copier les champs d'une règle persistée")
+    void from_copiesEntityFields() {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        ScheduleRule entity = new ScheduleRule(1L, 3, LocalTime.of(9, 0), LocalTime.of(17, 0), from,
+                from.plusMonths(11), null);
+
+        RecurringRule rule = RecurringRule.from(entity);
+
+        assertEquals(new RecurringRule(3, LocalTime.of(9, 0), LocalTime.of(17, 0), from, from.plusMonths(11)), rule);
+    }
+}
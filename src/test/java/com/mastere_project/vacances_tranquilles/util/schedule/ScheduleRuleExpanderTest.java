@@ -0,0 +1,89 @@
+package com.mastere_project.vacances_tranquilles.util.schedule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleRuleExpanderTest {
+
+    // Lundi
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    private static final RecurringRule WEEKDAYS_9_17 = new RecurringRule(
+            RecurringRule.daysMask(List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                    DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)),
+            LocalTime.of(9, 0), LocalTime.of(17, 0), MONDAY, MONDAY.plusDays(13));
+
+    @Test
+    @DisplayName("Doit retourner la plage d'une règle applicable")
+    void windowsOn_returnsRuleWindow_onMatchingDay() {
+        assertEquals(List.of(new TimeWindow(LocalTime.of(9, 0), LocalTime.of(17, 0))),
+                ScheduleRuleExpander.windowsOn(List.of(WEEKDAYS_9_17), MONDAY));
+    }
+
+    @Test
+    @DisplayName("Ne doit rien retourner le week-end ni hors période de validité")
+    void windowsOn_returnsNothing_outsideDaysOrValidity() {
+        assertTrue(ScheduleRuleExpander.windowsOn(List.of(WEEKDAYS_9_17), MONDAY.plusDays(5)).isEmpty());
+        assertTrue(ScheduleRuleExpander.windowsOn(List.of(WEEKDAYS_9_17), MONDAY.minusDays(7)).isEmpty());
+        assertTrue(ScheduleRuleExpander.windowsOn(List.of(WEEKDAYS_9_17), MONDAY.plusDays(14)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Doit fusionner les plages qui se chevauchent ou se touchent")
+    void windowsOn_mergesOverlappingAndTouchingWindows() {
+        RecurringRule evening = new RecurringRule(RecurringRule.daysMask(List.of(DayOfWeek.MONDAY)),
+                LocalTime.of(17, 0), LocalTime.of(20, 0), MONDAY, MONDAY);
+        RecurringRule early = new RecurringRule(RecurringRule.daysMask(List.of(DayOfWeek.MONDAY)),
+                LocalTime.of(6, 0), LocalTime.of(8, 0), MONDAY, null);
+
+        List<TimeWindow> windows = ScheduleRuleExpander.windowsOn(List.of(evening, WEEKDAYS_9_17, early), MONDAY);
+
+        assertEquals(List.of(new TimeWindow(LocalTime.of(6, 0), LocalTime.of(8, 0)),
+                new TimeWindow(LocalTime.of(9, 0), LocalTime.of(20, 0))), windows);
+    }
+
+    @Test
+    @DisplayName("Doit vérifier que la plage demandée est entièrement couverte")
+    void covers_requiresFullContainment() {
+        List<RecurringRule> rules = List.of(WEEKDAYS_9_17);
+
+        assertTrue(ScheduleRuleExpander.covers(rules, MONDAY, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+        assertFalse(ScheduleRuleExpander.covers(rules, MONDAY, LocalTime.of(8, 30), LocalTime.of(10, 0)));
+        assertFalse(ScheduleRuleExpander.covers(rules, MONDAY, LocalTime.of(16, 0), LocalTime.of(18, 0)));
+        assertFalse(ScheduleRuleExpander.covers(List.of(), MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0)));
+    }
+
+    @Test
+    @DisplayName("Une exception AVAILABLE ne doit pas rendre le prestataire indisponible les autres jours")
+    void isAvailable_treatsSingleDayExceptionsAsAdditions() {
+        RecurringRule extraSunday = new RecurringRule(RecurringRule.daysMask(List.of(DayOfWeek.SUNDAY)),
+                LocalTime.of(10, 0), LocalTime.of(12, 0), MONDAY.plusDays(6), MONDAY.plusDays(6));
+
+        assertTrue(ScheduleRuleExpander.isAvailable(null, MONDAY, LocalTime.of(20, 0), LocalTime.of(21, 0)));
+        assertTrue(ScheduleRuleExpander.isAvailable(List.of(extraSunday), MONDAY,
+                LocalTime.of(20, 0), LocalTime.of(21, 0)));
+        // Avec une règle récurrente, l'exception ajoute sa plage au jour concerné
+        List<RecurringRule> rules = List.of(WEEKDAYS_9_17, extraSunday);
+        assertFalse(ScheduleRuleExpander.isAvailable(rules, MONDAY, LocalTime.of(20, 0), LocalTime.of(21, 0)));
+        assertTrue(ScheduleRuleExpander.isAvailable(rules, MONDAY.plusDays(6),
+                LocalTime.of(10, 0), LocalTime.of(11, 0)));
+    }
+
+    @Test
+    @DisplayName("Doit développer les règles uniquement sur la période demandée")
+    void expand_onlyExpandsRequestedRange() {
+        Map<LocalDate, List<TimeWindow>> expanded = ScheduleRuleExpander.expand(List.of(WEEKDAYS_9_17),
+                MONDAY.plusDays(3), MONDAY.plusDays(7));
+
+        assertEquals(List.of(MONDAY.plusDays(3), MONDAY.plusDays(4), MONDAY.plusDays(7)),
+                List.copyOf(expanded.keySet()));
+    }
+}
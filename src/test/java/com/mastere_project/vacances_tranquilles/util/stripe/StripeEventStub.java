@@ -0,0 +1,105 @@
+package com.mastere_project.vacances_tranquilles.util.stripe;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.net.Webhook;
+
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bouchon local des webhooks Stripe : construit des événements Checkout et les signe comme
+ * Stripe (en-tête Stripe-Signature), pour tester toute la chaîne sans accès au réseau.
+ */
+public final class StripeEventStub {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private StripeEventStub() {
+    }
+
+    /**
+     * Corps et en-tête de signature d'un webhook.
+     *
+     * @param payload   le corps JSON
+     * @param signature la valeur de l'en-tête Stripe-Signature
+     */
+    public record SignedEvent(String payload, String signature) {
+    }
+
+    /**
+     * Construit le corps d'un événement portant une session Checkout de 100 €.
+     *
+     * @param eventId       l'identifiant de l'événement
+     * @param type          le type de l'événement
+     * @param sessionId     l'identifiant de la session
+     * @param paymentStatus le statut de paiement de la session
+     * @param metadata      les métadonnées de la session
+     * @return le corps JSON
+     */
+    public static String checkoutEvent(String eventId, String type, String sessionId, String paymentStatus,
+            Map<String, String> metadata) {
+        Map<String, Object> session = new LinkedHashMap<>();
+        session.put("id", sessionId);
+        session.put("object", "checkout.session");
+        session.put("payment_status", paymentStatus);
+        session.put("amount_total", 10000);
+        session.put("currency", "eur");
+        session.put("metadata", metadata);
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", eventId);
+        event.put("object", "event");
+        event.put("type", type);
+        event.put("data", Map.of("object", session));
+        try {
+            return OBJECT_MAPPER.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Construit et signe un événement checkout.session.completed payé.
+     *
+     * @param eventId   l'identifiant de l'événement
+     * @param sessionId l'identifiant de la session
+     * @param metadata  les métadonnées de la session
+     * @param secret    le secret de signature du webhook
+     * @return l'événement signé maintenant
+     */
+    public static SignedEvent paidCheckout(String eventId, String sessionId, Map<String, String> metadata,
+            String secret) {
+        String payload = checkoutEvent(eventId, StripeWebhookEvent.CHECKOUT_SESSION_COMPLETED, sessionId, "paid",
+                metadata);
+        return new SignedEvent(payload, sign(payload, secret, Instant.now()));
+    }
+
+    /**
+     * Calcule l'en-tête Stripe-Signature d'un corps, selon le schéma v1 de Stripe.
+     *
+     * @param payload   le corps signé
+     * @param secret    le secret de signature du webhook
+     * @param timestamp l'horodatage signé
+     * @return la valeur de l'en-tête
+     */
+    public static String sign(String payload, String secret, Instant timestamp) {
+        long seconds = timestamp.getEpochSecond();
+        try {
+            return "t=" + seconds + ",v1=" + Webhook.Util.computeHmacSha256(secret, seconds + "." + payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Métadonnées d'une session telles que posées par la création de la session Checkout.
+     *
+     * @return les métadonnées d'un créneau de 10 h à 12 h
+     */
+    public static Map<String, String> reservationMetadata() {
+        return Map.of("serviceId", "1", "customerId", "2", "providerId", "3", "date", "2030-08-08",
+                "startTime", "10:00", "endTime", "12:00");
+    }
+}
@@ -0,0 +1,56 @@
+package com.mastere_project.vacances_tranquilles.util.stripe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StripeWebhookEventTest {
+
+    @Test
+    void parse_readsCheckoutSessionFields() {
+        String payload = StripeEventStub.checkoutEvent("evt_1", StripeWebhookEvent.CHECKOUT_SESSION_COMPLETED,
+                "cs_1", "paid", StripeEventStub.reservationMetadata());
+
+        StripeWebhookEvent event = StripeWebhookEvent.parse(payload);
+
+        assertThat(event.id()).isEqualTo("evt_1");
+        assertThat(event.type()).isEqualTo("checkout.session.completed");
+        assertThat(event.sessionId()).isEqualTo("cs_1");
+        assertThat(event.amountTotal()).isEqualTo(10000L);
+        assertThat(event.currency()).isEqualTo("eur");
+        assertThat(event.metadata()).containsEntry("customerId", "2").hasSize(6);
+        assertThat(event.isPaidCheckout()).isTrue();
+    }
+
+    @Test
+    void isPaidCheckout_waitsForAsyncPayment_whenSessionIsUnpaid() {
+        StripeWebhookEvent completed = StripeWebhookEvent.parse(StripeEventStub.checkoutEvent("evt_1",
+                StripeWebhookEvent.CHECKOUT_SESSION_COMPLETED, "cs_1", "unpaid", Map.of()));
+        StripeWebhookEvent succeeded = StripeWebhookEvent.parse(StripeEventStub.checkoutEvent("evt_2",
+                StripeWebhookEvent.CHECKOUT_SESSION_ASYNC_PAYMENT_SUCCEEDED, "cs_1", "paid", Map.of()));
+
+        assertThat(completed.isPaidCheckout()).isFalse();
+        assertThat(succeeded.isPaidCheckout()).isTrue();
+    }
+
+    @Test
+    void parse_ignoresOtherObjects() {
+        StripeWebhookEvent event = StripeWebhookEvent.parse(
+                "{\"id\":\"evt_1\",\"type\":\"charge.refunded\",\"data\":{\"object\":{\"id\":\"ch_1\",\"object\":\"charge\"}}}");
+
+        assertThat(event.sessionId()).isNull();
+        assertThat(event.amountTotal()).isNull();
+        assertThat(event.metadata()).isEmpty();
+        assertThat(event.isPaidCheckout()).isFalse();
+    }
+
+    @Test
+    void parse_rejectsMalformedPayload() {
+        assertThatThrownBy(() -> StripeWebhookEvent.parse("not json"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StripeWebhookEvent.parse("{\"type\":\"checkout.session.completed\"}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
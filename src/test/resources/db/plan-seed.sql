@@ -0,0 +1,67 @@
+-- Jeu de données de QueryPlanPostgresTest : volumes suffisants pour que le planificateur
+-- préfère un index à un parcours séquentiel lorsqu'un index adapté existe.
+-- Utilisateurs impairs : clients ; pairs : prestataires (10 000 de chaque).
+INSERT INTO users (id, first_name, last_name, email, password, user_role, phone_number, address, city, postal_code)
+SELECT i, 'Prenom' || i, 'Nom' || i, 'user' || i || '@example.com', 'x',
+       CASE WHEN i % 2 = 0 THEN 'PROVIDER' ELSE 'CLIENT' END,
+       '0600000000', i || ' rue de la Paix', 'Ville', lpad((i % 1000)::text, 5, '0')
+FROM generate_series(1, 20000) AS i;
+
+-- Deux services par prestataire : le service s appartient au prestataire 2 * ((s - 1) % 10000) + 2
+INSERT INTO service (id, title, description, category, price, provider_id)
+SELECT s, 'Service ' || s, 'Description', 'CAT' || (s % 10), 25, 2 * ((s - 1) % 10000) + 2
+FROM generate_series(1, 20000) AS s;
+
+-- 20 réservations par client et par prestataire sur deux ans ; les 20 000 premières ont une conversation
+INSERT INTO conversations (id, user1_id, user2_id, created_at)
+SELECT c, 2 * ((c - 1) % 10000) + 1, 2 * (((c - 1) / 20) % 10000) + 2, now() - (c || ' minutes')::interval
+FROM generate_series(1, 20000) AS c;
+
+INSERT INTO reservations (id, client_id, provider_id, service_id, reservation_date, start_date, end_date,
+                          total_price, status, conversation_id)
+SELECT r, 2 * ((r - 1) % 10000) + 1, 2 * (((r - 1) / 20) % 10000) + 2, ((r - 1) / 20) % 10000 + 1,
+       current_date - 365 + (r % 730), make_time(8 + r % 10, 0, 0), make_time(9 + r % 10, 0, 0), 50,
+       CASE r % 20 WHEN 0 THEN 'PENDING' WHEN 1 THEN 'IN_PROGRESS' WHEN 2 THEN 'CANCELLED' ELSE 'CLOSED' END,
+       CASE WHEN r <= 20000 THEN r END
+FROM generate_series(1, 200000) AS r;
+
+INSERT INTO messages (id, conversation_id, sender_id, content, sent_at, read)
+SELECT m, 1 + m % 20000,
+       CASE WHEN m % 2 = 0 THEN 2 * (m % 20000 % 10000) + 1 ELSE 2 * ((m % 20000 / 20) % 10000) + 2 END,
+       'Message ' || m, now() - ((400000 - m) || ' seconds')::interval, m % 3 = 0
+FROM generate_series(1, 400000) AS m;
+
+INSERT INTO conversation_read_states (conversation_id, user_id, last_read_message_id)
+SELECT c, 2 * ((c - 1) % 10000) + 1, c
+FROM generate_series(1, 20000) AS c;
+
+INSERT INTO schedules (id, provider_id, date, start_time, end_time)
+SELECT s, 2 * (s % 10000) + 2, current_date - 365 + (s % 730), make_time(8 + s % 10, 0, 0),
+       make_time(9 + s % 10, 0, 0)
+FROM generate_series(1, 200000) AS s;
+
+INSERT INTO schedule_days (id, provider_id, date, slots_low, slots_high)
+SELECT d, 2 * (d % 10000) + 2, current_date + d / 10000, 255, 0
+FROM generate_series(1, 100000) AS d;
+
+INSERT INTO schedule_rules (id, provider_id, days_of_week, start_time, end_time, valid_from)
+SELECT s, 2 * (s % 10000) + 2, 127, '08:00', '18:00', current_date - 365
+FROM generate_series(1, 5000) AS s;
+
+-- Un avis client par réservation terminée, pour les 100 000 premières réservations
+INSERT INTO reviews (id, note, commentaire, reservation_id, reviewer_id, reviewed_id, created_at)
+SELECT r, 1 + r % 5, 'Commentaire', r, 2 * ((r - 1) % 10000) + 1, 2 * (((r - 1) / 20) % 10000) + 2,
+       now() - (r || ' minutes')::interval
+FROM generate_series(1, 100000) AS r;
+
+SELECT setval(pg_get_serial_sequence('users', 'id'), 20000);
+SELECT setval(pg_get_serial_sequence('service', 'id'), 20000);
+SELECT setval(pg_get_serial_sequence('conversations', 'id'), 20000);
+SELECT setval(pg_get_serial_sequence('reservations', 'id'), 200000);
+SELECT setval(pg_get_serial_sequence('messages', 'id'), 400000);
+SELECT setval(pg_get_serial_sequence('schedules', 'id'), 200000);
+SELECT setval(pg_get_serial_sequence('schedule_days', 'id'), 100000);
+SELECT setval(pg_get_serial_sequence('schedule_rules', 'id'), 5000);
+SELECT setval(pg_get_serial_sequence('reviews', 'id'), 100000);
+
+ANALYZE;